@@ -216,6 +216,35 @@ public class PitestTask extends Task { // NO_UCD (test only)
     this.setOption(ConfigOption.HISTORY_OUTPUT_LOCATION, value);
   }
 
+  public void setCoverageCacheLocation(final String value) {
+    this.setOption(ConfigOption.COVERAGE_CACHE_LOCATION, value);
+  }
+
+  public void setBlockCoverage(final String value) {
+    this.setOption(ConfigOption.BLOCK_COVERAGE, value);
+  }
+
+  public void setStripedCoverage(final String value) {
+    this.setOption(ConfigOption.STRIPED_COVERAGE, value);
+  }
+
+  public void setTargetDrivenCoverage(final String value) {
+    this.setOption(ConfigOption.TARGET_DRIVEN_COVERAGE, value);
+  }
+
+  /**
+   * Whether to skip mutants that leave the bytecode unchanged or duplicate
+   * another mutant. Mutants that leave the bytecode unchanged are not
+   * reported, so do not count towards the mutation score
+   */
+  public void setDetectRedundantMutants(final String value) {
+    this.setOption(ConfigOption.DETECT_REDUNDANT_MUTANTS, value);
+  }
+
+  public void setLineCoverageExportFormat(final String value) {
+    this.setOption(ConfigOption.LINE_COVERAGE_EXPORT_FORMAT, value);
+  }
+
   public void setMutationThreshold(final String value) {
     this.setOption(ConfigOption.MUTATION_THRESHOLD, value);
   }
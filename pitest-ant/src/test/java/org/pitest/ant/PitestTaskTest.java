@@ -404,6 +404,48 @@ public class PitestTaskTest {
     this.pitestTask.execute(this.java);
     verify(this.arg).setValue("--historyOutputLocation=foo");
   }
+
+  @Test
+  public void shouldPassCoverageCacheLocationToJavaTask() {
+    this.pitestTask.setCoverageCacheLocation("foo");
+    this.pitestTask.execute(this.java);
+    verify(this.arg).setValue("--coverageCacheLocation=foo");
+  }
+
+  @Test
+  public void shouldPassBlockCoverageOptionToJavaTask() {
+    this.pitestTask.setBlockCoverage("true");
+    this.pitestTask.execute(this.java);
+    verify(this.arg).setValue("--blockCoverage=true");
+  }
+
+  @Test
+  public void shouldPassStripedCoverageOptionToJavaTask() {
+    this.pitestTask.setStripedCoverage("true");
+    this.pitestTask.execute(this.java);
+    verify(this.arg).setValue("--stripedCoverage=true");
+  }
+
+  @Test
+  public void shouldPassTargetDrivenCoverageOptionToJavaTask() {
+    this.pitestTask.setTargetDrivenCoverage("true");
+    this.pitestTask.execute(this.java);
+    verify(this.arg).setValue("--targetDrivenCoverage=true");
+  }
+
+  @Test
+  public void shouldPassDetectRedundantMutantsOptionToJavaTask() {
+    this.pitestTask.setDetectRedundantMutants("true");
+    this.pitestTask.execute(this.java);
+    verify(this.arg).setValue("--detectRedundantMutants=true");
+  }
+
+  @Test
+  public void shouldPassLineCoverageExportFormatToJavaTask() {
+    this.pitestTask.setLineCoverageExportFormat("gzip");
+    this.pitestTask.execute(this.java);
+    verify(this.arg).setValue("--lineCoverageExportFormat=gzip");
+  }
   
   @Test
   public void shouldIgnoreEmptyListOfExcludedClasses() {
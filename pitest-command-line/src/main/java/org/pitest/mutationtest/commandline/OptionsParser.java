@@ -15,11 +15,14 @@
 package org.pitest.mutationtest.commandline;
 
 import static org.pitest.mutationtest.config.ConfigOption.AVOID_CALLS;
+import static org.pitest.mutationtest.config.ConfigOption.BLOCK_COVERAGE;
 import static org.pitest.mutationtest.config.ConfigOption.CHILD_JVM;
 import static org.pitest.mutationtest.config.ConfigOption.CLASSPATH;
 import static org.pitest.mutationtest.config.ConfigOption.CODE_PATHS;
+import static org.pitest.mutationtest.config.ConfigOption.COVERAGE_CACHE_LOCATION;
 import static org.pitest.mutationtest.config.ConfigOption.COVERAGE_THRESHOLD;
 import static org.pitest.mutationtest.config.ConfigOption.DEPENDENCY_DISTANCE;
+import static org.pitest.mutationtest.config.ConfigOption.DETECT_REDUNDANT_MUTANTS;
 import static org.pitest.mutationtest.config.ConfigOption.EXCLUDED_CLASSES;
 import static org.pitest.mutationtest.config.ConfigOption.EXCLUDED_GROUPS;
 import static org.pitest.mutationtest.config.ConfigOption.EXCLUDED_METHOD;
@@ -33,6 +36,7 @@ import static org.pitest.mutationtest.config.ConfigOption.JVM_PATH;
 import static org.pitest.mutationtest.config.ConfigOption.MAX_MUTATIONS_PER_CLASS;
 import static org.pitest.mutationtest.config.ConfigOption.MUTATE_STATIC_INITIALIZERS;
 import static org.pitest.mutationtest.config.ConfigOption.MUTATIONS;
+import static org.pitest.mutationtest.config.ConfigOption.LINE_COVERAGE_EXPORT_FORMAT;
 import static org.pitest.mutationtest.config.ConfigOption.MUTATION_ENGINE;
 import static org.pitest.mutationtest.config.ConfigOption.MUTATION_THRESHOLD;
 import static org.pitest.mutationtest.config.ConfigOption.MUTATION_UNIT_SIZE;
@@ -40,7 +44,9 @@ import static org.pitest.mutationtest.config.ConfigOption.OUTPUT_FORMATS;
 import static org.pitest.mutationtest.config.ConfigOption.PROJECT_FILE;
 import static org.pitest.mutationtest.config.ConfigOption.REPORT_DIR;
 import static org.pitest.mutationtest.config.ConfigOption.SOURCE_DIR;
+import static org.pitest.mutationtest.config.ConfigOption.STRIPED_COVERAGE;
 import static org.pitest.mutationtest.config.ConfigOption.TARGET_CLASSES;
+import static org.pitest.mutationtest.config.ConfigOption.TARGET_DRIVEN_COVERAGE;
 import static org.pitest.mutationtest.config.ConfigOption.TEST_FILTER;
 import static org.pitest.mutationtest.config.ConfigOption.THREADS;
 import static org.pitest.mutationtest.config.ConfigOption.TIMEOUT_CONST;
@@ -90,6 +96,7 @@ public class OptionsParser {
   private final OptionSpec<File>                     sourceDirSpec;
   private final OptionSpec<File>                     historyOutputSpec;
   private final OptionSpec<File>                     historyInputSpec;
+  private final OptionSpec<File>                     coverageCacheSpec;
   private final OptionSpec<String>                   mutators;
   private final OptionSpec<String>                   jvmArgs;
   private final ArgumentAcceptingOptionSpec<Boolean> mutateStatics;
@@ -113,6 +120,11 @@ public class OptionsParser {
   private final ArgumentAcceptingOptionSpec<Integer> coverageThreshHoldSpec;
   private final OptionSpec<String>                   mutationEngine;
   private final ArgumentAcceptingOptionSpec<Boolean> exportLineCoverageSpec;
+  private final OptionSpec<String>                   lineCoverageExportFormatSpec;
+  private final ArgumentAcceptingOptionSpec<Boolean> blockCoverageSpec;
+  private final ArgumentAcceptingOptionSpec<Boolean> stripedCoverageSpec;
+  private final ArgumentAcceptingOptionSpec<Boolean> targetDrivenCoverageSpec;
+  private final ArgumentAcceptingOptionSpec<Boolean> detectRedundantMutantsSpec;
   private final OptionSpec<String>                   javaExecutable;
 
   private final ArgumentAcceptingOptionSpec<Boolean> includeLaunchClasspathSpec;
@@ -232,6 +244,34 @@ public class OptionsParser {
         .describedAs(
             "whether or not to dump per test line coverage data to disk");
 
+    this.blockCoverageSpec = parserAccepts(BLOCK_COVERAGE)
+        .withOptionalArg()
+        .ofType(Boolean.class)
+        .defaultsTo(true)
+        .describedAs(
+            "whether or not to select tests for each mutation by the blocks they execute");
+
+    this.stripedCoverageSpec = parserAccepts(STRIPED_COVERAGE)
+        .withOptionalArg()
+        .ofType(Boolean.class)
+        .defaultsTo(true)
+        .describedAs(
+            "whether or not to record the probes hit by each thread separately when gathering coverage");
+
+    this.targetDrivenCoverageSpec = parserAccepts(TARGET_DRIVEN_COVERAGE)
+        .withOptionalArg()
+        .ofType(Boolean.class)
+        .defaultsTo(true)
+        .describedAs(
+            "whether or not to only gather coverage for tests that depend on the target classes");
+
+    this.detectRedundantMutantsSpec = parserAccepts(DETECT_REDUNDANT_MUTANTS)
+        .withOptionalArg()
+        .ofType(Boolean.class)
+        .defaultsTo(true)
+        .describedAs(
+            "whether or not to skip mutants that leave the bytecode unchanged or duplicate another mutant. Unchanged mutants are not reported and do not count towards the mutation score");
+
     this.includeLaunchClasspathSpec = parserAccepts(INCLUDE_LAUNCH_CLASSPATH)
         .withOptionalArg().ofType(Boolean.class).defaultsTo(true)
         .describedAs("whether or not to analyse launch classpath");
@@ -282,6 +322,10 @@ public class OptionsParser {
         .withRequiredArg().ofType(File.class)
         .describedAs("File to write history to for incremental analysis");
 
+    this.coverageCacheSpec = parserAccepts(COVERAGE_CACHE_LOCATION)
+        .withRequiredArg().ofType(File.class)
+        .describedAs("File in which to cache coverage between runs");
+
     this.mutationThreshHoldSpec = parserAccepts(MUTATION_THRESHOLD)
         .withRequiredArg().ofType(Integer.class)
         .describedAs("Mutation score below which to throw an error")
@@ -292,6 +336,11 @@ public class OptionsParser {
         .describedAs("Line coverage below which to throw an error")
         .defaultsTo(COVERAGE_THRESHOLD.getDefault(Integer.class));
 
+    this.lineCoverageExportFormatSpec = parserAccepts(
+        LINE_COVERAGE_EXPORT_FORMAT).withRequiredArg().ofType(String.class)
+        .describedAs("format of exported line coverage. xml, binary or gzip")
+        .defaultsTo(LINE_COVERAGE_EXPORT_FORMAT.getDefault(String.class));
+
     this.mutationEngine = parserAccepts(MUTATION_ENGINE).withRequiredArg()
         .ofType(String.class).describedAs("mutation engine to use")
         .defaultsTo(MUTATION_ENGINE.getDefault(String.class));
@@ -374,12 +423,27 @@ public class OptionsParser {
 
     data.setHistoryInputLocation(this.historyInputSpec.value(userArgs));
     data.setHistoryOutputLocation(this.historyOutputSpec.value(userArgs));
+    data.setCoverageCacheLocation(this.coverageCacheSpec.value(userArgs));
     data.setMutationThreshold(this.mutationThreshHoldSpec.value(userArgs));
     data.setCoverageThreshold(this.coverageThreshHoldSpec.value(userArgs));
     data.setMutationEngine(this.mutationEngine.value(userArgs));
 
     data.setExportLineCoverage(userArgs.has(this.exportLineCoverageSpec)
         && userArgs.valueOf(this.exportLineCoverageSpec));
+    data.setLineCoverageExportFormat(this.lineCoverageExportFormatSpec
+        .value(userArgs));
+
+    data.setBlockCoverage(userArgs.has(this.blockCoverageSpec)
+        && userArgs.valueOf(this.blockCoverageSpec));
+
+    data.setStripedCoverage(userArgs.has(this.stripedCoverageSpec)
+        && userArgs.valueOf(this.stripedCoverageSpec));
+
+    data.setTargetDrivenCoverage(userArgs.has(this.targetDrivenCoverageSpec)
+        && userArgs.valueOf(this.targetDrivenCoverageSpec));
+
+    data.setDetectRedundantMutants(userArgs.has(this.detectRedundantMutantsSpec)
+        && userArgs.valueOf(this.detectRedundantMutantsSpec));
 
     setClassPath(userArgs, data);
 
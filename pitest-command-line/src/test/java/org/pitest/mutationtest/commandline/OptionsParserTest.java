@@ -348,6 +348,13 @@ public class OptionsParserTest {
     assertEquals(new File("foo"), actual.getHistoryOutputLocation());
   }
 
+  @Test
+  public void shouldParseCoverageCacheLocation() {
+    final ReportOptions actual = parseAddingRequiredArgs(
+        "--coverageCacheLocation", "foo");
+    assertEquals(new File("foo"), actual.getCoverageCacheLocation());
+  }
+
   @Test
   public void shouldParseMutationThreshold() {
     final ReportOptions actual = parseAddingRequiredArgs("--mutationThreshold",
@@ -375,6 +382,19 @@ public class OptionsParserTest {
         "foo");
     assertEquals("foo", actual.getMutationEngine());
   }
+
+  @Test
+  public void shouldDefaultToXMLLineCoverageExportFormat() {
+    final ReportOptions actual = parseAddingRequiredArgs();
+    assertEquals("xml", actual.getLineCoverageExportFormat());
+  }
+
+  @Test
+  public void shouldParseLineCoverageExportFormat() {
+    final ReportOptions actual = parseAddingRequiredArgs(
+        "--lineCoverageExportFormat", "binary");
+    assertEquals("binary", actual.getLineCoverageExportFormat());
+  }
   
   
   @Test
@@ -401,6 +421,54 @@ public class OptionsParserTest {
     final ReportOptions actual = parseAddingRequiredArgs("");
     assertFalse(actual.shouldExportLineCoverage());
   }
+
+  @Test
+  public void shouldParseBlockCoverageFlag() {
+    final ReportOptions actual = parseAddingRequiredArgs("--blockCoverage");
+    assertTrue(actual.isBlockCoverage());
+  }
+
+  @Test
+  public void shouldParseStripedCoverageFlag() {
+    final ReportOptions actual = parseAddingRequiredArgs("--stripedCoverage");
+    assertTrue(actual.isStripedCoverage());
+  }
+
+  @Test
+  public void shouldNotUseStripedCoverageWhenFlagNotSet() {
+    final ReportOptions actual = parseAddingRequiredArgs();
+    assertFalse(actual.isStripedCoverage());
+  }
+
+  @Test
+  public void shouldParseTargetDrivenCoverageFlag() {
+    final ReportOptions actual = parseAddingRequiredArgs("--targetDrivenCoverage");
+    assertTrue(actual.isTargetDrivenCoverage());
+  }
+
+  @Test
+  public void shouldNotUseTargetDrivenCoverageWhenFlagNotSet() {
+    final ReportOptions actual = parseAddingRequiredArgs();
+    assertFalse(actual.isTargetDrivenCoverage());
+  }
+
+  @Test
+  public void shouldParseDetectRedundantMutantsFlag() {
+    final ReportOptions actual = parseAddingRequiredArgs("--detectRedundantMutants");
+    assertTrue(actual.isDetectRedundantMutants());
+  }
+
+  @Test
+  public void shouldNotDetectRedundantMutantsWhenFlagNotSet() {
+    final ReportOptions actual = parseAddingRequiredArgs();
+    assertFalse(actual.isDetectRedundantMutants());
+  }
+
+  @Test
+  public void shouldNotUseBlockCoverageWhenFlagNotSet() {
+    final ReportOptions actual = parseAddingRequiredArgs("");
+    assertFalse(actual.isBlockCoverage());
+  }
   
   @Test
   public void shouldIncludeLaunchClasspathByDefault() {
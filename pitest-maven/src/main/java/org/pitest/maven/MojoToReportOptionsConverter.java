@@ -116,7 +116,13 @@ public class MojoToReportOptionsConverter {
 
     data.setHistoryInputLocation(this.mojo.getHistoryInputFile());
     data.setHistoryOutputLocation(this.mojo.getHistoryOutputFile());
+    data.setCoverageCacheLocation(this.mojo.getCoverageCacheFile());
     data.setExportLineCoverage(this.mojo.isExportLineCoverage());
+    data.setLineCoverageExportFormat(this.mojo.getLineCoverageExportFormat());
+    data.setBlockCoverage(this.mojo.isBlockCoverage());
+    data.setStripedCoverage(this.mojo.isStripedCoverage());
+    data.setTargetDrivenCoverage(this.mojo.isTargetDrivenCoverage());
+    data.setDetectRedundantMutants(this.mojo.isDetectRedundantMutants());
     data.setMutationEngine(this.mojo.getMutationEngine());
     data.setJavaExecutable(this.mojo.getJavaExecutable());
 
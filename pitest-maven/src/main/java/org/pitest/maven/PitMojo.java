@@ -99,6 +99,14 @@ public class PitMojo extends AbstractMojo {
    */
   private File                  historyInputFile;
 
+  /**
+   * File in which to cache coverage between runs, so that coverage is only
+   * recalculated for tests that may have changed
+   * 
+   * @parameter expression="${coverageCacheFile}"
+   */
+  private File                  coverageCacheFile;
+
   /**
    * Maximum distance to look from test to class. Relevant when mutating static
    * initializers
@@ -219,6 +227,48 @@ public class PitMojo extends AbstractMojo {
    */
   private boolean               exportLineCoverage;
 
+  /**
+   * Format in which to export line coverage. One of xml, binary or gzip
+   * 
+   * @parameter default-value="xml" expression="${lineCoverageExportFormat}"
+   */
+  private String                lineCoverageExportFormat;
+
+  /**
+   * Select tests for each mutation by the blocks they execute rather than the
+   * lines
+   * 
+   * @parameter default-value="false" expression="${blockCoverage}"
+   */
+  private boolean               blockCoverage;
+
+  /**
+   * Record the probes hit by each thread separately when gathering coverage.
+   * Reduces contention when tests exercise concurrent code
+   * 
+   * @parameter default-value="false" expression="${stripedCoverage}"
+   */
+  private boolean               stripedCoverage;
+
+  /**
+   * Only gather coverage for the test classes that can reach the target
+   * classes through their dependencies. Useful when only a few classes are
+   * targeted, such as by the scm goal
+   * 
+   * @parameter default-value="false" expression="${targetDrivenCoverage}"
+   */
+  private boolean               targetDrivenCoverage;
+
+  /**
+   * Generate each mutant before running tests against it, so that mutants
+   * that leave the bytecode unchanged are not run and duplicate mutants share
+   * a single result. Mutants that leave the bytecode unchanged are not
+   * reported, so do not count towards the mutation score
+   * 
+   * @parameter default-value="false" expression="${detectRedundantMutants}"
+   */
+  private boolean               detectRedundantMutants;
+
   /**
    * Mutation score threshold at which to fail build
    * 
@@ -455,10 +505,34 @@ public class PitMojo extends AbstractMojo {
     return this.historyInputFile;
   }
 
+  public File getCoverageCacheFile() {
+    return this.coverageCacheFile;
+  }
+
   public boolean isExportLineCoverage() {
     return this.exportLineCoverage;
   }
 
+  public String getLineCoverageExportFormat() {
+    return this.lineCoverageExportFormat;
+  }
+
+  public boolean isBlockCoverage() {
+    return this.blockCoverage;
+  }
+
+  public boolean isStripedCoverage() {
+    return this.stripedCoverage;
+  }
+
+  public boolean isTargetDrivenCoverage() {
+    return this.targetDrivenCoverage;
+  }
+
+  public boolean isDetectRedundantMutants() {
+    return this.detectRedundantMutants;
+  }
+
   protected boolean shouldRun() {
     return !this.project.getPackaging().equalsIgnoreCase("pom");
   }
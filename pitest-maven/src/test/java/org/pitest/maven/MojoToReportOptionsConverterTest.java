@@ -259,6 +259,11 @@ public class MojoToReportOptionsConverterTest extends BasePitMojoTest {
     assertEquals(new File("foo"), actual.getHistoryOutputLocation());
   }
 
+  public void testParsesCoverageCacheFile() {
+    final ReportOptions actual = parseConfig("<coverageCacheFile>foo</coverageCacheFile>");
+    assertEquals(new File("foo"), actual.getCoverageCacheLocation());
+  }
+
   public void testParsesLineCoverageExportFlagWhenSet() {
     final ReportOptions actual = parseConfig("<exportLineCoverage>true</exportLineCoverage>");
     assertTrue(actual.shouldExportLineCoverage());
@@ -269,10 +274,35 @@ public class MojoToReportOptionsConverterTest extends BasePitMojoTest {
     assertFalse(actual.shouldExportLineCoverage());
   }
 
+  public void testParsesBlockCoverageFlagWhenSet() {
+    final ReportOptions actual = parseConfig("<blockCoverage>true</blockCoverage>");
+    assertTrue(actual.isBlockCoverage());
+  }
+
+  public void testParsesStripedCoverageFlagWhenSet() {
+    final ReportOptions actual = parseConfig("<stripedCoverage>true</stripedCoverage>");
+    assertTrue(actual.isStripedCoverage());
+  }
+
+  public void testParsesTargetDrivenCoverageFlagWhenSet() {
+    final ReportOptions actual = parseConfig("<targetDrivenCoverage>true</targetDrivenCoverage>");
+    assertTrue(actual.isTargetDrivenCoverage());
+  }
+
+  public void testParsesDetectRedundantMutantsFlagWhenSet() {
+    final ReportOptions actual = parseConfig("<detectRedundantMutants>true</detectRedundantMutants>");
+    assertTrue(actual.isDetectRedundantMutants());
+  }
+
   public void testParsesEngineWhenSet() {
     final ReportOptions actual = parseConfig("<mutationEngine>foo</mutationEngine>");
     assertEquals("foo", actual.getMutationEngine());
   }
+
+  public void testParsesLineCoverageExportFormatWhenSet() {
+    final ReportOptions actual = parseConfig("<lineCoverageExportFormat>gzip</lineCoverageExportFormat>");
+    assertEquals("gzip", actual.getLineCoverageExportFormat());
+  }
   
   public void testDefaultsJavaExecutableToNull() {
     final ReportOptions actual = parseConfig("");
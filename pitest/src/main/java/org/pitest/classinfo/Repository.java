@@ -14,18 +14,20 @@
  */
 package org.pitest.classinfo;
 
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.pitest.functional.Option;
 
 public class Repository implements ClassInfoSource {
 
   private final HashFunction              hashFunction;
-  private final Map<ClassName, ClassInfo> knownClasses   = new HashMap<ClassName, ClassInfo>();
-  private final Set<ClassName>            unknownClasses = new HashSet<ClassName>();
+  private final Map<ClassName, ClassInfo> knownClasses   = new ConcurrentHashMap<ClassName, ClassInfo>();
+  private final Set<ClassName>            unknownClasses = Collections
+                                                             .synchronizedSet(new HashSet<ClassName>());
   private final ClassByteArraySource      source;
 
   public Repository(final ClassByteArraySource source) {
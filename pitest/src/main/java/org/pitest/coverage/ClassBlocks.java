@@ -0,0 +1,103 @@
+/*
+ * Copyright 2014 Henry Coles
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+package org.pitest.coverage;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.pitest.coverage.codeassist.Block;
+import org.pitest.coverage.codeassist.BlockAnalyser;
+import org.pitest.coverage.codeassist.BridgeMethodFilter;
+import org.pitest.functional.Option;
+
+/**
+ * Maps the instructions of a class to the probes placed at the start of their
+ * blocks when the class is instrumented for block coverage.
+ *
+ * Probes are numbered in the order the instrumentation assigns them, skipping
+ * methods that are not instrumented and blocks with no line number.
+ */
+final class ClassBlocks {
+
+  private final Map<String, MethodBlocks> methods;
+
+  private ClassBlocks(final Map<String, MethodBlocks> methods) {
+    this.methods = methods;
+  }
+
+  static ClassBlocks analyse(final byte[] bytes) {
+    final ClassNode node = new ClassNode();
+    new ClassReader(bytes).accept(node, ClassReader.EXPAND_FRAMES);
+
+    final Map<String, MethodBlocks> methods = new HashMap<String, MethodBlocks>();
+    int probe = 0;
+    for (final Object method : node.methods) {
+      final MethodNode each = (MethodNode) method;
+      final String[] exceptions = (String[]) each.exceptions
+          .toArray(new String[each.exceptions.size()]);
+      if (BridgeMethodFilter.INSTANCE.apply(each.access, each.name, each.desc,
+          each.signature, exceptions)) {
+        final List<Block> blocks = BlockAnalyser.findBlocks(each.instructions);
+        final int[] probes = new int[blocks.size()];
+        for (int i = 0; i != probes.length; i++) {
+          if (blocks.get(i).hasLine()) {
+            probes[i] = probe;
+            probe++;
+          } else {
+            probes[i] = -1;
+          }
+        }
+        methods.put(each.name + each.desc, new MethodBlocks(blocks, probes));
+      }
+    }
+    return new ClassBlocks(methods);
+  }
+
+  /**
+   * Returns the id of the probe for the block containing the instruction, if
+   * the block has a probe.
+   */
+  Option<Integer> findProbe(final InstructionLocation location) {
+    final MethodBlocks blocks = this.methods.get(location.getMethodName()
+        + location.getMethodDesc());
+    if (blocks == null) {
+      return Option.none();
+    }
+    // the index counts from one
+    final int position = location.getIndex() - 1;
+    for (int i = 0; i != blocks.probes.length; i++) {
+      if (blocks.blocks.get(i).contains(position)) {
+        return blocks.probes[i] == -1 ? Option.<Integer> none() : Option
+            .some(blocks.probes[i]);
+      }
+    }
+    return Option.none();
+  }
+
+  private static class MethodBlocks {
+    private final List<Block> blocks;
+    private final int[]       probes;
+
+    MethodBlocks(final List<Block> blocks, final int[] probes) {
+      this.blocks = blocks;
+      this.probes = probes;
+    }
+  }
+
+}
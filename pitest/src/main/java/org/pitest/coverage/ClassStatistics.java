@@ -15,17 +15,24 @@
 package org.pitest.coverage;
 
 import java.io.Serializable;
-import java.util.HashSet;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 import org.pitest.classinfo.ClassName;
 
+/**
+ * The lines, and optionally the blocks, of a class visited by a test. Both are
+ * held as bitsets so that recording a visit does not box the line or block.
+ */
 public class ClassStatistics implements Serializable {
 
-  private static final long  serialVersionUID = 1L;
+  private static final long serialVersionUID = 2L;
 
-  private final ClassName    className;
-  private final Set<Integer> visitedLines     = new HashSet<Integer>(0);
+  private final ClassName   className;
+  private final BitSet      visitedLines     = new BitSet(0);
+  private final BitSet      visitedBlocks    = new BitSet(0);
 
   public ClassStatistics(final String className) {
     this(ClassName.fromString(className));
@@ -39,21 +46,67 @@ public class ClassStatistics implements Serializable {
     return this.className;
   }
 
-  public boolean wasVisited() {
+  public synchronized boolean wasVisited() {
     return !this.visitedLines.isEmpty();
   }
 
+  public synchronized int getNumberOfVisitedLines() {
+    return this.visitedLines.cardinality();
+  }
+
+  /**
+   * The lines visited, in ascending order.
+   */
+  public synchronized int[] getVisitedLines() {
+    return toArray(this.visitedLines);
+  }
+
   public Set<Integer> getUniqueVisitedLines() {
-    return this.visitedLines;
+    return toSet(getVisitedLines());
   }
 
   public synchronized void registerLineVisit(final int lineId) {
-    this.visitedLines.add(lineId);
+    this.visitedLines.set(lineId);
+  }
+
+  /**
+   * The probe ids of the blocks visited, in ascending order. Empty unless
+   * coverage was gathered for blocks.
+   */
+  public synchronized int[] getVisitedBlocks() {
+    return toArray(this.visitedBlocks);
+  }
+
+  public Set<Integer> getUniqueVisitedBlocks() {
+    return toSet(getVisitedBlocks());
+  }
+
+  public synchronized void registerBlockVisit(final int blockId) {
+    this.visitedBlocks.set(blockId);
+  }
+
+  private static int[] toArray(final BitSet bits) {
+    final int[] values = new int[bits.cardinality()];
+    int i = 0;
+    for (int each = bits.nextSetBit(0); each >= 0; each = bits
+        .nextSetBit(each + 1)) {
+      values[i] = each;
+      i++;
+    }
+    return values;
+  }
+
+  private static Set<Integer> toSet(final int[] values) {
+    final Set<Integer> set = new LinkedHashSet<Integer>(values.length);
+    for (final int each : values) {
+      set.add(each);
+    }
+    return Collections.unmodifiableSet(set);
   }
 
   @Override
-  public String toString() {
+  public synchronized String toString() {
     return "ClassStatistics [className=" + this.className + ", visitedLines="
-        + this.visitedLines + "]";
+        + this.visitedLines + ", visitedBlocks=" + this.visitedBlocks + "]";
   }
 }
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2014 Henry Coles
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+package org.pitest.coverage;
+
+import java.util.Collection;
+
+import org.pitest.classinfo.ClassInfo;
+import org.pitest.functional.Option;
+
+/**
+ * Remembers the coverage results of test classes between runs so that
+ * coverage need only be recalculated for tests that may have changed.
+ */
+public interface CoverageCache {
+
+  /**
+   * Returns the results recorded for the supplied test class by a previous run
+   * if neither the test nor any class it covered has since changed.
+   */
+  Option<Collection<CoverageResult>> getResults(ClassInfo testClass);
+
+  void recordResult(CoverageResult result);
+
+  void store();
+
+}
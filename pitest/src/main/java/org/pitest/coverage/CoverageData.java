@@ -16,16 +16,18 @@
 package org.pitest.coverage;
 
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
 import org.pitest.classinfo.ClassInfo;
@@ -40,26 +42,78 @@ import org.pitest.util.Log;
 
 public class CoverageData implements CoverageDatabase {
 
-  private final static Logger                                 LOG           = Log
-                                                                                .getLogger();
+  private final static Logger               LOG           = Log.getLogger();
 
-  private final Map<ClassName, Map<ClassLine, Set<TestInfo>>> classCoverage = new LinkedHashMap<ClassName, Map<ClassLine, Set<TestInfo>>>();
-  private final CodeSource                                    code;
+  // each test is stored once and referred to by its index in this list
+  private final List<TestInfo>              tests         = new ArrayList<TestInfo>();
+  private final Map<TestInfo, Integer>      testIds       = new HashMap<TestInfo, Integer>();
 
-  private boolean                                             hasFailedTest = false;
+  private final Map<ClassName, LineTestIndex> classCoverage = new LinkedHashMap<ClassName, LineTestIndex>();
+
+  // indexed by probe id rather than line, only populated for classes whose
+  // blocks were recorded
+  private final Map<ClassName, LineTestIndex> blockCoverage = new HashMap<ClassName, LineTestIndex>();
+  private final Map<ClassName, Option<ClassBlocks>> classBlocks = new ConcurrentHashMap<ClassName, Option<ClassBlocks>>();
+
+  // ids of the tests during which each class's static initializer ran
+  private final Map<ClassName, BitSet>      staticInitializerTests = new HashMap<ClassName, BitSet>();
+
+  private final CodeSource                  code;
+
+  private boolean                           hasFailedTest = false;
 
   public CoverageData(final CodeSource code) {
     this.code = code;
   }
 
   public Collection<TestInfo> getTestsForClassLine(final ClassLine classLine) {
-    final Collection<TestInfo> result = getTestsForClassName(
-        classLine.getClassName()).get(classLine);
-    if (result == null) {
+    final LineTestIndex index = this.classCoverage.get(classLine
+        .getClassName());
+    if (index == null) {
       return Collections.emptyList();
-    } else {
-      return result;
     }
+    final int[] ids = index.testsForLine(classLine.getLineNumber());
+    if (ids == null) {
+      return Collections.emptyList();
+    }
+    return toTestInfos(ids);
+  }
+
+  public Option<Collection<TestInfo>> getTestsForInstruction(
+      final InstructionLocation location) {
+    final LineTestIndex index = this.blockCoverage.get(location
+        .getClassName());
+    if (index == null) {
+      return Option.none();
+    }
+
+    final Option<ClassBlocks> blocks = getBlocks(location.getClassName());
+    if (blocks.hasNone()) {
+      return Option.none();
+    }
+
+    final Option<Integer> probe = blocks.value().findProbe(location);
+    if (probe.hasNone()) {
+      return Option.none();
+    }
+
+    final int[] ids = index.testsForLine(probe.value());
+    if (ids == null) {
+      return Option.<Collection<TestInfo>> some(Collections
+          .<TestInfo> emptyList());
+    }
+    return Option.<Collection<TestInfo>> some(toTestInfos(ids));
+  }
+
+  private Option<ClassBlocks> getBlocks(final ClassName clazz) {
+    Option<ClassBlocks> blocks = this.classBlocks.get(clazz);
+    if (blocks == null) {
+      final Option<byte[]> bytes = this.code.fetchClassBytes(clazz);
+      blocks = bytes.hasSome() ? Option.some(ClassBlocks.analyse(bytes
+          .value())) : Option.<ClassBlocks> none();
+      this.classBlocks.put(clazz, blocks);
+    }
+    return blocks;
   }
 
   public boolean allTestsGreen() {
@@ -75,29 +129,94 @@ public class CoverageData implements CoverageDatabase {
   }
 
   public Collection<TestInfo> getTestsForClass(final ClassName clazz) {
-    final Map<ClassLine, Set<TestInfo>> map = getTestsForClassName(clazz);
+    // Use any test that provided some coverage of the class
+    // This fails to consider tests that only accessed a static variable
+    // of the class in question as this does not register as coverage.
+    final LineTestIndex index = this.classCoverage.get(clazz);
+    if (index == null) {
+      return Collections.emptyList();
+    }
+    return toTestInfos(testsCovering(index));
+  }
 
-    final Set<TestInfo> tis = new LinkedHashSet<TestInfo>(map.values().size());
-    for (final Set<TestInfo> each : map.values()) {
-      tis.addAll(each);
+  public Collection<TestInfo> getTestsForStaticInitializer(
+      final ClassName clazz) {
+    final BitSet ids = this.staticInitializerTests.get(clazz);
+    if (ids == null) {
+      return Collections.emptyList();
     }
-    return tis;
+    return toTestInfos(toArray(ids));
+  }
+
+  /**
+   * Records that a single line was covered by the test. Used when coverage is
+   * reloaded rather than calculated.
+   */
+  public void recordLineCoverage(final ClassName clazz, final int line,
+      final TestInfo test) {
+    getCoverageMapForClass(clazz).add(line, internTest(test));
+  }
 
+  /**
+   * Passes every test, and then each covered line with the ids of the tests
+   * covering it, to the visitor without creating intermediate objects.
+   */
+  public void accept(final CoverageVisitor visitor) {
+    for (final TestInfo each : this.tests) {
+      visitor.visitTest(each);
+    }
+    for (final Entry<ClassName, LineTestIndex> each : this.classCoverage
+        .entrySet()) {
+      visitor.visitClass(each.getKey());
+      final LineTestIndex index = each.getValue();
+      for (int i = 0; i != index.numberOfLines(); i++) {
+        visitor.visitLine(index.lineAt(i), index.testsAt(i));
+      }
+    }
   }
 
   public void calculateClassCoverage(final CoverageResult cr) {
 
     checkForFailedTest(cr);
     final TestInfo ti = this.createTestInfo(cr.getTestUnitDescription(),
-        cr.getExecutionTime(), cr.getNumberOfCoveredLines());
+        cr.getResourceUsage(), cr.getNumberOfCoveredLines());
+    final int testId = internTest(ti);
 
     for (final ClassStatistics i : cr.getCoverage()) {
-      final Map<ClassLine, Set<TestInfo>> map = getCoverageMapForClass(i
-          .getClassName());
-      mapTestsToClassLines(ti, i, map);
+      final LineTestIndex index = getCoverageMapForClass(i.getClassName());
+      for (final int line : i.getVisitedLines()) {
+        index.add(line, testId);
+      }
+      final int[] visitedBlocks = i.getVisitedBlocks();
+      if (visitedBlocks.length != 0) {
+        final LineTestIndex blocks = getBlockMapForClass(i.getClassName());
+        for (final int block : visitedBlocks) {
+          blocks.add(block, testId);
+        }
+      }
+    }
+
+    for (final ClassName each : cr.getInitialisedClasses()) {
+      BitSet ids = this.staticInitializerTests.get(each);
+      if (ids == null) {
+        ids = new BitSet();
+        this.staticInitializerTests.put(each, ids);
+      }
+      ids.set(testId);
     }
   }
 
+  private int internTest(final TestInfo ti) {
+    final Integer existing = this.testIds.get(ti);
+    if (existing != null) {
+      return existing;
+    }
+    final int id = this.tests.size();
+    this.tests.add(ti);
+    this.testIds.put(ti, id);
+    return id;
+  }
+
   private void checkForFailedTest(final CoverageResult cr) {
     if (!cr.isGreenTest()) {
       recordTestFailure();
@@ -106,29 +225,41 @@ public class CoverageData implements CoverageDatabase {
     }
   }
 
-  private void mapTestsToClassLines(final TestInfo test,
-      final ClassStatistics stats, final Map<ClassLine, Set<TestInfo>> map) {
+  private TestInfo createTestInfo(final Description description,
+      final ResourceUsage usage, final int linesCovered) {
+    final Option<ClassName> testee = this.code.findTestee(description
+        .getFirstTestClass());
+    return new TestInfo(description.getFirstTestClass(),
+        description.getQualifiedName(), usage, testee, linesCovered);
+  }
 
-    for (final int line : stats.getUniqueVisitedLines()) {
-      final ClassLine key = new ClassLine(stats.getClassName(), line);
-      Set<TestInfo> testsForLine = map.get(key);
-      if (testsForLine == null) {
-        testsForLine = new TreeSet<TestInfo>(new TestInfoNameComparator()); // inject
-        // comparator
-        // here
-        map.put(key, testsForLine);
-      }
-      testsForLine.add(test);
+  private List<TestInfo> toTestInfos(final int[] ids) {
+    final List<TestInfo> tis = new ArrayList<TestInfo>(ids.length);
+    for (final int id : ids) {
+      tis.add(this.tests.get(id));
+    }
+    Collections.sort(tis, new TestInfoNameComparator());
+    return tis;
+  }
 
+  private static int[] testsCovering(final LineTestIndex index) {
+    final BitSet ids = new BitSet();
+    for (int i = 0; i != index.numberOfLines(); i++) {
+      for (final int id : index.testsAt(i)) {
+        ids.set(id);
+      }
     }
+    return toArray(ids);
   }
 
-  private TestInfo createTestInfo(final Description description,
-      final int executionTime, final int linesCovered) {
-    final Option<ClassName> testee = this.code.findTestee(description
-        .getFirstTestClass());
-    return new TestInfo(description.getFirstTestClass(),
-        description.getQualifiedName(), executionTime, testee, linesCovered);
+  private static int[] toArray(final BitSet ids) {
+    final int[] result = new int[ids.cardinality()];
+    int next = 0;
+    for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+      result[next] = id;
+      next++;
+    }
+    return result;
   }
 
   private F2<Integer, ClassName, Integer> numberCoveredLines() {
@@ -142,45 +273,39 @@ public class CoverageData implements CoverageDatabase {
   }
 
   private int getNumberOfCoveredLines(final ClassName clazz) {
-    final Map<ClassLine, Set<TestInfo>> map = this.classCoverage.get(clazz);
-    if (map != null) {
-      return map.size();
+    final LineTestIndex index = this.classCoverage.get(clazz);
+    if (index != null) {
+      return index.numberOfLines();
     } else {
       return 0;
     }
 
   }
 
-  private Map<ClassLine, Set<TestInfo>> getTestsForClassName(
-      final ClassName clazz) {
-    // Use any test that provided some coverage of the class
-    // This fails to consider tests that only accessed a static variable
-    // of the class in question as this does not register as coverage.
-
-    Map<ClassLine, Set<TestInfo>> map = this.classCoverage.get(clazz);
-    if (map == null) {
-      map = new LinkedHashMap<ClassLine, Set<TestInfo>>(0);
-    }
-    return map;
-  }
-
   private void recordTestFailure() {
     this.hasFailedTest = true;
   }
 
-  private Map<ClassLine, Set<TestInfo>> getCoverageMapForClass(
-      final ClassName className) {
-    Map<ClassLine, Set<TestInfo>> map = this.classCoverage.get(className);
-    if (map == null) {
-      map = new LinkedHashMap<ClassLine, Set<TestInfo>>(0);
-      this.classCoverage.put(className, map);
+  private LineTestIndex getCoverageMapForClass(final ClassName className) {
+    LineTestIndex index = this.classCoverage.get(className);
+    if (index == null) {
+      index = new LineTestIndex();
+      this.classCoverage.put(className, index);
+    }
+    return index;
+  }
+
+  private LineTestIndex getBlockMapForClass(final ClassName className) {
+    LineTestIndex index = this.blockCoverage.get(className);
+    if (index == null) {
+      index = new LineTestIndex();
+      this.blockCoverage.put(className, index);
     }
-    return map;
+    return index;
   }
 
   public BigInteger getCoverageIdForClass(final ClassName clazz) {
-    final Map<ClassLine, Set<TestInfo>> coverage = this.classCoverage
-        .get(clazz);
+    final LineTestIndex coverage = this.classCoverage.get(clazz);
     if (coverage == null) {
       return BigInteger.ZERO;
     }
@@ -189,33 +314,24 @@ public class CoverageData implements CoverageDatabase {
   }
 
   public List<LineCoverage> createLineCoverage() {
-    return FCollection.flatMap(this.classCoverage.values(), toLineCoverage());
-  }
-
-  private F<Map<ClassLine, Set<TestInfo>>, Collection<LineCoverage>> toLineCoverage() {
-    return new F<Map<ClassLine, Set<TestInfo>>, Collection<LineCoverage>>() {
-      public Collection<LineCoverage> apply(
-          final Map<ClassLine, Set<TestInfo>> a) {
-        return FCollection.map(a.entrySet(), entryToLineCoverage());
-      }
-    };
-  }
-
-  private F<Entry<ClassLine, Set<TestInfo>>, LineCoverage> entryToLineCoverage() {
-    return new F<Entry<ClassLine, Set<TestInfo>>, LineCoverage>() {
-      public LineCoverage apply(final Entry<ClassLine, Set<TestInfo>> a) {
-        return new LineCoverage(a.getKey(), FCollection.map(a.getValue(),
-            TestInfo.toName()));
+    final List<LineCoverage> lines = new ArrayList<LineCoverage>();
+    for (final Entry<ClassName, LineTestIndex> each : this.classCoverage
+        .entrySet()) {
+      final LineTestIndex index = each.getValue();
+      for (int i = 0; i != index.numberOfLines(); i++) {
+        lines.add(new LineCoverage(new ClassLine(each.getKey(), index
+            .lineAt(i)), FCollection.map(toTestInfos(index.testsAt(i)),
+            TestInfo.toName())));
       }
-
-    };
+    }
+    return lines;
   }
 
-  private BigInteger generateCoverageNumber(
-      final Map<ClassLine, Set<TestInfo>> coverage) {
+  private BigInteger generateCoverageNumber(final LineTestIndex coverage) {
     BigInteger coverageNumber = BigInteger.ZERO;
     final Set<ClassName> testClasses = new HashSet<ClassName>();
-    FCollection.flatMapTo(coverage.values(), testsToClassName(), testClasses);
+    FCollection.mapTo(toTestInfos(testsCovering(coverage)),
+        TestInfo.toDefiningClassName(), testClasses);
 
     for (final ClassInfo each : this.code.getClassInfo(testClasses)) {
       coverageNumber = coverageNumber.add(each.getDeepHash());
@@ -224,14 +340,6 @@ public class CoverageData implements CoverageDatabase {
     return coverageNumber;
   }
 
-  private F<Set<TestInfo>, Iterable<ClassName>> testsToClassName() {
-    return new F<Set<TestInfo>, Iterable<ClassName>>() {
-      public Iterable<ClassName> apply(final Set<TestInfo> a) {
-        return FCollection.map(a, TestInfo.toDefiningClassName());
-      }
-    };
-  }
-
   public Collection<ClassInfo> getClassesForFile(final String sourceFile, String packageName) {
     return FCollection.filter(this.code.getCode(), matchesSourceAndPackage(sourceFile, packageName));
   }
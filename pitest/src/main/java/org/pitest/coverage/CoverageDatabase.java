@@ -5,6 +5,7 @@ import java.util.Collection;
 
 import org.pitest.classinfo.ClassInfo;
 import org.pitest.classinfo.ClassName;
+import org.pitest.functional.Option;
 
 public interface CoverageDatabase {
 
@@ -16,6 +17,19 @@ public interface CoverageDatabase {
 
   Collection<TestInfo> getTestsForClassLine(ClassLine classLine);
 
+  /**
+   * Returns the tests during which the static initializer of the class ran,
+   * or an empty collection if the class was not initialized by any test.
+   */
+  Collection<TestInfo> getTestsForStaticInitializer(ClassName clazz);
+
+  /**
+   * Returns the tests that executed the block containing the instruction, or
+   * none if blocks were not recorded for the class.
+   */
+  Option<Collection<TestInfo>> getTestsForInstruction(
+      InstructionLocation location);
+
   BigInteger getCoverageIdForClass(ClassName clazz);
 
   Collection<ClassInfo> getClassesForFile(String sourceFile, String packageName);
@@ -1,9 +1,7 @@
 package org.pitest.coverage;
 
-import java.util.Collection;
-
 public interface CoverageExporter {
 
-  public abstract void recordCoverage(Collection<LineCoverage> coverage);
+  public abstract void recordCoverage(CoverageData coverage);
 
 }
\ No newline at end of file
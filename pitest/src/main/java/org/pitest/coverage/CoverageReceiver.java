@@ -10,6 +10,6 @@ public interface CoverageReceiver extends InvokeReceiver {
   public abstract void newTest();
 
   public abstract void recordTestOutcome(Description description,
-      boolean wasGreen, int executionTime);
+      boolean wasGreen, ResourceUsage usage);
 
 }
\ No newline at end of file
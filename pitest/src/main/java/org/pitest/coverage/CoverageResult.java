@@ -2,6 +2,9 @@ package org.pitest.coverage;
 
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.Collections;
+
+import org.pitest.classinfo.ClassName;
 
 import org.pitest.functional.F2;
 import org.pitest.functional.FCollection;
@@ -12,17 +15,34 @@ public class CoverageResult implements Serializable {
   private static final long                 serialVersionUID = 1L;
 
   private final Description                 testUnitDescription;
-  private final int                         executionTime;
+  private final ResourceUsage               usage;
   private final Collection<ClassStatistics> coverage;
   private final boolean                     greenSuite;
+  private final Collection<ClassName>       initialisedClasses;
 
   public CoverageResult(final Description testUnitDescription,
       final int executionTime, final boolean greenSuite,
       final Collection<ClassStatistics> coverage) {
+    this(testUnitDescription, ResourceUsage.fromExecutionTime(executionTime),
+        greenSuite, coverage);
+  }
+
+  public CoverageResult(final Description testUnitDescription,
+      final ResourceUsage usage, final boolean greenSuite,
+      final Collection<ClassStatistics> coverage) {
+    this(testUnitDescription, usage, greenSuite, coverage, Collections
+        .<ClassName> emptyList());
+  }
+
+  public CoverageResult(final Description testUnitDescription,
+      final ResourceUsage usage, final boolean greenSuite,
+      final Collection<ClassStatistics> coverage,
+      final Collection<ClassName> initialisedClasses) {
     this.testUnitDescription = testUnitDescription;
-    this.executionTime = executionTime;
+    this.usage = usage;
     this.coverage = coverage;
     this.greenSuite = greenSuite;
+    this.initialisedClasses = initialisedClasses;
   }
 
   public Description getTestUnitDescription() {
@@ -30,13 +50,24 @@ public class CoverageResult implements Serializable {
   }
 
   public int getExecutionTime() {
-    return this.executionTime;
+    return this.usage.getExecutionTime();
+  }
+
+  public ResourceUsage getResourceUsage() {
+    return this.usage;
   }
 
   public Collection<ClassStatistics> getCoverage() {
     return this.coverage;
   }
 
+  /**
+   * The classes whose static initializer ran during the test.
+   */
+  public Collection<ClassName> getInitialisedClasses() {
+    return this.initialisedClasses;
+  }
+
   public boolean isGreenTest() {
     return this.greenSuite;
   }
@@ -48,7 +79,7 @@ public class CoverageResult implements Serializable {
   private static F2<Integer, ClassStatistics, Integer> classStatisticsToLineCount() {
     return new F2<Integer, ClassStatistics, Integer>() {
       public Integer apply(final Integer a, final ClassStatistics b) {
-        return a + b.getUniqueVisitedLines().size();
+        return a + b.getNumberOfVisitedLines();
       }
 
     };
@@ -57,8 +88,9 @@ public class CoverageResult implements Serializable {
   @Override
   public String toString() {
     return "CoverageResult [testUnitDescription=" + this.testUnitDescription
-        + ", executionTime=" + this.executionTime + ", coverage="
-        + this.coverage + ", greenSuite=" + this.greenSuite + "]";
+        + ", usage=" + this.usage + ", coverage="
+        + this.coverage + ", greenSuite=" + this.greenSuite
+        + ", initialisedClasses=" + this.initialisedClasses + "]";
   }
 
 }
@@ -3,26 +3,35 @@ package org.pitest.coverage;
 import java.lang.instrument.ClassFileTransformer;
 import java.lang.instrument.IllegalClassFormatException;
 import java.security.ProtectionDomain;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 import org.objectweb.asm.ClassReader;
-import org.objectweb.asm.ClassWriter;
 import org.pitest.bytecode.FrameOptions;
+import org.pitest.classinfo.ClassByteArraySource;
 import org.pitest.classpath.ClassloaderByteArraySource;
 import org.pitest.coverage.codeassist.CoverageClassVisitor;
+import org.pitest.functional.Option;
 import org.pitest.functional.predicate.Predicate;
-import org.pitest.util.ComputeClassWriter;
+import org.pitest.util.TypeHierarchy;
 
 import sun.pitest.CodeCoverageStore;
 
 public class CoverageTransformer implements ClassFileTransformer {
 
-  private final Predicate<String>   filter;
-  private final Map<String, String> computeCache = new ConcurrentHashMap<String, String>();
+  private final Predicate<String>              filter;
+  private final Option<InstrumentedClassCache> cache;
+  private final boolean                        blockCoverage;
+  private final TypeHierarchy                  hierarchy    = TypeHierarchy
+                                                                 .shared();
 
   public CoverageTransformer(final Predicate<String> filter) {
+    this(filter, Option.<InstrumentedClassCache> none(), false);
+  }
+
+  public CoverageTransformer(final Predicate<String> filter,
+      final Option<InstrumentedClassCache> cache, final boolean blockCoverage) {
     this.filter = filter;
+    this.cache = cache;
+    this.blockCoverage = blockCoverage;
   }
 
   public byte[] transform(final ClassLoader loader, final String className,
@@ -45,15 +54,40 @@ public class CoverageTransformer implements ClassFileTransformer {
 
   private byte[] transformBytes(final ClassLoader loader,
       final String className, final byte[] classfileBuffer) {
+    final ClassByteArraySource source = new ClassloaderByteArraySource(loader);
+    final int id = CodeCoverageStore.registerClass(className);
+
+    if (this.cache.hasSome()) {
+      final Option<InstrumentedClass> cached = this.cache.value().get(
+          classfileBuffer);
+      if (cached.hasSome()
+          && new TypeRecordingClassWriter(source, this.hierarchy, 0)
+              .resolvesAs(cached.value().getResolvedTypes())) {
+        CodeCoverageStore.registerClassProbes(id, cached.value()
+            .getProbeLines());
+        return cached.value().withClassId(id);
+      }
+    }
+
     final ClassReader reader = new ClassReader(classfileBuffer);
-    final ClassWriter writer = new ComputeClassWriter(
-        new ClassloaderByteArraySource(loader), this.computeCache,
-        FrameOptions.pickFlags(classfileBuffer));
+    final TypeRecordingClassWriter writer = new TypeRecordingClassWriter(
+        source, this.hierarchy, FrameOptions.pickFlags(classfileBuffer));
 
-    final int id = CodeCoverageStore.registerClass(className);
-    reader.accept(new CoverageClassVisitor(id, writer),
-        ClassReader.EXPAND_FRAMES);
-    return writer.toByteArray();
+    final CoverageClassVisitor visitor = new CoverageClassVisitor(id, writer,
+        this.blockCoverage);
+    reader.accept(visitor, ClassReader.EXPAND_FRAMES);
+    final byte[] instrumented = writer.toByteArray();
+
+    if (this.cache.hasSome()) {
+      final Option<InstrumentedClass> cacheable = InstrumentedClass.create(
+          reader, instrumented, id, visitor.getProbeLines(),
+          writer.getResolvedTypes());
+      if (cacheable.hasSome()) {
+        this.cache.value().put(classfileBuffer, cacheable.value());
+      }
+    }
+
+    return instrumented;
   }
 
   private boolean shouldInclude(final String className) {
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2014 Henry Coles
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+package org.pitest.coverage;
+
+import org.pitest.classinfo.ClassName;
+
+/**
+ * Receives the contents of the coverage data. Tests are visited first, in
+ * order of their id. Each class is then visited followed by its covered
+ * lines, in ascending order.
+ */
+public interface CoverageVisitor {
+
+  void visitTest(TestInfo test);
+
+  void visitClass(ClassName clazz);
+
+  /**
+   * @param testIds
+   *          the ids of the tests covering the line, in ascending order
+   */
+  void visitLine(int line, int[] testIds);
+
+}
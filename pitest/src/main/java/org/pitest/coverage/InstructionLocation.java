@@ -0,0 +1,90 @@
+/*
+ * Copyright 2014 Henry Coles
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+package org.pitest.coverage;
+
+import org.pitest.classinfo.ClassName;
+
+/**
+ * Identifies an instruction within a method. As for mutation ids, the index is
+ * the number of instructions, labels, frames and line numbers visited by ASM
+ * up to and including the instruction.
+ */
+public final class InstructionLocation {
+
+  private final ClassName clazz;
+  private final String    methodName;
+  private final String    methodDesc;
+  private final int       index;
+
+  public InstructionLocation(final ClassName clazz, final String methodName,
+      final String methodDesc, final int index) {
+    this.clazz = clazz;
+    this.methodName = methodName;
+    this.methodDesc = methodDesc;
+    this.index = index;
+  }
+
+  public ClassName getClassName() {
+    return this.clazz;
+  }
+
+  public String getMethodName() {
+    return this.methodName;
+  }
+
+  public String getMethodDesc() {
+    return this.methodDesc;
+  }
+
+  public int getIndex() {
+    return this.index;
+  }
+
+  @Override
+  public int hashCode() {
+    final int prime = 31;
+    int result = 1;
+    result = (prime * result) + this.clazz.hashCode();
+    result = (prime * result) + this.methodName.hashCode();
+    result = (prime * result) + this.methodDesc.hashCode();
+    result = (prime * result) + this.index;
+    return result;
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null) {
+      return false;
+    }
+    if (getClass() != obj.getClass()) {
+      return false;
+    }
+    final InstructionLocation other = (InstructionLocation) obj;
+    return this.clazz.equals(other.clazz)
+        && this.methodName.equals(other.methodName)
+        && this.methodDesc.equals(other.methodDesc)
+        && (this.index == other.index);
+  }
+
+  @Override
+  public String toString() {
+    return "InstructionLocation [" + this.clazz + "." + this.methodName
+        + this.methodDesc + ":" + this.index + "]";
+  }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2014 Henry Coles
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+package org.pitest.coverage;
+
+import java.util.List;
+
+import org.objectweb.asm.ClassReader;
+import org.pitest.functional.Option;
+
+/**
+ * An instrumented class that can be given a new class id without being
+ * instrumented again.
+ *
+ * The class id is loaded by the probes from a single integer constant pool
+ * entry, so a new id can be written directly into the class bytes. This is
+ * only safe if nothing else in the class uses the same constant.
+ */
+final class InstrumentedClass {
+
+  private static final int     CONSTANT_INTEGER = 3;
+
+  private final byte[]         bytes;
+  private final int            classIdOffset;
+  private final int[]          probeLines;
+  private final List<String[]> resolvedTypes;
+
+  InstrumentedClass(final byte[] bytes, final int classIdOffset,
+      final int[] probeLines, final List<String[]> resolvedTypes) {
+    this.bytes = bytes;
+    this.classIdOffset = classIdOffset;
+    this.probeLines = probeLines;
+    this.resolvedTypes = resolvedTypes;
+  }
+
+  static Option<InstrumentedClass> create(final ClassReader original,
+      final byte[] instrumented, final int classId, final int[] probeLines,
+      final List<String[]> resolvedTypes) {
+    // large probe indexes and counts, and the high bits of probe masks, are
+    // also loaded from the constant pool
+    if (((classId > Short.MAX_VALUE) && ((classId <= probeLines.length) || (Integer
+        .bitCount(classId) == 1)))
+        || (findInteger(original, classId) > 0)) {
+      return Option.none();
+    }
+
+    final int offset = findInteger(new ClassReader(instrumented), classId);
+    if (offset <= 0) {
+      return Option.none();
+    }
+    return Option.some(new InstrumentedClass(instrumented, offset, probeLines,
+        resolvedTypes));
+  }
+
+  byte[] withClassId(final int classId) {
+    final byte[] bs = new byte[this.bytes.length];
+    System.arraycopy(this.bytes, 0, bs, 0, bs.length);
+    bs[this.classIdOffset] = (byte) (classId >>> 24);
+    bs[this.classIdOffset + 1] = (byte) (classId >>> 16);
+    bs[this.classIdOffset + 2] = (byte) (classId >>> 8);
+    bs[this.classIdOffset + 3] = (byte) classId;
+    return bs;
+  }
+
+  byte[] getBytes() {
+    return this.bytes;
+  }
+
+  int getClassIdOffset() {
+    return this.classIdOffset;
+  }
+
+  int[] getProbeLines() {
+    return this.probeLines;
+  }
+
+  /**
+   * Pairs of types whose common super class was calculated while computing
+   * stack map frames, followed by the result.
+   */
+  List<String[]> getResolvedTypes() {
+    return this.resolvedTypes;
+  }
+
+  private static int findInteger(final ClassReader reader, final int value) {
+    for (int i = 1; i != reader.getItemCount(); i++) {
+      final int offset = reader.getItem(i);
+      // the slot following a long or double has no entry
+      if ((offset != 0) && (reader.b[offset - 1] == CONSTANT_INTEGER)
+          && (reader.readInt(offset) == value)) {
+        return offset;
+      }
+    }
+    return -1;
+  }
+
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2014 Henry Coles
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+package org.pitest.coverage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import org.pitest.functional.Option;
+import org.pitest.util.Log;
+import org.pitest.util.Unchecked;
+
+/**
+ * Stores instrumented classes on disk so that later coverage runs need not
+ * instrument classes that have not changed.
+ *
+ * Each class is stored in its own file, named by a hash of the uninstrumented
+ * bytes, the version of the instrumentation and whether probes were placed on
+ * lines or blocks. Files are written to a
+ * temporary name and then renamed, so that several coverage slaves may share
+ * the same directory.
+ */
+public class InstrumentedClassCache {
+
+  private final static Logger LOG     = Log.getLogger();
+
+  /**
+   * Must be incremented whenever a change is made that alters the
+   * instrumented bytecode.
+   */
+  static final int            VERSION = 3;
+
+  private final File          directory;
+  private final boolean       blockCoverage;
+
+  public InstrumentedClassCache(final File directory,
+      final boolean blockCoverage) {
+    this.directory = directory;
+    this.blockCoverage = blockCoverage;
+  }
+
+  Option<InstrumentedClass> get(final byte[] original) {
+    final File file = new File(this.directory, key(original));
+    if (!file.exists()) {
+      return Option.none();
+    }
+
+    try {
+      return read(file);
+    } catch (final IOException ex) {
+      LOG.fine("Could not read cached class from " + file);
+      return Option.none();
+    }
+  }
+
+  void put(final byte[] original, final InstrumentedClass instrumented) {
+    try {
+      this.directory.mkdirs();
+      final File temp = File.createTempFile("class", ".tmp", this.directory);
+      write(temp, instrumented);
+      if (!temp.renameTo(new File(this.directory, key(original)))) {
+        temp.delete();
+      }
+    } catch (final IOException ex) {
+      LOG.fine("Could not cache instrumented class " + ex.getMessage());
+    }
+  }
+
+  private Option<InstrumentedClass> read(final File file) throws IOException {
+    final DataInputStream is = new DataInputStream(new BufferedInputStream(
+        new FileInputStream(file)));
+    try {
+      if (is.readInt() != VERSION) {
+        return Option.none();
+      }
+      final int classIdOffset = is.readInt();
+
+      final int[] probeLines = new int[is.readInt()];
+      for (int i = 0; i != probeLines.length; i++) {
+        probeLines[i] = is.readInt();
+      }
+
+      final int numberOfResolvedTypes = is.readInt();
+      final List<String[]> resolvedTypes = new ArrayList<String[]>(
+          numberOfResolvedTypes);
+      for (int i = 0; i != numberOfResolvedTypes; i++) {
+        resolvedTypes.add(new String[] { is.readUTF(), is.readUTF(),
+            is.readUTF() });
+      }
+
+      final byte[] bytes = new byte[is.readInt()];
+      is.readFully(bytes);
+
+      return Option.some(new InstrumentedClass(bytes, classIdOffset,
+          probeLines, resolvedTypes));
+    } finally {
+      is.close();
+    }
+  }
+
+  private void write(final File file, final InstrumentedClass instrumented)
+      throws IOException {
+    final DataOutputStream os = new DataOutputStream(new BufferedOutputStream(
+        new FileOutputStream(file)));
+    try {
+      os.writeInt(VERSION);
+      os.writeInt(instrumented.getClassIdOffset());
+
+      os.writeInt(instrumented.getProbeLines().length);
+      for (final int each : instrumented.getProbeLines()) {
+        os.writeInt(each);
+      }
+
+      os.writeInt(instrumented.getResolvedTypes().size());
+      for (final String[] each : instrumented.getResolvedTypes()) {
+        os.writeUTF(each[0]);
+        os.writeUTF(each[1]);
+        os.writeUTF(each[2]);
+      }
+
+      os.writeInt(instrumented.getBytes().length);
+      os.write(instrumented.getBytes());
+    } finally {
+      os.close();
+    }
+  }
+
+  private String key(final byte[] original) {
+    try {
+      final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+      digest.update((byte) VERSION);
+      digest.update((byte) (this.blockCoverage ? 1 : 0));
+      digest.update(original);
+      return new BigInteger(1, digest.digest()).toString(16);
+    } catch (final NoSuchAlgorithmException ex) {
+      throw Unchecked.translateCheckedException(ex);
+    }
+  }
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2014 Henry Coles
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+package org.pitest.coverage;
+
+/**
+ * Maps the covered lines of a single class to the ids of the tests that cover
+ * them.
+ *
+ * Lines are held in a sorted primitive array, with a growable array of test
+ * ids for each line. The ids for each line are kept in ascending order. As
+ * test ids are allocated in the order that results arrive they can almost
+ * always simply be appended.
+ */
+final class LineTestIndex {
+
+  private static final int INITIAL_CAPACITY = 4;
+
+  private int[]            lines            = new int[INITIAL_CAPACITY];
+  private int[][]          testIds          = new int[INITIAL_CAPACITY][];
+  private int[]            testCounts       = new int[INITIAL_CAPACITY];
+  private int              numberOfLines    = 0;
+
+  void add(final int line, final int testId) {
+    int index = indexOf(line);
+    if (index < 0) {
+      index = insertLine(-(index + 1), line);
+    }
+
+    final int count = this.testCounts[index];
+    int[] ids = this.testIds[index];
+    int position = count;
+    if ((count != 0) && (ids[count - 1] >= testId)) {
+      position = search(ids, count, testId);
+      if (position >= 0) {
+        return;
+      }
+      position = -(position + 1);
+    }
+
+    if (count == ids.length) {
+      ids = copyOf(ids, count * 2);
+      this.testIds[index] = ids;
+    }
+    System.arraycopy(ids, position, ids, position + 1, count - position);
+    ids[position] = testId;
+    this.testCounts[index] = count + 1;
+  }
+
+  int numberOfLines() {
+    return this.numberOfLines;
+  }
+
+  int lineAt(final int index) {
+    return this.lines[index];
+  }
+
+  int[] testsAt(final int index) {
+    return copyOf(this.testIds[index], this.testCounts[index]);
+  }
+
+  /**
+   * Returns the ids of the tests covering the line, or null if no test covers
+   * the line.
+   */
+  int[] testsForLine(final int line) {
+    final int index = indexOf(line);
+    if (index < 0) {
+      return null;
+    }
+    return testsAt(index);
+  }
+
+  private int insertLine(final int index, final int line) {
+    if (this.numberOfLines == this.lines.length) {
+      final int newCapacity = this.lines.length * 2;
+      this.lines = copyOf(this.lines, newCapacity);
+      this.testCounts = copyOf(this.testCounts, newCapacity);
+      final int[][] ids = new int[newCapacity][];
+      System.arraycopy(this.testIds, 0, ids, 0, this.numberOfLines);
+      this.testIds = ids;
+    }
+
+    final int toMove = this.numberOfLines - index;
+    System.arraycopy(this.lines, index, this.lines, index + 1, toMove);
+    System.arraycopy(this.testIds, index, this.testIds, index + 1, toMove);
+    System.arraycopy(this.testCounts, index, this.testCounts, index + 1,
+        toMove);
+
+    this.lines[index] = line;
+    this.testIds[index] = new int[1];
+    this.testCounts[index] = 0;
+    this.numberOfLines++;
+    return index;
+  }
+
+  private int indexOf(final int line) {
+    return search(this.lines, this.numberOfLines, line);
+  }
+
+  private static int search(final int[] values, final int size,
+      final int key) {
+    int low = 0;
+    int high = size - 1;
+    while (low <= high) {
+      final int mid = (low + high) >>> 1;
+      final int value = values[mid];
+      if (value < key) {
+        low = mid + 1;
+      } else if (value > key) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -(low + 1);
+  }
+
+  private static int[] copyOf(final int[] original, final int length) {
+    final int[] copy = new int[length];
+    System.arraycopy(original, 0, copy, 0, Math.min(original.length, length));
+    return copy;
+  }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2014 Henry Coles
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+package org.pitest.coverage;
+
+import java.io.Serializable;
+
+/**
+ * The resources consumed by a test while its coverage was gathered. Times
+ * are held in nanoseconds. CPU time and allocated bytes are only measured
+ * for the thread that ran the test, and are UNKNOWN when the jvm does not
+ * support measuring them.
+ */
+public final class ResourceUsage implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  public static final long  UNKNOWN          = -1;
+
+  private final long        wallTime;
+  private final long        cpuTime;
+  private final long        allocatedBytes;
+
+  public ResourceUsage(final long wallTime, final long cpuTime,
+      final long allocatedBytes) {
+    this.wallTime = wallTime;
+    this.cpuTime = cpuTime;
+    this.allocatedBytes = allocatedBytes;
+  }
+
+  public static ResourceUsage fromExecutionTime(final int executionTime) {
+    return new ResourceUsage(executionTime * 1000000L, UNKNOWN, UNKNOWN);
+  }
+
+  public long getWallTime() {
+    return this.wallTime;
+  }
+
+  public long getCpuTime() {
+    return this.cpuTime;
+  }
+
+  public long getAllocatedBytes() {
+    return this.allocatedBytes;
+  }
+
+  public boolean hasCpuTime() {
+    return this.cpuTime != UNKNOWN;
+  }
+
+  public boolean hasAllocatedBytes() {
+    return this.allocatedBytes != UNKNOWN;
+  }
+
+  /**
+   * The wall time in milliseconds.
+   */
+  public int getExecutionTime() {
+    return (int) (this.wallTime / 1000000L);
+  }
+
+  @Override
+  public int hashCode() {
+    final int prime = 31;
+    int result = 1;
+    result = (prime * result)
+        + (int) (this.allocatedBytes ^ (this.allocatedBytes >>> 32));
+    result = (prime * result) + (int) (this.cpuTime ^ (this.cpuTime >>> 32));
+    result = (prime * result) + (int) (this.wallTime ^ (this.wallTime >>> 32));
+    return result;
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null) {
+      return false;
+    }
+    if (getClass() != obj.getClass()) {
+      return false;
+    }
+    final ResourceUsage other = (ResourceUsage) obj;
+    return (this.wallTime == other.wallTime)
+        && (this.cpuTime == other.cpuTime)
+        && (this.allocatedBytes == other.allocatedBytes);
+  }
+
+  @Override
+  public String toString() {
+    return "ResourceUsage [wallTime=" + this.wallTime + ", cpuTime="
+        + this.cpuTime + ", allocatedBytes=" + this.allocatedBytes + "]";
+  }
+
+}
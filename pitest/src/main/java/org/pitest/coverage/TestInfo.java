@@ -24,14 +24,23 @@ public class TestInfo {
   private final String            definingClass;
   
   private final int               time;
+  private final ResourceUsage     usage;
   private final int               linesCovered;
   private final Option<ClassName> testee;
 
   public TestInfo(final String definingClass, final String name,
       final int time, final Option<ClassName> testee, final int linesCovered) {
+    this(definingClass, name, ResourceUsage.fromExecutionTime(time), testee,
+        linesCovered);
+  }
+
+  public TestInfo(final String definingClass, final String name,
+      final ResourceUsage usage, final Option<ClassName> testee,
+      final int linesCovered) {
     this.definingClass = internIfNotNull(definingClass);
     this.name = name;
-    this.time = time;
+    this.time = usage.getExecutionTime();
+    this.usage = usage;
     this.testee = testee;
     this.linesCovered = linesCovered;
   }
@@ -47,10 +56,27 @@ public class TestInfo {
     return this.name;
   }
 
+  public String getDefiningClass() {
+    return this.definingClass;
+  }
+
+  public Option<ClassName> getTestee() {
+    return this.testee;
+  }
+
   public int getTime() {
     return this.time;
   }
 
+  /**
+   * The wall time, CPU time and allocations of the test's coverage run. These
+   * are less noisy measures of cost than the execution time, which is rounded
+   * to the millisecond.
+   */
+  public ResourceUsage getResourceUsage() {
+    return this.usage;
+  }
+
   public int getNumberOfLinesCovered() {
     return this.linesCovered;
   }
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2014 Henry Coles
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+package org.pitest.coverage;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.pitest.classinfo.ClassByteArraySource;
+import org.pitest.util.ComputeClassWriter;
+import org.pitest.util.TypeHierarchy;
+
+/**
+ * Records the common super classes looked up while computing frames. The
+ * frames of a cached class are only valid while these lookups give the same
+ * results against the current class path.
+ */
+class TypeRecordingClassWriter extends ComputeClassWriter {
+
+  private final Map<String, String[]> resolvedTypes = new LinkedHashMap<String, String[]>();
+
+  TypeRecordingClassWriter(final ClassByteArraySource bytes,
+      final TypeHierarchy hierarchy, final int flags) {
+    super(bytes, hierarchy, flags);
+  }
+
+  @Override
+  protected String getCommonSuperClass(final String type1, final String type2) {
+    final String result = super.getCommonSuperClass(type1, type2);
+    this.resolvedTypes.put(type1 + "!_!" + type2, new String[] { type1, type2,
+        result });
+    return result;
+  }
+
+  List<String[]> getResolvedTypes() {
+    return new ArrayList<String[]>(this.resolvedTypes.values());
+  }
+
+  boolean resolvesAs(final List<String[]> resolvedTypes) {
+    try {
+      for (final String[] each : resolvedTypes) {
+        if (!super.getCommonSuperClass(each[0], each[1]).equals(each[2])) {
+          return false;
+        }
+      }
+      return true;
+    } catch (final RuntimeException ex) {
+      // a type is no longer on the class path
+      return false;
+    }
+  }
+
+}
@@ -0,0 +1,417 @@
+/*
+ * Copyright 2014 Henry Coles
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+package org.pitest.coverage.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.pitest.classinfo.ClassInfo;
+import org.pitest.classinfo.ClassInfoSource;
+import org.pitest.classinfo.ClassName;
+import org.pitest.coverage.ClassStatistics;
+import org.pitest.coverage.CoverageCache;
+import org.pitest.coverage.CoverageResult;
+import org.pitest.coverage.ResourceUsage;
+import org.pitest.functional.Option;
+import org.pitest.testapi.Description;
+import org.pitest.util.Log;
+import org.pitest.util.SafeDataInputStream;
+import org.pitest.util.SafeDataOutputStream;
+import org.pitest.util.Unchecked;
+
+/**
+ * Stores the coverage results of each test class in a compressed binary file.
+ *
+ * Results are keyed by the deep hash of the test class and the deep hashes of
+ * every class it covered. Results are only reused if all of these hashes
+ * still match, and are only stored for test classes that were entirely green.
+ * Entries for test classes that were not run are carried over unchanged.
+ * Results gathered with block coverage are not reused when block coverage is
+ * disabled, and vice versa. Nor are they reused when any other setting that
+ * influences which coverage is recorded, such as the classes coverage is
+ * gathered for, differs from the run that wrote the cache.
+ */
+public class FileCoverageCache implements CoverageCache {
+
+  private final static Logger                   LOG      = Log.getLogger();
+
+  private static final int                      VERSION  = 5;
+
+  private final File                            location;
+  private final ClassInfoSource                 code;
+  private final boolean                         blockCoverage;
+  private final String                          configurationHash;
+
+  private final Map<ClassName, CachedTestClass> previous = new HashMap<ClassName, CachedTestClass>();
+  private final Map<ClassName, CachedTestClass> reused   = new LinkedHashMap<ClassName, CachedTestClass>();
+  private final Map<ClassName, List<CoverageResult>> recorded = new LinkedHashMap<ClassName, List<CoverageResult>>();
+  private final Set<ClassName>                  failing  = new HashSet<ClassName>();
+
+  private boolean                               initialized;
+
+  public FileCoverageCache(final File location, final ClassInfoSource code,
+      final boolean blockCoverage, final String configuration) {
+    this.location = location;
+    this.code = code;
+    this.blockCoverage = blockCoverage;
+    this.configurationHash = hash(configuration);
+  }
+
+  public synchronized Option<Collection<CoverageResult>> getResults(
+      final ClassInfo testClass) {
+    initialize();
+    final CachedTestClass cached = this.previous.get(testClass.getName());
+    if ((cached == null)
+        || !testClass.getDeepHash().equals(cached.testClassHash)
+        || !isUnchanged(cached.coveredClassHashes)) {
+      return Option.none();
+    }
+
+    this.reused.put(testClass.getName(), cached);
+    return Option.<Collection<CoverageResult>> some(cached.results);
+  }
+
+  public synchronized void recordResult(final CoverageResult result) {
+    final String testClass = result.getTestUnitDescription()
+        .getFirstTestClass();
+    if (testClass == null) {
+      return;
+    }
+
+    final ClassName name = ClassName.fromString(testClass);
+    if (!result.isGreenTest()) {
+      this.failing.add(name);
+    }
+
+    List<CoverageResult> results = this.recorded.get(name);
+    if (results == null) {
+      results = new ArrayList<CoverageResult>();
+      this.recorded.put(name, results);
+    }
+    results.add(result);
+  }
+
+  public synchronized void store() {
+    initialize();
+    final Map<ClassName, CachedTestClass> entries = new LinkedHashMap<ClassName, CachedTestClass>();
+    // test classes that were not run this time (e.g. because they were not
+    // selected) keep their entries, which are validated again when next read
+    for (final Entry<ClassName, CachedTestClass> each : this.previous
+        .entrySet()) {
+      if (!this.recorded.containsKey(each.getKey())
+          && this.code.fetchClass(each.getKey()).hasSome()) {
+        entries.put(each.getKey(), each.getValue());
+      }
+    }
+    entries.putAll(this.reused);
+    for (final Entry<ClassName, List<CoverageResult>> each : this.recorded
+        .entrySet()) {
+      if (!this.failing.contains(each.getKey())) {
+        final Option<CachedTestClass> entry = createEntry(each.getKey(),
+            each.getValue());
+        if (entry.hasSome()) {
+          entries.put(each.getKey(), entry.value());
+        }
+      }
+    }
+
+    write(entries);
+  }
+
+  private Option<CachedTestClass> createEntry(final ClassName testClass,
+      final List<CoverageResult> results) {
+    final Option<ClassInfo> test = this.code.fetchClass(testClass);
+    if (test.hasNone()) {
+      return Option.none();
+    }
+
+    final Map<ClassName, BigInteger> coveredClassHashes = new HashMap<ClassName, BigInteger>();
+    for (final CoverageResult result : results) {
+      for (final ClassStatistics each : result.getCoverage()) {
+        final ClassName covered = each.getClassName();
+        if (!addHash(coveredClassHashes, covered)) {
+          return Option.none();
+        }
+      }
+      for (final ClassName each : result.getInitialisedClasses()) {
+        if (!addHash(coveredClassHashes, each)) {
+          return Option.none();
+        }
+      }
+    }
+
+    return Option.some(new CachedTestClass(test.value().getDeepHash(),
+        coveredClassHashes, results));
+  }
+
+  private boolean addHash(final Map<ClassName, BigInteger> hashes,
+      final ClassName clazz) {
+    if (hashes.containsKey(clazz)) {
+      return true;
+    }
+    final Option<ClassInfo> info = this.code.fetchClass(clazz);
+    if (info.hasNone()) {
+      return false;
+    }
+    hashes.put(clazz, info.value().getDeepHash());
+    return true;
+  }
+
+  private boolean isUnchanged(final Map<ClassName, BigInteger> hashes) {
+    for (final Entry<ClassName, BigInteger> each : hashes.entrySet()) {
+      final Option<ClassInfo> current = this.code.fetchClass(each.getKey());
+      if (current.hasNone()
+          || !current.value().getDeepHash().equals(each.getValue())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void initialize() {
+    if (this.initialized) {
+      return;
+    }
+    this.initialized = true;
+
+    if (!this.location.exists() || (this.location.length() == 0)) {
+      return;
+    }
+
+    try {
+      read();
+    } catch (final RuntimeException ex) {
+      LOG.warning("Could not read coverage cache from " + this.location
+          + ". Coverage will be recalculated for all tests.");
+      this.previous.clear();
+    }
+  }
+
+  private void read() {
+    final SafeDataInputStream is = new SafeDataInputStream(openForRead());
+    try {
+      if (is.readInt() != VERSION) {
+        LOG.info("Ignoring coverage cache written by a different version of pitest");
+        return;
+      }
+      if (is.readBoolean() != this.blockCoverage) {
+        LOG.info("Ignoring coverage cache as block coverage setting has changed");
+        return;
+      }
+      if (!is.readString().equals(this.configurationHash)) {
+        LOG.info("Ignoring coverage cache as coverage settings have changed");
+        return;
+      }
+      final int numberOfTestClasses = is.readInt();
+      for (int i = 0; i != numberOfTestClasses; i++) {
+        final ClassName name = ClassName.fromString(is.readString());
+        this.previous.put(name, readTestClass(is));
+      }
+    } finally {
+      is.close();
+    }
+  }
+
+  private CachedTestClass readTestClass(final SafeDataInputStream is) {
+    final BigInteger testClassHash = new BigInteger(is.readString(), 16);
+
+    final int numberOfCoveredClasses = is.readInt();
+    final Map<ClassName, BigInteger> coveredClassHashes = new HashMap<ClassName, BigInteger>(
+        numberOfCoveredClasses);
+    for (int i = 0; i != numberOfCoveredClasses; i++) {
+      coveredClassHashes.put(ClassName.fromString(is.readString()),
+          new BigInteger(is.readString(), 16));
+    }
+
+    final int numberOfResults = is.readInt();
+    final List<CoverageResult> results = new ArrayList<CoverageResult>(
+        numberOfResults);
+    for (int i = 0; i != numberOfResults; i++) {
+      results.add(readResult(is));
+    }
+
+    return new CachedTestClass(testClassHash, coveredClassHashes, results);
+  }
+
+  private CoverageResult readResult(final SafeDataInputStream is) {
+    final String name = is.readString();
+    final String testClass = is.readBoolean() ? is.readString() : null;
+    final ResourceUsage usage = new ResourceUsage(is.readLong(),
+        is.readLong(), is.readLong());
+
+    final int numberOfClasses = is.readInt();
+    final List<ClassStatistics> coverage = new ArrayList<ClassStatistics>(
+        numberOfClasses);
+    for (int i = 0; i != numberOfClasses; i++) {
+      final ClassStatistics stats = new ClassStatistics(
+          ClassName.fromString(is.readString()));
+      final int numberOfLines = is.readInt();
+      for (int j = 0; j != numberOfLines; j++) {
+        stats.registerLineVisit(is.readInt());
+      }
+      final int numberOfBlocks = is.readInt();
+      for (int j = 0; j != numberOfBlocks; j++) {
+        stats.registerBlockVisit(is.readInt());
+      }
+      coverage.add(stats);
+    }
+
+    final int numberOfInitialisedClasses = is.readInt();
+    final List<ClassName> initialised = new ArrayList<ClassName>(
+        numberOfInitialisedClasses);
+    for (int i = 0; i != numberOfInitialisedClasses; i++) {
+      initialised.add(ClassName.fromString(is.readString()));
+    }
+
+    return new CoverageResult(new Description(name, testClass), usage, true,
+        coverage, initialised);
+  }
+
+  private void write(final Map<ClassName, CachedTestClass> entries) {
+    final SafeDataOutputStream os = new SafeDataOutputStream(openForWrite());
+    try {
+      os.writeInt(VERSION);
+      os.writeBoolean(this.blockCoverage);
+      os.writeString(this.configurationHash);
+      os.writeInt(entries.size());
+      for (final Entry<ClassName, CachedTestClass> each : entries.entrySet()) {
+        os.writeString(each.getKey().asJavaName());
+        writeTestClass(os, each.getValue());
+      }
+    } finally {
+      os.close();
+    }
+  }
+
+  private void writeTestClass(final SafeDataOutputStream os,
+      final CachedTestClass entry) {
+    os.writeString(entry.testClassHash.toString(16));
+
+    os.writeInt(entry.coveredClassHashes.size());
+    for (final Entry<ClassName, BigInteger> each : entry.coveredClassHashes
+        .entrySet()) {
+      os.writeString(each.getKey().asJavaName());
+      os.writeString(each.getValue().toString(16));
+    }
+
+    os.writeInt(entry.results.size());
+    for (final CoverageResult each : entry.results) {
+      writeResult(os, each);
+    }
+  }
+
+  private void writeResult(final SafeDataOutputStream os,
+      final CoverageResult result) {
+    final Description description = result.getTestUnitDescription();
+    os.writeString(description.getName());
+    final String testClass = description.getFirstTestClass();
+    os.writeBoolean(testClass != null);
+    if (testClass != null) {
+      os.writeString(testClass);
+    }
+    final ResourceUsage usage = result.getResourceUsage();
+    os.writeLong(usage.getWallTime());
+    os.writeLong(usage.getCpuTime());
+    os.writeLong(usage.getAllocatedBytes());
+
+    os.writeInt(result.getCoverage().size());
+    for (final ClassStatistics each : result.getCoverage()) {
+      os.writeString(each.getClassName().asJavaName());
+      final int[] lines = each.getVisitedLines();
+      os.writeInt(lines.length);
+      for (final int line : lines) {
+        os.writeInt(line);
+      }
+      final int[] blocks = each.getVisitedBlocks();
+      os.writeInt(blocks.length);
+      for (final int block : blocks) {
+        os.writeInt(block);
+      }
+    }
+
+    os.writeInt(result.getInitialisedClasses().size());
+    for (final ClassName each : result.getInitialisedClasses()) {
+      os.writeString(each.asJavaName());
+    }
+  }
+
+  private static String hash(final String configuration) {
+    try {
+      final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+      digest.update(configuration.getBytes("UTF-8"));
+      return new BigInteger(1, digest.digest()).toString(16);
+    } catch (final NoSuchAlgorithmException ex) {
+      throw Unchecked.translateCheckedException(ex);
+    } catch (final IOException ex) {
+      throw Unchecked.translateCheckedException(ex);
+    }
+  }
+
+  private GZIPInputStream openForRead() {
+    try {
+      return new GZIPInputStream(new BufferedInputStream(new FileInputStream(
+          this.location)));
+    } catch (final IOException ex) {
+      throw Unchecked.translateCheckedException(ex);
+    }
+  }
+
+  private GZIPOutputStream openForWrite() {
+    final File parent = this.location.getAbsoluteFile().getParentFile();
+    if (parent != null) {
+      parent.mkdirs();
+    }
+    try {
+      return new GZIPOutputStream(new BufferedOutputStream(
+          new FileOutputStream(this.location)));
+    } catch (final IOException ex) {
+      throw Unchecked.translateCheckedException(ex);
+    }
+  }
+
+  private static class CachedTestClass {
+    private final BigInteger                 testClassHash;
+    private final Map<ClassName, BigInteger> coveredClassHashes;
+    private final List<CoverageResult>       results;
+
+    CachedTestClass(final BigInteger testClassHash,
+        final Map<ClassName, BigInteger> coveredClassHashes,
+        final List<CoverageResult> results) {
+      this.testClassHash = testClassHash;
+      this.coveredClassHashes = coveredClassHashes;
+      this.results = results;
+    }
+  }
+
+}
@@ -0,0 +1,24 @@
+package org.pitest.coverage.cache;
+
+import java.util.Collection;
+
+import org.pitest.classinfo.ClassInfo;
+import org.pitest.coverage.CoverageCache;
+import org.pitest.coverage.CoverageResult;
+import org.pitest.functional.Option;
+
+public class NullCoverageCache implements CoverageCache {
+
+  public Option<Collection<CoverageResult>> getResults(final ClassInfo testClass) {
+    return Option.none();
+  }
+
+  public void recordResult(final CoverageResult result) {
+
+  }
+
+  public void store() {
+
+  }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2014 Henry Coles
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+package org.pitest.coverage.codeassist;
+
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.commons.AdviceAdapter;
+
+import sun.pitest.CodeCoverageStore;
+
+/**
+ * Base for strategies that record probe hits in local state and pass it to
+ * the coverage store at each method exit. The method body is wrapped in a try
+ * finally block so that hits are also reported when an exception is thrown.
+ *
+ * The jvm spec does not allow an uninitialized class instance to be held in a
+ * local variable in code protected by an exception handler, so in
+ * constructors the protected region and the local state start only once the
+ * super or this constructor has been called. Any probes before that point
+ * call the coverage store directly.
+ */
+abstract class AbstractCoverageMethodVisitor extends AdviceAdapter {
+
+  private final MethodVisitor methodVisitor;
+  private final LineTracker   lineTracker;
+
+  protected final int         classId;
+  protected final int         numberOfProbes;
+  protected final int         probeOffset;
+
+  /**
+   * label to mark start of try finally block that is added to each method
+   */
+  private final Label         before     = new Label();
+
+  /**
+   * label to mark handler block of try finally
+   */
+  private final Label         handler    = new Label();
+
+  private boolean             entered    = false;
+  private int                 probeCount = 0;
+
+  protected AbstractCoverageMethodVisitor(final LineTracker lineTracker,
+      final int classId, final MethodVisitor writer, final int access,
+      final String name, final String desc, final int numberOfProbes,
+      final int probeOffset) {
+    super(Opcodes.ASM5, writer, access, name, desc);
+    this.methodVisitor = writer;
+    this.lineTracker = lineTracker;
+    this.classId = classId;
+    this.numberOfProbes = numberOfProbes;
+    this.probeOffset = probeOffset;
+  }
+
+  /**
+   * Creates the local state used to record probe hits.
+   */
+  protected abstract void prepareProbes();
+
+  /**
+   * Records a hit to the probe at the given index within the method.
+   */
+  protected abstract void generateProbe(int probe);
+
+  /**
+   * Passes the recorded hits to the coverage store.
+   */
+  protected abstract void generateProbeReportCode();
+
+  @Override
+  protected void onMethodEnter() {
+    prepareProbes();
+    this.mv.visitLabel(this.before);
+    this.entered = true;
+  }
+
+  @Override
+  public void visitMaxs(final int maxStack, final int maxLocals) {
+    if (this.entered) {
+      this.mv.visitTryCatchBlock(this.before, this.handler, this.handler, null);
+      this.mv.visitLabel(this.handler);
+
+      generateProbeReportCode();
+
+      this.mv.visitInsn(ATHROW);
+    }
+
+    // values actually unimportant as we're using compute max
+    this.mv.visitMaxs(maxStack, this.nextLocal);
+  }
+
+  @Override
+  protected void onMethodExit(final int opcode) {
+    // generated catch block will handle any throws ending block
+    if ((opcode != ATHROW) && this.entered) {
+      generateProbeReportCode();
+    }
+  }
+
+  @Override
+  public void visitLineNumber(final int line, final Label start) {
+    this.lineTracker.registerLine(line);
+
+    if (this.entered) {
+      generateProbe(this.probeCount);
+    } else {
+      // always loaded from the constant pool so cached classes can be given a
+      // new id without being instrumented again
+      this.mv.visitLdcInsn(this.classId);
+      pushConstant(this.probeOffset + this.probeCount);
+      this.methodVisitor.visitMethodInsn(Opcodes.INVOKESTATIC,
+          CodeCoverageStore.CLASS_NAME, "visitSingleProbe", "(II)V", false);
+    }
+    this.probeCount++;
+
+    this.methodVisitor.visitLineNumber(line, start);
+  }
+
+  protected void generateStoreCall(final String desc) {
+    this.methodVisitor.visitMethodInsn(Opcodes.INVOKESTATIC,
+        CodeCoverageStore.CLASS_NAME, CodeCoverageStore.PROBE_METHOD_NAME,
+        desc, false);
+  }
+
+  protected void pushConstant(final int value) {
+    if ((value >= -1) && (value <= 5)) {
+      this.mv.visitInsn(ICONST_0 + value);
+    } else if ((value >= Byte.MIN_VALUE) && (value <= Byte.MAX_VALUE)) {
+      this.mv.visitIntInsn(Opcodes.BIPUSH, value);
+    } else if ((value >= Short.MIN_VALUE) && (value <= Short.MAX_VALUE)) {
+      this.mv.visitIntInsn(Opcodes.SIPUSH, value);
+    } else {
+      this.mv.visitLdcInsn(value);
+    }
+  }
+
+}
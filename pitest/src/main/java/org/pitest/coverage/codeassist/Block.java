@@ -0,0 +1,93 @@
+/*
+ * Copyright 2014 Henry Coles
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+package org.pitest.coverage.codeassist;
+
+/**
+ * A run of instructions within a method, identified by the positions of its
+ * first and last instructions in the method's instruction list.
+ */
+public final class Block {
+
+  private final int firstInstruction;
+  private final int lastInstruction;
+  private final int line;
+
+  public Block(final int firstInstruction, final int lastInstruction,
+      final int line) {
+    this.firstInstruction = firstInstruction;
+    this.lastInstruction = lastInstruction;
+    this.line = line;
+  }
+
+  public int getFirstInstruction() {
+    return this.firstInstruction;
+  }
+
+  public int getLastInstruction() {
+    return this.lastInstruction;
+  }
+
+  /**
+   * @return the line number of the block, or -1 if there is no line number
+   *         information
+   */
+  public int getLine() {
+    return this.line;
+  }
+
+  public boolean hasLine() {
+    return this.line != -1;
+  }
+
+  public boolean contains(final int instruction) {
+    return (instruction >= this.firstInstruction)
+        && (instruction <= this.lastInstruction);
+  }
+
+  @Override
+  public int hashCode() {
+    final int prime = 31;
+    int result = 1;
+    result = (prime * result) + this.firstInstruction;
+    result = (prime * result) + this.lastInstruction;
+    result = (prime * result) + this.line;
+    return result;
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null) {
+      return false;
+    }
+    if (getClass() != obj.getClass()) {
+      return false;
+    }
+    final Block other = (Block) obj;
+    return (this.firstInstruction == other.firstInstruction)
+        && (this.lastInstruction == other.lastInstruction)
+        && (this.line == other.line);
+  }
+
+  @Override
+  public String toString() {
+    return "Block [firstInstruction=" + this.firstInstruction
+        + ", lastInstruction=" + this.lastInstruction + ", line=" + this.line
+        + "]";
+  }
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2014 Henry Coles
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+package org.pitest.coverage.codeassist;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.InsnList;
+import org.objectweb.asm.tree.JumpInsnNode;
+import org.objectweb.asm.tree.LabelNode;
+import org.objectweb.asm.tree.LineNumberNode;
+import org.objectweb.asm.tree.LookupSwitchInsnNode;
+import org.objectweb.asm.tree.TableSwitchInsnNode;
+
+/**
+ * Divides the instructions of a method into blocks.
+ *
+ * A new block starts at every label, as any label may be the target of a jump
+ * or the start of an exception handler, and after any instruction that
+ * transfers control elsewhere. Unless an exception is thrown part way through,
+ * every instruction in a block is executed if the first one is.
+ *
+ * The same analysis is performed when instrumenting a class and when mapping
+ * mutations back to the blocks that contain them, so the two must always be
+ * given the same instructions.
+ */
+public final class BlockAnalyser {
+
+  private BlockAnalyser() {
+  }
+
+  public static List<Block> findBlocks(final InsnList instructions) {
+    final List<Block> blocks = new ArrayList<Block>();
+    int currentLine = -1;
+    int blockLine = -1;
+    int blockStart = -1;
+    int lastInstruction = -1;
+    boolean startNewBlock = true;
+
+    for (int i = 0; i != instructions.size(); i++) {
+      final AbstractInsnNode ins = instructions.get(i);
+      if (ins instanceof LineNumberNode) {
+        currentLine = ((LineNumberNode) ins).line;
+      } else if (ins instanceof LabelNode) {
+        startNewBlock = true;
+      } else if (ins.getOpcode() != -1) {
+        if (startNewBlock) {
+          if (blockStart != -1) {
+            blocks.add(new Block(blockStart, lastInstruction, blockLine));
+          }
+          blockStart = i;
+          blockLine = currentLine;
+          startNewBlock = false;
+        }
+        lastInstruction = i;
+        startNewBlock = endsBlock(ins);
+      }
+    }
+
+    if (blockStart != -1) {
+      blocks.add(new Block(blockStart, lastInstruction, blockLine));
+    }
+    return blocks;
+  }
+
+  private static boolean endsBlock(final AbstractInsnNode ins) {
+    if ((ins instanceof JumpInsnNode) || (ins instanceof TableSwitchInsnNode)
+        || (ins instanceof LookupSwitchInsnNode)) {
+      return true;
+    }
+    final int opcode = ins.getOpcode();
+    return ((opcode >= Opcodes.IRETURN) && (opcode <= Opcodes.RETURN))
+        || (opcode == Opcodes.ATHROW) || (opcode == Opcodes.RET);
+  }
+
+}
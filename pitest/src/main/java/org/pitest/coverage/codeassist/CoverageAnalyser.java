@@ -3,9 +3,15 @@ package org.pitest.coverage.codeassist;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.InsnList;
+import org.objectweb.asm.tree.LabelNode;
+import org.objectweb.asm.tree.LdcInsnNode;
 import org.objectweb.asm.tree.LineNumberNode;
+import org.objectweb.asm.tree.MethodInsnNode;
 import org.objectweb.asm.tree.MethodNode;
 
+import sun.pitest.CodeCoverageStore;
+
 /**
  * Need to count the number of lines in the method. Storing method as a tree
  * enables a second scan by the instrumenting visitor
@@ -14,43 +20,54 @@ import org.objectweb.asm.tree.MethodNode;
 public class CoverageAnalyser extends MethodNode {
 
   private static final int    MAX_SUPPORTED_LOCAL_PROBES = 15;
+  private static final int    MAX_SUPPORTED_MASK_PROBES  = 128;
   private final LineTracker   lineTracker;
   private final int           classId;
   private final MethodVisitor mv;
   private final int           probeOffset;
+  private final boolean       blockCoverage;
 
   public CoverageAnalyser(final LineTracker lineTracker, final int classId,
       final int probeOffset, final MethodVisitor mv, final int access,
       final String name, final String desc, final String signature,
-      final String[] exceptions) {
+      final String[] exceptions, final boolean blockCoverage) {
     super(Opcodes.ASM5,access, name, desc, signature, exceptions);
     this.mv = mv;
     this.lineTracker = lineTracker;
     this.classId = classId;
     this.probeOffset = probeOffset;
+    this.blockCoverage = blockCoverage;
   }
 
   @Override
   public void visitEnd() {
+    if (this.blockCoverage) {
+      placeLineNumbersAtBlocks();
+    }
+
     final int numberOfProbes = countRequiredProbes();
 
-    // according to the jvm spec
+    if ("<clinit>".equals(this.name)) {
+      recordStaticInitialization();
+    }
+
+    // single probes are cheapest as a direct call. Otherwise probes are held
+    // in locals, which for constructors are only created once the super or
+    // this constructor has been called, as the jvm spec requires that
     // "There must never be an uninitialized class instance in a local variable in code protected by an exception handler"
-    // the code to add finally blocks used by the local variable and array based
-    // probe approaches is not currently
-    // able to meet this guarantee for constructors. Although they appear to
-    // work, they are rejected by the
-    // java 7 verifier - hence fall back to a simple but slow approach.
-    if ((numberOfProbes == 1) || this.name.equals("<init>")) {
+    if (numberOfProbes == 0) {
+      accept(this.mv);
+    } else if (numberOfProbes == 1) {
       accept(new SimpleCoverageVisitor(this.lineTracker, this.classId, this.mv,
           this.access, this.name, this.desc, this.probeOffset));
-    }
-
-    else if ((numberOfProbes <= MAX_SUPPORTED_LOCAL_PROBES)
-        && (numberOfProbes >= 1)) {
+    } else if (numberOfProbes <= MAX_SUPPORTED_LOCAL_PROBES) {
       accept(new LocalVariableCoverageMethodVisitor(this.lineTracker,
           this.classId, this.mv, this.access, this.name, this.desc,
           numberOfProbes, this.probeOffset));
+    } else if (numberOfProbes <= MAX_SUPPORTED_MASK_PROBES) {
+      accept(new MaskCoverageMethodVisitor(this.lineTracker, this.classId,
+          this.mv, this.access, this.name, this.desc, numberOfProbes,
+          this.probeOffset));
     } else {
       accept(new CoverageMethodVisitor(this.lineTracker, this.classId, this.mv,
           this.access, this.name, this.desc, numberOfProbes, this.probeOffset));
@@ -58,6 +75,44 @@ public class CoverageAnalyser extends MethodNode {
 
   }
 
+  /**
+   * The probe visitors place a probe at each line number, so giving each
+   * block its own line number entry results in one probe per block. The
+   * original entries are removed so that no other probes are added.
+   */
+  private void placeLineNumbersAtBlocks() {
+    final AbstractInsnNode[] nodes = this.instructions.toArray();
+    for (final Block each : BlockAnalyser.findBlocks(this.instructions)) {
+      if (each.hasLine()) {
+        final LabelNode start = new LabelNode();
+        final AbstractInsnNode first = nodes[each.getFirstInstruction()];
+        this.instructions.insertBefore(first, start);
+        this.instructions.insertBefore(first,
+            new LineNumberNode(each.getLine(), start));
+      }
+    }
+
+    for (final AbstractInsnNode each : nodes) {
+      if (each instanceof LineNumberNode) {
+        this.instructions.remove(each);
+      }
+    }
+  }
+
+  /**
+   * A static initializer only runs in the test that first uses the class, so
+   * that test is recorded separately from the lines it covers.
+   */
+  private void recordStaticInitialization() {
+    final InsnList call = new InsnList();
+    // always loaded from the constant pool so the class id can be rewritten
+    call.add(new LdcInsnNode(this.classId));
+    call.add(new MethodInsnNode(Opcodes.INVOKESTATIC,
+        CodeCoverageStore.CLASS_NAME, CodeCoverageStore.STATIC_INIT_METHOD_NAME,
+        "(I)V", false));
+    this.instructions.insert(call);
+  }
+
   private int countRequiredProbes() {
     int count = 0;
     for (int i = 0; i < this.instructions.size(); i++) {
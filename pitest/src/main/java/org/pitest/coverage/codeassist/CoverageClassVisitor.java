@@ -28,11 +28,12 @@ import org.objectweb.asm.MethodVisitor;
 import sun.pitest.CodeCoverageStore;
 
 /**
- * Instruments a class with probes on each line
+ * Instruments a class with probes on each line, or on each block
  */
 public class CoverageClassVisitor extends MethodFilteringAdapter implements
     LineTracker {
   private final int           classId;
+  private final boolean       blockCoverage;
 
   /**
    * List of line numbers - index of the array is the probeid.
@@ -40,8 +41,19 @@ public class CoverageClassVisitor extends MethodFilteringAdapter implements
   private final List<Integer> probesToLines = new ArrayList<Integer>();
 
   public CoverageClassVisitor(final int classId, final ClassWriter writer) {
+    this(classId, writer, false);
+  }
+
+  /**
+   * @param blockCoverage
+   *          if true a probe is placed at the start of each block rather than
+   *          at each line
+   */
+  public CoverageClassVisitor(final int classId, final ClassWriter writer,
+      final boolean blockCoverage) {
     super(writer, BridgeMethodFilter.INSTANCE);
     this.classId = classId;
+    this.blockCoverage = blockCoverage;
   }
 
   public void registerLine(final int line) {
@@ -54,14 +66,18 @@ public class CoverageClassVisitor extends MethodFilteringAdapter implements
       final String[] exceptions, final MethodVisitor methodVisitor) {
 
     return new CoverageAnalyser(this, this.classId, this.probesToLines.size(),
-        methodVisitor, access, name, desc, signature, exceptions);
+        methodVisitor, access, name, desc, signature, exceptions,
+        this.blockCoverage);
 
   }
 
   @Override
   public void visitEnd() {
-    CodeCoverageStore.registerClassProbes(this.classId,
-        convertToPrimitiveArray(this.probesToLines));
+    CodeCoverageStore.registerClassProbes(this.classId, getProbeLines());
+  }
+
+  public int[] getProbeLines() {
+    return convertToPrimitiveArray(this.probesToLines);
   }
 
   public static int[] convertToPrimitiveArray(final List<Integer> integers) {
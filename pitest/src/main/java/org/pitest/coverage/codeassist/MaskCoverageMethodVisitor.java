@@ -0,0 +1,72 @@
+/*
+ * Copyright 2014 Henry Coles
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+package org.pitest.coverage.codeassist;
+
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import sun.pitest.CodeCoverageStore;
+
+/**
+ * Instruments a method adding probes at each line. Probes are held as bits
+ * of int local variables, each covering 32 probes, so methods with too many
+ * probes for one boolean local per probe still avoid allocating an array on
+ * each call. Each exit point passes every mask to the coverage store.
+ */
+public class MaskCoverageMethodVisitor extends AbstractCoverageMethodVisitor {
+
+  private static final int PROBES_PER_MASK = 32;
+
+  private int              locals[];
+
+  public MaskCoverageMethodVisitor(final LineTracker lineTracker,
+      final int classId, final MethodVisitor writer, final int access,
+      final String name, final String desc, final int numberOfLines,
+      final int probeOffset) {
+    super(lineTracker, classId, writer, access, name, desc, numberOfLines,
+        probeOffset);
+  }
+
+  @Override
+  protected void prepareProbes() {
+    this.locals = new int[((this.numberOfProbes - 1) / PROBES_PER_MASK) + 1];
+    for (int i = 0; i != this.locals.length; i++) {
+      this.locals[i] = newLocal(Type.INT_TYPE);
+      pushConstant(0);
+      this.mv.visitVarInsn(ISTORE, this.locals[i]);
+    }
+  }
+
+  @Override
+  protected void generateProbe(final int probe) {
+    final int local = this.locals[probe / PROBES_PER_MASK];
+    this.mv.visitVarInsn(ILOAD, local);
+    pushConstant(1 << (probe % PROBES_PER_MASK));
+    this.mv.visitInsn(IOR);
+    this.mv.visitVarInsn(ISTORE, local);
+  }
+
+  @Override
+  protected void generateProbeReportCode() {
+    for (int i = 0; i != this.locals.length; i++) {
+      this.mv.visitLdcInsn(this.classId);
+      pushConstant(this.probeOffset + (i * PROBES_PER_MASK));
+      this.mv.visitVarInsn(ILOAD, this.locals[i]);
+      this.mv.visitMethodInsn(INVOKESTATIC, CodeCoverageStore.CLASS_NAME,
+          CodeCoverageStore.PROBE_MASK_METHOD_NAME, "(III)V", false);
+    }
+  }
+
+}
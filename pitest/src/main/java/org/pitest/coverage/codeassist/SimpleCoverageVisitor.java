@@ -40,7 +40,12 @@ public class SimpleCoverageVisitor extends MethodVisitor {
 
     this.lineTracker.registerLine(line);
     this.methodVisitor.visitLdcInsn(this.classId);
-    this.methodVisitor.visitLdcInsn(this.probeCount + this.probeOffset);
+    final int probe = this.probeCount + this.probeOffset;
+    if (probe <= Short.MAX_VALUE) {
+      this.methodVisitor.visitIntInsn(Opcodes.SIPUSH, probe);
+    } else {
+      this.methodVisitor.visitLdcInsn(probe);
+    }
 
     this.methodVisitor.visitMethodInsn(Opcodes.INVOKESTATIC,
         CodeCoverageStore.CLASS_NAME, "visitSingleProbe", "(II)V", false);
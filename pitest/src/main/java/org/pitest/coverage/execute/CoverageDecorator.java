@@ -19,6 +19,7 @@ import java.lang.management.ThreadMXBean;
 import java.util.logging.Logger;
 
 import org.pitest.coverage.CoverageReceiver;
+import org.pitest.coverage.ResourceUsage;
 import org.pitest.execute.ExitingResultCollector;
 import org.pitest.extension.common.TestUnitDecorator;
 import org.pitest.testapi.ResultCollector;
@@ -27,10 +28,13 @@ import org.pitest.util.Log;
 
 public class CoverageDecorator extends TestUnitDecorator {
 
-  private final static Logger    LOG     = Log.getLogger();
+  private final static Logger       LOG     = Log.getLogger();
 
-  private final CoverageReceiver invokeQueue;
-  private final ThreadMXBean     threads = ManagementFactory.getThreadMXBean();
+  private final CoverageReceiver    invokeQueue;
+  private final ThreadMXBean        threads = ManagementFactory
+                                                .getThreadMXBean();
+  private final ThreadResourceMeter meter   = new ThreadResourceMeter(
+                                                this.threads);
 
   protected CoverageDecorator(final CoverageReceiver queue, final TestUnit child) {
     super(child);
@@ -44,12 +48,18 @@ public class CoverageDecorator extends TestUnitDecorator {
 
     final int threadsBeforeTest = this.threads.getThreadCount();
 
-    final long t0 = System.currentTimeMillis();
+    final long allocatedBefore = this.meter.allocatedBytes();
+    final long cpuBefore = this.meter.cpuTime();
+    final long t0 = System.nanoTime();
     final ExitingResultCollector wrappedCollector = new ExitingResultCollector(
         rc);
     this.child().execute(loader, wrappedCollector);
 
-    final int executionTime = (int) (System.currentTimeMillis() - t0);
+    final long wallTime = System.nanoTime() - t0;
+    final ResourceUsage usage = new ResourceUsage(wallTime,
+        ThreadResourceMeter.difference(cpuBefore, this.meter.cpuTime()),
+        ThreadResourceMeter.difference(allocatedBefore,
+            this.meter.allocatedBytes()));
 
     final int threadsAfterTest = this.threads.getThreadCount();
     if (threadsAfterTest > threadsBeforeTest) {
@@ -59,7 +69,7 @@ public class CoverageDecorator extends TestUnitDecorator {
     }
 
     this.invokeQueue.recordTestOutcome(child().getDescription(),
-        !wrappedCollector.shouldExit(), executionTime);
+        !wrappedCollector.shouldExit(), usage);
 
   }
 
@@ -15,6 +15,8 @@ package org.pitest.coverage.execute;
  * See the License for the specific language governing permissions and limitations under the License.
  */
 
+import java.io.File;
+
 import org.pitest.functional.predicate.Predicate;
 import org.pitest.testapi.Configuration;
 
@@ -24,14 +26,26 @@ public class CoverageOptions {
   private final boolean           verbose;
   private final Configuration     pitConfig;
   private final int               maxDependencyDistance;
+  private final int               numberOfSlaves;
+  private final File              instrumentedClassCacheLocation;
+  private final boolean           blockCoverage;
+  private final boolean           stripedCoverage;
+  private final boolean           targetDrivenCoverage;
 
   public CoverageOptions(final Predicate<String> filter,
       final Configuration pitConfig, final boolean verbose,
-      final int maxDependencyDistance) {
+      final int maxDependencyDistance, final int numberOfSlaves,
+      final File instrumentedClassCacheLocation, final boolean blockCoverage,
+      final boolean stripedCoverage, final boolean targetDrivenCoverage) {
     this.filter = filter;
     this.verbose = verbose;
     this.pitConfig = pitConfig;
     this.maxDependencyDistance = maxDependencyDistance;
+    this.numberOfSlaves = numberOfSlaves;
+    this.instrumentedClassCacheLocation = instrumentedClassCacheLocation;
+    this.blockCoverage = blockCoverage;
+    this.stripedCoverage = stripedCoverage;
+    this.targetDrivenCoverage = targetDrivenCoverage;
   }
 
   public Predicate<String> getFilter() {
@@ -50,4 +64,44 @@ public class CoverageOptions {
     return this.maxDependencyDistance;
   }
 
+  /**
+   * The number of slave processes the test classes will be split between when
+   * gathering coverage.
+   */
+  public int getNumberOfSlaves() {
+    return this.numberOfSlaves;
+  }
+
+  /**
+   * Directory in which instrumented classes are cached between runs, or null
+   * if they should not be cached.
+   */
+  public File getInstrumentedClassCacheLocation() {
+    return this.instrumentedClassCacheLocation;
+  }
+
+  /**
+   * If true, the blocks executed by each test are recorded as well as the
+   * lines.
+   */
+  public boolean isBlockCoverage() {
+    return this.blockCoverage;
+  }
+
+  /**
+   * If true, each thread records the probes it hits separately and these are
+   * combined at the end of each test.
+   */
+  public boolean isStripedCoverage() {
+    return this.stripedCoverage;
+  }
+
+  /**
+   * If true, coverage is only gathered for the test classes that can reach the
+   * target classes through their dependencies.
+   */
+  public boolean isTargetDrivenCoverage() {
+    return this.targetDrivenCoverage;
+  }
+
 }
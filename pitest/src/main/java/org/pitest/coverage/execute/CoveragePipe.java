@@ -1,10 +1,13 @@
 package org.pitest.coverage.execute;
 
 import java.io.OutputStream;
-import java.util.Collection;
-
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.pitest.coverage.CoverageReceiver;
+import org.pitest.coverage.ResourceUsage;
 import org.pitest.testapi.Description;
 import org.pitest.util.ExitCode;
 import org.pitest.util.Id;
@@ -12,12 +15,38 @@ import org.pitest.util.SafeDataOutputStream;
 
 import sun.pitest.CodeCoverageStore;
 
+/**
+ * Sends coverage data to the parent process.
+ *
+ * The lines hit by each test are sent per class as either a bitmap of the
+ * lines relative to the first line hit, or as a plain list of lines when
+ * that is the smaller of the two. When recording blocks, the probes hit in each
+ * class are sent after the lines using the same encoding. The ids of the
+ * classes whose static initializer ran during the test follow the hits.
+ *
+ * Classes are registered as they are loaded, often by several threads at once,
+ * so registrations are queued rather than written to the stream. Any queued
+ * classes are sent at the start of the next test outcome, ahead of the hits
+ * that refer to them.
+ */
 public class CoveragePipe implements CoverageReceiver {
 
+  static final byte                  ENCODING_VERSION = 5;
+  static final byte                  BITMAP           = 0;
+  static final byte                  LINE_LIST        = 1;
+
   private final SafeDataOutputStream dos;
+  private final boolean              blockCoverage;
+
+  private final Queue<Registration>  pendingClasses   = new ConcurrentLinkedQueue<Registration>();
 
   public CoveragePipe(final OutputStream dos) {
+    this(dos, false);
+  }
+
+  public CoveragePipe(final OutputStream dos, final boolean blockCoverage) {
     this.dos = new SafeDataOutputStream(dos);
+    this.blockCoverage = blockCoverage;
   }
 
   public synchronized void newTest() {
@@ -25,17 +54,31 @@ public class CoveragePipe implements CoverageReceiver {
   }
 
   public synchronized void recordTestOutcome(final Description description,
-      final boolean wasGreen, final int executionTime) {
-    final Collection<Long> hits = CodeCoverageStore.getHits();
-
+      final boolean wasGreen, final ResourceUsage usage) {
     this.dos.writeByte(Id.OUTCOME);
     this.dos.write(description);
-    this.dos.writeLong(hits.size());
-    for (final Long each : hits) {
-      this.dos.writeLong(each);
+    this.dos.writeByte(ENCODING_VERSION);
+    this.dos.writeBoolean(this.blockCoverage);
+    // hits are gathered before draining the queue, as a class is always
+    // queued before any of its probes can be hit
+    final int[] initialised = CodeCoverageStore.getInitialisedClasses();
+    if (this.blockCoverage) {
+      final List<int[]> hits = CodeCoverageStore.getProbeHitsByClass();
+      writePendingClasses();
+      writeProbeHits(hits);
+    } else {
+      final List<int[]> hits = CodeCoverageStore.getLineHitsByClass();
+      writePendingClasses();
+      writeLineHits(hits);
+    }
+    this.dos.writeInt(initialised.length);
+    for (final int each : initialised) {
+      this.dos.writeInt(each);
     }
     this.dos.writeBoolean(wasGreen);
-    this.dos.writeInt(executionTime);
+    this.dos.writeLong(usage.getWallTime());
+    this.dos.writeLong(usage.getCpuTime());
+    this.dos.writeLong(usage.getAllocatedBytes());
 
   }
 
@@ -45,12 +88,99 @@ public class CoveragePipe implements CoverageReceiver {
     this.dos.flush();
   }
 
-  public synchronized void registerClass(final int id, final String className) {
+  public void registerClass(final int id, final String className) {
+    this.pendingClasses.add(new Registration(id, className));
+  }
 
-    this.dos.writeByte(Id.CLAZZ);
-    this.dos.writeInt(id);
-    this.dos.writeString(className);
+  private void writePendingClasses() {
+    final List<Registration> classes = new ArrayList<Registration>();
+    Registration each = this.pendingClasses.poll();
+    while (each != null) {
+      classes.add(each);
+      each = this.pendingClasses.poll();
+    }
+
+    this.dos.writeInt(classes.size());
+    for (final Registration registration : classes) {
+      this.dos.writeInt(registration.id);
+      this.dos.writeString(registration.className);
+    }
+  }
+
+  private void writeLineHits(final List<int[]> hits) {
+    this.dos.writeInt(hits.size());
+    for (final int[] each : hits) {
+      // first slot holds the class id
+      this.dos.writeInt(each[0]);
+      writeValues(each);
+    }
+  }
 
+  private void writeProbeHits(final List<int[]> hits) {
+    this.dos.writeInt(hits.size());
+    for (final int[] each : hits) {
+      final int[] probeLines = CodeCoverageStore.getProbeLines(each[0]);
+      final int[] lines = new int[each.length];
+      for (int i = 1; i != each.length; i++) {
+        lines[i] = probeLines[each[i]];
+      }
+      this.dos.writeInt(each[0]);
+      writeValues(lines);
+      writeValues(each);
+    }
+  }
+
+  /**
+   * Writes all but the first of the supplied values, which may contain
+   * duplicates.
+   */
+  private void writeValues(final int[] values) {
+    int first = Integer.MAX_VALUE;
+    int last = Integer.MIN_VALUE;
+    for (int i = 1; i != values.length; i++) {
+      first = Math.min(first, values[i]);
+      last = Math.max(last, values[i]);
+    }
+
+    final int[] bitmap = new int[((last - first) >>> 5) + 1];
+    for (int i = 1; i != values.length; i++) {
+      final int offset = values[i] - first;
+      bitmap[offset >>> 5] |= 1 << (offset & 31);
+    }
+
+    int distinctValues = 0;
+    for (final int word : bitmap) {
+      distinctValues += Integer.bitCount(word);
+    }
+
+    if (bitmap.length <= distinctValues) {
+      this.dos.writeByte(BITMAP);
+      this.dos.writeInt(first);
+      this.dos.writeInt(bitmap.length);
+      for (final int word : bitmap) {
+        this.dos.writeInt(word);
+      }
+    } else {
+      this.dos.writeByte(LINE_LIST);
+      this.dos.writeInt(distinctValues);
+      for (int word = 0; word != bitmap.length; word++) {
+        for (int bit = 0; bit != 32; bit++) {
+          if ((bitmap[word] & (1 << bit)) != 0) {
+            this.dos.writeInt(first + (word << 5) + bit);
+          }
+        }
+      }
+    }
+  }
+
+  private static final class Registration {
+    private final int    id;
+    private final String className;
+
+    Registration(final int id, final String className) {
+      this.id = id;
+      this.className = className;
+    }
   }
 
 }
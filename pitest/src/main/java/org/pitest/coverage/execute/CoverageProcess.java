@@ -14,6 +14,7 @@ public class CoverageProcess {
 
   private final WrappingProcess             process;
   private final CoverageCommunicationThread crt;
+  private final ServerSocket                socket;
 
   public CoverageProcess(final ProcessArgs processArgs,
       final CoverageOptions arguments, final ServerSocket socket,
@@ -21,6 +22,7 @@ public class CoverageProcess {
       throws IOException {
     this.process = new WrappingProcess(socket.getLocalPort(), processArgs,
         CoverageSlave.class);
+    this.socket = socket;
     this.crt = new CoverageCommunicationThread(socket, arguments, testClases,
         handler);
   }
@@ -39,4 +41,18 @@ public class CoverageProcess {
 
   }
 
+  /**
+   * Kills the slave, if it was launched, and closes the socket it would have
+   * connected to so the communication thread does not wait for it forever.
+   */
+  public void destroy() {
+    try {
+      this.socket.close();
+    } catch (final IOException ex) {
+      // nothing more can be released
+    } finally {
+      this.process.destroy();
+    }
+  }
+
 }
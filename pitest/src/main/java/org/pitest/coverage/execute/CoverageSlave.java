@@ -30,10 +30,12 @@ import org.pitest.boot.HotSwapAgent;
 import org.pitest.classinfo.ClassName;
 import org.pitest.classpath.ClassPathByteArraySource;
 import org.pitest.coverage.CoverageTransformer;
+import org.pitest.coverage.InstrumentedClassCache;
 import org.pitest.dependency.DependencyExtractor;
 import org.pitest.execute.Pitest;
 import org.pitest.execute.UnGroupedStrategy;
 import org.pitest.functional.FCollection;
+import org.pitest.functional.Option;
 import org.pitest.functional.predicate.Predicate;
 import org.pitest.testapi.TestUnit;
 import org.pitest.util.ExitCode;
@@ -69,12 +71,15 @@ public class CoverageSlave {
       }
 
       invokeQueue = new CoveragePipe(new BufferedOutputStream(
-          s.getOutputStream()));
+          s.getOutputStream()), paramsFromParent.isBlockCoverage());
 
-      CodeCoverageStore.init(invokeQueue);
+      CodeCoverageStore.init(invokeQueue,
+          paramsFromParent.isStripedCoverage());
 
       HotSwapAgent.addTransformer(new CoverageTransformer(
-          convertToJVMClassFilter(paramsFromParent.getFilter())));
+          convertToJVMClassFilter(paramsFromParent.getFilter()),
+          createInstrumentedClassCache(paramsFromParent), paramsFromParent
+              .isBlockCoverage()));
 
       final List<TestUnit> tus = getTestsFromParent(dis, paramsFromParent);
 
@@ -106,6 +111,16 @@ public class CoverageSlave {
 
   }
 
+  private static Option<InstrumentedClassCache> createInstrumentedClassCache(
+      final CoverageOptions paramsFromParent) {
+    if (paramsFromParent.getInstrumentedClassCacheLocation() == null) {
+      return Option.none();
+    }
+    return Option.some(new InstrumentedClassCache(
+        paramsFromParent.getInstrumentedClassCacheLocation(),
+        paramsFromParent.isBlockCoverage()));
+  }
+
   private static Predicate<String> convertToJVMClassFilter(
       final Predicate<String> child) {
     return new Predicate<String>() {
@@ -18,19 +18,25 @@ package org.pitest.coverage.execute;
 import java.io.File;
 import java.io.IOException;
 import java.net.ServerSocket;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.logging.Logger;
 
 import org.pitest.classinfo.ClassInfo;
+import org.pitest.classpath.ClassPathByteArraySource;
 import org.pitest.classpath.CodeSource;
+import org.pitest.coverage.CoverageCache;
 import org.pitest.coverage.CoverageData;
 import org.pitest.coverage.CoverageExporter;
 import org.pitest.coverage.CoverageGenerator;
 import org.pitest.coverage.CoverageResult;
+import org.pitest.dependency.ReverseDependencyIndex;
 import org.pitest.functional.F;
 import org.pitest.functional.FCollection;
+import org.pitest.functional.Option;
 import org.pitest.functional.SideEffect1;
 import org.pitest.functional.prelude.Prelude;
 import org.pitest.help.Help;
@@ -55,18 +61,21 @@ public class DefaultCoverageGenerator implements CoverageGenerator {
   private final Timings          timings;
   private final File             workingDir;
   private final CoverageExporter exporter;
+  private final CoverageCache    cache;
   private final boolean          showProgress;
 
   public DefaultCoverageGenerator(final File workingDir,
       final CoverageOptions coverageOptions, final LaunchOptions launchOptions,
       final CodeSource code, final CoverageExporter exporter,
-      final Timings timings, final boolean showProgress) {
+      final CoverageCache cache, final Timings timings,
+      final boolean showProgress) {
     this.coverageOptions = coverageOptions;
     this.code = code;
     this.launchOptions = launchOptions;
     this.timings = timings;
     this.workingDir = workingDir;
     this.exporter = exporter;
+    this.cache = cache;
     this.showProgress = showProgress;
   }
 
@@ -75,22 +84,27 @@ public class DefaultCoverageGenerator implements CoverageGenerator {
       final long t0 = System.currentTimeMillis();
 
       this.timings.registerStart(Timings.Stage.SCAN_CLASS_PATH);
-      final Collection<ClassInfo> tests = this.code.getTests();
+      final Collection<ClassInfo> tests = selectTests(this.code.getTests());
       this.timings.registerEnd(Timings.Stage.SCAN_CLASS_PATH);
 
       final CoverageData coverage = new CoverageData(this.code);
 
       this.timings.registerStart(Timings.Stage.COVERAGE);
-      gatherCoverageData(tests, coverage);
+      final List<ClassInfo> testsToRun = reuseCachedCoverage(tests, coverage);
+      if (!testsToRun.isEmpty()) {
+        gatherCoverageData(testsToRun, coverage);
+      }
       this.timings.registerEnd(Timings.Stage.COVERAGE);
 
       final long time = (System.currentTimeMillis() - t0) / 1000;
 
       LOG.info("Calculated coverage in " + time + " seconds.");
 
+      this.cache.store();
+
       verifyBuildSuitableForMutationTesting(coverage);
 
-      this.exporter.recordCoverage(coverage.createLineCoverage());
+      this.exporter.recordCoverage(coverage);
 
       return coverage;
 
@@ -107,27 +121,107 @@ public class DefaultCoverageGenerator implements CoverageGenerator {
     }
   }
 
+  private List<ClassInfo> selectTests(final List<ClassInfo> tests) {
+    if (!this.coverageOptions.isTargetDrivenCoverage()) {
+      return tests;
+    }
+
+    // a negative distance disables dependency filtering in the slaves, but
+    // here it means the whole graph should be searched
+    final int distance = Math.max(0,
+        this.coverageOptions.getDependencyAnalysisMaxDistance());
+    final ReverseDependencyIndex index = ReverseDependencyIndex.build(
+        new ClassPathByteArraySource(this.code.getClassPath()),
+        FCollection.map(tests, classInfoToName()), distance, Runtime
+            .getRuntime().availableProcessors());
+    final Set<String> reachingTargets = index.findRootsReaching(FCollection
+        .map(this.code.getCode(), classInfoToName()));
+
+    final List<ClassInfo> selected = FCollection.filter(tests,
+        nameIsIn(reachingTargets));
+    LOG.info("Selected " + selected.size() + " of " + tests.size()
+        + " test classes that depend on the target classes");
+    return selected;
+  }
+
+  private static F<ClassInfo, Boolean> nameIsIn(final Set<String> names) {
+    return new F<ClassInfo, Boolean>() {
+      public Boolean apply(final ClassInfo a) {
+        return names.contains(a.getName().asInternalName());
+      }
+    };
+  }
+
+  private List<ClassInfo> reuseCachedCoverage(final Collection<ClassInfo> tests,
+      final CoverageData coverage) {
+    final List<ClassInfo> testsToRun = new ArrayList<ClassInfo>();
+    for (final ClassInfo each : tests) {
+      final Option<Collection<CoverageResult>> cached = this.cache
+          .getResults(each);
+      if (cached.hasSome()) {
+        for (final CoverageResult result : cached.value()) {
+          coverage.calculateClassCoverage(result);
+        }
+      } else {
+        testsToRun.add(each);
+      }
+    }
+
+    final int reused = tests.size() - testsToRun.size();
+    if (reused != 0) {
+      LOG.info("Reused cached coverage for " + reused + " of " + tests.size()
+          + " test classes");
+    }
+    return testsToRun;
+  }
+
   private void gatherCoverageData(final Collection<ClassInfo> tests,
       final CoverageData coverage) throws IOException, InterruptedException,
       ExecutionException {
 
-    final List<String> filteredTests = FCollection
-        .map(tests, classInfoToName());
+    final List<List<ClassInfo>> shards = new TestClassPartitioner(
+        this.coverageOptions.getNumberOfSlaves()).partition(tests);
 
     final SideEffect1<CoverageResult> handler = resultProcessor(coverage);
 
     final SocketFinder sf = new SocketFinder();
-    final ServerSocket socket = sf.getNextAvailableServerSocket();
-
-    final CoverageProcess process = new CoverageProcess(ProcessArgs
-        .withClassPath(this.code.getClassPath()).andBaseDir(this.workingDir)
-        .andLaunchOptions(this.launchOptions).andStderr(logInfo())
-        .andStdout(captureStandardOutIfVerbose()), this.coverageOptions,
-        socket, filteredTests, handler);
+    final List<CoverageProcess> processes = new ArrayList<CoverageProcess>(
+        shards.size());
+    boolean started = false;
+    try {
+      for (final List<ClassInfo> each : shards) {
+        final List<String> filteredTests = FCollection.map(each,
+            classInfoToName());
+        final ServerSocket socket = sf.getNextAvailableServerSocket();
+        final CoverageProcess process = new CoverageProcess(ProcessArgs
+            .withClassPath(this.code.getClassPath())
+            .andBaseDir(this.workingDir).andLaunchOptions(this.launchOptions)
+            .andStderr(logInfo()).andStdout(captureStandardOutIfVerbose()),
+            this.coverageOptions, socket, filteredTests, handler);
+        processes.add(process);
+        process.start();
+      }
+      started = true;
+    } finally {
+      if (!started) {
+        // do not leave the slaves that did start waiting for the others
+        for (final CoverageProcess each : processes) {
+          each.destroy();
+        }
+      }
+    }
 
-    process.start();
+    if (processes.size() > 1) {
+      LOG.info("Gathering coverage using " + processes.size() + " slaves");
+    }
 
-    ExitCode exitCode = process.waitToDie();
+    ExitCode exitCode = ExitCode.OK;
+    for (final CoverageProcess each : processes) {
+      final ExitCode slaveExitCode = each.waitToDie();
+      if (!slaveExitCode.isOk()) {
+        exitCode = slaveExitCode;
+      }
+    }
 
     if(!exitCode.isOk()) {
       LOG.severe("Coverage generator Slave exited abnormally due to " + exitCode);
@@ -177,8 +271,10 @@ public class DefaultCoverageGenerator implements CoverageGenerator {
                                          "\u0008\\", "\u0008|" };
       int                    i       = 0;
 
-      public void apply(final CoverageResult cr) {
+      // results arrive concurrently when more than one slave is used
+      public synchronized void apply(final CoverageResult cr) {
         coverage.calculateClassCoverage(cr);
+        DefaultCoverageGenerator.this.cache.recordResult(cr);
         if (DefaultCoverageGenerator.this.showProgress) {
           System.out.printf("%s", this.spinner[this.i % this.spinner.length]);
         }
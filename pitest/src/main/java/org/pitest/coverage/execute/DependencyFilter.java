@@ -27,10 +27,20 @@ class DependencyFilter {
     if (this.analyser.getMaxDistance() < 0) {
       return tus;
     } else {
+      this.analyser.analyse(FCollection.map(tus, toTestClass()), Runtime
+          .getRuntime().availableProcessors());
       return FCollection.filter(tus, isWithinReach());
     }
   }
 
+  private static F<TestUnit, String> toTestClass() {
+    return new F<TestUnit, String>() {
+      public String apply(final TestUnit a) {
+        return a.getDescription().getFirstTestClass();
+      }
+    };
+  }
+
   private F<TestUnit, Boolean> isWithinReach() {
 
     return new F<TestUnit, Boolean>() {
@@ -1,20 +1,23 @@
 package org.pitest.coverage.execute;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 
+import org.pitest.classinfo.ClassName;
 import org.pitest.coverage.ClassStatistics;
 import org.pitest.coverage.CoverageResult;
+import org.pitest.coverage.ResourceUsage;
 import org.pitest.functional.SideEffect1;
 import org.pitest.testapi.Description;
 import org.pitest.util.Id;
+import org.pitest.util.PitError;
 import org.pitest.util.ReceiveStrategy;
 import org.pitest.util.SafeDataInputStream;
 
-import sun.pitest.CodeCoverageStore;
-
 final class Receive implements ReceiveStrategy {
 
   private final Map<Integer, String>        classIdToName = new ConcurrentHashMap<Integer, String>();
@@ -26,11 +29,6 @@ final class Receive implements ReceiveStrategy {
 
   public void apply(final byte control, final SafeDataInputStream is) {
     switch (control) {
-    case Id.CLAZZ:
-      final int id = is.readInt();
-      final String name = is.readString();
-      this.classIdToName.put(id, name);
-      break;
     case Id.OUTCOME:
       handleTestEnd(is);
       break;
@@ -41,45 +39,89 @@ final class Receive implements ReceiveStrategy {
 
   private void handleTestEnd(final SafeDataInputStream is) {
     final Description d = is.read(Description.class);
-    final long numberOfResults = is.readLong();
+    final byte version = is.readByte();
+    if (version != CoveragePipe.ENCODING_VERSION) {
+      throw new PitError("Unexpected coverage encoding version " + version);
+    }
+    final boolean includesBlocks = is.readBoolean();
+
+    final int numberOfNewClasses = is.readInt();
+    for (int i = 0; i != numberOfNewClasses; i++) {
+      final int id = is.readInt();
+      this.classIdToName.put(id, is.readString());
+    }
 
-    final Map<Integer, ClassStatistics> hits = new HashMap<Integer, ClassStatistics>();
+    final int numberOfClasses = is.readInt();
+    final List<ClassStatistics> hits = new ArrayList<ClassStatistics>(
+        numberOfClasses);
+    for (int i = 0; i != numberOfClasses; i++) {
+      hits.add(readClassHits(is, includesBlocks));
+    }
 
-    for (int i = 0; i != numberOfResults; i++) {
-      readLineHit(is, hits);
+    final int numberOfInitialisedClasses = is.readInt();
+    final List<ClassName> initialised = new ArrayList<ClassName>(
+        numberOfInitialisedClasses);
+    for (int i = 0; i != numberOfInitialisedClasses; i++) {
+      initialised.add(ClassName.fromString(this.classIdToName.get(is
+          .readInt())));
     }
 
-    this.handler.apply(createCoverageResult(is, d, hits));
+    this.handler.apply(createCoverageResult(is, d, hits, initialised));
   }
 
-  private void readLineHit(final SafeDataInputStream is,
-      final Map<Integer, ClassStatistics> hits) {
-    final long encoded = is.readLong();
-    final int classId = CodeCoverageStore.decodeClassId(encoded);
-    final int lineNumber = CodeCoverageStore.decodeLineId(encoded);
+  private ClassStatistics readClassHits(final SafeDataInputStream is,
+      final boolean includesBlocks) {
+    final int classId = is.readInt();
+    final ClassStatistics stats = new ClassStatistics(
+        this.classIdToName.get(classId));
 
-    final ClassStatistics stats = getStatisticsForClass(hits, classId);
+    readValues(is, stats, false);
+    if (includesBlocks) {
+      readValues(is, stats, true);
+    }
+    return stats;
+  }
 
-    stats.registerLineVisit(lineNumber);
+  private static void readValues(final SafeDataInputStream is,
+      final ClassStatistics stats, final boolean blocks) {
+    final byte encoding = is.readByte();
+    if (encoding == CoveragePipe.BITMAP) {
+      final int first = is.readInt();
+      final int words = is.readInt();
+      for (int word = 0; word != words; word++) {
+        int bits = is.readInt();
+        while (bits != 0) {
+          final int bit = Integer.numberOfTrailingZeros(bits);
+          register(stats, blocks, first + (word << 5) + bit);
+          bits &= bits - 1;
+        }
+      }
+    } else {
+      final int values = is.readInt();
+      for (int i = 0; i != values; i++) {
+        register(stats, blocks, is.readInt());
+      }
+    }
+  }
+
+  private static void register(final ClassStatistics stats,
+      final boolean block, final int value) {
+    if (block) {
+      stats.registerBlockVisit(value);
+    } else {
+      stats.registerLineVisit(value);
+    }
   }
 
   private CoverageResult createCoverageResult(final SafeDataInputStream is,
-      final Description d, final Map<Integer, ClassStatistics> hits) {
+      final Description d, final Collection<ClassStatistics> hits,
+      final Collection<ClassName> initialised) {
     final boolean isGreen = is.readBoolean();
-    final int executionTime = is.readInt();
-    final CoverageResult cr = new CoverageResult(d, executionTime, isGreen,
-        hits.values());
+    final ResourceUsage usage = new ResourceUsage(is.readLong(),
+        is.readLong(), is.readLong());
+    final CoverageResult cr = new CoverageResult(d, usage, isGreen, hits,
+        initialised);
     return cr;
   }
 
-  private ClassStatistics getStatisticsForClass(
-      final Map<Integer, ClassStatistics> hits, final int classId) {
-    ClassStatistics stats = hits.get(classId);
-    if (stats == null) {
-      stats = new ClassStatistics(this.classIdToName.get(classId));
-      hits.put(classId, stats);
-    }
-    return stats;
-  }
-
-}
\ No newline at end of file
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2014 Henry Coles
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+package org.pitest.coverage.execute;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.pitest.classinfo.ClassInfo;
+
+/**
+ * Splits test classes between coverage slaves so that each slave receives a
+ * similar amount of work. As we cannot know how long a test will run before
+ * coverage has been gathered the number of lines of code in the test class is
+ * used as an estimate of its cost.
+ */
+class TestClassPartitioner {
+
+  private final int numberOfShards;
+
+  TestClassPartitioner(final int numberOfShards) {
+    this.numberOfShards = Math.max(1, numberOfShards);
+  }
+
+  List<List<ClassInfo>> partition(final Collection<ClassInfo> tests) {
+    final List<ClassInfo> byCost = new ArrayList<ClassInfo>(tests);
+    Collections.sort(byCost, mostExpensiveFirst());
+
+    final int shardCount = Math.min(this.numberOfShards,
+        Math.max(1, byCost.size()));
+    final List<List<ClassInfo>> shards = new ArrayList<List<ClassInfo>>(
+        shardCount);
+    final long[] load = new long[shardCount];
+    for (int i = 0; i != shardCount; i++) {
+      shards.add(new ArrayList<ClassInfo>());
+    }
+
+    // greedily place each test in the least loaded shard
+    for (final ClassInfo each : byCost) {
+      int lightest = 0;
+      for (int i = 1; i != shardCount; i++) {
+        if (load[i] < load[lightest]) {
+          lightest = i;
+        }
+      }
+      shards.get(lightest).add(each);
+      load[lightest] += estimatedCost(each);
+    }
+
+    return shards;
+  }
+
+  private static Comparator<ClassInfo> mostExpensiveFirst() {
+    return new Comparator<ClassInfo>() {
+      public int compare(final ClassInfo o1, final ClassInfo o2) {
+        final int byCost = estimatedCost(o2) - estimatedCost(o1);
+        if (byCost != 0) {
+          return byCost;
+        }
+        return o1.getName().compareTo(o2.getName());
+      }
+    };
+  }
+
+  private static int estimatedCost(final ClassInfo test) {
+    return Math.max(1, test.getNumberOfCodeLines());
+  }
+
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2014 Henry Coles
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+package org.pitest.coverage.execute;
+
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+
+import org.pitest.coverage.ResourceUsage;
+
+/**
+ * Measures the CPU time and allocations of the current thread. Allocations
+ * can only be measured through an extension to ThreadMXBean that is not
+ * present on all jvms, so it is looked up reflectively.
+ */
+final class ThreadResourceMeter {
+
+  private final ThreadMXBean threads;
+  private final boolean      measuresCpuTime;
+  private final Method       allocatedBytes;
+
+  ThreadResourceMeter(final ThreadMXBean threads) {
+    this.threads = threads;
+    this.measuresCpuTime = threads.isCurrentThreadCpuTimeSupported()
+        && threads.isThreadCpuTimeEnabled();
+    this.allocatedBytes = findAllocatedBytesMethod(threads);
+  }
+
+  long cpuTime() {
+    if (!this.measuresCpuTime) {
+      return ResourceUsage.UNKNOWN;
+    }
+    return this.threads.getCurrentThreadCpuTime();
+  }
+
+  long allocatedBytes() {
+    if (this.allocatedBytes == null) {
+      return ResourceUsage.UNKNOWN;
+    }
+    try {
+      return (Long) this.allocatedBytes.invoke(this.threads, Thread
+          .currentThread().getId());
+    } catch (final Exception ex) {
+      return ResourceUsage.UNKNOWN;
+    }
+  }
+
+  static long difference(final long before, final long after) {
+    if ((before == ResourceUsage.UNKNOWN) || (after == ResourceUsage.UNKNOWN)) {
+      return ResourceUsage.UNKNOWN;
+    }
+    return after - before;
+  }
+
+  private static Method findAllocatedBytesMethod(final ThreadMXBean threads) {
+    try {
+      final Class<?> extension = Class
+          .forName("com.sun.management.ThreadMXBean");
+      if (!extension.isInstance(threads)
+          || !(Boolean) extension.getMethod("isThreadAllocatedMemorySupported")
+              .invoke(threads)
+          || !(Boolean) extension.getMethod("isThreadAllocatedMemoryEnabled")
+              .invoke(threads)) {
+        return null;
+      }
+      return extension.getMethod("getThreadAllocatedBytes", long.class);
+    } catch (final Exception ex) {
+      return null;
+    }
+  }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2014 Henry Coles
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+package org.pitest.coverage.export;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.pitest.classinfo.ClassName;
+import org.pitest.coverage.CoverageData;
+import org.pitest.coverage.CoverageExporter;
+import org.pitest.coverage.CoverageVisitor;
+import org.pitest.coverage.ResourceUsage;
+import org.pitest.coverage.TestInfo;
+import org.pitest.util.ResultOutputStrategy;
+import org.pitest.util.Unchecked;
+
+/**
+ * Streams line coverage to a compact binary file that can be loaded again with
+ * a {@link BinaryCoverageReader}.
+ *
+ * Each test is written once, and is referred to by its position in the file
+ * thereafter. The test ids covering each line are written in ascending order
+ * as variable length deltas, so the size of the file grows with the number of
+ * line/test pairs rather than with the length of the test names.
+ */
+public class BinaryCoverageExporter implements CoverageExporter {
+
+  static final int                   MAGIC   = 0x50495443;
+  static final int                   VERSION = 1;
+
+  static final int                   END     = 0;
+  static final int                   TEST    = 1;
+  static final int                   CLASS   = 2;
+  static final int                   LINE    = 3;
+
+  private final ResultOutputStrategy outputStrategy;
+  private final boolean              compress;
+
+  public BinaryCoverageExporter(final ResultOutputStrategy outputStrategy,
+      final boolean compress) {
+    this.outputStrategy = outputStrategy;
+    this.compress = compress;
+  }
+
+  public void recordCoverage(final CoverageData coverage) {
+    try {
+      final DataOutputStream out = new DataOutputStream(createStream());
+      try {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        coverage.accept(new RecordWriter(out));
+        out.writeByte(END);
+      } finally {
+        out.close();
+      }
+    } catch (final IOException ex) {
+      throw Unchecked.translateCheckedException(ex);
+    }
+  }
+
+  private OutputStream createStream() throws IOException {
+    if (this.compress) {
+      return new GZIPOutputStream(
+          this.outputStrategy.createOutputStreamForFile("linecoverage.bin.gz"));
+    }
+    return this.outputStrategy.createOutputStreamForFile("linecoverage.bin");
+  }
+
+  static void writeVarInt(final DataOutputStream out, final int value)
+      throws IOException {
+    int remaining = value;
+    while ((remaining & ~0x7F) != 0) {
+      out.writeByte((remaining & 0x7F) | 0x80);
+      remaining >>>= 7;
+    }
+    out.writeByte(remaining);
+  }
+
+  private static class RecordWriter implements CoverageVisitor {
+
+    private final DataOutputStream out;
+
+    RecordWriter(final DataOutputStream out) {
+      this.out = out;
+    }
+
+    public void visitTest(final TestInfo test) {
+      try {
+        this.out.writeByte(TEST);
+        writeNullable(test.getDefiningClass());
+        this.out.writeUTF(test.getName());
+        final ResourceUsage usage = test.getResourceUsage();
+        this.out.writeLong(usage.getWallTime());
+        this.out.writeLong(usage.getCpuTime());
+        this.out.writeLong(usage.getAllocatedBytes());
+        writeNullable(test.getTestee().hasSome() ? test.getTestee().value()
+            .asInternalName() : null);
+        writeVarInt(this.out, test.getNumberOfLinesCovered());
+      } catch (final IOException ex) {
+        throw Unchecked.translateCheckedException(ex);
+      }
+    }
+
+    public void visitClass(final ClassName clazz) {
+      try {
+        this.out.writeByte(CLASS);
+        this.out.writeUTF(clazz.asInternalName());
+      } catch (final IOException ex) {
+        throw Unchecked.translateCheckedException(ex);
+      }
+    }
+
+    public void visitLine(final int line, final int[] testIds) {
+      try {
+        this.out.writeByte(LINE);
+        writeVarInt(this.out, line);
+        writeVarInt(this.out, testIds.length);
+        int previous = 0;
+        for (final int each : testIds) {
+          writeVarInt(this.out, each - previous);
+          previous = each;
+        }
+      } catch (final IOException ex) {
+        throw Unchecked.translateCheckedException(ex);
+      }
+    }
+
+    private void writeNullable(final String value) throws IOException {
+      this.out.writeBoolean(value != null);
+      if (value != null) {
+        this.out.writeUTF(value);
+      }
+    }
+
+  }
+
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2014 Henry Coles
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+package org.pitest.coverage.export;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.pitest.classinfo.ClassName;
+import org.pitest.classpath.CodeSource;
+import org.pitest.coverage.CoverageData;
+import org.pitest.coverage.ResourceUsage;
+import org.pitest.coverage.TestInfo;
+import org.pitest.functional.Option;
+import org.pitest.util.PitError;
+import org.pitest.util.Unchecked;
+
+/**
+ * Rebuilds coverage data from a file written by a
+ * {@link BinaryCoverageExporter}. Compressed files are detected automatically.
+ */
+public class BinaryCoverageReader {
+
+  private static final int GZIP_MAGIC = 0x8b1f;
+
+  private final CodeSource code;
+
+  public BinaryCoverageReader(final CodeSource code) {
+    this.code = code;
+  }
+
+  public CoverageData read(final InputStream is) {
+    try {
+      final DataInputStream in = new DataInputStream(decompress(is));
+      if (in.readInt() != BinaryCoverageExporter.MAGIC) {
+        throw new PitError("Not a line coverage file");
+      }
+      final int version = in.readInt();
+      if (version != BinaryCoverageExporter.VERSION) {
+        throw new PitError("Unsupported line coverage file version " + version);
+      }
+      return readRecords(in);
+    } catch (final IOException ex) {
+      throw Unchecked.translateCheckedException(ex);
+    }
+  }
+
+  private CoverageData readRecords(final DataInputStream in)
+      throws IOException {
+    final CoverageData coverage = new CoverageData(this.code);
+    final List<TestInfo> tests = new ArrayList<TestInfo>();
+    ClassName clazz = null;
+    int tag = in.readByte();
+    while (tag != BinaryCoverageExporter.END) {
+      switch (tag) {
+      case BinaryCoverageExporter.TEST:
+        tests.add(readTest(in));
+        break;
+      case BinaryCoverageExporter.CLASS:
+        clazz = new ClassName(in.readUTF());
+        break;
+      case BinaryCoverageExporter.LINE:
+        readLine(in, coverage, clazz, tests);
+        break;
+      default:
+        throw new PitError("Unexpected record " + tag + " in line coverage file");
+      }
+      tag = in.readByte();
+    }
+    return coverage;
+  }
+
+  private TestInfo readTest(final DataInputStream in) throws IOException {
+    final String definingClass = readNullable(in);
+    final String name = in.readUTF();
+    final ResourceUsage usage = new ResourceUsage(in.readLong(), in.readLong(),
+        in.readLong());
+    final String testee = readNullable(in);
+    final int linesCovered = readVarInt(in);
+    return new TestInfo(definingClass, name, usage,
+        testee == null ? Option.<ClassName> none() : Option.some(new ClassName(
+            testee)), linesCovered);
+  }
+
+  private void readLine(final DataInputStream in, final CoverageData coverage,
+      final ClassName clazz, final List<TestInfo> tests) throws IOException {
+    if (clazz == null) {
+      throw new PitError("Line coverage recorded before its class");
+    }
+    final int line = readVarInt(in);
+    final int count = readVarInt(in);
+    int id = 0;
+    for (int i = 0; i != count; i++) {
+      id = id + readVarInt(in);
+      coverage.recordLineCoverage(clazz, line, tests.get(id));
+    }
+  }
+
+  private static InputStream decompress(final InputStream is)
+      throws IOException {
+    final BufferedInputStream buffered = new BufferedInputStream(is);
+    buffered.mark(2);
+    final int magic = buffered.read() | (buffered.read() << 8);
+    buffered.reset();
+    if (magic == GZIP_MAGIC) {
+      return new GZIPInputStream(buffered);
+    }
+    return buffered;
+  }
+
+  private static String readNullable(final DataInputStream in)
+      throws IOException {
+    if (in.readBoolean()) {
+      return in.readUTF();
+    }
+    return null;
+  }
+
+  static int readVarInt(final DataInputStream in) throws IOException {
+    int value = 0;
+    int shift = 0;
+    int b = in.readByte();
+    while ((b & 0x80) != 0) {
+      value |= (b & 0x7F) << shift;
+      shift += 7;
+      b = in.readByte();
+    }
+    return value | (b << shift);
+  }
+
+}
@@ -7,6 +7,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
+import org.pitest.coverage.CoverageData;
 import org.pitest.coverage.CoverageExporter;
 import org.pitest.coverage.LineCoverage;
 import org.pitest.util.ResultOutputStrategy;
@@ -23,6 +24,10 @@ public class DefaultCoverageExporter implements CoverageExporter {
     this.outputStrategy = outputStrategy;
   }
 
+  public void recordCoverage(final CoverageData coverage) {
+    recordCoverage(coverage.createLineCoverage());
+  }
+
   public void recordCoverage(final Collection<LineCoverage> coverage) {
     final Writer out = this.outputStrategy
         .createWriterForFile("linecoverage.xml");
@@ -1,13 +1,11 @@
 package org.pitest.coverage.export;
 
-import java.util.Collection;
-
+import org.pitest.coverage.CoverageData;
 import org.pitest.coverage.CoverageExporter;
-import org.pitest.coverage.LineCoverage;
 
 public class NullCoverageExporter implements CoverageExporter {
 
-  public void recordCoverage(final Collection<LineCoverage> coverage) {
+  public void recordCoverage(final CoverageData coverage) {
 
   }
 
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2014 Henry Coles
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+package org.pitest.dependency;
+
+import static org.pitest.functional.prelude.Prelude.and;
+import static org.pitest.functional.prelude.Prelude.not;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Logger;
+
+import org.objectweb.asm.ClassReader;
+import org.pitest.bytecode.NullVisitor;
+import org.pitest.classinfo.ClassByteArraySource;
+import org.pitest.functional.Option;
+import org.pitest.functional.SideEffect1;
+import org.pitest.functional.predicate.Predicate;
+import org.pitest.util.Log;
+import org.pitest.util.Unchecked;
+
+/**
+ * Graph of the classes each class depends on, built lazily as classes are
+ * reached. Each class is read at most once, so any number of searches may
+ * share the graph without the bytecode being parsed again.
+ *
+ * Classes are identified by their jvm names.
+ */
+final class DependencyGraph {
+
+  private final static Logger                     LOG   = Log.getLogger();
+
+  private final ClassByteArraySource              classToBytes;
+  private final Predicate<DependencyAccess>       filter;
+  private final ConcurrentMap<String, Set<String>> edges = new ConcurrentHashMap<String, Set<String>>();
+
+  DependencyGraph(final ClassByteArraySource classToBytes,
+      final Predicate<DependencyAccess> filter) {
+    this.classToBytes = classToBytes;
+    this.filter = filter;
+  }
+
+  /**
+   * Returns the classes within the given distance of the supplied class,
+   * excluding the class itself. A distance of zero is unbounded.
+   */
+  Set<String> reachableFrom(final String clazz, final int maxDistance) {
+    final String root = toJvmName(clazz);
+    final Set<String> visited = new HashSet<String>();
+    visited.add(root);
+
+    final Set<String> reached = new LinkedHashSet<String>();
+    List<String> frontier = Collections.singletonList(root);
+    int distance = 0;
+    while (!frontier.isEmpty() && withinDistance(distance, maxDistance)) {
+      final List<String> next = new ArrayList<String>();
+      for (final String each : frontier) {
+        for (final String dependency : getDependencies(each)) {
+          if (visited.add(dependency)) {
+            reached.add(dependency);
+            next.add(dependency);
+          }
+        }
+      }
+      frontier = next;
+      distance++;
+    }
+    return reached;
+  }
+
+  /**
+   * Reads every class within the given distance of the supplied classes,
+   * one level at a time, spreading the classes of each level across the
+   * given number of threads.
+   */
+  void build(final Collection<String> classes, final int maxDistance,
+      final int threads) {
+    final ExecutorService pool = Executors.newFixedThreadPool(threads);
+    try {
+      final Set<String> visited = new HashSet<String>();
+      List<String> frontier = new ArrayList<String>();
+      for (final String each : classes) {
+        if (visited.add(toJvmName(each))) {
+          frontier.add(toJvmName(each));
+        }
+      }
+
+      int distance = 0;
+      while (!frontier.isEmpty() && withinDistance(distance, maxDistance)) {
+        final List<Future<Set<String>>> results = new ArrayList<Future<Set<String>>>(
+            frontier.size());
+        for (final String each : frontier) {
+          results.add(pool.submit(readDependencies(each)));
+        }
+
+        final List<String> next = new ArrayList<String>();
+        for (final Future<Set<String>> each : results) {
+          for (final String dependency : each.get()) {
+            if (visited.add(dependency)) {
+              next.add(dependency);
+            }
+          }
+        }
+        frontier = next;
+        distance++;
+      }
+    } catch (final InterruptedException ex) {
+      throw Unchecked.translateCheckedException(ex);
+    } catch (final ExecutionException ex) {
+      throw Unchecked.translateCheckedException(ex.getCause());
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Returns, for each class reached so far, the classes that depend on it.
+   */
+  Map<String, Set<String>> dependents() {
+    final Map<String, Set<String>> dependents = new HashMap<String, Set<String>>();
+    for (final Entry<String, Set<String>> each : this.edges.entrySet()) {
+      for (final String dependency : each.getValue()) {
+        Set<String> from = dependents.get(dependency);
+        if (from == null) {
+          from = new HashSet<String>();
+          dependents.put(dependency, from);
+        }
+        from.add(each.getKey());
+      }
+    }
+    return dependents;
+  }
+
+  Set<String> getDependencies(final String clazz) {
+    final Set<String> cached = this.edges.get(clazz);
+    if (cached != null) {
+      return cached;
+    }
+    final Set<String> dependencies = extract(clazz);
+    final Set<String> existing = this.edges.putIfAbsent(clazz, dependencies);
+    return existing != null ? existing : dependencies;
+  }
+
+  private Callable<Set<String>> readDependencies(final String clazz) {
+    return new Callable<Set<String>>() {
+      public Set<String> call() {
+        return getDependencies(clazz);
+      }
+    };
+  }
+
+  @SuppressWarnings("unchecked")
+  private Set<String> extract(final String clazz) {
+    final Option<byte[]> bytes = this.classToBytes.getBytes(clazz);
+    if (bytes.hasNone()) {
+      LOG.warning("No bytes found for " + clazz);
+      return Collections.emptySet();
+    }
+    final Set<String> dependencies = new HashSet<String>();
+    final Predicate<DependencyAccess> include = and(not(ownerIs(clazz)),
+        this.filter);
+    final SideEffect1<DependencyAccess> se = new SideEffect1<DependencyAccess>() {
+      public void apply(final DependencyAccess a) {
+        if (include.apply(a)) {
+          dependencies.add(a.getDest().getOwner());
+        }
+      }
+    };
+    new ClassReader(bytes.value()).accept(new DependencyClassVisitor(
+        new NullVisitor(), se), ClassReader.EXPAND_FRAMES);
+    return dependencies;
+  }
+
+  private static boolean withinDistance(final int distance,
+      final int maxDistance) {
+    return (maxDistance == 0) || (distance < maxDistance);
+  }
+
+  private static String toJvmName(final String clazz) {
+    return clazz.replace('.', '/');
+  }
+
+  private static Predicate<DependencyAccess> ownerIs(final String clazz) {
+    return new Predicate<DependencyAccess>() {
+      public Boolean apply(final DependencyAccess a) {
+        return a.getDest().getOwner().equals(clazz);
+      }
+    };
+  }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2014 Henry Coles
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+package org.pitest.dependency;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.pitest.classinfo.ClassByteArraySource;
+
+/**
+ * Index from classes to the root classes that can reach them, such as the
+ * test classes that call a class under test.
+ *
+ * Only the classes reachable from the roots are read. The edges found are then
+ * reversed, so the roots reaching a small number of classes can be found by
+ * searching backwards from those classes rather than forwards from every root.
+ */
+public class ReverseDependencyIndex {
+
+  private final int                      depth;
+  private final Map<String, String>      roots;
+  private final Map<String, Set<String>> dependents;
+
+  private ReverseDependencyIndex(final int depth,
+      final Map<String, String> roots, final Map<String, Set<String>> dependents) {
+    this.depth = depth;
+    this.roots = roots;
+    this.dependents = dependents;
+  }
+
+  /**
+   * Builds an index of the classes within the given distance of the supplied
+   * roots, reading the roots' dependencies with the given number of threads.
+   * A distance of zero is unbounded.
+   */
+  public static ReverseDependencyIndex build(
+      final ClassByteArraySource classToBytes, final Collection<String> roots,
+      final int depth, final int threads) {
+    final DependencyGraph graph = new DependencyGraph(classToBytes,
+        new IgnoreCoreClasses());
+    graph.build(roots, depth, threads);
+
+    final Map<String, String> jvmNameToRoot = new HashMap<String, String>();
+    for (final String each : roots) {
+      jvmNameToRoot.put(toJvmName(each), each);
+    }
+    return new ReverseDependencyIndex(depth, jvmNameToRoot, graph.dependents());
+  }
+
+  /**
+   * Returns the roots from which any of the supplied classes can be reached,
+   * in the form in which they were given when the index was built.
+   */
+  public Set<String> findRootsReaching(final Collection<String> classes) {
+    final Set<String> visited = new HashSet<String>();
+    List<String> frontier = new ArrayList<String>();
+    for (final String each : classes) {
+      if (visited.add(toJvmName(each))) {
+        frontier.add(toJvmName(each));
+      }
+    }
+
+    final Set<String> found = new LinkedHashSet<String>();
+    int distance = 0;
+    while (!frontier.isEmpty() && ((this.depth == 0) || (distance < this.depth))) {
+      final List<String> next = new ArrayList<String>();
+      for (final String each : frontier) {
+        for (final String dependent : dependentsOf(each)) {
+          if (visited.add(dependent)) {
+            next.add(dependent);
+            final String root = this.roots.get(dependent);
+            if (root != null) {
+              found.add(root);
+            }
+          }
+        }
+      }
+      frontier = next;
+      distance++;
+    }
+    return found;
+  }
+
+  private Set<String> dependentsOf(final String clazz) {
+    final Set<String> ds = this.dependents.get(clazz);
+    if (ds == null) {
+      return Collections.emptySet();
+    }
+    return ds;
+  }
+
+  private static String toJvmName(final String clazz) {
+    return clazz.replace('.', '/');
+  }
+
+}
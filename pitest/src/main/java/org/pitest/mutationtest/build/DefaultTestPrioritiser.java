@@ -1,5 +1,6 @@
 package org.pitest.mutationtest.build;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -7,14 +8,16 @@ import java.util.logging.Logger;
 
 import org.pitest.classinfo.ClassName;
 import org.pitest.coverage.CoverageDatabase;
+import org.pitest.coverage.InstructionLocation;
 import org.pitest.coverage.TestInfo;
 import org.pitest.functional.FCollection;
+import org.pitest.functional.Option;
 import org.pitest.functional.prelude.Prelude;
 import org.pitest.mutationtest.engine.MutationDetails;
 import org.pitest.util.Log;
 
 /**
- * Assigns tests based on line coverage and order them by execution speed
+ * Assigns tests based on block or line coverage and order them by execution speed
  * with a weighting towards tests whose names imply they are intended to
  * test the mutated class
  * @author henry
@@ -34,19 +37,50 @@ public class DefaultTestPrioritiser implements TestPrioritiser {
   }
 
   public List<TestInfo> assignTests(MutationDetails mutation) {
-      return prioritizeTests(mutation.getClassName(), pickTests(mutation));
+    if (mutation.isInStaticInitializer()) {
+      return assignStaticInitializerTests(mutation.getClassName());
+    }
+    return prioritizeTests(mutation.getClassName(), pickTests(mutation));
   }
   
   private Collection<TestInfo> pickTests(MutationDetails mutation) {
-    if (!mutation.isInStaticInitializer()) {
-      return this.coverage
-          .getTestsForClassLine(mutation.getClassLine());
-    } else {
+    final Option<Collection<TestInfo>> blockTests = pickBlockTests(mutation);
+    if (blockTests.hasSome()) {
+      return blockTests.value();
+    }
+    return this.coverage
+        .getTestsForClassLine(mutation.getClassLine());
+  }
+
+  private List<TestInfo> assignStaticInitializerTests(ClassName clazz) {
+    // only the first test to use the class runs its initializer, but any
+    // later test that reads the static state it sets up may kill the mutant,
+    // so the initialising tests are run first followed by all the others
+    final Collection<TestInfo> initializers = this.coverage
+        .getTestsForStaticInitializer(clazz);
+    if (initializers.isEmpty()) {
       LOG.warning("Using untargetted tests");
-      return this.coverage.getTestsForClass(mutation.getClassName());
     }
+    final List<TestInfo> others = new ArrayList<TestInfo>(
+        this.coverage.getTestsForClass(clazz));
+    others.removeAll(initializers);
+
+    final List<TestInfo> tests = prioritizeTests(clazz, initializers);
+    tests.addAll(prioritizeTests(clazz, others));
+    return tests;
   }
   
+  private Option<Collection<TestInfo>> pickBlockTests(MutationDetails mutation) {
+    // mutations in finally blocks may be applied to several copies of the
+    // block, so are matched by line
+    if (mutation.isInFinallyBlock()) {
+      return Option.none();
+    }
+    return this.coverage.getTestsForInstruction(new InstructionLocation(
+        mutation.getClassName(), mutation.getMethod().name(), mutation
+            .getMethodDescription(), mutation.getFirstIndex()));
+  }
+
   private List<TestInfo> prioritizeTests(ClassName clazz,Collection<TestInfo> testsForMutant) {
     final List<TestInfo> sortedTis = FCollection.map(testsForMutant,
         Prelude.id(TestInfo.class));
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2014 Henry Coles
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+package org.pitest.mutationtest.build;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import org.pitest.classinfo.ClassName;
+import org.pitest.functional.Option;
+import org.pitest.mutationtest.engine.Location;
+import org.pitest.mutationtest.engine.MethodName;
+import org.pitest.mutationtest.engine.MutationDetails;
+import org.pitest.mutationtest.engine.MutationIdentifier;
+import org.pitest.util.Log;
+import org.pitest.util.Unchecked;
+
+/**
+ * Stores the mutations found in each class on disk so that later runs need not
+ * scan classes that have not changed.
+ *
+ * Each class is stored in its own file, named by a hash of the class bytes and
+ * of a description of the engine configuration that found the mutations.
+ * Tests are not stored, as they are assigned afresh from coverage on each run.
+ * Reading an entry refreshes its modification time, so that {@link #prune()}
+ * can remove entries that no run has used for a while without discarding those
+ * of classes that were simply outside the scope of the current run.
+ */
+public class MutantCatalogue {
+
+  private final static Logger LOG     = Log.getLogger();
+
+  /**
+   * Must be incremented whenever a change is made that alters the mutations
+   * found in a class, or the format in which they are stored.
+   */
+  static final int            VERSION = 1;
+
+  private static final long   DEFAULT_MAX_AGE = TimeUnit.DAYS.toMillis(30);
+
+  private final File          directory;
+  private final String        configuration;
+  private final long          maxAge;
+
+  public MutantCatalogue(final File directory, final String configuration) {
+    this(directory, configuration, DEFAULT_MAX_AGE);
+  }
+
+  MutantCatalogue(final File directory, final String configuration,
+      final long maxAge) {
+    this.directory = directory;
+    this.configuration = configuration;
+    this.maxAge = maxAge;
+  }
+
+  public Option<Collection<MutationDetails>> get(final byte[] classBytes) {
+    final File file = new File(this.directory, key(classBytes));
+    if (!file.exists()) {
+      return Option.none();
+    }
+
+    try {
+      final Option<Collection<MutationDetails>> mutations = read(file);
+      file.setLastModified(System.currentTimeMillis());
+      return mutations;
+    } catch (final IOException ex) {
+      LOG.fine("Could not read cached mutations from " + file);
+      return Option.none();
+    }
+  }
+
+  public void put(final byte[] classBytes,
+      final Collection<MutationDetails> mutations) {
+    final String key = key(classBytes);
+    try {
+      this.directory.mkdirs();
+      final File temp = File.createTempFile("mutants", ".tmp", this.directory);
+      write(temp, mutations);
+      if (!temp.renameTo(new File(this.directory, key))) {
+        temp.delete();
+      }
+    } catch (final IOException ex) {
+      LOG.fine("Could not cache mutations " + ex.getMessage());
+    }
+  }
+
+  /**
+   * Deletes the entries that have been neither read nor written for longer
+   * than the maximum age, so that entries for old versions of classes and for
+   * other configurations do not accumulate.
+   */
+  public void prune() {
+    final File[] files = this.directory.listFiles();
+    if (files == null) {
+      return;
+    }
+    final long oldest = System.currentTimeMillis() - this.maxAge;
+    int pruned = 0;
+    for (final File each : files) {
+      if ((each.lastModified() < oldest) && each.delete()) {
+        pruned++;
+      }
+    }
+    if (pruned != 0) {
+      LOG.fine("Pruned " + pruned + " unused entries from " + this.directory);
+    }
+  }
+
+  private Option<Collection<MutationDetails>> read(final File file)
+      throws IOException {
+    final DataInputStream is = new DataInputStream(new BufferedInputStream(
+        new FileInputStream(file)));
+    try {
+      if (is.readInt() != VERSION) {
+        return Option.none();
+      }
+
+      final int numberOfMutations = is.readInt();
+      final List<MutationDetails> mutations = new ArrayList<MutationDetails>(
+          numberOfMutations);
+      final Map<Location, Location> locations = new HashMap<Location, Location>();
+      for (int i = 0; i != numberOfMutations; i++) {
+        mutations.add(readMutation(is, locations));
+      }
+      return Option.<Collection<MutationDetails>> some(mutations);
+    } finally {
+      is.close();
+    }
+  }
+
+  private static MutationDetails readMutation(final DataInputStream is,
+      final Map<Location, Location> locations) throws IOException {
+    final Location location = shared(
+        Location.location(ClassName.fromString(is.readUTF()),
+            MethodName.fromString(is.readUTF()), is.readUTF()), locations);
+    final List<Integer> indexes = new ArrayList<Integer>();
+    final int numberOfIndexes = is.readInt();
+    for (int i = 0; i != numberOfIndexes; i++) {
+      indexes.add(is.readInt());
+    }
+    final MutationIdentifier id = new MutationIdentifier(location, indexes,
+        is.readUTF());
+
+    final String filename = is.readBoolean() ? is.readUTF() : null;
+    final String description = is.readUTF();
+    final int lineNumber = is.readInt();
+    final int block = is.readInt();
+    final boolean isInFinallyBlock = is.readBoolean();
+    final boolean poison = is.readBoolean();
+    return new MutationDetails(id, filename, description, lineNumber, block,
+        isInFinallyBlock, poison);
+  }
+
+  private static Location shared(final Location location,
+      final Map<Location, Location> locations) {
+    final Location existing = locations.get(location);
+    if (existing != null) {
+      return existing;
+    }
+    locations.put(location, location);
+    return location;
+  }
+
+  private static void write(final File file,
+      final Collection<MutationDetails> mutations) throws IOException {
+    final DataOutputStream os = new DataOutputStream(new BufferedOutputStream(
+        new FileOutputStream(file)));
+    try {
+      os.writeInt(VERSION);
+      os.writeInt(mutations.size());
+      for (final MutationDetails each : mutations) {
+        writeMutation(os, each);
+      }
+    } finally {
+      os.close();
+    }
+  }
+
+  private static void writeMutation(final DataOutputStream os,
+      final MutationDetails mutation) throws IOException {
+    final MutationIdentifier id = mutation.getId();
+    os.writeUTF(id.getClassName().asJavaName());
+    os.writeUTF(id.getLocation().getMethodName().name());
+    os.writeUTF(id.getLocation().getMethodDesc());
+    os.writeInt(id.getIndexes().size());
+    for (final int each : id.getIndexes()) {
+      os.writeInt(each);
+    }
+    os.writeUTF(id.getMutator());
+
+    os.writeBoolean(mutation.getFilename() != null);
+    if (mutation.getFilename() != null) {
+      os.writeUTF(mutation.getFilename());
+    }
+    os.writeUTF(mutation.getDescription());
+    os.writeInt(mutation.getLineNumber());
+    os.writeInt(mutation.getBlock());
+    os.writeBoolean(mutation.isInFinallyBlock());
+    os.writeBoolean(mutation.mayPoisonJVM());
+  }
+
+  private String key(final byte[] classBytes) {
+    try {
+      final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+      digest.update((byte) VERSION);
+      digest.update(this.configuration.getBytes("UTF-8"));
+      digest.update(classBytes);
+      return new BigInteger(1, digest.digest()).toString(16);
+    } catch (final NoSuchAlgorithmException ex) {
+      throw Unchecked.translateCheckedException(ex);
+    } catch (final IOException ex) {
+      throw Unchecked.translateCheckedException(ex);
+    }
+  }
+
+}
@@ -21,6 +21,7 @@ import java.util.logging.Logger;
 import org.pitest.classinfo.ClassByteArraySource;
 import org.pitest.classinfo.ClassName;
 import org.pitest.coverage.TestInfo;
+import org.pitest.functional.Option;
 import org.pitest.mutationtest.MutationConfig;
 import org.pitest.mutationtest.engine.Mutater;
 import org.pitest.mutationtest.engine.MutationDetails;
@@ -36,22 +37,30 @@ public class MutationSource {
   private final TestPrioritiser       testPrioritiser;
   private final MutationFilter        filter;
   private final ClassByteArraySource  source;
+  private final Option<MutantCatalogue> catalogue;
 
   public MutationSource(final MutationConfig mutationConfig,
       final MutationFilter filter,
       final TestPrioritiser testPrioritiser, final ClassByteArraySource source) {
+    this(mutationConfig, filter, testPrioritiser, source, Option
+        .<MutantCatalogue> none());
+  }
+
+  public MutationSource(final MutationConfig mutationConfig,
+      final MutationFilter filter,
+      final TestPrioritiser testPrioritiser, final ClassByteArraySource source,
+      final Option<MutantCatalogue> catalogue) {
     this.mutationConfig = mutationConfig;
     this.testPrioritiser = testPrioritiser;
     this.filter = filter;
     this.source = source;
+    this.catalogue = catalogue;
   }
 
   public Collection<MutationDetails> createMutations(final ClassName clazz) {
 
-    final Mutater m = this.mutationConfig.createMutator(this.source);
-
-    final Collection<MutationDetails> availableMutations = filter.filter(m
-        .findMutations(clazz));
+    final Collection<MutationDetails> availableMutations = filter
+        .filter(findMutations(clazz));
 
     assignTestsToMutations(availableMutations);
 
@@ -59,6 +68,25 @@ public class MutationSource {
 
   }
 
+  private Collection<MutationDetails> findMutations(final ClassName clazz) {
+    final Option<byte[]> bytes = this.catalogue.hasSome() ? this.source
+        .getBytes(clazz.asInternalName()) : Option.<byte[]> none();
+    if (bytes.hasSome()) {
+      final Option<Collection<MutationDetails>> cached = this.catalogue
+          .value().get(bytes.value());
+      if (cached.hasSome()) {
+        return cached.value();
+      }
+    }
+
+    final Mutater m = this.mutationConfig.createMutator(this.source);
+    final Collection<MutationDetails> found = m.findMutations(clazz);
+    if (bytes.hasSome()) {
+      this.catalogue.value().put(bytes.value(), found);
+    }
+    return found;
+  }
+
   private void assignTestsToMutations(
       final Collection<MutationDetails> availableMutations) {
     for (final MutationDetails mutation : availableMutations) {
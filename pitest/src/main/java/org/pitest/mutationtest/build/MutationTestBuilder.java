@@ -20,18 +20,26 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.pitest.classinfo.ClassName;
 import org.pitest.coverage.TestInfo;
 import org.pitest.functional.F;
 import org.pitest.functional.FCollection;
+import org.pitest.functional.Option;
 import org.pitest.functional.prelude.Prelude;
 import org.pitest.mutationtest.DetectionStatus;
 import org.pitest.mutationtest.MutationAnalyser;
 import org.pitest.mutationtest.MutationConfig;
 import org.pitest.mutationtest.MutationResult;
 import org.pitest.mutationtest.engine.MutationDetails;
+import org.pitest.util.Unchecked;
 
 public class MutationTestBuilder {
 
@@ -40,28 +48,53 @@ public class MutationTestBuilder {
   private final MutationConfig   mutationConfig;
   private final WorkerFactory    workerFactory;
   private final MutationGrouper grouper;
+  private final int              threads;
+  private final Option<RedundantMutantDetector> redundantMutants;
 
   public MutationTestBuilder(final WorkerFactory workerFactory,
       final MutationConfig mutationConfig, final MutationAnalyser analyser,
-      final MutationSource mutationSource, final MutationGrouper grouper) {
+      final MutationSource mutationSource, final MutationGrouper grouper,
+      final int threads) {
+    this(workerFactory, mutationConfig, analyser, mutationSource, grouper,
+        threads, Option.<RedundantMutantDetector> none());
+  }
+
+  public MutationTestBuilder(final WorkerFactory workerFactory,
+      final MutationConfig mutationConfig, final MutationAnalyser analyser,
+      final MutationSource mutationSource, final MutationGrouper grouper,
+      final int threads,
+      final Option<RedundantMutantDetector> redundantMutants) {
     this.mutationConfig = mutationConfig;
     this.mutationSource = mutationSource;
     this.analyser = analyser;
     this.workerFactory = workerFactory;
     this.grouper = grouper;
+    this.threads = threads;
+    this.redundantMutants = redundantMutants;
   }
 
   public List<MutationAnalysisUnit> createMutationTestUnits(
       final Collection<ClassName> codeClasses) {
     final List<MutationAnalysisUnit> tus = new ArrayList<MutationAnalysisUnit>();
 
-    final List<MutationDetails> mutations = FCollection.flatMap(codeClasses,
-        classToMutations());
-    
+    final List<MutationDetails> mutations = findMutations(codeClasses);
+
+    // mutations may be found in any order, so are sorted to ensure the
+    // units are the same on each run
     Collections.sort(mutations, comparator());
 
+    final Map<MutationDetails, List<MutationDetails>> duplicates;
+    final Collection<MutationDetails> distinct;
+    if (this.redundantMutants.hasSome()) {
+      duplicates = this.redundantMutants.value().groupDuplicates(mutations);
+      distinct = duplicates.keySet();
+    } else {
+      duplicates = Collections.emptyMap();
+      distinct = mutations;
+    }
+
     final Collection<MutationResult> analysedMutations = this.analyser
-        .analyse(mutations);
+        .analyse(distinct);
 
     final Collection<MutationDetails> needAnalysis = FCollection.filter(
         analysedMutations, statusNotKnown()).map(resultToDetails());
@@ -70,12 +103,13 @@ public class MutationTestBuilder {
         analysedMutations, Prelude.not(statusNotKnown()));
 
     if (!analysed.isEmpty()) {
-      tus.add(makePreAnalysedUnit(analysed));
+      tus.add(makePreAnalysedUnit(RedundantMutantDetector.withDuplicates(
+          analysed, duplicates)));
     }
 
     if (!needAnalysis.isEmpty()) {
       for (final Collection<MutationDetails> ms : grouper.groupMutations(codeClasses, needAnalysis)) {
-        tus.add(makeUnanalysedUnit(ms));
+        tus.add(makeUnanalysedUnit(ms, duplicates));
       }
     }
     
@@ -83,6 +117,47 @@ public class MutationTestBuilder {
     return tus;
   }
 
+  private List<MutationDetails> findMutations(
+      final Collection<ClassName> codeClasses) {
+    if ((this.threads <= 1) || (codeClasses.size() <= 1)) {
+      return FCollection.flatMap(codeClasses, classToMutations());
+    }
+
+    final ExecutorService pool = Executors.newFixedThreadPool(Math.min(
+        this.threads, codeClasses.size()));
+    try {
+      final List<Future<Collection<MutationDetails>>> results = new ArrayList<Future<Collection<MutationDetails>>>(
+          codeClasses.size());
+      for (final ClassName each : codeClasses) {
+        results.add(pool.submit(findMutationsIn(each)));
+      }
+
+      final List<MutationDetails> mutations = new ArrayList<MutationDetails>();
+      for (final Future<Collection<MutationDetails>> each : results) {
+        mutations.addAll(each.get());
+      }
+      return mutations;
+    } catch (final InterruptedException ex) {
+      throw Unchecked.translateCheckedException(ex);
+    } catch (final ExecutionException ex) {
+      if (ex.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) ex.getCause();
+      }
+      throw Unchecked.translateCheckedException(ex.getCause());
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  private Callable<Collection<MutationDetails>> findMutationsIn(
+      final ClassName clazz) {
+    return new Callable<Collection<MutationDetails>>() {
+      public Collection<MutationDetails> call() {
+        return MutationTestBuilder.this.mutationSource.createMutations(clazz);
+      }
+    };
+  }
+
   private Comparator<MutationDetails> comparator() {
     return new Comparator<MutationDetails>() {
 
@@ -110,13 +185,14 @@ public class MutationTestBuilder {
   }
 
   private MutationAnalysisUnit makeUnanalysedUnit(
-      final Collection<MutationDetails> needAnalysis) {
+      final Collection<MutationDetails> needAnalysis,
+      final Map<MutationDetails, List<MutationDetails>> duplicates) {
     final Set<ClassName> uniqueTestClasses = new HashSet<ClassName>();
     FCollection.flatMapTo(needAnalysis, mutationDetailsToTestClass(),
         uniqueTestClasses);
 
     return new MutationTestUnit(needAnalysis, uniqueTestClasses,
-        this.mutationConfig, this.workerFactory);
+        this.mutationConfig, this.workerFactory, duplicates);
   }
 
   private static F<MutationResult, MutationDetails> resultToDetails() {
@@ -18,6 +18,9 @@ import static org.pitest.util.Unchecked.translateCheckedException;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.logging.Logger;
 
 import org.pitest.classinfo.ClassName;
@@ -45,14 +48,29 @@ public class MutationTestUnit extends AbstractTestUnit implements
 
   private final Collection<ClassName>       testClasses;
 
+  private final Map<MutationDetails, List<MutationDetails>> duplicates;
+
   public MutationTestUnit(final Collection<MutationDetails> availableMutations,
       final Collection<ClassName> testClasses,
       final MutationConfig mutationConfig, final WorkerFactory workerFactor) {
+    this(availableMutations, testClasses, mutationConfig, workerFactor,
+        Collections.<MutationDetails, List<MutationDetails>> emptyMap());
+  }
+
+  /**
+   * Creates a unit that reports the result of each mutation also for the
+   * mutations that duplicate it, without running them.
+   */
+  public MutationTestUnit(final Collection<MutationDetails> availableMutations,
+      final Collection<ClassName> testClasses,
+      final MutationConfig mutationConfig, final WorkerFactory workerFactor,
+      final Map<MutationDetails, List<MutationDetails>> duplicates) {
     super(new Description("Mutation test"));
     this.availableMutations = availableMutations;
     this.config = mutationConfig;
     this.testClasses = testClasses;
     this.workerFactory = workerFactor;
+    this.duplicates = duplicates;
   }
 
   @Override
@@ -162,7 +180,8 @@ public class MutationTestUnit extends AbstractTestUnit implements
       final ResultCollector rc) {
 
     final MetaData md = new MutationMetaData(
-        mutationsMap.createMutationResults());
+        RedundantMutantDetector.withDuplicates(
+            mutationsMap.createMutationResults(), this.duplicates));
 
     rc.notifyEnd(this.getDescription(), md);
 
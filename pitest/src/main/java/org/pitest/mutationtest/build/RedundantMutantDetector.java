@@ -0,0 +1,202 @@
+/*
+ * Copyright 2014 Henry Coles
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+package org.pitest.mutationtest.build;
+
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.pitest.classinfo.ClassByteArraySource;
+import org.pitest.classinfo.ClassName;
+import org.pitest.functional.F;
+import org.pitest.functional.Option;
+import org.pitest.mutationtest.MutationConfig;
+import org.pitest.mutationtest.MutationResult;
+import org.pitest.mutationtest.engine.Location;
+import org.pitest.mutationtest.engine.Mutant;
+import org.pitest.mutationtest.engine.MutationDetails;
+import org.pitest.mutationtest.engine.MutationIdentifier;
+import org.pitest.util.Log;
+import org.pitest.util.Unchecked;
+
+/**
+ * Creates the mutant for each mutation so that mutations that cannot change
+ * behaviour need not be run.
+ *
+ * The mutated method of each mutant is compared, ignoring debug information
+ * and stack map frames, with the method in the unmutated class and with the
+ * methods of the other mutants of the class. Mutants that leave the method
+ * unchanged are discarded, and mutants identical to an earlier mutant are
+ * given the result of that mutant.
+ */
+public class RedundantMutantDetector {
+
+  private final static Logger        LOG = Log.getLogger();
+
+  private final MutationConfig       mutationConfig;
+  private final ClassByteArraySource source;
+
+  public RedundantMutantDetector(final MutationConfig mutationConfig,
+      final ClassByteArraySource source) {
+    this.mutationConfig = mutationConfig;
+    this.source = source;
+  }
+
+  /**
+   * Returns the distinct mutations, in the order given, each mapped to the
+   * mutations that duplicate it. Mutations that leave the code unchanged are
+   * not returned.
+   */
+  public Map<MutationDetails, List<MutationDetails>> groupDuplicates(
+      final Collection<MutationDetails> mutations) {
+    final Map<MutationDetails, List<MutationDetails>> distinct = new LinkedHashMap<MutationDetails, List<MutationDetails>>();
+    int unchanged = 0;
+    for (final Map.Entry<ClassName, List<MutationDetails>> each : byClass(
+        mutations).entrySet()) {
+      unchanged += groupDuplicatesInClass(each.getKey(), each.getValue(),
+          distinct);
+    }
+
+    // mutants that leave the code unchanged are not reported, so do not count
+    // towards the mutation score
+    LOG.info("Discarded " + unchanged
+        + " mutants that leave the code unchanged and found "
+        + (mutations.size() - unchanged - distinct.size())
+        + " duplicate mutants out of " + mutations.size());
+    return distinct;
+  }
+
+  static List<MutationResult> withDuplicates(
+      final List<MutationResult> results,
+      final Map<MutationDetails, List<MutationDetails>> duplicates) {
+    if (duplicates.isEmpty()) {
+      return results;
+    }
+    final List<MutationResult> all = new ArrayList<MutationResult>(results);
+    for (final MutationResult each : results) {
+      final List<MutationDetails> ds = duplicates.get(each.getDetails());
+      if (ds != null) {
+        for (final MutationDetails duplicate : ds) {
+          all.add(new MutationResult(duplicate, each.getStatusTestPair()));
+        }
+      }
+    }
+    return all;
+  }
+
+  /**
+   * Returns the number of mutations that leave the code unchanged.
+   */
+  private int groupDuplicatesInClass(final ClassName clazz,
+      final List<MutationDetails> mutations,
+      final Map<MutationDetails, List<MutationDetails>> distinct) {
+    final Option<byte[]> original = this.source.getBytes(clazz
+        .asInternalName());
+    if (original.hasNone()) {
+      for (final MutationDetails each : mutations) {
+        distinct.put(each, new ArrayList<MutationDetails>());
+      }
+      return 0;
+    }
+
+    final List<MutationIdentifier> ids = new ArrayList<MutationIdentifier>(
+        mutations.size());
+    for (final MutationDetails each : mutations) {
+      ids.add(each.getId());
+    }
+    final F<MutationIdentifier, Mutant> mutants = this.mutationConfig
+        .createMutator(this.source).getMutations(clazz, ids);
+
+    final Map<Location, String> unmutated = new HashMap<Location, String>();
+    final Map<String, MutationDetails> seen = new HashMap<String, MutationDetails>();
+    int unchanged = 0;
+    for (final MutationDetails each : mutations) {
+      final Location location = each.getId().getLocation();
+      String unmutatedHash = unmutated.get(location);
+      if (unmutatedHash == null) {
+        unmutatedHash = hashMethod(original.value(), location);
+        unmutated.put(location, unmutatedHash);
+      }
+
+      final String hash = hashMethod(mutants.apply(each.getId()).getBytes(),
+          location);
+      final MutationDetails first = seen.get(hash);
+      if (hash.equals(unmutatedHash)) {
+        LOG.fine("Mutant leaves code unchanged " + each);
+        unchanged++;
+      } else if (first != null) {
+        distinct.get(first).add(each);
+      } else {
+        seen.put(hash, each);
+        distinct.put(each, new ArrayList<MutationDetails>());
+      }
+    }
+    return unchanged;
+  }
+
+  private static Map<ClassName, List<MutationDetails>> byClass(
+      final Collection<MutationDetails> mutations) {
+    final Map<ClassName, List<MutationDetails>> byClass = new LinkedHashMap<ClassName, List<MutationDetails>>();
+    for (final MutationDetails each : mutations) {
+      List<MutationDetails> ms = byClass.get(each.getClassName());
+      if (ms == null) {
+        ms = new ArrayList<MutationDetails>();
+        byClass.put(each.getClassName(), ms);
+      }
+      ms.add(each);
+    }
+    return byClass;
+  }
+
+  private static String hashMethod(final byte[] bytes, final Location location) {
+    // the method is written alone into an otherwise empty class, so that the
+    // result depends only on its instructions
+    final ClassWriter w = new ClassWriter(0);
+    w.visit(Opcodes.V1_5, Opcodes.ACC_PUBLIC, "Method", null,
+        "java/lang/Object", null);
+    new ClassReader(bytes).accept(new ClassVisitor(Opcodes.ASM5) {
+      @Override
+      public MethodVisitor visitMethod(final int access, final String name,
+          final String desc, final String signature, final String[] exceptions) {
+        if (location.getMethodName().name().equals(name)
+            && location.getMethodDesc().equals(desc)) {
+          return w.visitMethod(access, name, desc, signature, exceptions);
+        }
+        return null;
+      }
+    }, ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+    w.visitEnd();
+
+    try {
+      final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+      return new BigInteger(1, digest.digest(w.toByteArray())).toString(16);
+    } catch (final NoSuchAlgorithmException ex) {
+      throw Unchecked.translateCheckedException(ex);
+    }
+  }
+
+}
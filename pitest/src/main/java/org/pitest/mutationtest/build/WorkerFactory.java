@@ -26,17 +26,24 @@ public class WorkerFactory {
   private final TimeoutLengthStrategy timeoutStrategy;
   private final boolean               verbose;
   private final MutationConfig        config;
+  private final File                  typeHierarchy;
 
+  /**
+   * @param typeHierarchy
+   *          file through which the slaves share the types they read while
+   *          computing frames, or null if they should not share them
+   */
   public WorkerFactory(final File baseDir, final Configuration pitConfig,
       final MutationConfig mutationConfig,
       final TimeoutLengthStrategy timeoutStrategy, final boolean verbose,
-      final String classPath) {
+      final String classPath, final File typeHierarchy) {
     this.pitConfig = pitConfig;
     this.timeoutStrategy = timeoutStrategy;
     this.verbose = verbose;
     this.classPath = classPath;
     this.baseDir = baseDir;
     this.config = mutationConfig;
+    this.typeHierarchy = typeHierarchy;
   }
 
   public MutationTestProcess createWorker(
@@ -44,7 +51,7 @@ public class WorkerFactory {
       final Collection<ClassName> testClasses) {
     final SlaveArguments fileArgs = new SlaveArguments(remainingMutations,
         testClasses, this.config.getEngine(), this.timeoutStrategy,
-        Log.isVerbose(), this.pitConfig);
+        Log.isVerbose(), this.pitConfig, this.typeHierarchy);
 
     final ProcessArgs args = ProcessArgs.withClassPath(this.classPath)
         .andLaunchOptions(this.config.getLaunchOptions())
@@ -144,6 +144,38 @@ public enum ConfigOption {
    */
   HISTORY_OUTPUT_LOCATION("historyOutputLocation"),
 
+  /**
+   * Location of cache used to skip coverage analysis for unchanged tests.
+   * Instrumented classes are cached in a directory alongside it.
+   */
+  COVERAGE_CACHE_LOCATION("coverageCacheLocation"),
+
+  /**
+   * Record which blocks each test executes and use these rather than lines to
+   * select the tests to run against each mutation
+   */
+  BLOCK_COVERAGE("blockCoverage", false),
+
+  /**
+   * Record the probes hit by each thread separately when gathering coverage,
+   * so that multithreaded tests do not contend for the same probe arrays
+   */
+  STRIPED_COVERAGE("stripedCoverage", false),
+
+  /**
+   * Only gather coverage for test classes that can reach the target classes
+   * through their dependencies
+   */
+  TARGET_DRIVEN_COVERAGE("targetDrivenCoverage", false),
+
+  /**
+   * Generate each mutant before running tests against it, so that mutants
+   * that leave the bytecode unchanged, or that duplicate another mutant, are
+   * not run. Mutants that leave the bytecode unchanged are not reported, so
+   * do not count towards the mutation score
+   */
+  DETECT_REDUNDANT_MUTANTS("detectRedundantMutants", false),
+
   /**
    * Mutation score below which to throw an error
    */
@@ -163,6 +195,11 @@ public enum ConfigOption {
    * Dump per test line coverage to disk
    */
   EXPORT_LINE_COVERAGE("exportLineCoverage", false),
+
+  /**
+   * Format in which to dump line coverage. One of xml, binary or gzip
+   */
+  LINE_COVERAGE_EXPORT_FORMAT("lineCoverageExportFormat", "xml"),
   
   /**
    * Include launch classpath in analysis
@@ -81,6 +81,7 @@ public class ReportOptions {
 
   private File                           historyInputLocation;
   private File                           historyOutputLocation;
+  private File                           coverageCacheLocation;
 
   private Collection<File>               sourceDirs;
   private Collection<String>             classPathElements;
@@ -111,6 +112,11 @@ public class ReportOptions {
   private boolean                        shouldCreateTimestampedReports = true;
   private boolean                        detectInlinedCode              = false;
   private boolean                        exportLineCoverage             = false;
+  private String                         lineCoverageExportFormat       = "xml";
+  private boolean                        blockCoverage                  = false;
+  private boolean                        stripedCoverage                = false;
+  private boolean                        targetDrivenCoverage           = false;
+  private boolean                        detectRedundantMutants         = false;
   private int                            mutationThreshold;
   private int                            coverageThreshold;
 
@@ -490,6 +496,14 @@ public class ReportOptions {
     return this.historyOutputLocation;
   }
 
+  public void setCoverageCacheLocation(final File coverageCacheLocation) {
+    this.coverageCacheLocation = coverageCacheLocation;
+  }
+
+  public File getCoverageCacheLocation() {
+    return this.coverageCacheLocation;
+  }
+
   public void setExportLineCoverage(final boolean value) {
     this.exportLineCoverage = value;
   }
@@ -498,6 +512,46 @@ public class ReportOptions {
     return this.exportLineCoverage;
   }
 
+  public String getLineCoverageExportFormat() {
+    return this.lineCoverageExportFormat;
+  }
+
+  public void setLineCoverageExportFormat(final String format) {
+    this.lineCoverageExportFormat = format;
+  }
+
+  public void setBlockCoverage(final boolean blockCoverage) {
+    this.blockCoverage = blockCoverage;
+  }
+
+  public boolean isBlockCoverage() {
+    return this.blockCoverage;
+  }
+
+  public void setStripedCoverage(final boolean stripedCoverage) {
+    this.stripedCoverage = stripedCoverage;
+  }
+
+  public boolean isStripedCoverage() {
+    return this.stripedCoverage;
+  }
+
+  public void setTargetDrivenCoverage(final boolean targetDrivenCoverage) {
+    this.targetDrivenCoverage = targetDrivenCoverage;
+  }
+
+  public boolean isTargetDrivenCoverage() {
+    return this.targetDrivenCoverage;
+  }
+
+  public void setDetectRedundantMutants(final boolean detectRedundantMutants) {
+    this.detectRedundantMutants = detectRedundantMutants;
+  }
+
+  public boolean isDetectRedundantMutants() {
+    return this.detectRedundantMutants;
+  }
+
   public int getMutationThreshold() {
     return this.mutationThreshold;
   }
@@ -546,6 +600,7 @@ public class ReportOptions {
         + this.codePaths + ", reportDir=" + this.reportDir
         + ", historyInputLocation=" + this.historyInputLocation
         + ", historyOutputLocation=" + this.historyOutputLocation
+        + ", coverageCacheLocation=" + this.coverageCacheLocation
         + ", sourceDirs=" + this.sourceDirs + ", classPathElements="
         + this.classPathElements + ", mutators=" + this.mutators
         + ", dependencyAnalysisMaxDistance="
@@ -562,7 +617,12 @@ public class ReportOptions {
         + ", shouldCreateTimestampedReports="
         + this.shouldCreateTimestampedReports + ", detectInlinedCode="
         + this.detectInlinedCode + ", exportLineCoverage="
-        + this.exportLineCoverage + ", mutationThreshold="
+        + this.exportLineCoverage + ", lineCoverageExportFormat="
+        + this.lineCoverageExportFormat + ", blockCoverage=" + this.blockCoverage
+        + ", stripedCoverage=" + this.stripedCoverage
+        + ", targetDrivenCoverage=" + this.targetDrivenCoverage
+        + ", detectRedundantMutants=" + this.detectRedundantMutants
+        + ", mutationThreshold="
         + this.mutationThreshold + ", coverageThreshold="
         + this.coverageThreshold + ", mutationEngine=" + this.mutationEngine
         + ", javaExecutable=" + this.javaExecutable + "]";
@@ -2,29 +2,40 @@ package org.pitest.mutationtest.config;
 
 import static org.pitest.functional.prelude.Prelude.not;
 
+import java.io.File;
 import java.util.Collection;
+import java.util.TreeSet;
 
+import org.pitest.classinfo.ClassInfoSource;
 import org.pitest.classpath.ClassPathByteArraySource;
+import org.pitest.coverage.CoverageCache;
 import org.pitest.coverage.CoverageExporter;
+import org.pitest.coverage.cache.FileCoverageCache;
+import org.pitest.coverage.cache.NullCoverageCache;
 import org.pitest.coverage.execute.CoverageOptions;
+import org.pitest.coverage.export.BinaryCoverageExporter;
 import org.pitest.coverage.export.DefaultCoverageExporter;
 import org.pitest.coverage.export.NullCoverageExporter;
 import org.pitest.functional.F;
 import org.pitest.functional.FCollection;
+import org.pitest.functional.Option;
 import org.pitest.functional.predicate.Predicate;
 import org.pitest.functional.prelude.Prelude;
 import org.pitest.mutationtest.MutationEngineFactory;
 import org.pitest.mutationtest.MutationResultListenerFactory;
 import org.pitest.mutationtest.build.DefaultMutationGrouperFactory;
 import org.pitest.mutationtest.build.DefaultTestPrioritiserFactory;
+import org.pitest.mutationtest.build.MutantCatalogue;
 import org.pitest.mutationtest.build.MutationGrouperFactory;
 import org.pitest.mutationtest.build.TestPrioritiserFactory;
+import org.pitest.mutationtest.engine.MutationEngine;
 import org.pitest.mutationtest.filter.CompoundFilterFactory;
 import org.pitest.mutationtest.filter.MutationFilterFactory;
 import org.pitest.process.DefaultJavaExecutableLocator;
 import org.pitest.process.JavaExecutableLocator;
 import org.pitest.process.KnownLocationJavaExecutableLocator;
 import org.pitest.testapi.Configuration;
+import org.pitest.testapi.TestGroupConfig;
 import org.pitest.testapi.TestPluginFactory;
 import org.pitest.util.PitError;
 import org.pitest.util.ResultOutputStrategy;
@@ -46,11 +57,77 @@ public class SettingsFactory {
   }
 
   public CoverageExporter createCoverageExporter() {
-    if (this.options.shouldExportLineCoverage()) {
+    if (!this.options.shouldExportLineCoverage()) {
+      return new NullCoverageExporter();
+    }
+
+    final String format = this.options.getLineCoverageExportFormat();
+    if ("xml".equals(format)) {
       return new DefaultCoverageExporter(getOutputStrategy());
+    } else if ("binary".equals(format)) {
+      return new BinaryCoverageExporter(getOutputStrategy(), false);
+    } else if ("gzip".equals(format)) {
+      return new BinaryCoverageExporter(getOutputStrategy(), true);
+    }
+    throw new PitError("Unknown line coverage export format " + format);
+  }
+
+  public CoverageCache createCoverageCache(final ClassInfoSource code) {
+    if (this.options.getCoverageCacheLocation() != null) {
+      return new FileCoverageCache(this.options.getCoverageCacheLocation(),
+          code, this.options.isBlockCoverage(), coverageConfiguration());
     } else {
-      return new NullCoverageExporter();
+      return new NullCoverageCache();
+    }
+  }
+
+  private String coverageConfiguration() {
+    TestGroupConfig groups = this.options.getGroupConfig();
+    if (groups == null) {
+      groups = new TestGroupConfig();
+    }
+    return "targetClasses=" + sorted(this.options.getTargetClasses())
+        + ", excludedClasses=" + sorted(this.options.getExcludedClasses())
+        + ", dependencyDistance="
+        + this.options.getDependencyAnalysisMaxDistance() + ", blockCoverage="
+        + this.options.isBlockCoverage() + ", excludedGroups="
+        + sorted(groups.getExcludedGroups()) + ", includedGroups="
+        + sorted(groups.getIncludedGroups()) + ", testPlugin="
+        + findTestPlugin().getClass().getName();
+  }
+
+  /**
+   * Mutations found in unchanged classes are kept alongside the history, keyed
+   * by the pitest version and the settings that influence which mutations the
+   * engine finds.
+   */
+  public Option<MutantCatalogue> createMutantCatalogue(
+      final MutationEngine engine) {
+    final File history = this.options.getHistoryOutputLocation();
+    if (history == null) {
+      return Option.none();
+    }
+    final String configuration = "version="
+        + MutantCatalogue.class.getPackage().getImplementationVersion()
+        + ", engine=" + this.options.getMutationEngine() + ", mutators="
+        + sorted(engine.getMutatorNames())
+        + ", excludedMethods=" + sorted(this.options.getExcludedMethods())
+        + ", loggingClasses=" + sorted(this.options.getLoggingClasses())
+        + ", mutateStaticInitializers="
+        + this.options.isMutateStaticInitializers() + ", detectInlinedCode="
+        + this.options.isDetectInlinedCode();
+    return Option.some(new MutantCatalogue(new File(history.getPath()
+        + "-mutants"), configuration));
+  }
+
+  private static Collection<String> sorted(final Collection<?> values) {
+    final Collection<String> strings = new TreeSet<String>();
+    if (values != null) {
+      for (final Object each : values) {
+        strings.add(String.valueOf(each));
+      }
     }
+    return strings;
   }
 
   public MutationEngineFactory createEngine() {
@@ -125,11 +202,15 @@ public class SettingsFactory {
 
   public Configuration getTestFrameworkPlugin() {
 
+    return findTestPlugin().createTestFrameworkConfiguration(
+        this.options.getGroupConfig(),
+        new ClassPathByteArraySource(this.options.getClassPath()));
+  }
+
+  private TestPluginFactory findTestPlugin() {
     final Collection<? extends TestPluginFactory> testPlugins = this.plugins
         .findTestFrameworkPlugins();
-    return firstOrDefault(testPlugins, new LegacyTestFrameworkPlugin())
-        .createTestFrameworkConfiguration(this.options.getGroupConfig(),
-            new ClassPathByteArraySource(this.options.getClassPath()));
+    return firstOrDefault(testPlugins, new LegacyTestFrameworkPlugin());
   }
 
   @SuppressWarnings("unchecked")
@@ -137,7 +218,18 @@ public class SettingsFactory {
     return new CoverageOptions(Prelude.and(
         this.options.getTargetClassesFilter(), not(commonClasses())),
         this.getTestFrameworkPlugin(), this.options.isVerbose(),
-        this.options.getDependencyAnalysisMaxDistance());
+        this.options.getDependencyAnalysisMaxDistance(),
+        this.options.getNumberOfThreads(), instrumentedClassCacheLocation(),
+        this.options.isBlockCoverage(), this.options.isStripedCoverage(),
+        this.options.isTargetDrivenCoverage());
+  }
+
+  private File instrumentedClassCacheLocation() {
+    final File coverageCache = this.options.getCoverageCacheLocation();
+    if (coverageCache == null) {
+      return null;
+    }
+    return new File(coverageCache.getPath() + "-classes");
   }
 
   private static F<String, Boolean> commonClasses() {
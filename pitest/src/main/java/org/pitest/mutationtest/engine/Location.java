@@ -26,6 +26,8 @@ public class Location implements Comparable<Location> {
   private final MethodName method;
   private final String     methodDesc;
 
+  private transient int    hash;
+
   public Location(final ClassName clazz, final MethodName method,
       final String methodDesc) {
     this.clazz = clazz;
@@ -75,15 +77,18 @@ public class Location implements Comparable<Location> {
 
   @Override
   public int hashCode() {
-    final int prime = 31;
-    int result = 1;
-    result = (prime * result)
-        + ((this.clazz == null) ? 0 : this.clazz.hashCode());
-    result = (prime * result)
-        + ((this.method == null) ? 0 : this.method.hashCode());
-    result = (prime * result)
-        + ((this.methodDesc == null) ? 0 : this.methodDesc.hashCode());
-    return result;
+    if (this.hash == 0) {
+      final int prime = 31;
+      int result = 1;
+      result = (prime * result)
+          + ((this.clazz == null) ? 0 : this.clazz.hashCode());
+      result = (prime * result)
+          + ((this.method == null) ? 0 : this.method.hashCode());
+      result = (prime * result)
+          + ((this.methodDesc == null) ? 0 : this.methodDesc.hashCode());
+      this.hash = result;
+    }
+    return this.hash;
   }
 
   @Override
@@ -98,6 +103,9 @@ public class Location implements Comparable<Location> {
       return false;
     }
     final Location other = (Location) obj;
+    if (hashCode() != other.hashCode()) {
+      return false;
+    }
     if (this.clazz == null) {
       if (other.clazz != null) {
         return false;
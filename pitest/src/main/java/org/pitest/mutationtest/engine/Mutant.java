@@ -18,10 +18,24 @@ public final class Mutant {
 
   private final MutationDetails details;
   private final byte[]          bytes;
+  private final byte[]          schema;
+  private final int             schemaId;
 
   public Mutant(final MutationDetails details, final byte[] bytes) {
+    this(details, bytes, null, 0);
+  }
+
+  /**
+   * Creates a mutant that is also held in a schema, a version of the class
+   * containing the other mutants of the class, in which it is made active by
+   * its schema id.
+   */
+  public Mutant(final MutationDetails details, final byte[] bytes,
+      final byte[] schema, final int schemaId) {
     this.details = details;
     this.bytes = bytes;
+    this.schema = schema;
+    this.schemaId = schemaId;
   }
 
   public MutationDetails getDetails() {
@@ -32,4 +46,16 @@ public final class Mutant {
     return this.bytes;
   }
 
+  public boolean isInSchema() {
+    return this.schema != null;
+  }
+
+  public byte[] getSchema() {
+    return this.schema;
+  }
+
+  public int getSchemaId() {
+    return this.schemaId;
+  }
+
 }
@@ -14,14 +14,26 @@
  */
 package org.pitest.mutationtest.engine;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.pitest.classinfo.ClassName;
+import org.pitest.functional.F;
 
 public interface Mutater {
 
   public Mutant getMutation(MutationIdentifier id);
 
+  /**
+   * Returns a function that creates the mutants with the given ids in the
+   * supplied class. Work common to all the mutants of the class is done once,
+   * and each mutant is only created when it is requested. Mutants with other
+   * ids may also be requested, but are created as if by
+   * {@link #getMutation(MutationIdentifier)}.
+   */
+  public F<MutationIdentifier, Mutant> getMutations(ClassName clazz,
+      Collection<MutationIdentifier> ids);
+
   public List<MutationDetails> findMutations(ClassName classToMutate);
 
 }
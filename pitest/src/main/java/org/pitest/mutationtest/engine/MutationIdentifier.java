@@ -15,28 +15,61 @@
 package org.pitest.mutationtest.engine;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 
 import org.pitest.classinfo.ClassName;
 
+/**
+ * Identifies a mutation by its location, the mutator that created it and the
+ * indexes of the instructions it applies to.
+ *
+ * Large numbers of these are held in maps, so the indexes are kept as
+ * primitives, the mutator name is interned and the hash code is calculated
+ * only once.
+ */
 public class MutationIdentifier implements Comparable<MutationIdentifier> {
 
-  private final Location      location;
-  private final List<Integer> indexes;
-  private final String        mutator;
+  private final Location  location;
+  private final int[]     indexes;
+  private final String    mutator;
+
+  // not serialised, so that stored history keeps its existing format
+  private transient int   hash;
 
   public MutationIdentifier(final Location location, final int index,
       final String mutatorUniqueId) {
-    this(location, Collections.singleton(index), mutatorUniqueId);
+    this(location, new int[] { index }, mutatorUniqueId);
   }
 
   public MutationIdentifier(final Location location,
       final Collection<Integer> indexes, final String mutatorUniqueId) {
+    this(location, toArray(indexes), mutatorUniqueId);
+  }
+
+  private MutationIdentifier(final Location location, final int[] indexes,
+      final String mutatorUniqueId) {
     this.location = location;
-    this.indexes = new ArrayList<Integer>(indexes);
-    this.mutator = mutatorUniqueId;
+    this.indexes = indexes;
+    this.mutator = mutatorUniqueId == null ? null : mutatorUniqueId.intern();
+  }
+
+  /**
+   * Called when read from history, so that the mutator name is interned.
+   */
+  private Object readResolve() {
+    return new MutationIdentifier(this.location, this.indexes, this.mutator);
+  }
+
+  private static int[] toArray(final Collection<Integer> indexes) {
+    final int[] array = new int[indexes.size()];
+    int i = 0;
+    for (final int each : indexes) {
+      array[i] = each;
+      i++;
+    }
+    return array;
   }
 
   public Location getLocation() {
@@ -48,7 +81,15 @@ public class MutationIdentifier implements Comparable<MutationIdentifier> {
   }
 
   public int getFirstIndex() {
-    return this.indexes.iterator().next();
+    return this.indexes[0];
+  }
+
+  public List<Integer> getIndexes() {
+    final List<Integer> list = new ArrayList<Integer>(this.indexes.length);
+    for (final int each : this.indexes) {
+      list.add(each);
+    }
+    return list;
   }
 
   public MutationIdentifier withLocation(final Location location) {
@@ -66,13 +107,22 @@ public class MutationIdentifier implements Comparable<MutationIdentifier> {
   @Override
   public String toString() {
     return "MutationIdentifier [location=" + this.location + ", indexes="
-        + this.indexes + ", mutator=" + this.mutator + "]";
+        + Arrays.toString(this.indexes) + ", mutator=" + this.mutator + "]";
   }
 
   public boolean matches(final MutationIdentifier newId) {
     return this.location.equals(newId.location)
         && this.mutator.equals(newId.mutator)
-        && this.indexes.contains(newId.getFirstIndex());
+        && containsIndex(newId.getFirstIndex());
+  }
+
+  private boolean containsIndex(final int index) {
+    for (final int each : this.indexes) {
+      if (each == index) {
+        return true;
+      }
+    }
+    return false;
   }
 
   public ClassName getClassName() {
@@ -81,15 +131,18 @@ public class MutationIdentifier implements Comparable<MutationIdentifier> {
   
   @Override
   public int hashCode() {
-    final int prime = 31;
-    int result = 1;
-    result = (prime * result)
-        + ((this.indexes == null) ? 0 : this.indexes.hashCode());
-    result = (prime * result)
-        + ((this.location == null) ? 0 : this.location.hashCode());
-    result = (prime * result)
-        + ((this.mutator == null) ? 0 : this.mutator.hashCode());
-    return result;
+    if (this.hash == 0) {
+      final int prime = 31;
+      int result = 1;
+      result = (prime * result)
+          + ((this.indexes == null) ? 0 : Arrays.hashCode(this.indexes));
+      result = (prime * result)
+          + ((this.location == null) ? 0 : this.location.hashCode());
+      result = (prime * result)
+          + ((this.mutator == null) ? 0 : this.mutator.hashCode());
+      this.hash = result;
+    }
+    return this.hash;
   }
 
   @Override
@@ -104,11 +157,10 @@ public class MutationIdentifier implements Comparable<MutationIdentifier> {
       return false;
     }
     final MutationIdentifier other = (MutationIdentifier) obj;
-    if (this.indexes == null) {
-      if (other.indexes != null) {
-        return false;
-      }
-    } else if (!this.indexes.equals(other.indexes)) {
+    if (hashCode() != other.hashCode()) {
+      return false;
+    }
+    if (!Arrays.equals(this.indexes, other.indexes)) {
       return false;
     }
     if (this.location == null) {
@@ -137,7 +189,7 @@ public class MutationIdentifier implements Comparable<MutationIdentifier> {
     if (comp != 0) {
       return comp;
     }
-    return this.indexes.get(0).compareTo(other.indexes.get(0));
+    return Integer.valueOf(this.indexes[0]).compareTo(other.indexes[0]);
   }
 
 }
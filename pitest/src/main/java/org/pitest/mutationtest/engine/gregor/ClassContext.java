@@ -16,10 +16,12 @@ package org.pitest.mutationtest.engine.gregor;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.pitest.functional.F;
-import org.pitest.functional.FCollection;
 import org.pitest.functional.Option;
 import org.pitest.mutationtest.engine.MutationDetails;
 import org.pitest.mutationtest.engine.MutationIdentifier;
@@ -33,6 +35,8 @@ class ClassContext implements BlockCounter {
 
   private Option<MutationIdentifier>  target       = Option.none();
   private final List<MutationDetails> mutations    = new ArrayList<MutationDetails>();
+  // mutations are looked up by location, mutator and a single index
+  private final Map<MutationIdentifier, List<MutationDetails>> mutationsByIndex = new HashMap<MutationIdentifier, List<MutationDetails>>();
 
   private final ConcreteBlockCounter  blockCounter = new ConcreteBlockCounter();
 
@@ -57,16 +61,12 @@ class ClassContext implements BlockCounter {
   }
 
   public List<MutationDetails> getMutationDetails(final MutationIdentifier id) {
-    return FCollection.filter(this.mutations, hasId(id));
-  }
-
-  private static F<MutationDetails, Boolean> hasId(final MutationIdentifier id) {
-    return new F<MutationDetails, Boolean>() {
-      public Boolean apply(final MutationDetails a) {
-        return a.matchesId(id);
-      }
-
-    };
+    final List<MutationDetails> matches = this.mutationsByIndex.get(id
+        .withIndex(id.getFirstIndex()));
+    if (matches == null) {
+      return Collections.emptyList();
+    }
+    return matches;
   }
 
   public void registerClass(final ClassInfo classInfo) {
@@ -96,6 +96,15 @@ class ClassContext implements BlockCounter {
 
   public void addMutation(final MutationDetails details) {
     this.mutations.add(details);
+    for (final int each : details.getId().getIndexes()) {
+      final MutationIdentifier key = details.getId().withIndex(each);
+      List<MutationDetails> matches = this.mutationsByIndex.get(key);
+      if (matches == null) {
+        matches = new ArrayList<MutationDetails>(1);
+        this.mutationsByIndex.put(key, matches);
+      }
+      matches.add(details);
+    }
 
   }
 
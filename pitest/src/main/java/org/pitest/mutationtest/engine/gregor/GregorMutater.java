@@ -19,10 +19,9 @@ import static org.pitest.functional.prelude.Prelude.not;
 import static org.pitest.util.Functions.classNameToJVMClassName;
 
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 import org.objectweb.asm.ClassReader;
@@ -42,10 +41,12 @@ import org.pitest.mutationtest.engine.MutationDetails;
 import org.pitest.mutationtest.engine.MutationIdentifier;
 import org.pitest.mutationtest.engine.gregor.inlinedcode.InlinedCodeFilter;
 import org.pitest.util.ComputeClassWriter;
+import org.pitest.util.TypeHierarchy;
 
 public class GregorMutater implements Mutater {
 
-  private final Map<String, String>       computeCache   = new HashMap<String, String>();
+  private final TypeHierarchy             hierarchy      = TypeHierarchy
+                                                             .shared();
   private final Predicate<MethodInfo>     filter;
   private final ClassByteArraySource      byteSource;
   private final Set<MethodMutatorFactory> mutators       = new HashSet<MethodMutatorFactory>();
@@ -110,28 +111,68 @@ public class GregorMutater implements Mutater {
   }
 
   public Mutant getMutation(final MutationIdentifier id) {
+    return getMutations(id.getClassName(), Collections.singleton(id)).apply(
+        id);
+  }
 
+  public F<MutationIdentifier, Mutant> getMutations(final ClassName clazz,
+      final Collection<MutationIdentifier> ids) {
+    final byte[] bytes = this.byteSource.getBytes(clazz.asJavaName()).value();
+    final PremutationClassInfo classInfo = performPreScan(bytes);
+    final ClassReader reader = new ClassReader(bytes);
+    final int flags = FrameOptions.pickFlags(bytes);
+
+    // mutants visit only the mutated method, so the details (which depend on
+    // blocks counted across the whole class) are taken from a single scan.
+    // Only the mutators of the requested mutants take part in it.
+    final Set<MutationIdentifier> requested = new HashSet<MutationIdentifier>(
+        ids);
+    final ClassContext scan = new ClassContext();
+    reader.accept(new MutatingClassVisitor(new NullVisitor(), scan,
+        filterMethods(), classInfo, FCollection.filter(this.mutators,
+            isMutatorForAny(requested))), ClassReader.EXPAND_FRAMES);
+
+    return new F<MutationIdentifier, Mutant>() {
+      public Mutant apply(final MutationIdentifier id) {
+        final List<MutationDetails> details = scan.getMutationDetails(id);
+        if (details.isEmpty() && !requested.contains(id)) {
+          // not one of the requested mutants, so its mutator was not scanned
+          return getMutation(id);
+        }
+        return new Mutant(details.get(0), createMutant(reader, flags,
+            classInfo, id));
+      }
+    };
+  }
+
+  private byte[] createMutant(final ClassReader reader, final int flags,
+      final PremutationClassInfo classInfo, final MutationIdentifier id) {
     final ClassContext context = new ClassContext();
     context.setTargetMutation(Option.some(id));
 
-    final Option<byte[]> bytes = this.byteSource.getBytes(id.getClassName()
-        .asJavaName());
-
-    final PremutationClassInfo classInfo = performPreScan(bytes.value());
-
-    final ClassReader reader = new ClassReader(bytes.value());
-    final ClassWriter w = new ComputeClassWriter(this.byteSource,
-        this.computeCache, FrameOptions.pickFlags(bytes.value()));
+    final ClassWriter w = new ComputeClassWriter(reader, this.byteSource,
+        this.hierarchy, flags);
     final MutatingClassVisitor mca = new MutatingClassVisitor(w, context,
         filterMethods(), classInfo, FCollection.filter(this.mutators,
             isMutatorFor(id)));
     reader.accept(mca, ClassReader.EXPAND_FRAMES);
 
-    final List<MutationDetails> details = context.getMutationDetails(context
-        .getTargetMutation().value());
+    return w.toByteArray();
+  }
 
-    return new Mutant(details.get(0), w.toByteArray());
+  private static Predicate<MethodMutatorFactory> isMutatorForAny(
+      final Collection<MutationIdentifier> ids) {
+    final Set<String> mutators = new HashSet<String>();
+    for (final MutationIdentifier each : ids) {
+      mutators.add(each.getMutator());
+    }
+    return new Predicate<MethodMutatorFactory>() {
 
+      public Boolean apply(final MethodMutatorFactory a) {
+        return mutators.contains(a.getGloballyUniqueId());
+      }
+
+    };
   }
 
   private static Predicate<MethodMutatorFactory> isMutatorFor(
@@ -65,9 +65,10 @@ class MutatingClassVisitor extends ClassVisitor {
       final String methodDescriptor, final String signature,
       final String[] exceptions) {
        
-    MethodMutationContext methodContext = new MethodMutationContext(context, Location.location(
+    final Location location = Location.location(
         ClassName.fromString(context.getClassInfo().getName()),
-        MethodName.fromString(methodName), methodDescriptor));
+        MethodName.fromString(methodName), methodDescriptor);
+    MethodMutationContext methodContext = new MethodMutationContext(context, location);
     
     final MethodVisitor methodVisitor = this.cv.visitMethod(access, methodName,
         methodDescriptor, signature, exceptions);
@@ -76,7 +77,9 @@ class MutatingClassVisitor extends ClassVisitor {
         .withOwner(this.context.getClassInfo()).withAccess(access)
         .withMethodName(methodName).withMethodDescriptor(methodDescriptor);
 
-    if (this.filter.apply(info)) {
+    // when creating a mutant only the mutated method is visited, so that the
+    // writer can copy all other methods and their frames without change
+    if (this.filter.apply(info) && isTargetOrNoTarget(location)) {
       return  this.visitMethodForMutation(methodContext, info, methodVisitor);
     } else {
       return methodVisitor;
@@ -84,6 +87,12 @@ class MutatingClassVisitor extends ClassVisitor {
 
   }
 
+  private boolean isTargetOrNoTarget(final Location location) {
+    return !this.context.getTargetMutation().hasSome()
+        || this.context.getTargetMutation().value().getLocation()
+            .equals(location);
+  }
+
   private MethodVisitor visitMethodForMutation(
       MethodMutationContext methodContext, final MethodInfo methodInfo,
       final MethodVisitor methodVisitor) {
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2014 Henry Coles
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+package org.pitest.mutationtest.engine.schemata;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.FieldInsnNode;
+import org.objectweb.asm.tree.InsnList;
+import org.objectweb.asm.tree.LabelNode;
+import org.objectweb.asm.tree.LocalVariableNode;
+import org.objectweb.asm.tree.LookupSwitchInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.objectweb.asm.tree.TryCatchBlockNode;
+import org.pitest.bytecode.FrameOptions;
+import org.pitest.classinfo.ClassByteArraySource;
+import org.pitest.functional.Option;
+import org.pitest.mutationtest.engine.Location;
+import org.pitest.mutationtest.engine.Mutant;
+import org.pitest.util.ComputeClassWriter;
+import org.pitest.util.Log;
+import org.pitest.util.TypeHierarchy;
+
+import sun.pitest.ActiveMutant;
+
+/**
+ * Combines mutants of a class into a single class.
+ *
+ * The body of each mutated method is replaced by a switch on the active mutant
+ * id, which jumps to a copy of the body for each mutant of the method, or to
+ * the original body when none of them is active. No members are added, so the
+ * schema may replace the class by redefinition.
+ */
+class MutantSchema {
+
+  private static final Logger                                LOG      = Log
+                                                                          .getLogger();
+
+  private final byte[]                                       original;
+  private final ClassByteArraySource                         byteSource;
+  private final TypeHierarchy                                hierarchy;
+
+  // mutated bodies by schema id, for each method
+  private final Map<String, SortedMap<Integer, MethodNode>> variants = new HashMap<String, SortedMap<Integer, MethodNode>>();
+
+  MutantSchema(final byte[] original, final ClassByteArraySource byteSource,
+      final TypeHierarchy hierarchy) {
+    this.original = original;
+    this.byteSource = byteSource;
+    this.hierarchy = hierarchy;
+  }
+
+  /**
+   * Returns true if the mutated method was found and added to the schema.
+   */
+  boolean add(final int schemaId, final Mutant mutant) {
+    final Location location = mutant.getDetails().getId().getLocation();
+    final String name = location.getMethodName().name();
+    final String desc = location.getMethodDesc();
+
+    final MethodNode[] method = new MethodNode[1];
+    new ClassReader(mutant.getBytes()).accept(new ClassVisitor(Opcodes.ASM5) {
+      @Override
+      public MethodVisitor visitMethod(final int access,
+          final String methodName, final String methodDesc,
+          final String signature, final String[] exceptions) {
+        if (name.equals(methodName) && desc.equals(methodDesc)) {
+          method[0] = new MethodNode(Opcodes.ASM5, access, methodName,
+              methodDesc, signature, exceptions);
+          return method[0];
+        }
+        return null;
+      }
+    }, ClassReader.SKIP_FRAMES);
+
+    if (method[0] == null) {
+      return false;
+    }
+    variantsOf(name + desc).put(schemaId, method[0]);
+    return true;
+  }
+
+  /**
+   * Returns the schema, or none if it could not be created.
+   */
+  Option<byte[]> build() {
+    if (this.variants.isEmpty()) {
+      return Option.none();
+    }
+
+    final ClassReader reader = new ClassReader(this.original);
+    final ClassWriter w = new ComputeClassWriter(reader, this.byteSource,
+        this.hierarchy, FrameOptions.pickFlags(this.original));
+    try {
+      reader.accept(new ClassVisitor(Opcodes.ASM5, w) {
+        @Override
+        public MethodVisitor visitMethod(final int access, final String name,
+            final String desc, final String signature,
+            final String[] exceptions) {
+          final SortedMap<Integer, MethodNode> mutants = MutantSchema.this.variants
+              .get(name + desc);
+          if (mutants == null) {
+            // unmutated methods are copied unchanged
+            return super.visitMethod(access, name, desc, signature,
+                exceptions);
+          }
+          return new MethodNode(Opcodes.ASM5, access, name, desc, signature,
+              exceptions) {
+            @Override
+            public void visitEnd() {
+              combine(this, mutants);
+              accept(w);
+            }
+          };
+        }
+      }, ClassReader.SKIP_FRAMES);
+      return Option.some(w.toByteArray());
+    } catch (final RuntimeException ex) {
+      // most likely a method that has grown too large
+      LOG.fine("Could not create mutant schema " + ex.getMessage());
+      return Option.none();
+    }
+  }
+
+  private SortedMap<Integer, MethodNode> variantsOf(final String method) {
+    SortedMap<Integer, MethodNode> mutants = this.variants.get(method);
+    if (mutants == null) {
+      mutants = new TreeMap<Integer, MethodNode>();
+      this.variants.put(method, mutants);
+    }
+    return mutants;
+  }
+
+  private static void combine(final MethodNode method,
+      final SortedMap<Integer, MethodNode> mutants) {
+    final InsnList instructions = new InsnList();
+    final List<TryCatchBlockNode> tryCatchBlocks = new ArrayList<TryCatchBlockNode>();
+    final List<LocalVariableNode> localVariables = new ArrayList<LocalVariableNode>();
+
+    final int[] keys = new int[mutants.size()];
+    final LabelNode[] labels = new LabelNode[mutants.size()];
+    int i = 0;
+    for (final Integer each : mutants.keySet()) {
+      keys[i] = each;
+      labels[i] = new LabelNode();
+      i++;
+    }
+    final LabelNode unmutated = new LabelNode();
+
+    instructions.add(new FieldInsnNode(Opcodes.GETSTATIC,
+        ActiveMutant.CLASS_NAME, ActiveMutant.FIELD_NAME, "I"));
+    instructions.add(new LookupSwitchInsnNode(unmutated, keys, labels));
+
+    instructions.add(unmutated);
+    copyBody(method, instructions, tryCatchBlocks, localVariables);
+    i = 0;
+    for (final MethodNode each : mutants.values()) {
+      instructions.add(labels[i]);
+      copyBody(each, instructions, tryCatchBlocks, localVariables);
+      i++;
+    }
+
+    method.instructions = instructions;
+    method.tryCatchBlocks = tryCatchBlocks;
+    method.localVariables = localVariables;
+    // refer to labels of the original body only
+    method.visibleLocalVariableAnnotations = null;
+    method.invisibleLocalVariableAnnotations = null;
+  }
+
+  private static void copyBody(final MethodNode from,
+      final InsnList instructions, final List<TryCatchBlockNode> tryCatchBlocks,
+      final List<LocalVariableNode> localVariables) {
+    // each copy needs its own labels
+    final Map<LabelNode, LabelNode> labels = new HashMap<LabelNode, LabelNode>();
+    for (final AbstractInsnNode each : from.instructions.toArray()) {
+      if (each instanceof LabelNode) {
+        labels.put((LabelNode) each, new LabelNode());
+      }
+    }
+
+    for (final AbstractInsnNode each : from.instructions.toArray()) {
+      instructions.add(each.clone(labels));
+    }
+
+    for (final Object o : from.tryCatchBlocks) {
+      final TryCatchBlockNode each = (TryCatchBlockNode) o;
+      tryCatchBlocks.add(new TryCatchBlockNode(labels.get(each.start), labels
+          .get(each.end), labels.get(each.handler), each.type));
+    }
+
+    if (from.localVariables != null) {
+      for (final Object o : from.localVariables) {
+        final LocalVariableNode each = (LocalVariableNode) o;
+        localVariables.add(new LocalVariableNode(each.name, each.desc,
+            each.signature, labels.get(each.start), labels.get(each.end),
+            each.index));
+      }
+    }
+  }
+
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2014 Henry Coles
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+package org.pitest.mutationtest.engine.schemata;
+
+import java.util.Collection;
+
+import org.pitest.functional.predicate.Predicate;
+import org.pitest.mutationtest.MutationEngineFactory;
+import org.pitest.mutationtest.engine.MutationEngine;
+import org.pitest.mutationtest.engine.gregor.config.GregorEngineFactory;
+
+public final class SchemataEngineFactory implements MutationEngineFactory {
+
+  public MutationEngine createEngine(final boolean mutateStaticInitializers,
+      final Predicate<String> excludedMethods,
+      final Collection<String> loggingClasses,
+      final Collection<String> mutators, final boolean detectInlinedCode) {
+    return new SchemataMutationEngine(new GregorEngineFactory().createEngine(
+        mutateStaticInitializers, excludedMethods, loggingClasses, mutators,
+        detectInlinedCode));
+  }
+
+  public String name() {
+    return "schemata";
+  }
+
+  public String description() {
+    return "Default mutation engine, activating mutants within mutant schemata";
+  }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2014 Henry Coles
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+package org.pitest.mutationtest.engine.schemata;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.pitest.classinfo.ClassByteArraySource;
+import org.pitest.classinfo.ClassName;
+import org.pitest.functional.F;
+import org.pitest.functional.Option;
+import org.pitest.mutationtest.engine.Mutant;
+import org.pitest.mutationtest.engine.Mutater;
+import org.pitest.mutationtest.engine.MutationDetails;
+import org.pitest.mutationtest.engine.MutationIdentifier;
+import org.pitest.util.TypeHierarchy;
+
+import sun.pitest.ActiveMutant;
+
+/**
+ * Creates mutants that are held in a schema of their class, so that moving
+ * from one mutant to the next needs only a change of the active mutant id
+ * rather than a redefinition of the class.
+ *
+ * Mutants in static initializers are not placed in the schema as the
+ * initializer will have run before the mutant is made active.
+ */
+public class SchemataMutater implements Mutater {
+
+  private final TypeHierarchy        hierarchy    = TypeHierarchy.shared();
+  private final ClassByteArraySource byteSource;
+  private final Mutater              child;
+
+  // ids must be unique within a JVM as schemata are left in place once
+  // installed
+  private final AtomicInteger        nextSchemaId = new AtomicInteger(
+                                                      ActiveMutant.NONE + 1);
+
+  public SchemataMutater(final ClassByteArraySource byteSource,
+      final Mutater child) {
+    this.byteSource = byteSource;
+    this.child = child;
+  }
+
+  public Mutant getMutation(final MutationIdentifier id) {
+    return getMutations(id.getClassName(), Collections.singleton(id)).apply(
+        id);
+  }
+
+  public F<MutationIdentifier, Mutant> getMutations(final ClassName clazz,
+      final Collection<MutationIdentifier> ids) {
+    final F<MutationIdentifier, Mutant> mutants = this.child.getMutations(
+        clazz, ids);
+
+    final MutantSchema schema = new MutantSchema(this.byteSource.getBytes(
+        clazz.asJavaName()).value(), this.byteSource, this.hierarchy);
+    final Map<MutationIdentifier, Mutant> created = new HashMap<MutationIdentifier, Mutant>();
+    final Map<MutationIdentifier, Integer> schemaIds = new HashMap<MutationIdentifier, Integer>();
+    for (final MutationIdentifier each : ids) {
+      final Mutant mutant = mutants.apply(each);
+      created.put(each, mutant);
+      if (!mutant.getDetails().isInStaticInitializer()) {
+        final int schemaId = this.nextSchemaId.getAndIncrement();
+        if (schema.add(schemaId, mutant)) {
+          schemaIds.put(each, schemaId);
+        }
+      }
+    }
+    final Option<byte[]> schemaBytes = schema.build();
+
+    return new F<MutationIdentifier, Mutant>() {
+      public Mutant apply(final MutationIdentifier id) {
+        final Mutant mutant = created.get(id);
+        if (mutant == null) {
+          return mutants.apply(id);
+        }
+        if (schemaBytes.hasNone() || !schemaIds.containsKey(id)) {
+          return mutant;
+        }
+        return new Mutant(mutant.getDetails(), mutant.getBytes(),
+            schemaBytes.value(), schemaIds.get(id));
+      }
+    };
+  }
+
+  public List<MutationDetails> findMutations(final ClassName classToMutate) {
+    return this.child.findMutations(classToMutate);
+  }
+
+  @Override
+  public String toString() {
+    return "SchemataMutater [child=" + this.child + "]";
+  }
+
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2014 Henry Coles
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+package org.pitest.mutationtest.engine.schemata;
+
+import java.util.Collection;
+
+import org.pitest.classinfo.ClassByteArraySource;
+import org.pitest.mutationtest.engine.Mutater;
+import org.pitest.mutationtest.engine.MutationEngine;
+
+/**
+ * Finds and creates mutants with another engine, and combines the mutants of
+ * each class into a single schema.
+ */
+public class SchemataMutationEngine implements MutationEngine {
+
+  private final MutationEngine child;
+
+  public SchemataMutationEngine(final MutationEngine child) {
+    this.child = child;
+  }
+
+  public Mutater createMutator(final ClassByteArraySource source) {
+    return new SchemataMutater(source, this.child.createMutator(source));
+  }
+
+  public Collection<String> getMutatorNames() {
+    return this.child.getMutatorNames();
+  }
+
+  @Override
+  public String toString() {
+    return "SchemataMutationEngine [child=" + this.child + "]";
+  }
+
+}
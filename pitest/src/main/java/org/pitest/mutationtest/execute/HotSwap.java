@@ -3,6 +3,7 @@ package org.pitest.mutationtest.execute;
 import org.pitest.boot.HotSwapAgent;
 import org.pitest.classinfo.ClassByteArraySource;
 import org.pitest.classinfo.ClassName;
+import org.pitest.functional.F2;
 import org.pitest.functional.F3;
 import org.pitest.util.Unchecked;
 
@@ -12,25 +13,50 @@ class HotSwap implements F3<ClassName, ClassLoader, byte[], Boolean> {
   private byte[]                     lastClassPreMutation;
   private ClassName                  lastMutatedClass;
   private ClassLoader lastUsedLoader;
+  private byte[]                     lastInstalled;
+  private final F2<Class<?>, byte[], Boolean> redefine;
 
   HotSwap(final ClassByteArraySource byteSource) {
+    this(byteSource, new F2<Class<?>, byte[], Boolean>() {
+      public Boolean apply(final Class<?> clazz, final byte[] bytes) {
+        return HotSwapAgent.hotSwap(clazz, bytes);
+      }
+    });
+  }
+
+  HotSwap(final ClassByteArraySource byteSource,
+      final F2<Class<?>, byte[], Boolean> redefine) {
     this.byteSource = byteSource;
+    this.redefine = redefine;
   }
 
   public Boolean apply(final ClassName clazzName, final ClassLoader loader,
       final byte[] b) {
     Class<?> clazz;
     try {
+      // a schema holding several mutants is installed once, then left in
+      // place while each of its mutants is activated in turn
+      if (isInstalled(clazzName, loader, b)) {
+        return true;
+      }
       restoreLastClass(this.byteSource, clazzName, loader);
       lastUsedLoader = loader;
       clazz = Class.forName(clazzName.asJavaName(), false, loader);
-      return HotSwapAgent.hotSwap(clazz, b);
+      final boolean swapped = this.redefine.apply(clazz, b);
+      this.lastInstalled = swapped ? b : null;
+      return swapped;
     } catch (final ClassNotFoundException e) {
       throw Unchecked.translateCheckedException(e);
     }
 
   }
 
+  private boolean isInstalled(final ClassName clazzName,
+      final ClassLoader loader, final byte[] b) {
+    return (b == this.lastInstalled) && (loader == this.lastUsedLoader)
+        && clazzName.equals(this.lastMutatedClass);
+  }
+
   private void restoreLastClass(final ClassByteArraySource byteSource,
       final ClassName clazzName, final ClassLoader loader)
       throws ClassNotFoundException {
@@ -51,7 +77,7 @@ class HotSwap implements F3<ClassName, ClassLoader, byte[], Boolean> {
 
   private void restoreForLoader(ClassLoader loader) throws ClassNotFoundException {
     Class<?> clazz = Class.forName(this.lastMutatedClass.asJavaName(), false, loader);
-    HotSwapAgent.hotSwap(clazz, this.lastClassPreMutation);
+    this.redefine.apply(clazz, this.lastClassPreMutation);
   }
 
 }
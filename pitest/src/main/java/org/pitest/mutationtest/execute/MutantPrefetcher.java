@@ -0,0 +1,138 @@
+/*
+ * Copyright 2014 Henry Coles
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+package org.pitest.mutationtest.execute;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import org.pitest.classinfo.ClassName;
+import org.pitest.functional.F;
+import org.pitest.mutationtest.engine.Mutant;
+import org.pitest.mutationtest.engine.Mutater;
+import org.pitest.mutationtest.engine.MutationDetails;
+import org.pitest.mutationtest.engine.MutationIdentifier;
+import org.pitest.util.Unchecked;
+
+/**
+ * Creates the mutants for a range of mutations in order, on a background
+ * thread. Each mutant is created while the tests for the one before it run.
+ *
+ * The mutants of a class are created from a single batch, so the class is
+ * read once for all of its consecutive mutations. Batches are only used on the
+ * background thread.
+ */
+class MutantPrefetcher {
+
+  private final Mutater                 mutater;
+  private final List<MutationDetails>   range;
+  private final Map<ClassName, List<MutationIdentifier>> idsByClass;
+  private final ExecutorService         background;
+
+  private int                           next = 0;
+  private Future<Mutant>                pending;
+
+  private ClassName                     currentClass;
+  private F<MutationIdentifier, Mutant> mutants;
+
+  MutantPrefetcher(final Mutater mutater,
+      final Collection<MutationDetails> range) {
+    this.mutater = mutater;
+    this.range = new ArrayList<MutationDetails>(range);
+    this.idsByClass = groupIdsByClass(this.range);
+    this.background = Executors.newSingleThreadExecutor(daemonThreads());
+    prefetch();
+  }
+
+  /**
+   * Returns the mutant for the next mutation in the range, and starts creating
+   * the one after it.
+   */
+  Mutant next() {
+    try {
+      final Mutant mutant = this.pending.get();
+      prefetch();
+      return mutant;
+    } catch (final InterruptedException ex) {
+      throw Unchecked.translateCheckedException(ex);
+    } catch (final ExecutionException ex) {
+      if (ex.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) ex.getCause();
+      }
+      throw Unchecked.translateCheckedException(ex.getCause());
+    }
+  }
+
+  void close() {
+    this.background.shutdownNow();
+  }
+
+  private void prefetch() {
+    if (this.next < this.range.size()) {
+      this.pending = this.background.submit(createMutant(this.range
+          .get(this.next)));
+      this.next++;
+    } else {
+      this.pending = null;
+    }
+  }
+
+  private Callable<Mutant> createMutant(final MutationDetails mutation) {
+    return new Callable<Mutant>() {
+      public Mutant call() {
+        final ClassName clazz = mutation.getClassName();
+        if (!clazz.equals(MutantPrefetcher.this.currentClass)) {
+          MutantPrefetcher.this.currentClass = clazz;
+          MutantPrefetcher.this.mutants = MutantPrefetcher.this.mutater
+              .getMutations(clazz, MutantPrefetcher.this.idsByClass.get(clazz));
+        }
+        return MutantPrefetcher.this.mutants.apply(mutation.getId());
+      }
+    };
+  }
+
+  private static Map<ClassName, List<MutationIdentifier>> groupIdsByClass(
+      final List<MutationDetails> range) {
+    final Map<ClassName, List<MutationIdentifier>> ids = new HashMap<ClassName, List<MutationIdentifier>>();
+    for (final MutationDetails each : range) {
+      List<MutationIdentifier> inClass = ids.get(each.getClassName());
+      if (inClass == null) {
+        inClass = new ArrayList<MutationIdentifier>();
+        ids.put(each.getClassName(), inClass);
+      }
+      inClass.add(each.getId());
+    }
+    return ids;
+  }
+
+  private static ThreadFactory daemonThreads() {
+    return new ThreadFactory() {
+      public Thread newThread(final Runnable r) {
+        final Thread t = new Thread(r, "pit-mutant-prefetch");
+        t.setDaemon(true);
+        return t;
+      }
+    };
+  }
+
+}
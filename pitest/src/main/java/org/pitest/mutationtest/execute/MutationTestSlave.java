@@ -14,6 +14,7 @@
  */
 package org.pitest.mutationtest.execute;
 
+import java.io.File;
 import java.io.IOException;
 import java.lang.management.MemoryNotificationInfo;
 import java.net.Socket;
@@ -47,6 +48,7 @@ import org.pitest.util.IsolationUtils;
 import org.pitest.util.Log;
 import org.pitest.util.MemoryWatchdog;
 import org.pitest.util.SafeDataInputStream;
+import org.pitest.util.TypeHierarchy;
 
 public class MutationTestSlave {
 
@@ -74,6 +76,8 @@ public class MutationTestSlave {
       final ClassByteArraySource byteSource = new ClassloaderByteArraySource(
           loader);
 
+      loadTypeHierarchy(paramsFromParent.typeHierarchy);
+
       final F3<ClassName, ClassLoader, byte[], Boolean> hotswap = new HotSwap(
           byteSource);
 
@@ -86,6 +90,8 @@ public class MutationTestSlave {
       worker.run(paramsFromParent.mutations, this.reporter,
           new TimeOutDecoratedTestSource(paramsFromParent.timeoutStrategy,
               tests, this.reporter));
+
+      storeTypeHierarchy(paramsFromParent.typeHierarchy);
       this.reporter.done(ExitCode.OK);
     } catch (final Throwable ex) {
       LOG.log(Level.WARNING, "Error during mutation test", ex);
@@ -94,6 +100,18 @@ public class MutationTestSlave {
 
   }
 
+  private static void loadTypeHierarchy(final File file) {
+    if (file != null) {
+      TypeHierarchy.shared().load(file);
+    }
+  }
+
+  private static void storeTypeHierarchy(final File file) {
+    if (file != null) {
+      TypeHierarchy.shared().store(file);
+    }
+  }
+
   public static void main(final String[] args) {
 
     LOG.log(Level.FINE, "slave started");
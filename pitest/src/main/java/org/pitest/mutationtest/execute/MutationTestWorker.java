@@ -43,6 +43,8 @@ import org.pitest.testapi.TestUnit;
 import org.pitest.util.IsolationUtils;
 import org.pitest.util.Log;
 
+import sun.pitest.ActiveMutant;
+
 public class MutationTestWorker {
 
   private static final Logger                               LOG = Log
@@ -62,22 +64,28 @@ public class MutationTestWorker {
   protected void run(final Collection<MutationDetails> range, final Reporter r,
       final TimeOutDecoratedTestSource testSource) throws IOException {
 
-    for (final MutationDetails mutation : range) {
-      LOG.fine("Running mutation " + mutation);
-      final long t0 = System.currentTimeMillis();
-      processMutation(r, testSource, mutation);
-      LOG.fine("processed mutation in " + (System.currentTimeMillis() - t0)
-          + " ms.");
+    // the next mutant is created while the tests for the current one run
+    final MutantPrefetcher mutants = new MutantPrefetcher(this.mutater, range);
+    try {
+      for (final MutationDetails mutation : range) {
+        LOG.fine("Running mutation " + mutation);
+        final long t0 = System.currentTimeMillis();
+        processMutation(r, testSource, mutation, mutants.next());
+        LOG.fine("processed mutation in " + (System.currentTimeMillis() - t0)
+            + " ms.");
+      }
+    } finally {
+      mutants.close();
     }
 
   }
 
   private void processMutation(final Reporter r,
       final TimeOutDecoratedTestSource testSource,
-      final MutationDetails mutationDetails) throws IOException {
+      final MutationDetails mutationDetails, final Mutant mutatedClass)
+      throws IOException {
 
     final MutationIdentifier mutationId = mutationDetails.getId();
-    final Mutant mutatedClass = this.mutater.getMutation(mutationId);
 
     // For the benefit of mocking frameworks such as PowerMock
     // mess with the internals of Javassist so our mutated class
@@ -126,7 +134,18 @@ public class MutationTestWorker {
     final ClassLoader activeloader = pickClassLoaderForMutant(mutationId);
     final Container c = createNewContainer(activeloader);
     final long t0 = System.currentTimeMillis();
-    if (this.hotswap.apply(mutationId.getClassName(), activeloader,
+    if (mutatedClass.isInSchema()
+        && this.hotswap.apply(mutationId.getClassName(), activeloader,
+            mutatedClass.getSchema())) {
+      LOG.fine("activated mutant in schema in "
+          + (System.currentTimeMillis() - t0) + " ms");
+      ActiveMutant.activate(mutatedClass.getSchemaId());
+      try {
+        mutationDetected = doTestsDetectMutation(c, relevantTests);
+      } finally {
+        ActiveMutant.deactivate();
+      }
+    } else if (this.hotswap.apply(mutationId.getClassName(), activeloader,
         mutatedClass.getBytes())) {
       LOG.fine("replaced class with mutant in "
           + (System.currentTimeMillis() - t0) + " ms");
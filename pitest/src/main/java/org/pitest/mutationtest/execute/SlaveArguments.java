@@ -14,6 +14,7 @@
  */
 package org.pitest.mutationtest.execute;
 
+import java.io.File;
 import java.util.Collection;
 
 import org.pitest.classinfo.ClassName;
@@ -30,17 +31,19 @@ public class SlaveArguments {
   final TimeoutLengthStrategy       timeoutStrategy;
   final boolean                     verbose;
   final Configuration               pitConfig;
+  final File                        typeHierarchy;
 
   public SlaveArguments(final Collection<MutationDetails> mutations,
       final Collection<ClassName> tests, final MutationEngine engine,
       final TimeoutLengthStrategy timeoutStrategy, final boolean verbose,
-      final Configuration pitConfig) {
+      final Configuration pitConfig, final File typeHierarchy) {
     this.mutations = mutations;
     this.testClasses = tests;
     this.engine = engine;
     this.timeoutStrategy = timeoutStrategy;
     this.verbose = verbose;
     this.pitConfig = pitConfig;
+    this.typeHierarchy = typeHierarchy;
   }
 
   public boolean isVerbose() {
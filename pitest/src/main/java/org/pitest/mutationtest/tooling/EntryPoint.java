@@ -86,7 +86,8 @@ public class EntryPoint {
     final Timings timings = new Timings();
     final CoverageGenerator coverageDatabase = new DefaultCoverageGenerator(
         baseDir, coverageOptions, launchOptions, code,
-        settings.createCoverageExporter(), timings, !data.isVerbose());
+        settings.createCoverageExporter(), settings.createCoverageCache(code),
+        timings, !data.isVerbose());
 
     final HistoryStore history = new XStreamHistoryStore(historyWriter, reader);
 
@@ -32,6 +32,7 @@ import org.pitest.util.FileUtil;
 import org.pitest.util.PitError;
 import org.pitest.util.Unchecked;
 
+import sun.pitest.ActiveMutant;
 import sun.pitest.CodeCoverageStore;
 import sun.pitest.InvokeReceiver;
 
@@ -98,6 +99,7 @@ public class JarCreatingJarFinder implements JavaAgent {
     addClass(HotSwapAgent.class, jos);
     addClass(CodeCoverageStore.class, jos);
     addClass(InvokeReceiver.class, jos);
+    addClass(ActiveMutant.class, jos);
     jos.close();
   }
 
@@ -40,6 +40,7 @@ import org.pitest.execute.containers.BaseThreadPoolContainer;
 import org.pitest.execute.containers.ClassLoaderFactory;
 import org.pitest.execute.containers.UnContainer;
 import org.pitest.functional.FCollection;
+import org.pitest.functional.Option;
 import org.pitest.functional.prelude.Prelude;
 import org.pitest.help.Help;
 import org.pitest.help.PitHelpError;
@@ -48,10 +49,13 @@ import org.pitest.mutationtest.ListenerArguments;
 import org.pitest.mutationtest.MutationAnalyser;
 import org.pitest.mutationtest.MutationConfig;
 import org.pitest.mutationtest.MutationResultListener;
+import org.pitest.mutationtest.build.MutantCatalogue;
+import org.pitest.mutationtest.build.MutationAnalysisUnit;
 import org.pitest.mutationtest.build.MutationGrouper;
 import org.pitest.mutationtest.build.MutationSource;
 import org.pitest.mutationtest.build.MutationTestBuilder;
 import org.pitest.mutationtest.build.PercentAndConstantTimeoutStrategy;
+import org.pitest.mutationtest.build.RedundantMutantDetector;
 import org.pitest.mutationtest.build.TestPrioritiser;
 import org.pitest.mutationtest.build.WorkerFactory;
 import org.pitest.mutationtest.config.ReportOptions;
@@ -135,9 +139,11 @@ public class MutationCoverage {
 
     history().initialize();
 
+    final File typeHierarchy = createTypeHierarchyFile();
+
     this.timings.registerStart(Timings.Stage.BUILD_MUTATION_TESTS);
     final List<? extends TestUnit> tus = buildMutationTests(coverageData,
-        engine);
+        engine, typeHierarchy);
     this.timings.registerEnd(Timings.Stage.BUILD_MUTATION_TESTS);
 
     LOG.info("Created  " + tus.size() + " mutation test units");
@@ -155,6 +161,8 @@ public class MutationCoverage {
     pit.run(createContainer(), tus);
     this.timings.registerEnd(Timings.Stage.RUN_MUTATION_TESTS);
 
+    typeHierarchy.delete();
+
     LOG.info("Completed in " + timeSpan(t0));
 
     printStats(stats);
@@ -233,8 +241,18 @@ public class MutationCoverage {
     }
   }
 
+  private File createTypeHierarchyFile() throws IOException {
+    // written by each slave so that the next need not read the same types
+    // again. Only shared within a run, as classes may change between runs
+    final File file = File.createTempFile("pit-hierarchy", ".bin");
+    file.delete();
+    file.deleteOnExit();
+    return file;
+  }
+
   private List<? extends TestUnit> buildMutationTests(
-      final CoverageDatabase coverageData, final MutationEngine engine) {
+      final CoverageDatabase coverageData, final MutationEngine engine,
+      final File typeHierarchy) {
 
     final MutationConfig mutationConfig = new MutationConfig(engine, coverage()
         .getLaunchOptions());
@@ -243,8 +261,11 @@ public class MutationCoverage {
     
     TestPrioritiser testPrioritiser = settings.getTestPrioritiser().makeTestPrioritiser(code, coverageData);
     
+    final Option<MutantCatalogue> catalogue = settings
+        .createMutantCatalogue(engine);
     final MutationSource source = new MutationSource(mutationConfig,
-        makeFilter().createFilter(code, data.getMaxMutationsPerClass()), testPrioritiser, bas);
+        makeFilter().createFilter(code, data.getMaxMutationsPerClass()), testPrioritiser, bas,
+        catalogue);
 
     final MutationAnalyser analyser = new IncrementalAnalyser(
         new DefaultCodeHistory(this.code, history()), coverageData);
@@ -253,13 +274,27 @@ public class MutationCoverage {
         .getConfiguration(), mutationConfig,
         new PercentAndConstantTimeoutStrategy(this.data.getTimeoutFactor(),
             this.data.getTimeoutConstant()), this.data.isVerbose(), this.data
-            .getClassPath().getLocalClassPath());
+            .getClassPath().getLocalClassPath(), typeHierarchy);
     
     MutationGrouper grouper = settings.getMutationGrouper().makeFactory(code, data.getNumberOfThreads(), data.getMutationUnitSize());
     final MutationTestBuilder builder = new MutationTestBuilder(wf,
-        mutationConfig, analyser, source, grouper);
+        mutationConfig, analyser, source, grouper, data.getNumberOfThreads(),
+        redundantMutantDetector(mutationConfig, bas));
 
-    return builder.createMutationTestUnits(this.code.getCodeUnderTestNames());
+    final List<MutationAnalysisUnit> tus = builder
+        .createMutationTestUnits(this.code.getCodeUnderTestNames());
+    if (catalogue.hasSome()) {
+      catalogue.value().prune();
+    }
+    return tus;
+  }
+
+  private Option<RedundantMutantDetector> redundantMutantDetector(
+      final MutationConfig mutationConfig, final ClassByteArraySource bas) {
+    if (!this.data.isDetectRedundantMutants()) {
+      return Option.none();
+    }
+    return Option.some(new RedundantMutantDetector(mutationConfig, bas));
   }
 
   private MutationFilterFactory makeFilter() {
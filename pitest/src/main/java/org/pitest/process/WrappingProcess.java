@@ -33,7 +33,9 @@ public class WrappingProcess {
   }
 
   public void destroy() {
-    this.process.destroy();
+    if (this.process != null) {
+      this.process.destroy();
+    }
   }
 
 }
@@ -31,11 +31,8 @@
  */
 package org.pitest.util;
 
-import java.util.Map;
-
 import org.objectweb.asm.ClassReader;
 import org.objectweb.asm.ClassWriter;
-import org.objectweb.asm.Opcodes;
 import org.pitest.classinfo.ClassByteArraySource;
 
 /**
@@ -44,46 +41,42 @@ import org.pitest.classinfo.ClassByteArraySource;
  * 
  * @author Eric Bruneton
  * 
- *         Modified to match behaviour of default ClassWriter and cache already
- *         calculated values
+ *         Modified to match behaviour of default ClassWriter and to look up
+ *         types in a shared type hierarchy
  */
 public class ComputeClassWriter extends ClassWriter {
 
   private final ClassByteArraySource bytes;
-  private final Map<String, String>  cache;
+  private final TypeHierarchy        hierarchy;
 
   public ComputeClassWriter(final ClassByteArraySource bytes,
-      final Map<String, String> cache, final int flags) {
+      final TypeHierarchy hierarchy, final int flags) {
     super(flags);
     this.bytes = bytes;
-    this.cache = cache;
+    this.hierarchy = hierarchy;
   }
 
-  @Override
-  protected String getCommonSuperClass(final String type1, final String type2) {
-    final String key = type1 + "!_!" + type2;
-    final String previous = this.cache.get(key);
-    if (previous != null) {
-      return previous;
-    }
-
-    final ClassReader info1 = typeInfo(type1);
-    final ClassReader info2 = typeInfo(type2);
-
-    final String result = getCommonSuperClass(type1, info1, type2, info2);
-    this.cache.put(key, result);
-    return result;
-
+  /**
+   * Creates a writer that copies methods passed through unchanged from the
+   * given reader, together with their stack map frames, rather than
+   * rebuilding them.
+   */
+  public ComputeClassWriter(final ClassReader reader,
+      final ClassByteArraySource bytes, final TypeHierarchy hierarchy,
+      final int flags) {
+    super(reader, flags);
+    this.bytes = bytes;
+    this.hierarchy = hierarchy;
   }
 
-  private String getCommonSuperClass(final String type1,
-      final ClassReader info1, final String type2, final ClassReader info2) {
-    if (isInterface(info1)) {
-      if (typeImplements(type2, info2, type1)) {
+  @Override
+  protected String getCommonSuperClass(final String type1, final String type2) {
+    if (isInterface(type1)) {
+      if (typeImplements(type2, type1)) {
         return type1;
       } else {
-        if (isInterface(info2)) {
-          if (typeImplements(type1, info1, type2)) {
+        if (isInterface(type2)) {
+          if (typeImplements(type1, type2)) {
             return type2;
           } else {
             return "java/lang/Object";
@@ -92,8 +85,8 @@ public class ComputeClassWriter extends ClassWriter {
       }
     }
 
-    final StringBuilder b1 = typeAncestors(type1, info1);
-    final StringBuilder b2 = typeAncestors(type2, info2);
+    final StringBuilder b1 = typeAncestors(type1);
+    final StringBuilder b2 = typeAncestors(type2);
     String result = "java/lang/Object";
     int end1 = b1.length();
     int end2 = b2.length();
@@ -118,8 +111,8 @@ public class ComputeClassWriter extends ClassWriter {
 
   }
 
-  private boolean isInterface(final ClassReader info1) {
-    return (info1.getAccess() & Opcodes.ACC_INTERFACE) != 0;
+  private boolean isInterface(final String type) {
+    return this.hierarchy.isInterface(type, this.bytes);
   }
 
   /**
@@ -127,20 +120,17 @@ public class ComputeClassWriter extends ClassWriter {
    * 
    * @param type
    *          the internal name of a class or interface.
-   * @param info
-   *          the ClassReader corresponding to 'type'.
    * @return a StringBuilder containing the ancestor classes of 'type',
    *         separated by ';'. The returned string has the following format:
    *         ";type1;type2 ... ;typeN", where type1 is 'type', and typeN is a
    *         direct subclass of Object. If 'type' is Object, the returned string
    *         is empty.
    */
-  private StringBuilder typeAncestors(String type, ClassReader info) {
+  private StringBuilder typeAncestors(String type) {
     final StringBuilder b = new StringBuilder();
     while (!"java/lang/Object".equals(type)) {
       b.append(';').append(type);
-      type = info.getSuperName();
-      info = typeInfo(type);
+      type = this.hierarchy.getSuperName(type, this.bytes);
     }
     return b;
   }
@@ -150,40 +140,27 @@ public class ComputeClassWriter extends ClassWriter {
    * 
    * @param type
    *          the internal name of a class or interface.
-   * @param info
-   *          the ClassReader corresponding to 'type'.
    * @param itf
    *          the internal name of a interface.
    * @return true if 'type' implements directly or indirectly 'itf'
    */
-  private boolean typeImplements(String type, ClassReader info, final String itf) {
+  private boolean typeImplements(String type, final String itf) {
     final String cleanItf = itf.replace(".", "/");
     while (!"java/lang/Object".equals(type)) {
-      final String[] itfs = info.getInterfaces();
+      final String[] itfs = this.hierarchy.getInterfaces(type, this.bytes);
       for (final String itf2 : itfs) {
         if (itf2.equals(cleanItf)) {
           return true;
         }
       }
       for (final String itf2 : itfs) {
-        if (typeImplements(itf2, typeInfo(itf2), cleanItf)) {
+        if (typeImplements(itf2, cleanItf)) {
           return true;
         }
       }
-      type = info.getSuperName();
-      info = typeInfo(type);
+      type = this.hierarchy.getSuperName(type, this.bytes);
     }
     return false;
   }
 
-  /**
-   * Returns a ClassReader corresponding to the given class or interface.
-   * 
-   * @param type
-   *          the internal name of a class or interface.
-   * @return the ClassReader corresponding to 'type'.
-   */
-  private ClassReader typeInfo(final String type) {
-    return new ClassReader(this.bytes.getBytes(type).value());
-  }
 }
\ No newline at end of file
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2014 Henry Coles
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+package org.pitest.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Logger;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.Opcodes;
+import org.pitest.classinfo.ClassByteArraySource;
+
+/**
+ * The super class, interfaces and kind of each type looked up while computing
+ * stack map frames, so that each type is read from the class path only once.
+ *
+ * Types are identified by their internal names only, so an index should not be
+ * shared between class paths that may contain different versions of a class.
+ * The index may be stored in a file and loaded by later processes working
+ * against the same class path.
+ */
+public class TypeHierarchy {
+
+  private final static Logger                  LOG     = Log.getLogger();
+
+  private final static int                     VERSION = 1;
+
+  private final static TypeHierarchy           SHARED  = new TypeHierarchy();
+
+  private final ConcurrentMap<String, TypeInfo> types   = new ConcurrentHashMap<String, TypeInfo>();
+
+  /**
+   * The index shared by the frame computing writers within a coverage or
+   * mutation slave.
+   */
+  public static TypeHierarchy shared() {
+    return SHARED;
+  }
+
+  String getSuperName(final String type, final ClassByteArraySource source) {
+    return typeInfo(type, source).superName;
+  }
+
+  String[] getInterfaces(final String type, final ClassByteArraySource source) {
+    return typeInfo(type, source).interfaces;
+  }
+
+  boolean isInterface(final String type, final ClassByteArraySource source) {
+    return typeInfo(type, source).isInterface;
+  }
+
+  int size() {
+    return this.types.size();
+  }
+
+  /**
+   * Adds the types stored in the given file, if it exists and can be read.
+   */
+  public void load(final File file) {
+    if (!file.exists()) {
+      return;
+    }
+    try {
+      final DataInputStream is = new DataInputStream(new BufferedInputStream(
+          new FileInputStream(file)));
+      try {
+        if (is.readInt() != VERSION) {
+          return;
+        }
+        final int count = is.readInt();
+        for (int i = 0; i != count; i++) {
+          final String name = is.readUTF();
+          this.types.putIfAbsent(name, readTypeInfo(is));
+        }
+      } finally {
+        is.close();
+      }
+    } catch (final IOException ex) {
+      LOG.fine("Could not read type hierarchy from " + file);
+    }
+  }
+
+  /**
+   * Writes all known types to the given file. The file is written to a
+   * temporary name and then renamed, so processes may share the file.
+   */
+  public void store(final File file) {
+    try {
+      final File temp = File.createTempFile("hierarchy", ".tmp",
+          file.getAbsoluteFile().getParentFile());
+      final DataOutputStream os = new DataOutputStream(
+          new BufferedOutputStream(new FileOutputStream(temp)));
+      try {
+        os.writeInt(VERSION);
+        os.writeInt(this.types.size());
+        for (final Entry<String, TypeInfo> each : this.types.entrySet()) {
+          os.writeUTF(each.getKey());
+          writeTypeInfo(os, each.getValue());
+        }
+      } finally {
+        os.close();
+      }
+      file.delete();
+      if (!temp.renameTo(file)) {
+        temp.delete();
+      }
+    } catch (final IOException ex) {
+      LOG.fine("Could not store type hierarchy " + ex.getMessage());
+    }
+  }
+
+  private TypeInfo typeInfo(final String type,
+      final ClassByteArraySource source) {
+    final TypeInfo known = this.types.get(type);
+    if (known != null) {
+      return known;
+    }
+    final ClassReader reader = new ClassReader(source.getBytes(type).value());
+    final TypeInfo info = new TypeInfo(reader.getSuperName(),
+        reader.getInterfaces(),
+        (reader.getAccess() & Opcodes.ACC_INTERFACE) != 0);
+    final TypeInfo existing = this.types.putIfAbsent(type, info);
+    return existing != null ? existing : info;
+  }
+
+  private static TypeInfo readTypeInfo(final DataInputStream is)
+      throws IOException {
+    final boolean isInterface = is.readBoolean();
+    final String superName = is.readBoolean() ? is.readUTF() : null;
+    final String[] interfaces = new String[is.readInt()];
+    for (int i = 0; i != interfaces.length; i++) {
+      interfaces[i] = is.readUTF();
+    }
+    return new TypeInfo(superName, interfaces, isInterface);
+  }
+
+  private static void writeTypeInfo(final DataOutputStream os,
+      final TypeInfo info) throws IOException {
+    os.writeBoolean(info.isInterface);
+    os.writeBoolean(info.superName != null);
+    if (info.superName != null) {
+      os.writeUTF(info.superName);
+    }
+    os.writeInt(info.interfaces.length);
+    for (final String each : info.interfaces) {
+      os.writeUTF(each);
+    }
+  }
+
+  private static class TypeInfo {
+    private final String   superName;
+    private final String[] interfaces;
+    private final boolean  isInterface;
+
+    TypeInfo(final String superName, final String[] interfaces,
+        final boolean isInterface) {
+      this.superName = superName;
+      this.interfaces = interfaces;
+      this.isInterface = isInterface;
+    }
+  }
+
+}
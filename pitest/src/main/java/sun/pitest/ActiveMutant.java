@@ -0,0 +1,44 @@
+/*
+ * Copyright 2014 Henry Coles
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and limitations under the License.
+ */
+
+// placed in a sun package so non delegating classloaders are likely
+// to still delegate it's loading
+package sun.pitest;
+
+/**
+ * Holds the id of the mutant that is active within mutant schemata.
+ */
+public final class ActiveMutant {
+
+  public static final String CLASS_NAME = ActiveMutant.class.getName()
+                                            .replace('.', '/');
+  public static final String FIELD_NAME = "id";
+
+  public static final int    NONE       = 0;
+
+  // read directly by the schemata. Volatile as tests may run on threads
+  // started before the mutant was activated, but the read is still a plain
+  // load on most platforms.
+  public static volatile int id         = NONE;
+
+  public static void activate(final int mutant) {
+    id = mutant;
+  }
+
+  public static void deactivate() {
+    id = NONE;
+  }
+
+}
@@ -22,9 +22,9 @@ package sun.pitest;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Store for line visit information.
@@ -33,45 +33,76 @@ public final class CodeCoverageStore {
 
   private final static int                     CLASS_HIT_INDEX         = 0;
 
+  private final static int                     INITIAL_CAPACITY        = 512;
+
   public static final String                   CLASS_NAME              = CodeCoverageStore.class
                                                                            .getName()
                                                                            .replace(
                                                                                '.',
                                                                                '/');
   public static final String                   PROBE_METHOD_NAME       = "visitProbes";
+  public static final String                   PROBE_MASK_METHOD_NAME  = "visitProbeMask";
+  public static final String                   STATIC_INIT_METHOD_NAME = "visitStaticInitializer";
 
   private static InvokeReceiver                invokeQueue;
-  private static int                           classId                 = 0;
+  private static boolean                       striped                 = false;
+  private static final AtomicInteger           nextClassId             = new AtomicInteger();
 
-  // array of probe hits, first slot indicates any hits to the class.
+  // array of probe hits indexed by class id, first slot of each entry
+  // indicates any hits to the class.
   // testing suggests boolean array with synchronization to ensure happens
   // before relationship significantly outperforms
   // both AtomicInteger array with bit per flag and integer per flag.
   // optimisation with other methods of ensuring a happens before not yet
   // investigated
-  private final static Map<Integer, boolean[]> classHits               = new ConcurrentHashMap<Integer, boolean[]>();
-
-  // encoded classid/methodid map to array of line numbers indexed by probe
-  // index
-  private final static Map<Integer, int[]>     classProbeToLineMapping = new ConcurrentHashMap<Integer, int[]>();
+  //
+  // class ids are allocated sequentially so the hits are held in a plain
+  // array rather than a map to avoid a hash lookup and boxing on each probe
+  // call. The table is only ever modified while holding the class lock and
+  // is republished by a write to the volatile field, so probe calls need
+  // only a single volatile read.
+  private static volatile boolean[][]          classHits               = new boolean[INITIAL_CAPACITY][];
+
+  // array of line numbers indexed by probe index for each class id
+  private static int[][]                       classProbeToLineMapping = new int[INITIAL_CAPACITY][];
+
+  // ids of the classes hit since the last reset. Allows reset and
+  // collection of hits to scale with the number of classes a test touches
+  // rather than the number that have been loaded.
+  private static int[]                         dirtyClasses            = new int[INITIAL_CAPACITY];
+  private static int                           numberOfDirtyClasses    = 0;
+
+  // ids of the classes whose static initializer has run since the last reset
+  private static int[]                         initialisedClasses      = new int[INITIAL_CAPACITY];
+  private static int                           numberOfInitialisedClasses = 0;
+
+  // when striped, each thread records hits in its own arrays so that threads
+  // running concurrently do not contend for the same cache lines. The arrays
+  // of every thread are merged into the shared table when hits are collected.
+  private static final List<ThreadHits>        threadHits              = new ArrayList<ThreadHits>();
+  private static ThreadLocal<ThreadHits>       localHits               = createLocalHits();
 
   public static void init(final InvokeReceiver invokeQueue) {
+    init(invokeQueue, false);
+  }
+
+  public static void init(final InvokeReceiver invokeQueue,
+      final boolean striped) {
     CodeCoverageStore.invokeQueue = invokeQueue;
+    CodeCoverageStore.striped = striped;
   }
 
   private CodeCoverageStore() {
   }
 
   public static void visitSingleProbe(final int classId, final int probe) {
-    final boolean[] bs = classHits.get(classId);
-    bs[CLASS_HIT_INDEX] = true;
+    final boolean[] bs = hitsFor(classId);
     bs[probe + 1] = true;
   }
 
   public static void visitProbes(final int classId, final int offset,
       final boolean[] probes) { // NO_UCD
-    final boolean[] bs = classHits.get(classId);
-    bs[CLASS_HIT_INDEX] = true;
+    final boolean[] bs = hitsFor(classId);
     for (int i = 0; i != probes.length; i++) {
       if (probes[i]) {
         bs[i + offset + 1] = true;
@@ -79,6 +110,24 @@ public final class CodeCoverageStore {
     }
   }
 
+  /**
+   * Records the probes flagged in a mask of up to 32 probes, with the lowest
+   * bit representing the probe at the given offset.
+   */
+  public static void visitProbeMask(final int classId, final int offset,
+      final int mask) { // NO_UCD
+    if (mask == 0) {
+      return;
+    }
+    final boolean[] bs = hitsFor(classId);
+    int remaining = mask;
+    while (remaining != 0) {
+      final int bit = Integer.numberOfTrailingZeros(remaining);
+      bs[offset + bit + 1] = true;
+      remaining &= remaining - 1;
+    }
+  }
+
   // ///////////////////////////////////////////////////////////////////////////////////////////////////////////////////
   // /
   // / Overloaded special case implementations for methods with 1 to N probes.
@@ -88,8 +137,7 @@ public final class CodeCoverageStore {
 
   public static void visitProbes(final int classId, final int offset,
       final boolean p0) { // NO_UCD
-    final boolean[] bs = classHits.get(classId);
-    bs[CLASS_HIT_INDEX] = true;
+    final boolean[] bs = hitsFor(classId);
     if (p0) {
       bs[offset + 1] = true;
     }
@@ -97,8 +145,7 @@ public final class CodeCoverageStore {
 
   public static void visitProbes(final int classId, final int offset,
       final boolean p0, final boolean p1) { // NO_UCD
-    final boolean[] bs = classHits.get(classId);
-    bs[CLASS_HIT_INDEX] = true;
+    final boolean[] bs = hitsFor(classId);
     if (p0) {
       bs[offset + 1] = true;
     }
@@ -109,8 +156,7 @@ public final class CodeCoverageStore {
 
   public static void visitProbes(final int classId, final int offset,
       final boolean p0, final boolean p1, final boolean p2) { // NO_UCD
-    final boolean[] bs = classHits.get(classId);
-    bs[CLASS_HIT_INDEX] = true;
+    final boolean[] bs = hitsFor(classId);
     if (p0) {
       bs[offset + 1] = true;
     }
@@ -124,8 +170,7 @@ public final class CodeCoverageStore {
 
   public static void visitProbes(final int classId, final int offset,
       final boolean p0, final boolean p1, final boolean p2, final boolean p3) { // NO_UCD
-    final boolean[] bs = classHits.get(classId);
-    bs[CLASS_HIT_INDEX] = true;
+    final boolean[] bs = hitsFor(classId);
     if (p0) {
       bs[offset + 1] = true;
     }
@@ -143,8 +188,7 @@ public final class CodeCoverageStore {
   public static void visitProbes(final int classId, final int offset,
       final boolean p0, final boolean p1, final boolean p2, final boolean p3,
       final boolean p4) { // NO_UCD
-    final boolean[] bs = classHits.get(classId);
-    bs[CLASS_HIT_INDEX] = true;
+    final boolean[] bs = hitsFor(classId);
     if (p0) {
       bs[offset + 1] = true;
     }
@@ -165,8 +209,7 @@ public final class CodeCoverageStore {
   public static void visitProbes(final int classId, final int offset,
       final boolean p0, final boolean p1, final boolean p2, final boolean p3,
       final boolean p4, final boolean p5) { // NO_UCD
-    final boolean[] bs = classHits.get(classId);
-    bs[CLASS_HIT_INDEX] = true;
+    final boolean[] bs = hitsFor(classId);
     if (p0) {
       bs[offset + 1] = true;
     }
@@ -190,8 +233,7 @@ public final class CodeCoverageStore {
   public static void visitProbes(final int classId, final int offset,
       final boolean p0, final boolean p1, final boolean p2, final boolean p3,
       final boolean p4, final boolean p5, final boolean p6) { // NO_UCD
-    final boolean[] bs = classHits.get(classId);
-    bs[CLASS_HIT_INDEX] = true;
+    final boolean[] bs = hitsFor(classId);
     if (p0) {
       bs[offset + 1] = true;
     }
@@ -218,8 +260,7 @@ public final class CodeCoverageStore {
   public static void visitProbes(final int classId, final int offset,
       final boolean p0, final boolean p1, final boolean p2, final boolean p3,
       final boolean p4, final boolean p5, final boolean p6, final boolean p7) { // NO_UCD
-    final boolean[] bs = classHits.get(classId);
-    bs[CLASS_HIT_INDEX] = true;
+    final boolean[] bs = hitsFor(classId);
     if (p0) {
       bs[offset + 1] = true;
     }
@@ -250,8 +291,7 @@ public final class CodeCoverageStore {
       final boolean p0, final boolean p1, final boolean p2, final boolean p3,
       final boolean p4, final boolean p5, final boolean p6, final boolean p7,
       final boolean p8) { // NO_UCD
-    final boolean[] bs = classHits.get(classId);
-    bs[CLASS_HIT_INDEX] = true;
+    final boolean[] bs = hitsFor(classId);
     if (p0) {
       bs[offset + 1] = true;
     }
@@ -285,8 +325,7 @@ public final class CodeCoverageStore {
       final boolean p0, final boolean p1, final boolean p2, final boolean p3,
       final boolean p4, final boolean p5, final boolean p6, final boolean p7,
       final boolean p8, final boolean p9) { // NO_UCD
-    final boolean[] bs = classHits.get(classId);
-    bs[CLASS_HIT_INDEX] = true;
+    final boolean[] bs = hitsFor(classId);
     if (p0) {
       bs[offset + 1] = true;
     }
@@ -323,8 +362,7 @@ public final class CodeCoverageStore {
       final boolean p0, final boolean p1, final boolean p2, final boolean p3,
       final boolean p4, final boolean p5, final boolean p6, final boolean p7,
       final boolean p8, final boolean p9, final boolean p10) { // NO_UCD
-    final boolean[] bs = classHits.get(classId);
-    bs[CLASS_HIT_INDEX] = true;
+    final boolean[] bs = hitsFor(classId);
     if (p0) {
       bs[offset + 1] = true;
     }
@@ -364,8 +402,7 @@ public final class CodeCoverageStore {
       final boolean p0, final boolean p1, final boolean p2, final boolean p3,
       final boolean p4, final boolean p5, final boolean p6, final boolean p7,
       final boolean p8, final boolean p9, final boolean p10, final boolean p11) { // NO_UCD
-    final boolean[] bs = classHits.get(classId);
-    bs[CLASS_HIT_INDEX] = true;
+    final boolean[] bs = hitsFor(classId);
     if (p0) {
       bs[offset + 1] = true;
     }
@@ -409,8 +446,7 @@ public final class CodeCoverageStore {
       final boolean p4, final boolean p5, final boolean p6, final boolean p7,
       final boolean p8, final boolean p9, final boolean p10, final boolean p11,
       final boolean p12) { // NO_UCD
-    final boolean[] bs = classHits.get(classId);
-    bs[CLASS_HIT_INDEX] = true;
+    final boolean[] bs = hitsFor(classId);
     if (p0) {
       bs[offset + 1] = true;
     }
@@ -457,8 +493,7 @@ public final class CodeCoverageStore {
       final boolean p4, final boolean p5, final boolean p6, final boolean p7,
       final boolean p8, final boolean p9, final boolean p10, final boolean p11,
       final boolean p12, final boolean p13) { // NO_UCD
-    final boolean[] bs = classHits.get(classId);
-    bs[CLASS_HIT_INDEX] = true;
+    final boolean[] bs = hitsFor(classId);
     if (p0) {
       bs[offset + 1] = true;
     }
@@ -508,8 +543,7 @@ public final class CodeCoverageStore {
       final boolean p4, final boolean p5, final boolean p6, final boolean p7,
       final boolean p8, final boolean p9, final boolean p10, final boolean p11,
       final boolean p12, final boolean p13, final boolean p14) { // NO_UCD
-    final boolean[] bs = classHits.get(classId);
-    bs[CLASS_HIT_INDEX] = true;
+    final boolean[] bs = hitsFor(classId);
     if (p0) {
       bs[offset + 1] = true;
     }
@@ -557,22 +591,64 @@ public final class CodeCoverageStore {
     }
   }
 
+  private static boolean[] hitsFor(final int classId) {
+    if (striped) {
+      return localHits.get().hitsFor(classId);
+    }
+    final boolean[] bs = classHits[classId];
+    if (!bs[CLASS_HIT_INDEX]) {
+      markClassAsHit(classId);
+    }
+    return bs;
+  }
+
+  /**
+   * Records that the static initializer of the class has started. Called at
+   * most once per class, so simply takes the lock.
+   */
+  public synchronized static void visitStaticInitializer(final int classId) { // NO_UCD
+    if (numberOfInitialisedClasses == initialisedClasses.length) {
+      final int[] grown = new int[initialisedClasses.length * 2];
+      System.arraycopy(initialisedClasses, 0, grown, 0,
+          numberOfInitialisedClasses);
+      initialisedClasses = grown;
+    }
+    initialisedClasses[numberOfInitialisedClasses] = classId;
+    numberOfInitialisedClasses++;
+  }
+
+  /**
+   * Returns the ids of the classes whose static initializer has run since the
+   * last reset.
+   */
+  public synchronized static int[] getInitialisedClasses() {
+    final int[] ids = new int[numberOfInitialisedClasses];
+    System.arraycopy(initialisedClasses, 0, ids, 0, ids.length);
+    return ids;
+  }
+
   public synchronized static void reset() {
-    for (final Entry<Integer, boolean[]> each : classHits.entrySet()) {
-      classHits.put(each.getKey(), new boolean[each.getValue().length]);
+    numberOfInitialisedClasses = 0;
+    for (final ThreadHits each : threadHits) {
+      each.clear();
+    }
+    final boolean[][] hits = classHits;
+    for (int i = 0; i != numberOfDirtyClasses; i++) {
+      final int classId = dirtyClasses[i];
+      hits[classId] = new boolean[hits[classId].length];
     }
+    numberOfDirtyClasses = 0;
+    classHits = hits;
   }
 
   public synchronized static Collection<Long> getHits() {
+    mergeThreadHits();
     final Collection<Long> lineHits = new ArrayList<Long>();
-    for (final Entry<Integer, boolean[]> each : classHits.entrySet()) {
-      final boolean[] bs = each.getValue();
-      // first entry tracks if class has been visited at all
-      if (!bs[CLASS_HIT_INDEX]) {
-        continue;
-      }
-      final int classId = each.getKey();
-      final int[] mapping = classProbeToLineMapping.get(classId);
+    final boolean[][] hits = classHits;
+    for (int i = 0; i != numberOfDirtyClasses; i++) {
+      final int classId = dirtyClasses[i];
+      final boolean[] bs = hits[classId];
+      final int[] mapping = classProbeToLineMapping[classId];
       for (int probeId = 1; probeId != bs.length; probeId++) {
         if (bs[probeId]) {
           lineHits.add(encode(classId, mapping[probeId - 1]));
@@ -582,16 +658,128 @@ public final class CodeCoverageStore {
     return lineHits;
   }
 
+  /**
+   * Returns the lines hit since the last reset, grouped by class. Each entry
+   * holds the class id in its first slot followed by the line number of each
+   * probe hit within the class. Lines may repeat if a line has more than one
+   * probe. Classes visited without any probes being hit are not included.
+   */
+  public synchronized static List<int[]> getLineHitsByClass() {
+    mergeThreadHits();
+    final List<int[]> classes = new ArrayList<int[]>(numberOfDirtyClasses);
+    final boolean[][] hits = classHits;
+    for (int i = 0; i != numberOfDirtyClasses; i++) {
+      final int classId = dirtyClasses[i];
+      final boolean[] bs = hits[classId];
+      final int[] mapping = classProbeToLineMapping[classId];
+      final int[] lines = new int[bs.length];
+      int count = 1;
+      lines[0] = classId;
+      for (int probeId = 1; probeId != bs.length; probeId++) {
+        if (bs[probeId]) {
+          lines[count] = mapping[probeId - 1];
+          count++;
+        }
+      }
+      if (count > 1) {
+        final int[] trimmed = new int[count];
+        System.arraycopy(lines, 0, trimmed, 0, count);
+        classes.add(trimmed);
+      }
+    }
+    return classes;
+  }
+
+  /**
+   * Returns the probes hit since the last reset, grouped by class. Each entry
+   * holds the class id in its first slot followed by the index of each probe
+   * hit within the class. Classes visited without any probes being hit are
+   * not included.
+   */
+  public synchronized static List<int[]> getProbeHitsByClass() {
+    mergeThreadHits();
+    final List<int[]> classes = new ArrayList<int[]>(numberOfDirtyClasses);
+    final boolean[][] hits = classHits;
+    for (int i = 0; i != numberOfDirtyClasses; i++) {
+      final int classId = dirtyClasses[i];
+      final boolean[] bs = hits[classId];
+      final int[] probes = new int[bs.length];
+      int count = 1;
+      probes[0] = classId;
+      for (int probeId = 1; probeId != bs.length; probeId++) {
+        if (bs[probeId]) {
+          probes[count] = probeId - 1;
+          count++;
+        }
+      }
+      if (count > 1) {
+        final int[] trimmed = new int[count];
+        System.arraycopy(probes, 0, trimmed, 0, count);
+        classes.add(trimmed);
+      }
+    }
+    return classes;
+  }
+
+  /**
+   * Returns the line number of each probe in the class, indexed by probe.
+   */
+  public synchronized static int[] getProbeLines(final int classId) {
+    return classProbeToLineMapping[classId];
+  }
+
+  private synchronized static void markClassAsHit(final int classId) {
+    final boolean[] bs = classHits[classId];
+    // another thread may have got here first
+    if (bs[CLASS_HIT_INDEX]) {
+      return;
+    }
+    bs[CLASS_HIT_INDEX] = true;
+    if (numberOfDirtyClasses == dirtyClasses.length) {
+      final int[] grown = new int[dirtyClasses.length * 2];
+      System.arraycopy(dirtyClasses, 0, grown, 0, numberOfDirtyClasses);
+      dirtyClasses = grown;
+    }
+    dirtyClasses[numberOfDirtyClasses] = classId;
+    numberOfDirtyClasses++;
+  }
+
+  private static ThreadLocal<ThreadHits> createLocalHits() {
+    return new ThreadLocal<ThreadHits>() {
+      @Override
+      protected ThreadHits initialValue() {
+        return registerThread();
+      }
+    };
+  }
+
+  private synchronized static ThreadHits registerThread() {
+    final ThreadHits hits = new ThreadHits(Thread.currentThread());
+    threadHits.add(hits);
+    return hits;
+  }
+
+  /**
+   * Folds the hits recorded by each thread into the shared table. Threads
+   * that have died are forgotten once their hits have been merged.
+   */
+  private static void mergeThreadHits() {
+    final Iterator<ThreadHits> it = threadHits.iterator();
+    while (it.hasNext()) {
+      final ThreadHits each = it.next();
+      each.mergeInto(classHits);
+      if (!each.owner.isAlive()) {
+        it.remove();
+      }
+    }
+  }
+
   public static int registerClass(final String className) {
-    final int id = nextId();
+    final int id = nextClassId.getAndIncrement();
     invokeQueue.registerClass(id, className);
     return id;
   }
 
-  private synchronized static int nextId() {
-    return classId++;
-  }
-
   public static int decodeClassId(final long value) {
     return (int) (value >> 32);
   }
@@ -604,15 +792,139 @@ public final class CodeCoverageStore {
     return ((long) classId << 32) | line;
   }
 
-  public static void registerClassProbes(final int classId,
+  public synchronized static void registerClassProbes(final int classId,
       final int[] probeToLines) {
-    classHits.put(classId, new boolean[probeToLines.length + 1]);
-    classProbeToLineMapping.put(classId, probeToLines);
+    ensureCapacity(classId + 1);
+    final boolean[][] hits = classHits;
+    hits[classId] = new boolean[probeToLines.length + 1];
+    classProbeToLineMapping[classId] = probeToLines;
+    classHits = hits;
   }
 
-  public static void resetAllStaticState() {
-    classHits.clear();
-    classProbeToLineMapping.clear();
+  public synchronized static void resetAllStaticState() {
+    striped = false;
+    threadHits.clear();
+    localHits = createLocalHits();
+    numberOfInitialisedClasses = 0;
+    dirtyClasses = new int[INITIAL_CAPACITY];
+    numberOfDirtyClasses = 0;
+    classProbeToLineMapping = new int[INITIAL_CAPACITY][];
+    classHits = new boolean[INITIAL_CAPACITY][];
+  }
+
+  private static void ensureCapacity(final int required) {
+    final int current = classHits.length;
+    if (required <= current) {
+      return;
+    }
+    final int newCapacity = Math.max(current * 2, required);
+
+    final int[][] mappings = new int[newCapacity][];
+    System.arraycopy(classProbeToLineMapping, 0, mappings, 0, current);
+    classProbeToLineMapping = mappings;
+
+    final boolean[][] hits = new boolean[newCapacity][];
+    System.arraycopy(classHits, 0, hits, 0, current);
+    classHits = hits;
+  }
+
+  /**
+   * The hits recorded by a single thread since the last reset. Only the
+   * owning thread records hits, but they are merged and reset by whichever
+   * thread collects them. Merging leaves the owner's arrays untouched, so a
+   * hit recorded during a merge is picked up by the next one. Rather than
+   * clearing arrays the owner may still be writing to, a reset publishes a
+   * fresh generation of arrays, so the owner never sees a stale class hit
+   * flag and never records hits in an array that will not be merged.
+   */
+  private static final class ThreadHits {
+
+    private final Thread        owner;
+    private volatile Generation current = new Generation(INITIAL_CAPACITY);
+
+    ThreadHits(final Thread owner) {
+      this.owner = owner;
+    }
+
+    boolean[] hitsFor(final int classId) {
+      final boolean[][] table = this.current.hits;
+      final boolean[] bs = classId < table.length ? table[classId] : null;
+      if ((bs == null) || !bs[CLASS_HIT_INDEX]) {
+        return markClassAsHit(classId);
+      }
+      return bs;
+    }
+
+    private synchronized boolean[] markClassAsHit(final int classId) {
+      return this.current.markClassAsHit(classId);
+    }
+
+    synchronized void mergeInto(final boolean[][] shared) {
+      this.current.mergeInto(shared);
+    }
+
+    synchronized void clear() {
+      this.current = new Generation(this.current.hits.length);
+    }
+
+  }
+
+  /**
+   * The arrays in which a thread records hits between two resets. Only ever
+   * modified by the owning thread.
+   */
+  private static final class Generation {
+
+    private boolean[][] hits;
+    private int[]       dirtyClasses         = new int[INITIAL_CAPACITY];
+    private int         numberOfDirtyClasses = 0;
+
+    Generation(final int capacity) {
+      this.hits = new boolean[capacity][];
+    }
+
+    boolean[] markClassAsHit(final int classId) {
+      if (classId >= this.hits.length) {
+        final boolean[][] grown = new boolean[Math.max(this.hits.length * 2,
+            classId + 1)][];
+        System.arraycopy(this.hits, 0, grown, 0, this.hits.length);
+        this.hits = grown;
+      }
+      boolean[] bs = this.hits[classId];
+      if (bs == null) {
+        bs = new boolean[classHits[classId].length];
+        this.hits[classId] = bs;
+      }
+      if (!bs[CLASS_HIT_INDEX]) {
+        bs[CLASS_HIT_INDEX] = true;
+        if (this.numberOfDirtyClasses == this.dirtyClasses.length) {
+          final int[] grown = new int[this.dirtyClasses.length * 2];
+          System.arraycopy(this.dirtyClasses, 0, grown, 0,
+              this.numberOfDirtyClasses);
+          this.dirtyClasses = grown;
+        }
+        this.dirtyClasses[this.numberOfDirtyClasses] = classId;
+        this.numberOfDirtyClasses++;
+      }
+      return bs;
+    }
+
+    void mergeInto(final boolean[][] shared) {
+      for (int i = 0; i != this.numberOfDirtyClasses; i++) {
+        final int classId = this.dirtyClasses[i];
+        final boolean[] bs = this.hits[classId];
+        final boolean[] target = shared[classId];
+        if (!target[CLASS_HIT_INDEX]) {
+          CodeCoverageStore.markClassAsHit(classId);
+        }
+        for (int probe = 1; probe != bs.length; probe++) {
+          if (bs[probe]) {
+            target[probe] = true;
+          }
+        }
+      }
+    }
+
   }
 
 }
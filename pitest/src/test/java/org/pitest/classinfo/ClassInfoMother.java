@@ -29,6 +29,17 @@ public class ClassInfoMother {
     return new ClassInfo(parent, new DefaultClassPointer(null), data);
   }
 
+  public static ClassInfo make(final ClassName name,
+      final int numberOfCodeLines) {
+    final ClassInfoBuilder data = new ClassInfoBuilder();
+    data.id = new ClassIdentifier(1, name);
+    for (int i = 1; i <= numberOfCodeLines; i++) {
+      data.registerCodeLine(i);
+    }
+    return new ClassInfo(new DefaultClassPointer(null),
+        new DefaultClassPointer(null), data);
+  }
+
   public static ClassInfo make(final String name) {
     return make(new ClassIdentifier(1, new ClassName(name)));
   }
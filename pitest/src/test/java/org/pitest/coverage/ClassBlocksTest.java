@@ -0,0 +1,118 @@
+package org.pitest.coverage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.pitest.classinfo.ClassByteArraySource;
+import org.pitest.classinfo.ClassName;
+import org.pitest.classpath.ClassloaderByteArraySource;
+import org.pitest.coverage.codeassist.CoverageClassVisitor;
+import org.pitest.functional.Option;
+import org.pitest.functional.predicate.True;
+import org.pitest.mutationtest.engine.MutationDetails;
+import org.pitest.mutationtest.engine.gregor.GregorMutater;
+import org.pitest.mutationtest.engine.gregor.MethodInfo;
+import org.pitest.mutationtest.engine.gregor.MethodMutatorFactory;
+import org.pitest.mutationtest.engine.gregor.inlinedcode.NoInlinedCodeDetection;
+import org.pitest.mutationtest.engine.gregor.mutators.ConditionalsBoundaryMutator;
+import org.pitest.mutationtest.engine.gregor.mutators.ReturnValsMutator;
+import org.pitest.util.IsolationUtils;
+
+import sun.pitest.CodeCoverageStore;
+import sun.pitest.InvokeReceiver;
+
+public class ClassBlocksTest {
+
+  private final ClassByteArraySource bytes = new ClassloaderByteArraySource(
+                                               IsolationUtils
+                                                   .getContextClassLoader());
+
+  @Mock
+  private InvokeReceiver             invokeQueue;
+
+  @Before
+  public void setUp() {
+    MockitoAnnotations.initMocks(this);
+    CodeCoverageStore.init(this.invokeQueue);
+  }
+
+  @After
+  public void tearDown() {
+    CodeCoverageStore.resetAllStaticState();
+  }
+
+  @Test
+  public void shouldMapMutationsToTheProbesOfTheirBlocks() {
+    final byte[] bs = this.bytes.getBytes(BlockSample.class.getName()).value();
+    final int[] probeLines = instrumentForBlocks(bs);
+    final ClassBlocks testee = ClassBlocks.analyse(bs);
+
+    final Collection<MutationDetails> mutations = findMutations();
+    assertFalse(mutations.isEmpty());
+
+    final Set<Integer> probes = new HashSet<Integer>();
+    for (final MutationDetails each : mutations) {
+      final Option<Integer> probe = testee.findProbe(locationOf(each));
+      assertTrue(probe.hasSome());
+      assertEquals(each.getLineNumber(), probeLines[probe.value()]);
+      probes.add(probe.value());
+    }
+    assertEquals(mutations.size(), probes.size());
+  }
+
+  @Test
+  public void shouldNotFindProbesForUnknownMethods() {
+    final ClassBlocks testee = ClassBlocks.analyse(this.bytes.getBytes(
+        BlockSample.class.getName()).value());
+    assertFalse(testee.findProbe(
+        new InstructionLocation(ClassName.fromClass(BlockSample.class),
+            "unknown", "()V", 1)).hasSome());
+  }
+
+  private int[] instrumentForBlocks(final byte[] bs) {
+    final CoverageClassVisitor visitor = new CoverageClassVisitor(
+        CodeCoverageStore.registerClass("sample"), new ClassWriter(
+            ClassWriter.COMPUTE_MAXS), true);
+    new ClassReader(bs).accept(visitor, ClassReader.EXPAND_FRAMES);
+    return visitor.getProbeLines();
+  }
+
+  private Collection<MutationDetails> findMutations() {
+    final GregorMutater mutater = new GregorMutater(this.bytes,
+        True.<MethodInfo> all(), Arrays.<MethodMutatorFactory> asList(
+            ReturnValsMutator.RETURN_VALS_MUTATOR,
+            ConditionalsBoundaryMutator.CONDITIONALS_BOUNDARY_MUTATOR),
+        Collections.<String> emptyList(), new NoInlinedCodeDetection());
+    return mutater.findMutations(ClassName.fromClass(BlockSample.class));
+  }
+
+  private InstructionLocation locationOf(final MutationDetails mutation) {
+    return new InstructionLocation(mutation.getClassName(), mutation
+        .getMethod().name(), mutation.getMethodDescription(),
+        mutation.getFirstIndex());
+  }
+
+  static class BlockSample {
+    int sample(final int i) {
+      if (i > 2) {
+        return 1;
+      }
+      return 2;
+    }
+  }
+
+}
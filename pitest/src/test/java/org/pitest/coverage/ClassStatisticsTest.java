@@ -14,7 +14,9 @@
  */
 package org.pitest.coverage;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 
 import java.util.Arrays;
 import java.util.HashSet;
@@ -40,6 +42,21 @@ public class ClassStatisticsTest {
     assertEquals(expected, this.testee.getUniqueVisitedLines());
   }
 
+  @Test
+  public void shouldReturnVisitedLinesInAscendingOrder() {
+    addLineHits(Arrays.asList(20, 1, 2, 1));
+    assertArrayEquals(new int[] { 1, 2, 20 }, this.testee.getVisitedLines());
+    assertEquals(3, this.testee.getNumberOfVisitedLines());
+  }
+
+  @Test
+  public void shouldRecordVisitsToEachBlockSeparatelyFromLines() {
+    this.testee.registerBlockVisit(7);
+    this.testee.registerBlockVisit(0);
+    assertArrayEquals(new int[] { 0, 7 }, this.testee.getVisitedBlocks());
+    assertFalse(this.testee.wasVisited());
+  }
+
   private void addLineHits(final List<Integer> coveredLines) {
     for (final int each : coveredLines) {
       this.testee.registerLineVisit(each);
@@ -34,10 +34,13 @@ import org.mockito.MockitoAnnotations;
 import org.pitest.classinfo.ClassInfo;
 import org.pitest.classinfo.ClassInfoMother;
 import org.pitest.classinfo.ClassName;
+import org.pitest.classpath.ClassloaderByteArraySource;
 import org.pitest.classpath.CodeSource;
 import org.pitest.functional.F;
 import org.pitest.functional.FCollection;
+import org.pitest.functional.Option;
 import org.pitest.testapi.Description;
+import org.pitest.util.IsolationUtils;
 
 public class CoverageDataTest {
 
@@ -96,6 +99,32 @@ public class CoverageDataTest {
         testInfoToExecutionTime()));
   }
 
+  @Test
+  public void shouldStoreResourceUsageOfTests() {
+    final ResourceUsage usage = new ResourceUsage(42000000, 21000000, 1024);
+    this.testee.calculateClassCoverage(new CoverageResult(new Description(
+        "fooTest"), usage, true, makeCoverage("foo", 1)));
+
+    final TestInfo actual = this.testee
+        .getTestsForClassLine(new ClassLine("foo", 1)).iterator().next();
+    assertEquals(usage, actual.getResourceUsage());
+    assertEquals(42, actual.getTime());
+  }
+
+  @Test
+  public void shouldReturnOnlyTestsDuringWhichStaticInitializerRan() {
+    this.testee.calculateClassCoverage(new CoverageResult(new Description(
+        "fooTest"), ResourceUsage.fromExecutionTime(0), true, makeCoverage(
+        "foo", 1), Collections.singletonList(this.foo)));
+    this.testee.calculateClassCoverage(makeCoverageResult("foo", "fooTest2",
+        0, 2));
+
+    assertEquals(Arrays.asList("fooTest"), FCollection.map(
+        this.testee.getTestsForStaticInitializer(this.foo), testInfoToString()));
+    assertEquals(Collections.emptyList(),
+        this.testee.getTestsForStaticInitializer(ClassName.fromString("bar")));
+  }
+
   @Test
   public void shouldReportNumberOfCoveredLinesWhenNoneCovered() {
     assertEquals(0, this.testee.getNumberOfCoveredLines(Collections
@@ -239,6 +268,43 @@ public class CoverageDataTest {
     };
   }
 
+  @Test
+  public void shouldReturnNoTestsForInstructionWhenBlocksNotRecorded() {
+    this.testee.calculateClassCoverage(makeCoverageResult("foo", "fooTest", 0,
+        1));
+    assertFalse(this.testee.getTestsForInstruction(
+        new InstructionLocation(this.foo, "<init>", "()V", 3)).hasSome());
+  }
+
+  @Test
+  public void shouldReturnOnlyTestsThatExecutedBlockContainingInstruction() {
+    final ClassName sample = ClassName.fromClass(BlockSample.class);
+    when(this.code.fetchClassBytes(sample)).thenReturn(
+        new ClassloaderByteArraySource(IsolationUtils.getContextClassLoader())
+            .getBytes(sample.asJavaName()));
+
+    this.testee.calculateClassCoverage(makeBlockCoverageResult(sample,
+        "fooTest", 0));
+    this.testee.calculateClassCoverage(makeBlockCoverageResult(sample,
+        "fooTest2", 5));
+
+    // the default constructor is a single block with the first probe
+    final Option<Collection<TestInfo>> actual = this.testee
+        .getTestsForInstruction(new InstructionLocation(sample, "<init>",
+            "()V", 3));
+    assertEquals(Arrays.asList("fooTest"),
+        FCollection.map(actual.value(), testInfoToString()));
+  }
+
+  private CoverageResult makeBlockCoverageResult(final ClassName clazz,
+      final String testName, final int block) {
+    final ClassStatistics cs = new ClassStatistics(clazz);
+    cs.registerLineVisit(1);
+    cs.registerBlockVisit(block);
+    return new CoverageResult(new Description(testName), 0, true,
+        Collections.singleton(cs));
+  }
+
   private CoverageResult makeCoverageResult(final String clazz,
       final String testName, final int time, final int lineNumber) {
     return makeCoverageResult(clazz, new Description(testName), time,
@@ -259,4 +325,7 @@ public class CoverageDataTest {
     return Collections.singleton(cs);
   }
 
+  static class BlockSample {
+  }
+
 }
@@ -1,16 +1,23 @@
 package org.pitest.coverage;
 
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.lang.instrument.IllegalClassFormatException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Vector;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -27,6 +34,8 @@ import org.objectweb.asm.util.TraceClassVisitor;
 import org.pitest.classinfo.ClassByteArraySource;
 import org.pitest.classpath.ClassloaderByteArraySource;
 import org.pitest.classpath.OtherClassLoaderClassPathRoot;
+import org.pitest.coverage.codeassist.ClassUtils;
+import org.pitest.functional.Option;
 import org.pitest.functional.predicate.False;
 import org.pitest.functional.predicate.True;
 import org.pitest.util.IsolationUtils;
@@ -86,10 +95,132 @@ public class CoverageTransformerTest {
     assertValidClass(Math.class);
   }
 
-   
+  @Test
+  public void shouldGenerateValidClassesWhenPlacingProbesOnBlocks()
+      throws IllegalClassFormatException {
+    final CoverageTransformer testee = new CoverageTransformer(
+        True.<String> all(), Option.<InstrumentedClassCache> none(), true);
+    for (final Class<?> each : Arrays.<Class<?>> asList(String.class,
+        Integer.class, Vector.class, ArrayList.class, Collections.class,
+        ConcurrentHashMap.class, Math.class)) {
+      assertValidClass(testee.transform(this.loader, each.getName(), null,
+          null, this.bytes.getBytes(each.getName()).value()));
+    }
+  }
+
+  @Test
+  public void shouldInstrumentCachedClassesWithNewClassId() throws Exception {
+    final File dir = File.createTempFile("instrumented", "classes");
+    dir.delete();
+    try {
+      final byte[] original = this.bytes.getBytes(CacheSample.class.getName())
+          .value();
+      final String name = CacheSample.class.getName().replace(".", "/");
+
+      cachingTransformer(dir).transform(this.loader, name, null, null,
+          original);
+      assertEquals(1, dir.listFiles().length);
+
+      final byte[] cached = cachingTransformer(dir).transform(this.loader,
+          name, null, null, original);
+      final byte[] fresh = new CoverageTransformer(True.<String> all())
+          .transform(this.loader, name, null, null, original);
+
+      assertValidClass(cached);
+      assertEquals(fresh.length, cached.length);
+      int differences = 0;
+      for (int i = 0; i != fresh.length; i++) {
+        if (fresh[i] != cached[i]) {
+          differences++;
+        }
+      }
+      assertTrue(differences > 0 && differences <= 4);
+    } finally {
+      final File[] files = dir.listFiles();
+      if (files != null) {
+        for (final File each : files) {
+          each.delete();
+        }
+      }
+      dir.delete();
+    }
+  }
+
+  @Test
+  public void shouldRecordProbesBeforeAndAfterSuperConstructorCall()
+      throws Exception {
+    final Class<?> clazz = instrumentAndLoad(ConstructorSample.class);
+    final Constructor<?> constructor = clazz.getDeclaredConstructor(int.class);
+    constructor.setAccessible(true);
+    constructor.newInstance(2);
+
+    assertAllProbesHit();
+  }
+
+  @Test
+  public void shouldRecordProbesInMethodsWithMoreProbesThanLocals()
+      throws Exception {
+    final Class<?> clazz = instrumentAndLoad(ManyLinesSample.class);
+    final Method method = clazz.getDeclaredMethod("count");
+    method.setAccessible(true);
+    assertEquals(40, method.invoke(newInstance(clazz)));
+
+    assertAllProbesHit();
+  }
+
+  @Test
+  public void shouldRecordProbesWhenExceptionThrown() throws Exception {
+    final Class<?> clazz = instrumentAndLoad(ThrowingSample.class);
+    final Method method = clazz.getDeclaredMethod("fail");
+    method.setAccessible(true);
+    try {
+      method.invoke(newInstance(clazz));
+    } catch (final InvocationTargetException ex) {
+      // expected
+    }
+
+    assertAllProbesHit();
+  }
+
+  @Test
+  public void shouldRecordClassesWhoseStaticInitializerRan() throws Exception {
+    final Class<?> clazz = instrumentAndLoad(StaticInitializerSample.class);
+    assertEquals(0, CodeCoverageStore.getInitialisedClasses().length);
+
+    newInstance(clazz);
+
+    final int[] hits = CodeCoverageStore.getProbeHitsByClass().get(0);
+    assertArrayEquals(new int[] { hits[0] },
+        CodeCoverageStore.getInitialisedClasses());
+  }
+
+  private CoverageTransformer cachingTransformer(final File dir) {
+    return new CoverageTransformer(True.<String> all(),
+        Option.some(new InstrumentedClassCache(dir, false)), false);
+  }
+
+  private Class<?> instrumentAndLoad(final Class<?> clazz) throws Exception {
+    return ClassUtils.createClass(transform(clazz));
+  }
+
+  private Object newInstance(final Class<?> clazz) throws Exception {
+    final Constructor<?> constructor = clazz.getDeclaredConstructor();
+    constructor.setAccessible(true);
+    return constructor.newInstance();
+  }
+
+  private void assertAllProbesHit() {
+    final int[] hits = CodeCoverageStore.getProbeHitsByClass().get(0);
+    assertEquals(CodeCoverageStore.getProbeLines(hits[0]).length,
+        hits.length - 1);
+  }
+
   private void assertValidClass(final Class<?> clazz)
       throws IllegalClassFormatException {
-    final byte[] bs = transform(clazz);
+    assertValidClass(transform(clazz));
+  }
+
+  private void assertValidClass(final byte[] bs) {
    // printClass(bs);
     final StringWriter sw = new StringWriter();
     CheckClassAdapter.verify(new ClassReader(bs), false, new PrintWriter(sw));
@@ -119,4 +250,91 @@ public class CoverageTransformerTest {
     return bs;
   }
 
+  static class CacheSample {
+    int sample(final int i) {
+      if (i > 2) {
+        return 1;
+      }
+      return 2;
+    }
+  }
+
+  static class ConstructorSample extends ArrayList<Object> {
+    private static final long serialVersionUID = 1L;
+
+    ConstructorSample(final int i) {
+      super(
+          capacity(i));
+      add(i);
+      add(i + 1);
+    }
+
+    static int capacity(final int i) {
+      final int doubled = i * 2;
+      return doubled;
+    }
+  }
+
+  static class ManyLinesSample {
+    int count() {
+      int i = 0;
+      i++;
+      i++;
+      i++;
+      i++;
+      i++;
+      i++;
+      i++;
+      i++;
+      i++;
+      i++;
+      i++;
+      i++;
+      i++;
+      i++;
+      i++;
+      i++;
+      i++;
+      i++;
+      i++;
+      i++;
+      i++;
+      i++;
+      i++;
+      i++;
+      i++;
+      i++;
+      i++;
+      i++;
+      i++;
+      i++;
+      i++;
+      i++;
+      i++;
+      i++;
+      i++;
+      i++;
+      i++;
+      i++;
+      i++;
+      i++;
+      return i;
+    }
+  }
+
+  static class StaticInitializerSample {
+    static final List<String> VALUES = new ArrayList<String>();
+    static {
+      VALUES.add("foo");
+    }
+  }
+
+  static class ThrowingSample {
+    void fail() {
+      final int i = 1;
+      final int j = i + 1;
+      throw new IllegalStateException("" + j);
+    }
+  }
+
 }
@@ -0,0 +1,73 @@
+package org.pitest.coverage;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+
+import org.junit.Test;
+import org.objectweb.asm.ClassReader;
+import org.pitest.classinfo.ClassByteArraySource;
+import org.pitest.classpath.ClassloaderByteArraySource;
+import org.pitest.functional.Option;
+import org.pitest.util.IsolationUtils;
+
+public class InstrumentedClassTest {
+
+  private static final int           CLASS_ID = 123456;
+
+  private final ClassByteArraySource bytes    = new ClassloaderByteArraySource(
+                                                  IsolationUtils
+                                                      .getContextClassLoader());
+
+  @Test
+  public void shouldWriteNewClassIdAtOffset() {
+    final InstrumentedClass testee = new InstrumentedClass(new byte[6], 1,
+        new int[0], Collections.<String[]> emptyList());
+    assertArrayEquals(new byte[] { 0, 0x12, 0x34, 0x56, 0x78, 0 },
+        testee.withClassId(0x12345678));
+  }
+
+  @Test
+  public void shouldLocateClassIdInConstantPool() {
+    final byte[] instrumented = bytesFor(HasConstant.class);
+    final Option<InstrumentedClass> actual = create(
+        bytesFor(NoConstant.class), instrumented);
+    assertTrue(actual.hasSome());
+    assertEquals(CLASS_ID, new ClassReader(instrumented).readInt(actual
+        .value().getClassIdOffset()));
+  }
+
+  @Test
+  public void shouldNotCreateWhenClassAlreadyUsesClassIdAsConstant() {
+    final byte[] bs = bytesFor(HasConstant.class);
+    assertFalse(create(bs, bs).hasSome());
+  }
+
+  @Test
+  public void shouldNotCreateWhenClassIdMayBeUsedAsProbeMask() {
+    final byte[] bs = bytesFor(NoConstant.class);
+    assertFalse(InstrumentedClass.create(new ClassReader(bs), bs, 1 << 16,
+        new int[0], Collections.<String[]> emptyList()).hasSome());
+  }
+
+  private Option<InstrumentedClass> create(final byte[] original,
+      final byte[] instrumented) {
+    return InstrumentedClass.create(new ClassReader(original), instrumented,
+        CLASS_ID, new int[0], Collections.<String[]> emptyList());
+  }
+
+  private byte[] bytesFor(final Class<?> clazz) {
+    return this.bytes.getBytes(clazz.getName()).value();
+  }
+
+  static class HasConstant {
+    static final int CONSTANT = CLASS_ID;
+  }
+
+  static class NoConstant {
+  }
+
+}
@@ -0,0 +1,49 @@
+package org.pitest.coverage;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class LineTestIndexTest {
+
+  private final LineTestIndex testee = new LineTestIndex();
+
+  @Test
+  public void shouldReturnNullForUncoveredLine() {
+    this.testee.add(10, 0);
+    assertNull(this.testee.testsForLine(11));
+  }
+
+  @Test
+  public void shouldReturnTestsAddedForLine() {
+    this.testee.add(10, 0);
+    this.testee.add(10, 3);
+    this.testee.add(11, 1);
+    assertArrayEquals(new int[] { 0, 3 }, this.testee.testsForLine(10));
+    assertArrayEquals(new int[] { 1 }, this.testee.testsForLine(11));
+  }
+
+  @Test
+  public void shouldNotStoreDuplicateTests() {
+    this.testee.add(10, 2);
+    this.testee.add(10, 1);
+    this.testee.add(10, 2);
+    assertArrayEquals(new int[] { 1, 2 }, this.testee.testsForLine(10));
+  }
+
+  @Test
+  public void shouldHoldLinesInAscendingOrder() {
+    final int[] lines = { 50, 3, 42, 7, 100, 1, 12 };
+    for (final int each : lines) {
+      this.testee.add(each, 0);
+    }
+    assertEquals(lines.length, this.testee.numberOfLines());
+    final int[] expected = { 1, 3, 7, 12, 42, 50, 100 };
+    for (int i = 0; i != expected.length; i++) {
+      assertEquals(expected[i], this.testee.lineAt(i));
+    }
+  }
+
+}
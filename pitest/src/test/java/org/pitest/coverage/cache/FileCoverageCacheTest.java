@@ -0,0 +1,250 @@
+package org.pitest.coverage.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.pitest.classinfo.ClassIdentifier;
+import org.pitest.classinfo.ClassInfo;
+import org.pitest.classinfo.ClassInfoMother;
+import org.pitest.classinfo.ClassInfoSource;
+import org.pitest.classinfo.ClassName;
+import org.pitest.coverage.ClassStatistics;
+import org.pitest.coverage.CoverageResult;
+import org.pitest.coverage.ResourceUsage;
+import org.pitest.functional.Option;
+import org.pitest.testapi.Description;
+
+public class FileCoverageCacheTest {
+
+  private final ClassName                 fooTest = ClassName
+                                                      .fromString("com.example.FooTest");
+  private final ClassName                 foo     = ClassName
+                                                      .fromString("com.example.Foo");
+
+  private final Map<ClassName, ClassInfo> classes = new HashMap<ClassName, ClassInfo>();
+
+  private File                            location;
+
+  @Before
+  public void setUp() throws IOException {
+    this.location = File.createTempFile("coverage", ".cache");
+    this.location.delete();
+    makeClass(this.fooTest, 1);
+    makeClass(this.foo, 2);
+  }
+
+  @After
+  public void tearDown() {
+    this.location.delete();
+  }
+
+  @Test
+  public void shouldReturnNoResultsWhenNoCacheExists() {
+    assertFalse(createTestee().getResults(this.classes.get(this.fooTest))
+        .hasSome());
+  }
+
+  @Test
+  public void shouldReturnStoredResultsWhenNothingHasChanged() {
+    storeGreenResult();
+
+    final Option<Collection<CoverageResult>> actual = createTestee()
+        .getResults(this.classes.get(this.fooTest));
+
+    assertTrue(actual.hasSome());
+    final CoverageResult result = actual.value().iterator().next();
+    assertEquals(new Description("aTest", this.fooTest.asJavaName()),
+        result.getTestUnitDescription());
+    assertEquals(42, result.getExecutionTime());
+    final ClassStatistics stats = result.getCoverage().iterator().next();
+    assertEquals(this.foo, stats.getClassName());
+    assertEquals(new HashSet<Integer>(Arrays.asList(3, 7)),
+        stats.getUniqueVisitedLines());
+  }
+
+  @Test
+  public void shouldReturnStoredResourceUsage() {
+    final ResourceUsage usage = new ResourceUsage(1234567, 891011,
+        ResourceUsage.UNKNOWN);
+    final FileCoverageCache testee = createTestee();
+    testee.recordResult(new CoverageResult(new Description("aTest",
+        this.fooTest.asJavaName()), usage, true, Collections
+        .<ClassStatistics> emptyList()));
+    testee.store();
+
+    assertEquals(usage,
+        createTestee().getResults(this.classes.get(this.fooTest)).value()
+            .iterator().next().getResourceUsage());
+  }
+
+  @Test
+  public void shouldReturnStoredInitialisedClasses() {
+    final FileCoverageCache testee = createTestee();
+    testee.recordResult(new CoverageResult(new Description("aTest",
+        this.fooTest.asJavaName()), ResourceUsage.fromExecutionTime(1), true,
+        Collections.<ClassStatistics> emptyList(), Collections
+            .singletonList(this.foo)));
+    testee.store();
+
+    assertEquals(Collections.singletonList(this.foo),
+        createTestee().getResults(this.classes.get(this.fooTest)).value()
+            .iterator().next().getInitialisedClasses());
+  }
+
+  @Test
+  public void shouldReturnNoResultsWhenTestClassHasChanged() {
+    storeGreenResult();
+    makeClass(this.fooTest, 100);
+    assertFalse(createTestee().getResults(this.classes.get(this.fooTest))
+        .hasSome());
+  }
+
+  @Test
+  public void shouldReturnNoResultsWhenCoveredClassHasChanged() {
+    storeGreenResult();
+    makeClass(this.foo, 100);
+    assertFalse(createTestee().getResults(this.classes.get(this.fooTest))
+        .hasSome());
+  }
+
+  @Test
+  public void shouldNotStoreResultsForTestClassesWithFailingTests() {
+    final FileCoverageCache testee = createTestee();
+    testee.recordResult(makeResult("aTest", true));
+    testee.recordResult(makeResult("anotherTest", false));
+    testee.store();
+
+    assertFalse(createTestee().getResults(this.classes.get(this.fooTest))
+        .hasSome());
+  }
+
+  @Test
+  public void shouldKeepReusedResultsWhenStoringAgain() {
+    storeGreenResult();
+
+    final FileCoverageCache testee = createTestee();
+    testee.getResults(this.classes.get(this.fooTest));
+    testee.store();
+
+    assertTrue(createTestee().getResults(this.classes.get(this.fooTest))
+        .hasSome());
+  }
+
+  @Test
+  public void shouldKeepResultsForTestClassesThatWereNotRun() {
+    storeGreenResult();
+
+    final ClassName barTest = ClassName.fromString("com.example.BarTest");
+    makeClass(barTest, 3);
+    final FileCoverageCache testee = createTestee();
+    testee.recordResult(new CoverageResult(new Description("aTest",
+        barTest.asJavaName()), 42, true, Collections
+        .<ClassStatistics> emptyList()));
+    testee.store();
+
+    final FileCoverageCache next = createTestee();
+    assertTrue(next.getResults(this.classes.get(this.fooTest)).hasSome());
+    assertTrue(next.getResults(this.classes.get(barTest)).hasSome());
+  }
+
+  @Test
+  public void shouldNotKeepResultsForTestClassesThatWereRunAgainAndFailed() {
+    storeGreenResult();
+
+    final FileCoverageCache testee = createTestee();
+    testee.recordResult(makeResult("aTest", false));
+    testee.store();
+
+    assertFalse(createTestee().getResults(this.classes.get(this.fooTest))
+        .hasSome());
+  }
+
+  @Test
+  public void shouldIgnoreUnreadableCache() throws IOException {
+    final FileOutputStream out = new FileOutputStream(this.location);
+    out.write(new byte[] { 1, 2, 3 });
+    out.close();
+
+    assertFalse(createTestee().getResults(this.classes.get(this.fooTest))
+        .hasSome());
+  }
+
+  @Test
+  public void shouldReturnStoredBlocks() {
+    final FileCoverageCache testee = createTestee(true);
+    final CoverageResult result = makeResult("aTest", true);
+    result.getCoverage().iterator().next().registerBlockVisit(5);
+    testee.recordResult(result);
+    testee.store();
+
+    final ClassStatistics stats = createTestee(true)
+        .getResults(this.classes.get(this.fooTest)).value().iterator().next()
+        .getCoverage().iterator().next();
+    assertEquals(Collections.singleton(5), stats.getUniqueVisitedBlocks());
+  }
+
+  @Test
+  public void shouldReturnNoResultsWhenBlockCoverageSettingHasChanged() {
+    storeGreenResult();
+    assertFalse(createTestee(true).getResults(this.classes.get(this.fooTest))
+        .hasSome());
+  }
+
+  @Test
+  public void shouldReturnNoResultsWhenCoverageSettingsHaveChanged() {
+    storeGreenResult();
+    assertFalse(createTestee(false, "targetClasses=[com.example.other.*]")
+        .getResults(this.classes.get(this.fooTest)).hasSome());
+  }
+
+  private void storeGreenResult() {
+    final FileCoverageCache testee = createTestee();
+    testee.recordResult(makeResult("aTest", true));
+    testee.store();
+  }
+
+  private CoverageResult makeResult(final String name, final boolean green) {
+    final ClassStatistics stats = new ClassStatistics(this.foo);
+    stats.registerLineVisit(3);
+    stats.registerLineVisit(7);
+    return new CoverageResult(new Description(name, this.fooTest.asJavaName()),
+        42, green, Collections.singletonList(stats));
+  }
+
+  private FileCoverageCache createTestee() {
+    return createTestee(false);
+  }
+
+  private FileCoverageCache createTestee(final boolean blockCoverage) {
+    return createTestee(blockCoverage, "targetClasses=[com.example.*]");
+  }
+
+  private FileCoverageCache createTestee(final boolean blockCoverage,
+      final String configuration) {
+    return new FileCoverageCache(this.location, new ClassInfoSource() {
+      public Option<ClassInfo> fetchClass(final ClassName name) {
+        return Option.some(FileCoverageCacheTest.this.classes.get(name));
+      }
+    }, blockCoverage, configuration);
+  }
+
+  private void makeClass(final ClassName name, final long hash) {
+    this.classes.put(name,
+        ClassInfoMother.make(new ClassIdentifier(hash, name)));
+  }
+
+}
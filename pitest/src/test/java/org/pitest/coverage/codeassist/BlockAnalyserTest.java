@@ -0,0 +1,91 @@
+package org.pitest.coverage.codeassist;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.InsnList;
+import org.objectweb.asm.tree.InsnNode;
+import org.objectweb.asm.tree.JumpInsnNode;
+import org.objectweb.asm.tree.LabelNode;
+import org.objectweb.asm.tree.LineNumberNode;
+import org.objectweb.asm.tree.VarInsnNode;
+
+public class BlockAnalyserTest {
+
+  private final InsnList instructions = new InsnList();
+
+  @Test
+  public void shouldFindNoBlocksWhenNoInstructions() {
+    assertEquals(Collections.emptyList(),
+        BlockAnalyser.findBlocks(this.instructions));
+  }
+
+  @Test
+  public void shouldStartNewBlocksAfterJumpsAndAtLabels() {
+    final LabelNode start = label();
+    line(10, start);
+    insn(new VarInsnNode(Opcodes.ILOAD, 1));
+    final LabelNode target = new LabelNode();
+    insn(new JumpInsnNode(Opcodes.IFEQ, target));
+    insn(new InsnNode(Opcodes.ICONST_1));
+    insn(new InsnNode(Opcodes.IRETURN));
+    this.instructions.add(target);
+    line(11, target);
+    insn(new InsnNode(Opcodes.ICONST_0));
+    insn(new InsnNode(Opcodes.IRETURN));
+
+    final List<Block> expected = Arrays.asList(new Block(2, 3, 10), new Block(
+        4, 5, 10), new Block(8, 9, 11));
+    assertEquals(expected, BlockAnalyser.findBlocks(this.instructions));
+  }
+
+  @Test
+  public void shouldNotStartNewBlockAtLineNumbers() {
+    line(10, label());
+    insn(new InsnNode(Opcodes.NOP));
+    final LabelNode next = new LabelNode();
+    line(11, next);
+    insn(new InsnNode(Opcodes.RETURN));
+
+    assertEquals(Arrays.asList(new Block(2, 4, 10)),
+        BlockAnalyser.findBlocks(this.instructions));
+  }
+
+  @Test
+  public void shouldNotCreateEmptyBlockForTrailingLabel() {
+    label();
+    insn(new InsnNode(Opcodes.RETURN));
+    label();
+
+    assertEquals(Arrays.asList(new Block(1, 1, -1)),
+        BlockAnalyser.findBlocks(this.instructions));
+  }
+
+  @Test
+  public void shouldReportBlocksWithoutLineNumbers() {
+    insn(new InsnNode(Opcodes.RETURN));
+    assertFalse(BlockAnalyser.findBlocks(this.instructions).get(0).hasLine());
+  }
+
+  private LabelNode label() {
+    final LabelNode label = new LabelNode();
+    this.instructions.add(label);
+    return label;
+  }
+
+  private void line(final int line, final LabelNode start) {
+    this.instructions.add(new LineNumberNode(line, start));
+  }
+
+  private void insn(final AbstractInsnNode node) {
+    this.instructions.add(node);
+  }
+
+}
@@ -276,7 +276,8 @@ public class CoverageProcessSystemTest {
     };
 
     final CoverageOptions sa = new CoverageOptions(coverOnlyTestees(),
-        new JUnitCompatibleConfiguration(new TestGroupConfig()), true, -1);
+        new JUnitCompatibleConfiguration(new TestGroupConfig()), true, -1, 1,
+        null, false, false, false);
     final JarCreatingJarFinder agent = new JarCreatingJarFinder();
     final LaunchOptions lo = new LaunchOptions(agent);
     final SocketFinder sf = new SocketFinder();
@@ -334,7 +335,8 @@ public class CoverageProcessSystemTest {
     };
 
     final CoverageOptions sa = new CoverageOptions(coverOnlyTestees(),
-        new JUnitCompatibleConfiguration(new TestGroupConfig()), true, -1);
+        new JUnitCompatibleConfiguration(new TestGroupConfig()), true, -1, 1,
+        null, false, false, false);
     final JarCreatingJarFinder agent = new JarCreatingJarFinder();
     try {
       final LaunchOptions lo = new LaunchOptions(agent);
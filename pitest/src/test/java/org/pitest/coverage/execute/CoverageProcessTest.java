@@ -0,0 +1,33 @@
+package org.pitest.coverage.execute;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.Collections;
+
+import org.junit.Test;
+import org.pitest.classpath.ClassPath;
+import org.pitest.coverage.CoverageResult;
+import org.pitest.functional.predicate.True;
+import org.pitest.functional.prelude.Prelude;
+import org.pitest.process.ProcessArgs;
+
+public class CoverageProcessTest {
+
+  @Test
+  public void shouldCloseSocketWhenDestroyedBeforeBeingStarted()
+      throws IOException {
+    final ServerSocket socket = new ServerSocket(0);
+    final CoverageProcess testee = new CoverageProcess(
+        ProcessArgs.withClassPath(new ClassPath()), new CoverageOptions(
+            True.<String> all(), null, false, -1, 1, null, false, false, false),
+        socket, Collections.<String> emptyList(),
+        Prelude.noSideEffect(CoverageResult.class));
+
+    testee.destroy();
+
+    assertTrue(socket.isClosed());
+  }
+
+}
@@ -3,6 +3,7 @@ package org.pitest.coverage.execute;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertSame;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.never;
@@ -97,6 +98,15 @@ public class DependencyFilterTest {
         any(Predicate.class));
   }
 
+  @Test
+  public void shouldAnalyseAllTestClassesBeforeFiltering() {
+    this.testee.filterTestsByDependencyAnalysis(this.tus);
+    verify(this.extractor).analyse(
+        eq(Arrays.asList(this.aTestUnit.getDescription().getFirstTestClass(),
+            this.anotherTestUnit.getDescription().getFirstTestClass())),
+        anyInt());
+  }
+
   private TestUnit makeTestUnit(final Description d) {
     return new TestUnit() {
 
@@ -2,16 +2,27 @@ package org.pitest.coverage.execute;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 
 
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.pitest.classinfo.ClassName;
+import org.pitest.coverage.ClassStatistics;
 import org.pitest.coverage.CoverageResult;
+import org.pitest.coverage.ResourceUsage;
 import org.pitest.coverage.execute.Receive;
 import org.pitest.functional.SideEffect1;
 import org.pitest.testapi.Description;
@@ -85,16 +96,161 @@ public class ReceiveTest {
     assertEquals(executionTime, this.result.getExecutionTime());
   }
 
+  @Test
+  public void shouldDecodeResourceUsageSentThroughCoveragePipe() {
+    final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    final CoveragePipe pipe = new CoveragePipe(bos);
+    CodeCoverageStore.init(pipe);
+    final ResourceUsage usage = new ResourceUsage(1234567, 891011,
+        ResourceUsage.UNKNOWN);
+    try {
+      pipe.newTest();
+      pipe.recordTestOutcome(this.description, true, usage);
+
+      final SafeDataInputStream in = new SafeDataInputStream(
+          new ByteArrayInputStream(bos.toByteArray()));
+      this.testee.apply(in.readByte(), in);
+    } finally {
+      CodeCoverageStore.resetAllStaticState();
+    }
+
+    assertEquals(usage, this.result.getResourceUsage());
+    assertEquals(1, this.result.getExecutionTime());
+  }
+
+  @Test
+  public void shouldDecodeLinesSentThroughCoveragePipe() {
+    final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    final CoveragePipe pipe = new CoveragePipe(bos);
+    CodeCoverageStore.init(pipe);
+    try {
+      final int dense = CodeCoverageStore.registerClass("foo");
+      CodeCoverageStore.registerClassProbes(dense, new int[] { 10, 11, 12, 12,
+          13 });
+      final int sparse = CodeCoverageStore.registerClass("bar");
+      CodeCoverageStore.registerClassProbes(sparse, new int[] { 3, 1000 });
+
+      pipe.newTest();
+      CodeCoverageStore.visitProbes(dense, 0, new boolean[] { true, true,
+          false, true, true });
+      CodeCoverageStore.visitProbes(sparse, 0, new boolean[] { true, true });
+      pipe.recordTestOutcome(this.description, true,
+          ResourceUsage.fromExecutionTime(42));
+
+      final SafeDataInputStream in = new SafeDataInputStream(
+          new ByteArrayInputStream(bos.toByteArray()));
+      this.testee.apply(in.readByte(), in);
+    } finally {
+      CodeCoverageStore.resetAllStaticState();
+    }
+
+    final Map<ClassName, Set<Integer>> actual = new HashMap<ClassName, Set<Integer>>();
+    for (final ClassStatistics each : this.result.getCoverage()) {
+      actual.put(each.getClassName(), each.getUniqueVisitedLines());
+    }
+    assertEquals(new HashSet<Integer>(Arrays.asList(10, 11, 12, 13)),
+        actual.get(ClassName.fromString("foo")));
+    assertEquals(new HashSet<Integer>(Arrays.asList(3, 1000)),
+        actual.get(ClassName.fromString("bar")));
+    assertEquals(42, this.result.getExecutionTime());
+  }
+
+  @Test
+  public void shouldDecodeBlocksSentThroughCoveragePipe() {
+    final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    final CoveragePipe pipe = new CoveragePipe(bos, true);
+    CodeCoverageStore.init(pipe);
+    try {
+      final int id = CodeCoverageStore.registerClass("foo");
+      CodeCoverageStore.registerClassProbes(id, new int[] { 10, 10, 11, 12 });
+
+      pipe.newTest();
+      CodeCoverageStore.visitProbes(id, 0, new boolean[] { false, true, false,
+          true });
+      pipe.recordTestOutcome(this.description, true,
+          ResourceUsage.fromExecutionTime(42));
+
+      final SafeDataInputStream in = new SafeDataInputStream(
+          new ByteArrayInputStream(bos.toByteArray()));
+      this.testee.apply(in.readByte(), in);
+    } finally {
+      CodeCoverageStore.resetAllStaticState();
+    }
+
+    final ClassStatistics actual = this.result.getCoverage().iterator().next();
+    assertEquals(new HashSet<Integer>(Arrays.asList(10, 12)),
+        actual.getUniqueVisitedLines());
+    assertEquals(new HashSet<Integer>(Arrays.asList(1, 3)),
+        actual.getUniqueVisitedBlocks());
+    assertTrue(this.result.isGreenTest());
+  }
+
+  @Test
+  public void shouldSendClassesRegisteredDuringLaterTestsWithTheirOutcome() {
+    final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    final CoveragePipe pipe = new CoveragePipe(bos);
+    CodeCoverageStore.init(pipe);
+    try {
+      pipe.newTest();
+      pipe.recordTestOutcome(this.description, true,
+          ResourceUsage.fromExecutionTime(42));
+
+      final int id = CodeCoverageStore.registerClass("foo");
+      CodeCoverageStore.registerClassProbes(id, new int[] { 10 });
+      pipe.newTest();
+      CodeCoverageStore.visitSingleProbe(id, 0);
+      pipe.recordTestOutcome(this.description, true,
+          ResourceUsage.fromExecutionTime(42));
+
+      final SafeDataInputStream in = new SafeDataInputStream(
+          new ByteArrayInputStream(bos.toByteArray()));
+      this.testee.apply(in.readByte(), in);
+      assertTrue(this.result.getCoverage().isEmpty());
+      this.testee.apply(in.readByte(), in);
+    } finally {
+      CodeCoverageStore.resetAllStaticState();
+    }
+
+    final ClassStatistics actual = this.result.getCoverage().iterator().next();
+    assertEquals(ClassName.fromString("foo"), actual.getClassName());
+    assertEquals(Collections.singleton(10), actual.getUniqueVisitedLines());
+  }
+
+  @Test
+  public void shouldDecodeInitialisedClassesSentThroughCoveragePipe() {
+    final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    final CoveragePipe pipe = new CoveragePipe(bos);
+    CodeCoverageStore.init(pipe);
+    try {
+      final int id = CodeCoverageStore.registerClass("foo");
+      CodeCoverageStore.registerClassProbes(id, new int[] { 10 });
+      pipe.newTest();
+      CodeCoverageStore.visitStaticInitializer(id);
+      pipe.recordTestOutcome(this.description, true,
+          ResourceUsage.fromExecutionTime(42));
+
+      final SafeDataInputStream in = new SafeDataInputStream(
+          new ByteArrayInputStream(bos.toByteArray()));
+      this.testee.apply(in.readByte(), in);
+    } finally {
+      CodeCoverageStore.resetAllStaticState();
+    }
+
+    assertEquals(Collections.singletonList(ClassName.fromString("foo")),
+        this.result.getInitialisedClasses());
+  }
+
   private void recordTestCoverage(final int executionTime, final int classId,
       final int lineNumber, final boolean testPassed) {
-    when(this.is.readInt()).thenReturn(classId, executionTime);
+    when(this.is.readInt()).thenReturn(1, classId, 1, classId, 1, lineNumber,
+        0);
+    when(this.is.readLong()).thenReturn(executionTime * 1000000L, 0L, 0L);
     when(this.is.readString()).thenReturn("foo");
-    this.testee.apply(Id.CLAZZ, this.is);
 
     when(this.is.read(Description.class)).thenReturn(this.description);
-    when(this.is.readLong()).thenReturn(1l,
-        CodeCoverageStore.encode(classId, lineNumber));
-    when(this.is.readBoolean()).thenReturn(testPassed);
+    when(this.is.readByte()).thenReturn(CoveragePipe.ENCODING_VERSION,
+        CoveragePipe.LINE_LIST);
+    when(this.is.readBoolean()).thenReturn(false, testPassed);
     this.testee.apply(Id.OUTCOME, this.is);
   }
 
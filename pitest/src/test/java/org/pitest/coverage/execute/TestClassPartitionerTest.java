@@ -0,0 +1,59 @@
+package org.pitest.coverage.execute;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.pitest.classinfo.ClassInfo;
+import org.pitest.classinfo.ClassInfoMother;
+import org.pitest.classinfo.ClassName;
+
+public class TestClassPartitionerTest {
+
+  private final ClassInfo big    = ClassInfoMother.make(
+                                     ClassName.fromString("Big"), 100);
+  private final ClassInfo medium = ClassInfoMother.make(
+                                     ClassName.fromString("Medium"), 60);
+  private final ClassInfo small  = ClassInfoMother.make(
+                                     ClassName.fromString("Small"), 40);
+
+  @Test
+  public void shouldPlaceAllTestsInOneShardWhenOneShardRequested() {
+    final TestClassPartitioner testee = new TestClassPartitioner(1);
+    final List<List<ClassInfo>> actual = testee.partition(Arrays.asList(
+        this.small, this.big, this.medium));
+    assertEquals(1, actual.size());
+    assertEquals(Arrays.asList(this.big, this.medium, this.small),
+        actual.get(0));
+  }
+
+  @Test
+  public void shouldBalanceEstimatedCostBetweenShards() {
+    final TestClassPartitioner testee = new TestClassPartitioner(2);
+    final List<List<ClassInfo>> actual = testee.partition(Arrays.asList(
+        this.small, this.big, this.medium));
+    assertEquals(Arrays.asList(this.big), actual.get(0));
+    assertEquals(Arrays.asList(this.medium, this.small), actual.get(1));
+  }
+
+  @Test
+  public void shouldNotCreateMoreShardsThanTests() {
+    final TestClassPartitioner testee = new TestClassPartitioner(4);
+    final List<List<ClassInfo>> actual = testee.partition(Arrays.asList(
+        this.small, this.big));
+    assertEquals(2, actual.size());
+  }
+
+  @Test
+  public void shouldCreateOneEmptyShardWhenNoTestsSupplied() {
+    final TestClassPartitioner testee = new TestClassPartitioner(4);
+    final List<List<ClassInfo>> actual = testee.partition(Collections
+        .<ClassInfo> emptyList());
+    assertEquals(Collections.singletonList(Collections.<ClassInfo> emptyList()),
+        actual);
+  }
+
+}
@@ -0,0 +1,36 @@
+package org.pitest.coverage.execute;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.Test;
+import org.pitest.coverage.ResourceUsage;
+
+public class ThreadResourceMeterTest {
+
+  private final ThreadResourceMeter testee = new ThreadResourceMeter(
+                                               ManagementFactory
+                                                   .getThreadMXBean());
+
+  @Test
+  public void shouldReturnUnknownDifferenceWhenEitherValueUnknown() {
+    assertEquals(ResourceUsage.UNKNOWN,
+        ThreadResourceMeter.difference(ResourceUsage.UNKNOWN, 10));
+    assertEquals(ResourceUsage.UNKNOWN,
+        ThreadResourceMeter.difference(10, ResourceUsage.UNKNOWN));
+    assertEquals(5, ThreadResourceMeter.difference(10, 15));
+  }
+
+  @Test
+  public void shouldMeasureAllocationsOfCurrentThreadWhenSupported() {
+    final long before = this.testee.allocatedBytes();
+    final byte[] allocated = new byte[100000];
+    final long actual = ThreadResourceMeter.difference(before,
+        this.testee.allocatedBytes());
+    assertTrue((actual == ResourceUsage.UNKNOWN)
+        || (actual >= allocated.length));
+  }
+
+}
@@ -0,0 +1,174 @@
+package org.pitest.coverage.export;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.pitest.classinfo.ClassName;
+import org.pitest.classpath.CodeSource;
+import org.pitest.coverage.ClassLine;
+import org.pitest.coverage.ClassStatistics;
+import org.pitest.coverage.CoverageData;
+import org.pitest.coverage.CoverageResult;
+import org.pitest.coverage.ResourceUsage;
+import org.pitest.coverage.TestInfo;
+import org.pitest.functional.FCollection;
+import org.pitest.functional.Option;
+import org.pitest.testapi.Description;
+import org.pitest.util.PitError;
+import org.pitest.util.ResultOutputStrategy;
+
+public class BinaryCoverageExporterTest {
+
+  @Mock
+  private CodeSource                  code;
+
+  private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+  private String                      file;
+
+  private CoverageData                coverage;
+
+  @Before
+  public void setUp() {
+    MockitoAnnotations.initMocks(this);
+    when(this.code.findTestee(anyString())).thenReturn(
+        Option.<ClassName> none());
+    this.coverage = new CoverageData(this.code);
+  }
+
+  @Test
+  public void shouldReloadEmptyCoverage() {
+    final CoverageData actual = exportAndReload(false);
+    assertEquals(Collections.emptyList(), actual.createLineCoverage());
+  }
+
+  @Test
+  public void shouldReloadTestsCoveringEachLine() {
+    recordCoverage("fooTest", "com.example.Foo", 1, 2);
+    recordCoverage("barTest", "com.example.Foo", 2);
+    recordCoverage("barTest", "com.example.Bar", 300);
+
+    final CoverageData actual = exportAndReload(false);
+
+    assertEquals(Arrays.asList("fooTest"), testsFor(actual, "com.example.Foo",
+        1));
+    assertEquals(Arrays.asList("barTest", "fooTest"),
+        testsFor(actual, "com.example.Foo", 2));
+    assertEquals(Arrays.asList("barTest"), testsFor(actual, "com.example.Bar",
+        300));
+  }
+
+  @Test
+  public void shouldReloadDetailsOfEachTest() {
+    final ResourceUsage usage = new ResourceUsage(42000000, 21000000,
+        ResourceUsage.UNKNOWN);
+    when(this.code.findTestee("com.example.FooTest")).thenReturn(
+        Option.some(ClassName.fromString("com.example.Foo")));
+    this.coverage.calculateClassCoverage(new CoverageResult(new Description(
+        "fooTest", "com.example.FooTest"), usage, true, makeCoverage(
+        "com.example.Foo", 1, 2, 3)));
+
+    final TestInfo actual = exportAndReload(false)
+        .getTestsForClassLine(new ClassLine("com.example.Foo", 1)).iterator()
+        .next();
+    assertEquals("com.example.FooTest", actual.getDefiningClass());
+    assertEquals(usage, actual.getResourceUsage());
+    assertEquals(3, actual.getNumberOfLinesCovered());
+    assertEquals(ClassName.fromString("com.example.Foo"), actual.getTestee()
+        .value());
+  }
+
+  @Test
+  public void shouldWriteUncompressedCoverageToBinaryFile() {
+    recordCoverage("fooTest", "com.example.Foo", 1);
+    exportAndReload(false);
+    assertEquals("linecoverage.bin", this.file);
+  }
+
+  @Test
+  public void shouldReloadCompressedCoverage() {
+    recordCoverage("fooTest", "com.example.Foo", 1);
+
+    final CoverageData actual = exportAndReload(true);
+
+    assertEquals("linecoverage.bin.gz", this.file);
+    assertEquals(Arrays.asList("fooTest"), testsFor(actual, "com.example.Foo",
+        1));
+  }
+
+  @Test
+  public void shouldExportManyTestsPerLine() {
+    for (int i = 0; i != 1000; i++) {
+      recordCoverage("test" + i, "com.example.Foo", 1);
+    }
+    final CoverageData actual = exportAndReload(true);
+    assertEquals(1000, testsFor(actual, "com.example.Foo", 1).size());
+  }
+
+  @Test(expected = PitError.class)
+  public void shouldRejectFilesInOtherFormats() {
+    new BinaryCoverageReader(this.code).read(new ByteArrayInputStream(
+        "<coverage>".getBytes()));
+  }
+
+  private void recordCoverage(final String test, final String clazz,
+      final int... lines) {
+    this.coverage.calculateClassCoverage(new CoverageResult(new Description(
+        test), 0, true, makeCoverage(clazz, lines)));
+  }
+
+  private List<ClassStatistics> makeCoverage(final String clazz,
+      final int... lines) {
+    final ClassStatistics stats = new ClassStatistics(
+        ClassName.fromString(clazz));
+    for (final int each : lines) {
+      stats.registerLineVisit(each);
+    }
+    return Collections.singletonList(stats);
+  }
+
+  private List<String> testsFor(final CoverageData data, final String clazz,
+      final int line) {
+    return FCollection.map(
+        data.getTestsForClassLine(new ClassLine(clazz, line)),
+        TestInfo.toName());
+  }
+
+  private CoverageData exportAndReload(final boolean compress) {
+    new BinaryCoverageExporter(createOutputStrategy(), compress)
+        .recordCoverage(this.coverage);
+    assertTrue(this.out.size() > 0);
+    return new BinaryCoverageReader(this.code).read(new ByteArrayInputStream(
+        this.out.toByteArray()));
+  }
+
+  private ResultOutputStrategy createOutputStrategy() {
+    return new ResultOutputStrategy() {
+
+      public Writer createWriterForFile(final String sourceFile) {
+        throw new UnsupportedOperationException();
+      }
+
+      public OutputStream createOutputStreamForFile(final String sourceFile) {
+        BinaryCoverageExporterTest.this.file = sourceFile;
+        return BinaryCoverageExporterTest.this.out;
+      }
+
+    };
+  }
+
+}
@@ -3,6 +3,7 @@ package org.pitest.coverage.export;
 import static org.junit.Assert.assertThat;
 import static org.junit.matchers.JUnitMatchers.containsString;
 
+import java.io.OutputStream;
 import java.io.StringWriter;
 import java.io.Writer;
 import java.util.Arrays;
@@ -33,6 +34,10 @@ public class DefaultCoverageExporterTest {
         return DefaultCoverageExporterTest.this.out;
       }
 
+      public OutputStream createOutputStreamForFile(final String sourceFile) {
+        throw new UnsupportedOperationException();
+      }
+
     };
   }
 
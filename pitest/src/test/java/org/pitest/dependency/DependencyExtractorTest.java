@@ -17,14 +17,18 @@ package org.pitest.dependency;
 import static org.junit.Assert.assertEquals;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
 import org.junit.Test;
+import org.pitest.classinfo.ClassByteArraySource;
 import org.pitest.classpath.ClassPathByteArraySource;
+import org.pitest.functional.Option;
 import org.pitest.functional.predicate.Predicate;
 import org.pitest.functional.predicate.True;
 
@@ -133,6 +137,48 @@ public class DependencyExtractorTest {
     assertCollectionEquals(expected, actual);
   }
 
+  @Test
+  public void shouldReadEachClassOnceAcrossCalls() throws Exception {
+    final CountingByteSource source = new CountingByteSource();
+    this.testee = new DependencyExtractor(source, 0);
+    this.testee.extractCallDependenciesForPackages(Foo.class.getName(),
+        True.<String> all());
+    this.testee.extractCallDependenciesForPackages(Bar.class.getName(),
+        True.<String> all());
+    assertEquals(5, source.requested.size());
+    assertCollectionEquals(asSet(classToJvmName(Foo.class),
+        classToJvmName(Bar.class), classToJvmName(Car.class),
+        classToJvmName(Far.class), classToJvmName(VeryFar.class)),
+        source.requested);
+  }
+
+  @Test
+  public void shouldNotReadClassesAgainAfterAnalysingThem() throws Exception {
+    final CountingByteSource source = new CountingByteSource();
+    this.testee = new DependencyExtractor(source, 2);
+    this.testee.analyse(
+        Arrays.asList(Foo.class.getName(), CyclicFoo.class.getName()), 4);
+    final int read = source.requested.size();
+
+    final Collection<String> actual = this.testee
+        .extractCallDependenciesForPackages(Foo.class.getName(),
+            True.<String> all());
+    assertCollectionEquals(asSet(classToJvmName(Bar.class),
+        classToJvmName(Car.class), classToJvmName(Far.class)), actual);
+    assertEquals(read, source.requested.size());
+  }
+
+  private static class CountingByteSource implements ClassByteArraySource {
+    private final ClassByteArraySource child    = new ClassPathByteArraySource();
+    private final List<String>         requested = Collections
+                                                    .synchronizedList(new ArrayList<String>());
+
+    public Option<byte[]> getBytes(final String clazz) {
+      this.requested.add(clazz.replace('.', '/'));
+      return this.child.getBytes(clazz);
+    }
+  }
+
   private Predicate<DependencyAccess> ignoreCoreClasses() {
     return new Predicate<DependencyAccess>() {
 
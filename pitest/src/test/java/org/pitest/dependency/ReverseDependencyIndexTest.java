@@ -0,0 +1,112 @@
+package org.pitest.dependency;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+import org.pitest.classpath.ClassPathByteArraySource;
+
+public class ReverseDependencyIndexTest {
+
+  public static class FooTest {
+    Foo f = new Foo();
+  }
+
+  public static class BarTest {
+    Bar b = new Bar();
+  }
+
+  public static class Foo {
+    Far f = new Far();
+  }
+
+  public static class Bar {
+
+  }
+
+  public static class Far {
+    VeryFar f = new VeryFar();
+  }
+
+  public static class VeryFar {
+
+  }
+
+  public static class CyclicFoo {
+    CyclicBar b = new CyclicBar();
+  }
+
+  public static class CyclicBar {
+    CyclicFoo f = new CyclicFoo();
+  }
+
+  @Test
+  public void shouldFindRootsThatDirectlyDependOnClass() {
+    final ReverseDependencyIndex testee = build(1, FooTest.class,
+        BarTest.class);
+    assertEquals(asSet(FooTest.class.getName()),
+        testee.findRootsReaching(Collections.singleton(Foo.class.getName())));
+  }
+
+  @Test
+  public void shouldFindRootsThatIndirectlyDependOnClassWhenDepthIsUnbounded() {
+    final ReverseDependencyIndex testee = build(0, FooTest.class,
+        BarTest.class);
+    assertEquals(asSet(FooTest.class.getName()),
+        testee.findRootsReaching(Collections.singleton(VeryFar.class
+            .getName())));
+  }
+
+  @Test
+  public void shouldNotFindRootsBeyondMaximumDistance() {
+    final ReverseDependencyIndex testee = build(2, FooTest.class,
+        BarTest.class);
+    assertEquals(Collections.emptySet(),
+        testee.findRootsReaching(Collections.singleton(VeryFar.class
+            .getName())));
+  }
+
+  @Test
+  public void shouldFindAllRootsReachingAnyOfTheSuppliedClasses() {
+    final ReverseDependencyIndex testee = build(0, FooTest.class,
+        BarTest.class);
+    assertEquals(
+        asSet(FooTest.class.getName(), BarTest.class.getName()),
+        testee.findRootsReaching(Arrays.asList(Far.class.getName(),
+            Bar.class.getName())));
+  }
+
+  @Test
+  public void shouldNotFindRootsFromClassesTheyDoNotReach() {
+    final ReverseDependencyIndex testee = build(0, FooTest.class);
+    assertEquals(Collections.emptySet(),
+        testee.findRootsReaching(Collections.singleton(Bar.class.getName())));
+  }
+
+  @Test
+  public void shouldTerminateWhenCyclicDependenciesExist() {
+    final ReverseDependencyIndex testee = build(0, CyclicFoo.class);
+    assertEquals(asSet(CyclicFoo.class.getName()),
+        testee.findRootsReaching(Collections.singleton(CyclicBar.class
+            .getName())));
+  }
+
+  private ReverseDependencyIndex build(final int depth,
+      final Class<?>... roots) {
+    final Set<String> names = new HashSet<String>();
+    for (final Class<?> each : roots) {
+      names.add(each.getName());
+    }
+    return ReverseDependencyIndex.build(new ClassPathByteArraySource(), names,
+        depth, 2);
+  }
+
+  private Set<String> asSet(final String... names) {
+    return new HashSet<String>(Arrays.asList(names));
+  }
+
+}
@@ -15,6 +15,7 @@ import org.pitest.classpath.CodeSource;
 import org.pitest.classpath.PathFilter;
 import org.pitest.classpath.ProjectClassPaths;
 import org.pitest.coverage.CoverageGenerator;
+import org.pitest.coverage.cache.NullCoverageCache;
 import org.pitest.coverage.execute.CoverageOptions;
 import org.pitest.coverage.execute.DefaultCoverageGenerator;
 import org.pitest.coverage.export.NullCoverageExporter;
@@ -112,7 +113,8 @@ public abstract class ReportTestBase {
 
       final CoverageGenerator coverageDatabase = new DefaultCoverageGenerator(
           null, coverageOptions, launchOptions, code,
-          new NullCoverageExporter(), timings, false);
+          new NullCoverageExporter(), new NullCoverageCache(), timings,
+          false);
 
       final HistoryStore history = new NullHistoryStore();
 
@@ -134,7 +136,9 @@ public abstract class ReportTestBase {
   private CoverageOptions createCoverageOptions(Configuration configuration) {
     return new CoverageOptions(data.getTargetClassesFilter(),
          configuration, data.isVerbose(),
-        data.getDependencyAnalysisMaxDistance());
+        data.getDependencyAnalysisMaxDistance(), data.getNumberOfThreads(),
+        null, data.isBlockCoverage(), data.isStripedCoverage(),
+        data.isTargetDrivenCoverage());
   }
 
   protected void setMutators(final String mutator) {
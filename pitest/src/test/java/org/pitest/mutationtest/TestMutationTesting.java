@@ -43,6 +43,7 @@ import org.pitest.classpath.PathFilter;
 import org.pitest.classpath.ProjectClassPaths;
 import org.pitest.coverage.CoverageDatabase;
 import org.pitest.coverage.CoverageGenerator;
+import org.pitest.coverage.cache.NullCoverageCache;
 import org.pitest.coverage.execute.CoverageOptions;
 import org.pitest.coverage.execute.DefaultCoverageGenerator;
 import org.pitest.coverage.export.NullCoverageExporter;
@@ -364,7 +365,7 @@ public class TestMutationTesting {
 
     final CoverageGenerator coverageGenerator = new DefaultCoverageGenerator(
         null, coverageOptions, launchOptions, code, new NullCoverageExporter(),
-        timings, false);
+        new NullCoverageCache(), timings, false);
 
     final CoverageDatabase coverageData = coverageGenerator.calculateCoverage();
 
@@ -387,10 +388,10 @@ public class TestMutationTesting {
         coverageOptions.getPitConfig(), mutationConfig,
         new PercentAndConstantTimeoutStrategy(data.getTimeoutFactor(),
             data.getTimeoutConstant()), data.isVerbose(), data.getClassPath()
-            .getLocalClassPath());
+            .getLocalClassPath(), null);
 
     final MutationTestBuilder builder = new MutationTestBuilder(wf,
-        mutationConfig, new NullAnalyser(), source, new DefaultGrouper(0));
+        mutationConfig, new NullAnalyser(), source, new DefaultGrouper(0), 1);
 
     final List<MutationAnalysisUnit> tus = builder
         .createMutationTestUnits(codeClasses);
@@ -401,7 +402,9 @@ public class TestMutationTesting {
   private CoverageOptions createCoverageOptions(ReportOptions data) {
     return new CoverageOptions(data.getTargetClassesFilter(),
          this.config, data.isVerbose(),
-        data.getDependencyAnalysisMaxDistance());
+        data.getDependencyAnalysisMaxDistance(), data.getNumberOfThreads(),
+        null, data.isBlockCoverage(), data.isStripedCoverage(),
+        data.isTargetDrivenCoverage());
   }
 
   protected void verifyResults(final DetectionStatus... detectionStatus) {
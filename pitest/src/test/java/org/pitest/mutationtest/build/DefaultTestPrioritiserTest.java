@@ -7,6 +7,7 @@ import static org.pitest.mutationtest.LocationMother.aLocation;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
 import org.junit.Before;
@@ -17,6 +18,7 @@ import org.pitest.classinfo.ClassByteArraySource;
 import org.pitest.classinfo.ClassName;
 import org.pitest.coverage.ClassLine;
 import org.pitest.coverage.CoverageDatabase;
+import org.pitest.coverage.InstructionLocation;
 import org.pitest.coverage.TestInfo;
 import org.pitest.functional.F;
 import org.pitest.functional.FCollection;
@@ -41,6 +43,8 @@ public class DefaultTestPrioritiserTest {
   public void setUp() {
     MockitoAnnotations.initMocks(this);
     this.testee =  new DefaultTestPrioritiser(coverage);
+    when(this.coverage.getTestsForInstruction(any(InstructionLocation.class)))
+        .thenReturn(Option.<Collection<TestInfo>> none());
   }
 
   @Test
@@ -52,6 +56,19 @@ public class DefaultTestPrioritiserTest {
     assertEquals(expected, actual);
   }
 
+  @Test
+  public void shouldAssignTestsForRelevantBlockWhenBlocksRecorded() {
+    final List<TestInfo> expected = makeTestInfos(0);
+    when(this.coverage.getTestsForClassLine(any(ClassLine.class))).thenReturn(
+        makeTestInfos(0, 1));
+    when(
+        this.coverage.getTestsForInstruction(new InstructionLocation(this.foo,
+            "foo", "()I", 0))).thenReturn(
+        Option.<Collection<TestInfo>> some(expected));
+    final List<TestInfo> actual = this.testee.assignTests(makeMutation("foo"));
+    assertEquals(expected, actual);
+  }
+
   @Test
   public void shouldAssignAllTestsForClassWhenMutationInStaticInitialiser() {
     final List<TestInfo> expected = makeTestInfos(0);
@@ -60,6 +77,32 @@ public class DefaultTestPrioritiserTest {
     assertEquals(expected, actual);
   }
 
+  @Test
+  public void shouldAssignTestsThatInitialisedClassFirstWhenMutationInStaticInitialiser() {
+    final TestInfo initialiser = makeTestInfo("initialiser", 100);
+    final TestInfo other = makeTestInfo("other", 1);
+    when(this.coverage.getTestsForClass(this.foo)).thenReturn(
+        Arrays.asList(other, initialiser));
+    when(this.coverage.getTestsForStaticInitializer(this.foo)).thenReturn(
+        Arrays.asList(initialiser));
+    final List<TestInfo> actual = this.testee.assignTests(makeMutation("<clinit>"));
+    assertEquals(Arrays.asList(initialiser, other), actual);
+  }
+
+  @Test
+  public void shouldAssignTestsThatDidNotInitialiseClassWhenMutationInStaticInitialiser() {
+    // e.g. a later test in the same JVM that reads a static field the
+    // initialiser set up, and so is the only one to detect the mutation
+    final TestInfo reader = makeTestInfo("readsStaticState", 1);
+    when(this.coverage.getTestsForClass(this.foo)).thenReturn(
+        Arrays.asList(makeTestInfo("initialiser", 1), reader));
+    when(this.coverage.getTestsForStaticInitializer(this.foo)).thenReturn(
+        Arrays.asList(makeTestInfo("initialiser", 1)));
+    final List<TestInfo> actual = this.testee.assignTests(makeMutation("<clinit>"));
+    assertEquals(2, actual.size());
+    assertEquals(reader, actual.get(1));
+  }
+
   @Test
   public void shouldPrioritiseTestsByExecutionTime() {
     final List<TestInfo> unorderedTests = makeTestInfos(10000, 100, 1000, 1);
@@ -84,6 +127,10 @@ public class DefaultTestPrioritiserTest {
         timeToTestInfo()));
   }
 
+  private TestInfo makeTestInfo(final String name, final int time) {
+    return new TestInfo("foo", name, time, Option.<ClassName> none(), 0);
+  }
+
   private F<Integer, TestInfo> timeToTestInfo() {
     return new F<Integer, TestInfo>() {
       public TestInfo apply(final Integer a) {
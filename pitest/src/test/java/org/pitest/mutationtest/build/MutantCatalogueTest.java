@@ -0,0 +1,160 @@
+package org.pitest.mutationtest.build;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.pitest.mutationtest.LocationMother.aLocation;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.pitest.classinfo.ClassName;
+import org.pitest.mutationtest.engine.MutationDetails;
+import org.pitest.mutationtest.engine.MutationIdentifier;
+
+public class MutantCatalogueTest {
+
+  private final byte[] bytes = new byte[] { 1, 2, 3 };
+
+  private File         directory;
+
+  @Before
+  public void setUp() throws IOException {
+    this.directory = File.createTempFile("mutants", "");
+    this.directory.delete();
+  }
+
+  @After
+  public void tearDown() {
+    final File[] files = this.directory.listFiles();
+    if (files != null) {
+      for (final File each : files) {
+        each.delete();
+      }
+    }
+    this.directory.delete();
+  }
+
+  @Test
+  public void shouldReturnNoMutationsWhenClassNotStored() {
+    assertFalse(createTestee("config").get(this.bytes).hasSome());
+  }
+
+  @Test
+  public void shouldReturnStoredMutationsWhenClassUnchanged() {
+    final MutationDetails mutation = makeMutation();
+    createTestee("config").put(this.bytes, Collections.singletonList(mutation));
+
+    final Collection<MutationDetails> actual = createTestee("config").get(
+        this.bytes).value();
+
+    assertEquals(1, actual.size());
+    final MutationDetails stored = actual.iterator().next();
+    assertEquals(mutation.getId(), stored.getId());
+    assertEquals(mutation.getFilename(), stored.getFilename());
+    assertEquals(mutation.getDescription(), stored.getDescription());
+    assertEquals(mutation.getLineNumber(), stored.getLineNumber());
+    assertEquals(mutation.getBlock(), stored.getBlock());
+    assertTrue(stored.isInFinallyBlock());
+    assertTrue(stored.mayPoisonJVM());
+    assertTrue(stored.getTestsInOrder().isEmpty());
+  }
+
+  @Test
+  public void shouldReturnNoMutationsWhenClassHasChanged() {
+    createTestee("config").put(this.bytes,
+        Collections.singletonList(makeMutation()));
+    assertFalse(createTestee("config").get(new byte[] { 1, 2, 4 }).hasSome());
+  }
+
+  @Test
+  public void shouldReturnNoMutationsWhenConfigurationHasChanged() {
+    createTestee("config").put(this.bytes,
+        Collections.singletonList(makeMutation()));
+    assertFalse(createTestee("other").get(this.bytes).hasSome());
+  }
+
+  @Test
+  public void shouldStoreClassesWithoutSourceFile() {
+    final MutationIdentifier id = new MutationIdentifier(aLocation(), 1,
+        "mutator");
+    createTestee("config").put(this.bytes,
+        Collections.singletonList(new MutationDetails(id, null, "desc", 1, 0)));
+    assertEquals(null, createTestee("config").get(this.bytes).value()
+        .iterator().next().getFilename());
+  }
+
+  @Test
+  public void shouldIgnoreUnreadableEntries() throws IOException {
+    final MutantCatalogue testee = createTestee("config");
+    testee.put(this.bytes, Collections.singletonList(makeMutation()));
+    for (final File each : this.directory.listFiles()) {
+      final FileOutputStream out = new FileOutputStream(each);
+      out.write(new byte[] { 1, 2, 3 });
+      out.close();
+    }
+    assertFalse(testee.get(this.bytes).hasSome());
+  }
+
+  @Test
+  public void shouldPruneEntriesNotUsedWithinMaximumAge() {
+    final byte[] otherBytes = new byte[] { 4, 5, 6 };
+    final MutantCatalogue first = createTestee("config");
+    first.put(this.bytes, Collections.singletonList(makeMutation()));
+    first.put(otherBytes, Collections.singletonList(makeMutation()));
+    ageEntries(TimeUnit.DAYS.toMillis(2));
+
+    final MutantCatalogue testee = new MutantCatalogue(this.directory,
+        "config", TimeUnit.DAYS.toMillis(1));
+    testee.get(this.bytes);
+    testee.prune();
+
+    final MutantCatalogue next = createTestee("config");
+    assertTrue(next.get(this.bytes).hasSome());
+    assertFalse(next.get(otherBytes).hasSome());
+  }
+
+  @Test
+  public void shouldNotPruneRecentEntriesForClassesOutsideRun() {
+    createTestee("config").put(this.bytes,
+        Collections.singletonList(makeMutation()));
+
+    new MutantCatalogue(this.directory, "config", TimeUnit.DAYS.toMillis(1))
+        .prune();
+
+    assertTrue(createTestee("config").get(this.bytes).hasSome());
+  }
+
+  @Test
+  public void shouldPruneNothingWhenDirectoryDoesNotExist() {
+    createTestee("config").prune();
+    assertFalse(this.directory.exists());
+  }
+
+  private void ageEntries(final long age) {
+    final long time = System.currentTimeMillis() - age;
+    for (final File each : this.directory.listFiles()) {
+      each.setLastModified(time);
+    }
+  }
+
+  private MutationDetails makeMutation() {
+    final MutationIdentifier id = new MutationIdentifier(aLocation().with(
+        ClassName.fromString("com.example.Foo")).withMethod("bar"),
+        Arrays.asList(3, 7), "mutator");
+    return new MutationDetails(id, "Foo.java", "desc", 42, 5, true, true);
+  }
+
+  private MutantCatalogue createTestee(final String configuration) {
+    return new MutantCatalogue(this.directory, configuration);
+  }
+
+}
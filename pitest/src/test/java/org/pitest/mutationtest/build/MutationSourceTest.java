@@ -2,11 +2,14 @@ package org.pitest.mutationtest.build;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.pitest.mutationtest.LocationMother.aLocation;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
@@ -46,6 +49,9 @@ public class MutationSourceTest {
   @Mock
   private TestPrioritiser      prioritiser;
 
+  @Mock
+  private MutantCatalogue      catalogue;
+
   private final ClassName      foo = ClassName.fromString("foo");
 
   @Before
@@ -76,6 +82,38 @@ public class MutationSourceTest {
     assertEquals(expected, actual.getTestsInOrder());
   }
 
+  @Test
+  public void shouldStoreFoundMutationsInCatalogue() {
+    final byte[] bytes = new byte[] { 1, 2, 3 };
+    final List<MutationDetails> mutations = makeMutations("foo");
+    when(this.source.getBytes("foo")).thenReturn(Option.some(bytes));
+    when(this.catalogue.get(bytes)).thenReturn(
+        Option.<Collection<MutationDetails>> none());
+    when(this.mutater.findMutations(any(ClassName.class)))
+        .thenReturn(mutations);
+
+    createTesteeWithCatalogue().createMutations(this.foo);
+
+    verify(this.catalogue).put(bytes, mutations);
+  }
+
+  @Test
+  public void shouldNotScanClassWhenMutationsFoundInCatalogue() {
+    final byte[] bytes = new byte[] { 1, 2, 3 };
+    final List<MutationDetails> mutations = makeMutations("foo");
+    when(this.source.getBytes("foo")).thenReturn(Option.some(bytes));
+    when(this.catalogue.get(bytes)).thenReturn(
+        Option.<Collection<MutationDetails>> some(mutations));
+
+    assertEquals(mutations, createTesteeWithCatalogue().createMutations(this.foo));
+    verify(this.mutater, never()).findMutations(any(ClassName.class));
+  }
+
+  private MutationSource createTesteeWithCatalogue() {
+    return new MutationSource(this.config, UnfilteredMutationFilter.INSTANCE,
+        this.prioritiser, this.source, Option.some(this.catalogue));
+  }
+
   private List<TestInfo> makeTestInfos(final Integer... times) {
     return new ArrayList<TestInfo>(FCollection.map(Arrays.asList(times),
         timeToTestInfo()));
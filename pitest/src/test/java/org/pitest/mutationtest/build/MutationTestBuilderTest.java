@@ -6,23 +6,31 @@ import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.when;
 import static org.pitest.mutationtest.LocationMother.aMutationId;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.pitest.classinfo.ClassName;
+import org.pitest.functional.Option;
 import org.pitest.mutationtest.LocationMother;
+import org.pitest.mutationtest.MutationAnalyser;
 import org.pitest.mutationtest.MutationConfig;
+import org.pitest.mutationtest.MutationResult;
 import org.pitest.mutationtest.NullAnalyser;
 import org.pitest.mutationtest.engine.MutationDetails;
 import org.pitest.mutationtest.engine.MutationEngine;
 import org.pitest.process.JavaAgent;
 import org.pitest.process.LaunchOptions;
 import org.pitest.testapi.Configuration;
+import org.pitest.util.PitError;
 
 public class MutationTestBuilderTest {
 
@@ -45,6 +53,9 @@ public class MutationTestBuilderTest {
   @Mock
   private WorkerFactory       wf;
 
+  @Mock
+  private RedundantMutantDetector detector;
+
   @Before
   public void setUp() {
     MockitoAnnotations.initMocks(this);
@@ -97,6 +108,56 @@ public class MutationTestBuilderTest {
     assertTrue(actual.get(0).priority() > actual.get(1).priority());
   }
 
+  @Test
+  public void shouldAnalyseMutationsInSameOrderWhenFoundInParallel() {
+    final List<ClassName> classes = Arrays.asList(
+        ClassName.fromString("foo"), ClassName.fromString("bar"),
+        ClassName.fromString("baz"), ClassName.fromString("car"));
+    for (final ClassName each : classes) {
+      when(this.source.createMutations(each)).thenReturn(
+          Arrays.asList(createDetails(each.asJavaName()),
+              createDetails(each.asJavaName() + "$Inner")));
+    }
+
+    final RecordingAnalyser sequential = new RecordingAnalyser();
+    makeTestee(sequential, 1).createMutationTestUnits(classes);
+
+    final RecordingAnalyser parallel = new RecordingAnalyser();
+    makeTestee(parallel, 4).createMutationTestUnits(classes);
+
+    assertEquals(8, parallel.analysed.size());
+    assertEquals(sequential.analysed, parallel.analysed);
+  }
+
+  @Test(expected = PitError.class)
+  public void shouldPropagateErrorsRaisedWhenFindingMutationsInParallel() {
+    when(this.source.createMutations(any(ClassName.class))).thenThrow(
+        new PitError("oops"));
+    makeTestee(new NullAnalyser(), 2).createMutationTestUnits(
+        Arrays.asList(ClassName.fromString("foo"), ClassName.fromString("bar")));
+  }
+
+  @Test
+  public void shouldOnlyAnalyseDistinctMutationsWhenDetectingRedundantMutants() {
+    final MutationDetails distinct = createDetails("foo");
+    final MutationDetails duplicate = createDetails("foo");
+    final MutationDetails noOp = createDetails("foo");
+    final List<MutationDetails> mutations = Arrays.asList(distinct, duplicate,
+        noOp);
+    when(this.source.createMutations(any(ClassName.class))).thenReturn(
+        mutations);
+    final Map<MutationDetails, List<MutationDetails>> duplicates = new LinkedHashMap<MutationDetails, List<MutationDetails>>();
+    duplicates.put(distinct, Collections.singletonList(duplicate));
+    when(this.detector.groupDuplicates(mutations)).thenReturn(duplicates);
+
+    final RecordingAnalyser analyser = new RecordingAnalyser();
+    new MutationTestBuilder(this.wf, this.mutationConfig, analyser,
+        this.source, new DefaultGrouper(0), 1, Option.some(this.detector))
+        .createMutationTestUnits(Arrays.asList(ClassName.fromString("foo")));
+
+    assertEquals(Collections.singletonList(distinct), analyser.analysed);
+  }
+
   private void assertCreatesOneTestUnitForTwoMutations() {
     final MutationDetails mutation1 = createDetails("foo");
     final MutationDetails mutation2 = createDetails("foo");
@@ -109,11 +170,27 @@ public class MutationTestBuilderTest {
   
   private void makeTesteeWithUnitSizeOf(int unitSize) {
     testee = new MutationTestBuilder(this.wf, this.mutationConfig,
-        new NullAnalyser(), this.source, new DefaultGrouper(unitSize));
+        new NullAnalyser(), this.source, new DefaultGrouper(unitSize), 1);
+  }
+
+  private MutationTestBuilder makeTestee(final MutationAnalyser analyser,
+      final int threads) {
+    return new MutationTestBuilder(this.wf, this.mutationConfig, analyser,
+        this.source, new DefaultGrouper(0), threads);
   }
 
   public static MutationDetails createDetails(String clazz) {
     return new MutationDetails(aMutationId().withLocation(LocationMother.aLocation().with(ClassName.fromString(clazz))), "", "desc", 42, 0);
   }
+
+  private static class RecordingAnalyser implements MutationAnalyser {
+    private final List<MutationDetails> analysed = new ArrayList<MutationDetails>();
+
+    public Collection<MutationResult> analyse(
+        final Collection<MutationDetails> mutationsForClasses) {
+      this.analysed.addAll(mutationsForClasses);
+      return new NullAnalyser().analyse(mutationsForClasses);
+    }
+  }
   
 }
@@ -64,7 +64,8 @@ public class MutationTestUnitTest {
     this.tests = new ArrayList<ClassName>();
     this.testee = new MutationTestUnit(this.mutations,
         this.tests, this.mutationConfig,
-        new WorkerFactory(null, config, mutationConfig, timeout, false, null));
+        new WorkerFactory(null, config, mutationConfig, timeout, false, null,
+            null));
   }
 
   @Test
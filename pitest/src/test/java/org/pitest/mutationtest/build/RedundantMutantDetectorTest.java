@@ -0,0 +1,176 @@
+package org.pitest.mutationtest.build;
+
+import static org.junit.Assert.assertEquals;
+import static org.pitest.mutationtest.LocationMother.aMutationId;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.pitest.classinfo.ClassByteArraySource;
+import org.pitest.classinfo.ClassName;
+import org.pitest.classpath.ClassPathByteArraySource;
+import org.pitest.functional.predicate.True;
+import org.pitest.mutationtest.DetectionStatus;
+import org.pitest.mutationtest.MutationConfig;
+import org.pitest.mutationtest.MutationResult;
+import org.pitest.mutationtest.MutationStatusTestPair;
+import org.pitest.mutationtest.engine.Mutater;
+import org.pitest.mutationtest.engine.MutationDetails;
+import org.pitest.mutationtest.engine.MutationEngine;
+import org.pitest.mutationtest.engine.MutationIdentifier;
+import org.pitest.mutationtest.engine.gregor.GregorMutater;
+import org.pitest.mutationtest.engine.gregor.MethodInfo;
+import org.pitest.mutationtest.engine.gregor.MethodMutatorFactory;
+import org.pitest.mutationtest.engine.gregor.MutationContext;
+import org.pitest.mutationtest.engine.gregor.inlinedcode.NoInlinedCodeDetection;
+import org.pitest.process.LaunchOptions;
+
+public class RedundantMutantDetectorTest {
+
+  private final ClassByteArraySource source = new ClassPathByteArraySource();
+
+  @Test
+  public void shouldDiscardMutantsThatLeaveCodeUnchanged() {
+    final List<MutationDetails> mutations = findMutations(new ReturnZero(
+        "NO_OP", false));
+    assertEquals(Collections.emptyMap(), createTestee(new ReturnZero("NO_OP",
+        false)).groupDuplicates(mutations));
+  }
+
+  @Test
+  public void shouldGroupMutantsWithIdenticalCode() {
+    final MethodMutatorFactory a = new ReturnZero("A", true);
+    final MethodMutatorFactory b = new ReturnZero("B", true);
+    final List<MutationDetails> mutations = findMutations(a, b);
+
+    final Map<MutationDetails, List<MutationDetails>> actual = createTestee(a,
+        b).groupDuplicates(mutations);
+
+    assertEquals(1, actual.size());
+    assertEquals(mutations.get(0), actual.keySet().iterator().next());
+    assertEquals(Collections.singletonList(mutations.get(1)), actual.values()
+        .iterator().next());
+  }
+
+  @Test
+  public void shouldKeepMutantsWithDifferentCode() {
+    final MethodMutatorFactory a = new ReturnZero("A", true);
+    final MethodMutatorFactory noOp = new ReturnZero("NO_OP", false);
+    final List<MutationDetails> mutations = findMutations(a, noOp);
+
+    final Map<MutationDetails, List<MutationDetails>> actual = createTestee(a,
+        noOp).groupDuplicates(mutations);
+
+    assertEquals(Collections.singleton(mutations.get(0)), actual.keySet());
+  }
+
+  @Test
+  public void shouldGiveDuplicatesResultOfMutantTheyDuplicate() {
+    final MutationDetails distinct = new MutationDetails(aMutationId()
+        .withIndex(1), "file", "desc", 1, 0);
+    final MutationDetails duplicate = new MutationDetails(aMutationId()
+        .withIndex(2), "file", "desc", 1, 0);
+    final MutationStatusTestPair status = new MutationStatusTestPair(1,
+        DetectionStatus.KILLED, "test");
+
+    final List<MutationResult> actual = RedundantMutantDetector
+        .withDuplicates(
+            Collections.singletonList(new MutationResult(distinct, status)),
+            Collections.singletonMap(distinct,
+                Collections.singletonList(duplicate)));
+
+    assertEquals(
+        Arrays.asList(new MutationResult(distinct, status),
+            new MutationResult(duplicate, status)), actual);
+  }
+
+  private List<MutationDetails> findMutations(
+      final MethodMutatorFactory... mutators) {
+    final List<MutationDetails> mutations = new ArrayList<MutationDetails>(
+        createMutater(Arrays.asList(mutators)).findMutations(
+            ClassName.fromClass(HasReturn.class)));
+    Collections.sort(mutations, new Comparator<MutationDetails>() {
+      public int compare(final MutationDetails a, final MutationDetails b) {
+        return a.getId().compareTo(b.getId());
+      }
+    });
+    return mutations;
+  }
+
+  private RedundantMutantDetector createTestee(
+      final MethodMutatorFactory... mutators) {
+    final MutationEngine engine = new MutationEngine() {
+      public Mutater createMutator(final ClassByteArraySource source) {
+        return createMutater(Arrays.asList(mutators));
+      }
+
+      public Collection<String> getMutatorNames() {
+        return Collections.emptyList();
+      }
+    };
+    return new RedundantMutantDetector(new MutationConfig(engine,
+        new LaunchOptions(null)), this.source);
+  }
+
+  private Mutater createMutater(final Collection<MethodMutatorFactory> mutators) {
+    return new GregorMutater(this.source, True.<MethodInfo> all(), mutators,
+        Collections.<String> emptyList(), new NoInlinedCodeDetection());
+  }
+
+  public static class HasReturn {
+    public int a(final int i) {
+      return i;
+    }
+  }
+
+  /**
+   * Replaces the value returned from int methods with zero, or, when not
+   * changing the code, registers a mutation but leaves the return unchanged.
+   */
+  private static class ReturnZero implements MethodMutatorFactory {
+
+    private final String  id;
+    private final boolean changesCode;
+
+    ReturnZero(final String id, final boolean changesCode) {
+      this.id = id;
+      this.changesCode = changesCode;
+    }
+
+    public MethodVisitor create(final MutationContext context,
+        final MethodInfo methodInfo, final MethodVisitor methodVisitor) {
+      return new MethodVisitor(Opcodes.ASM5, methodVisitor) {
+        @Override
+        public void visitInsn(final int opcode) {
+          if (opcode == Opcodes.IRETURN) {
+            final MutationIdentifier newId = context.registerMutation(
+                ReturnZero.this, "return zero");
+            if (context.shouldMutate(newId) && ReturnZero.this.changesCode) {
+              super.visitInsn(Opcodes.POP);
+              super.visitInsn(Opcodes.ICONST_0);
+            }
+          }
+          super.visitInsn(opcode);
+        }
+      };
+    }
+
+    public String getGloballyUniqueId() {
+      return this.id;
+    }
+
+    public String getName() {
+      return this.id;
+    }
+
+  }
+
+}
@@ -25,6 +25,7 @@ import static org.mockito.Mockito.when;
 import java.io.File;
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 
@@ -41,6 +42,9 @@ import org.pitest.classinfo.HierarchicalClassId;
 import org.pitest.classpath.CodeSource;
 import org.pitest.coverage.CoverageDatabase;
 import org.pitest.coverage.CoverageGenerator;
+import org.pitest.coverage.InstructionLocation;
+import org.pitest.coverage.TestInfo;
+import org.pitest.functional.Option;
 import org.pitest.functional.predicate.Predicate;
 import org.pitest.help.Help;
 import org.pitest.help.PitHelpError;
@@ -109,6 +113,9 @@ public class MutationCoverageReportTest {
     this.data = new ReportOptions();
     this.data.setSourceDirs(Collections.<File> emptyList());
     when(this.coverage.calculateCoverage()).thenReturn(this.coverageDb);
+    when(
+        this.coverageDb.getTestsForInstruction(any(InstructionLocation.class)))
+        .thenReturn(Option.<Collection<TestInfo>> none());
     when(
         this.listenerFactory.getListener(any(ListenerArguments.class))).thenReturn(this.listener);
     mockMutationEngine();
@@ -6,16 +6,40 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.Mockito;
+import org.pitest.classinfo.ClassByteArraySource;
+import org.pitest.classinfo.ClassIdentifier;
+import org.pitest.classinfo.ClassInfo;
+import org.pitest.classinfo.ClassInfoMother;
+import org.pitest.classinfo.ClassInfoSource;
+import org.pitest.classinfo.ClassName;
+import org.pitest.coverage.ClassStatistics;
+import org.pitest.coverage.CoverageCache;
+import org.pitest.coverage.CoverageResult;
+import org.pitest.coverage.cache.FileCoverageCache;
+import org.pitest.coverage.cache.NullCoverageCache;
 import org.pitest.coverage.execute.CoverageOptions;
 import org.pitest.coverage.export.NullCoverageExporter;
+import org.pitest.functional.Option;
 import org.pitest.help.PitHelpError;
+import org.pitest.mutationtest.engine.Mutater;
+import org.pitest.mutationtest.engine.MutationDetails;
+import org.pitest.mutationtest.engine.MutationEngine;
 import org.pitest.mutationtest.engine.gregor.config.GregorEngineFactory;
+import org.pitest.mutationtest.engine.schemata.SchemataEngineFactory;
+import org.pitest.testapi.Description;
+import org.pitest.testapi.TestGroupConfig;
+import org.pitest.testapi.TestPluginFactory;
 import org.pitest.util.Glob;
+import org.pitest.util.IsolationUtils;
 import org.pitest.util.PitError;
 
 public class SettingsFactoryTest {
@@ -26,9 +50,27 @@ public class SettingsFactoryTest {
 
   private SettingsFactory     testee;
 
+  private final ClassInfo       fooTest = ClassInfoMother.make(new ClassIdentifier(
+                                            1, ClassName.fromString("com.example.FooTest")));
+
+  private final ClassInfoSource code    = new ClassInfoSource() {
+    public Option<ClassInfo> fetchClass(final ClassName name) {
+      return Option.some(SettingsFactoryTest.this.fooTest);
+    }
+  };
+
+  private File                  cacheLocation;
+
   @Before
-  public void setUp() {
+  public void setUp() throws IOException {
     this.testee = new SettingsFactory(this.options, plugins);
+    this.cacheLocation = File.createTempFile("coverage", ".cache");
+    this.options.setCoverageCacheLocation(this.cacheLocation);
+  }
+
+  @After
+  public void tearDown() {
+    this.cacheLocation.delete();
   }
 
   @Test
@@ -42,11 +84,117 @@ public class SettingsFactoryTest {
     assertTrue(this.testee.createCoverageExporter() instanceof NullCoverageExporter);
   }
 
+  @Test(expected = PitError.class)
+  public void shouldThrowErrorForUnknownLineCoverageExportFormat() {
+    this.options.setExportLineCoverage(true);
+    this.options.setLineCoverageExportFormat("foo");
+    this.testee.createCoverageExporter();
+  }
+
+  @Test
+  public void shouldReturnANullCoverageCacheWhenNoLocationSet() {
+    this.options.setCoverageCacheLocation(null);
+    assertTrue(this.testee.createCoverageCache(null) instanceof NullCoverageCache);
+  }
+
+  @Test
+  public void shouldReturnAFileCoverageCacheWhenLocationSet() {
+    this.options.setCoverageCacheLocation(new File("coverage.cache"));
+    assertTrue(this.testee.createCoverageCache(null) instanceof FileCoverageCache);
+  }
+
+  @Test
+  public void shouldNotReuseCachedCoverageWhenTargetClassesChange() {
+    this.options.setTargetClasses(Glob.toGlobPredicates(Arrays
+        .asList("com.example.*")));
+    storeCachedCoverage();
+    assertTrue(hasCachedCoverage(this.testee));
+
+    this.options.setTargetClasses(Glob.toGlobPredicates(Arrays
+        .asList("com.example.other.*")));
+    assertFalse(hasCachedCoverage(this.testee));
+  }
+
+  @Test
+  public void shouldNotReuseCachedCoverageWhenTestGroupsChange() {
+    this.options.setGroupConfig(new TestGroupConfig());
+    storeCachedCoverage();
+    assertTrue(hasCachedCoverage(this.testee));
+
+    this.options.setGroupConfig(new TestGroupConfig(Arrays.asList("slow"),
+        Collections.<String> emptyList()));
+    assertFalse(hasCachedCoverage(this.testee));
+  }
+
+  @Test
+  public void shouldNotReuseCachedCoverageWhenTestPluginChanges() {
+    storeCachedCoverage();
+
+    final TestPluginFactory otherPlugin = Mockito.mock(TestPluginFactory.class);
+    final PluginServices otherPlugins = new PluginServices(
+        IsolationUtils.getContextClassLoader()) {
+      @Override
+      Collection<? extends TestPluginFactory> findTestFrameworkPlugins() {
+        return Collections.singletonList(otherPlugin);
+      }
+    };
+    assertFalse(hasCachedCoverage(new SettingsFactory(this.options,
+        otherPlugins)));
+  }
+
+  @Test
+  public void shouldNotCreateAMutantCatalogueWhenNoHistoryOutputLocationSet() {
+    this.options.setHistoryOutputLocation(null);
+    assertFalse(this.testee.createMutantCatalogue(engineWithMutators("A"))
+        .hasSome());
+  }
+
+  @Test
+  public void shouldCreateAMutantCatalogueWhenHistoryOutputLocationSet() {
+    this.options.setHistoryOutputLocation(new File("history"));
+    assertTrue(this.testee.createMutantCatalogue(engineWithMutators("A"))
+        .hasSome());
+  }
+
+  @Test
+  public void shouldNotReuseCataloguedMutantsWhenResolvedMutatorsChange()
+      throws IOException {
+    final File history = File.createTempFile("history", ".txt");
+    final File mutants = new File(history.getPath() + "-mutants");
+    try {
+      this.options.setHistoryOutputLocation(history);
+      final byte[] bytes = new byte[] { 1, 2, 3 };
+      this.testee.createMutantCatalogue(engineWithMutators("A")).value()
+          .put(bytes, Collections.<MutationDetails> emptyList());
+
+      assertTrue(this.testee.createMutantCatalogue(engineWithMutators("A"))
+          .value().get(bytes).hasSome());
+      assertFalse(this.testee
+          .createMutantCatalogue(engineWithMutators("A", "B")).value()
+          .get(bytes).hasSome());
+    } finally {
+      final File[] files = mutants.listFiles();
+      if (files != null) {
+        for (final File each : files) {
+          each.delete();
+        }
+      }
+      mutants.delete();
+      history.delete();
+    }
+  }
+
   @Test
   public void shouldReturnEngineWhenRequestedEngineIsKnown() {
     assertTrue(this.testee.createEngine() instanceof GregorEngineFactory);
   }
 
+  @Test
+  public void shouldReturnSchemataEngineWhenRequested() {
+    this.options.setMutationEngine("schemata");
+    assertTrue(this.testee.createEngine() instanceof SchemataEngineFactory);
+  }
+
   @Test(expected = PitError.class)
   public void shouldThrowErrorWhenRequestedEngineNotKnown() {
     this.options.setMutationEngine("unknown");
@@ -101,6 +249,30 @@ public class SettingsFactoryTest {
     final CoverageOptions actual = this.testee.createCoverageOptions();
     assertFalse(actual.getFilter().apply("org/pitest/coverage"));
   }
+
+  @Test
+  public void shouldPassBlockCoverageSettingToCoverageOptions() {
+    this.options.setTargetClasses(Glob.toGlobPredicates(Collections
+        .singleton("com.example.*")));
+    this.options.setBlockCoverage(true);
+    assertTrue(this.testee.createCoverageOptions().isBlockCoverage());
+  }
+
+  @Test
+  public void shouldPassStripedCoverageSettingToCoverageOptions() {
+    this.options.setTargetClasses(Glob.toGlobPredicates(Collections
+        .singleton("com.example.*")));
+    this.options.setStripedCoverage(true);
+    assertTrue(this.testee.createCoverageOptions().isStripedCoverage());
+  }
+
+  @Test
+  public void shouldPassTargetDrivenCoverageSettingToCoverageOptions() {
+    this.options.setTargetClasses(Glob.toGlobPredicates(Collections
+        .singleton("com.example.*")));
+    this.options.setTargetDrivenCoverage(true);
+    assertTrue(this.testee.createCoverageOptions().isTargetDrivenCoverage());
+  }
   
 
   @Test(expected = PitHelpError.class)
@@ -110,5 +282,29 @@ public class SettingsFactoryTest {
     this.testee.createCoverageOptions();
   }
 
-  
+  private void storeCachedCoverage() {
+    final CoverageCache cache = this.testee.createCoverageCache(this.code);
+    cache.recordResult(new CoverageResult(new Description("aTest",
+        this.fooTest.getName().asJavaName()), 42, true, Collections
+        .<ClassStatistics> emptyList()));
+    cache.store();
+  }
+
+  private boolean hasCachedCoverage(final SettingsFactory settings) {
+    return settings.createCoverageCache(this.code).getResults(this.fooTest)
+        .hasSome();
+  }
+
+  private static MutationEngine engineWithMutators(final String... names) {
+    return new MutationEngine() {
+      public Mutater createMutator(final ClassByteArraySource source) {
+        return null;
+      }
+
+      public Collection<String> getMutatorNames() {
+        return Arrays.asList(names);
+      }
+    };
+  }
+
 }
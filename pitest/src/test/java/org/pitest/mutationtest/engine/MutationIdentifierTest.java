@@ -113,5 +113,27 @@ public class MutationIdentifierTest {
     assertEquals(expectedOrder, mis);
     
   }
-  
+
+  @Test
+  public void shouldHaveSameHashCodeWhenCreatedFromSingleIndexOrCollection() {
+    MutationIdentifier a = new MutationIdentifier(aLocation(), 1, "M" );
+    MutationIdentifier b = new MutationIdentifier(aLocation(), Collections.singleton(1), new String("M") );
+    assertEquals(a, b);
+    assertEquals(a.hashCode(), b.hashCode());
+  }
+
+  @Test
+  public void shouldReturnIndexesInOrderGiven() {
+    MutationIdentifier a = new MutationIdentifier(aLocation(), Arrays.asList(3,1,2), "M" );
+    assertEquals(Arrays.asList(3,1,2), a.getIndexes());
+    assertEquals(3, a.getFirstIndex());
+  }
+
+  @Test
+  public void shouldInternMutatorNames() {
+    MutationIdentifier a = new MutationIdentifier(aLocation(), 1, new String("M") );
+    MutationIdentifier b = new MutationIdentifier(aLocation(), 2, new String("M") );
+    assertTrue(a.getMutator() == b.getMutator());
+  }
+
 }
@@ -0,0 +1,48 @@
+package org.pitest.mutationtest.engine.gregor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.pitest.mutationtest.LocationMother.aLocation;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+import org.pitest.mutationtest.engine.MutationDetails;
+import org.pitest.mutationtest.engine.MutationIdentifier;
+
+public class ClassContextTest {
+
+  private final ClassContext testee = new ClassContext();
+
+  @Test
+  public void shouldReturnNoDetailsWhenNoMutationMatches() {
+    this.testee.addMutation(makeDetails(new MutationIdentifier(aLocation(), 1,
+        "M")));
+    assertTrue(this.testee.getMutationDetails(
+        new MutationIdentifier(aLocation(), 2, "M")).isEmpty());
+  }
+
+  @Test
+  public void shouldReturnDetailsForEachIndexOfAMutation() {
+    final MutationDetails details = makeDetails(new MutationIdentifier(
+        aLocation(), Arrays.asList(1, 2), "M"));
+    this.testee.addMutation(details);
+    assertEquals(Collections.singletonList(details),
+        this.testee.getMutationDetails(new MutationIdentifier(aLocation(), 2,
+            "M")));
+  }
+
+  @Test
+  public void shouldNotReturnDetailsForOtherMutators() {
+    this.testee.addMutation(makeDetails(new MutationIdentifier(aLocation(), 1,
+        "M")));
+    assertTrue(this.testee.getMutationDetails(
+        new MutationIdentifier(aLocation(), 1, "OTHER")).isEmpty());
+  }
+
+  private MutationDetails makeDetails(final MutationIdentifier id) {
+    return new MutationDetails(id, "file", "desc", 1, 0);
+  }
+
+}
@@ -15,23 +15,38 @@
 package org.pitest.mutationtest.engine.gregor;
 
 import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 import org.hamcrest.Description;
 import org.hamcrest.Matcher;
 import org.hamcrest.TypeSafeMatcher;
 import org.junit.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.util.Textifier;
+import org.objectweb.asm.util.TraceMethodVisitor;
+import org.pitest.classinfo.ClassName;
+import org.pitest.coverage.codeassist.ClassUtils;
 import org.pitest.functional.F;
 import org.pitest.functional.FCollection;
 import org.pitest.functional.FunctionalList;
 import org.pitest.functional.predicate.True;
+import org.pitest.mutationtest.engine.Mutant;
 import org.pitest.mutationtest.engine.MutationDetails;
+import org.pitest.mutationtest.engine.MutationIdentifier;
 import org.pitest.mutationtest.engine.gregor.config.Mutator;
 import org.pitest.mutationtest.engine.gregor.mutators.IncrementsMutator;
 import org.pitest.mutationtest.engine.gregor.mutators.InvertNegsMutator;
@@ -74,6 +89,120 @@ public class TestGregorMutater extends MutatorTestBase {
 
   }
 
+  @Test
+  public void shouldCreateSameMutantsInBatchAsIndividually() {
+    createTesteeWith(MathMutator.MATH_MUTATOR,
+        ReturnValsMutator.RETURN_VALS_MUTATOR,
+        InvertNegsMutator.INVERT_NEGS_MUTATOR,
+        IncrementsMutator.INCREMENTS_MUTATOR);
+
+    final List<MutationDetails> actualDetails = findMutationsFor(HasMultipleMutations.class);
+    final List<MutationIdentifier> ids = new ArrayList<MutationIdentifier>();
+    for (final MutationDetails each : actualDetails) {
+      ids.add(each.getId());
+    }
+    final F<MutationIdentifier, Mutant> batch = this.engine.getMutations(
+        ClassName.fromClass(HasMultipleMutations.class), ids);
+
+    for (final MutationIdentifier each : ids) {
+      final Mutant expected = this.engine.getMutation(each);
+      final Mutant actual = batch.apply(each);
+      assertEquals(expected.getDetails(), actual.getDetails());
+      assertArrayEquals(expected.getBytes(), actual.getBytes());
+    }
+  }
+
+  @Test
+  public void shouldCreateMutantsWithDetailsMatchingThoseFound() {
+    createTesteeWith(Mutator.byName("INCREMENTS"));
+    final List<MutationDetails> actualDetails = findMutationsFor(TwoMethods.class);
+    for (final MutationDetails each : actualDetails) {
+      final MutationDetails details = this.engine.getMutation(each.getId())
+          .getDetails();
+      assertEquals(each.getBlock(), details.getBlock());
+      assertEquals(each.isInFinallyBlock(), details.isInFinallyBlock());
+    }
+  }
+
+  @Test
+  public void shouldOnlyVisitMutatedMethodWhenCreatingMutant() {
+    final List<String> visited = new ArrayList<String>();
+    createTesteeWith(new MethodMutatorFactory() {
+      public MethodVisitor create(final MutationContext context,
+          final MethodInfo methodInfo, final MethodVisitor methodVisitor) {
+        visited.add(methodInfo.getName());
+        return IncrementsMutator.INCREMENTS_MUTATOR.create(context,
+            methodInfo, methodVisitor);
+      }
+
+      public String getGloballyUniqueId() {
+        return IncrementsMutator.INCREMENTS_MUTATOR.getGloballyUniqueId();
+      }
+
+      public String getName() {
+        return IncrementsMutator.INCREMENTS_MUTATOR.getName();
+      }
+    });
+
+    final MutationIdentifier id = findMutationsFor(TwoMethods.class).get(1)
+        .getId();
+    final F<MutationIdentifier, Mutant> mutants = this.engine.getMutations(
+        ClassName.fromClass(TwoMethods.class), Collections.singleton(id));
+    visited.clear();
+    mutants.apply(id);
+
+    assertEquals(Collections.singletonList(id.getLocation().getMethodName()
+        .name()), visited);
+  }
+
+  @Test
+  public void shouldOnlyScanWithMutatorsOfRequestedMutants() {
+    final List<String> scanned = new ArrayList<String>();
+    createTesteeWith(recording(IncrementsMutator.INCREMENTS_MUTATOR, scanned),
+        recording(MathMutator.MATH_MUTATOR, scanned));
+
+    final List<MutationIdentifier> increments = new ArrayList<MutationIdentifier>();
+    for (final MutationDetails each : findMutationsFor(HasMultipleMutations.class)) {
+      if (each.getMutator().equals(
+          IncrementsMutator.INCREMENTS_MUTATOR.getGloballyUniqueId())) {
+        increments.add(each.getId());
+      }
+    }
+    assertFalse(increments.isEmpty());
+
+    scanned.clear();
+    this.engine.getMutations(ClassName.fromClass(HasMultipleMutations.class),
+        increments);
+
+    assertFalse(scanned.isEmpty());
+    assertFalse(scanned.contains(MathMutator.MATH_MUTATOR.getGloballyUniqueId()));
+  }
+
+  @Test
+  public void shouldCreateMutantsNotInBatchWhenRequested() {
+    createTesteeWith(MathMutator.MATH_MUTATOR,
+        IncrementsMutator.INCREMENTS_MUTATOR);
+    final List<MutationDetails> found = findMutationsFor(HasMultipleMutations.class);
+    MutationIdentifier math = null;
+    MutationIdentifier increment = null;
+    for (final MutationDetails each : found) {
+      if (each.getMutator().equals(MathMutator.MATH_MUTATOR.getGloballyUniqueId())) {
+        math = each.getId();
+      } else {
+        increment = each.getId();
+      }
+    }
+
+    final F<MutationIdentifier, Mutant> batch = this.engine.getMutations(
+        ClassName.fromClass(HasMultipleMutations.class),
+        Collections.singleton(increment));
+
+    final Mutant expected = this.engine.getMutation(math);
+    final Mutant actual = batch.apply(math);
+    assertEquals(expected.getDetails(), actual.getDetails());
+    assertArrayEquals(expected.getBytes(), actual.getBytes());
+  }
+
   @Test
   public void shouldFindNoMutationsWhenNoMutationOperatorsSupplied()
       throws Exception {
@@ -122,6 +251,25 @@ public class TestGregorMutater extends MutatorTestBase {
     assertThat(actualDetails, is(aNonEmptyCollection()));
   }
 
+  private static MethodMutatorFactory recording(
+      final MethodMutatorFactory mutator, final List<String> scanned) {
+    return new MethodMutatorFactory() {
+      public MethodVisitor create(final MutationContext context,
+          final MethodInfo methodInfo, final MethodVisitor methodVisitor) {
+        scanned.add(mutator.getGloballyUniqueId());
+        return mutator.create(context, methodInfo, methodVisitor);
+      }
+
+      public String getGloballyUniqueId() {
+        return mutator.getGloballyUniqueId();
+      }
+
+      public String getName() {
+        return mutator.getName();
+      }
+    };
+  }
+
   private static Matcher<Collection<?>> aNonEmptyCollection() {
     return new TypeSafeMatcher<Collection<?>>() {
 
@@ -216,6 +364,65 @@ public class TestGregorMutater extends MutatorTestBase {
     assertTwoMutationsInDifferentBlocks(actualDetails);
   }
 
+  @Test
+  public void shouldCreateLoadableMutantWithUnmutatedMethodsCopiedUnchanged()
+      throws Exception {
+    createTesteeWith(MathMutator.MATH_MUTATOR);
+    final List<MutationDetails> found = findMutationsFor(MutatedAndUnmutated.class);
+    assertEquals(1, found.size());
+
+    final Mutant mutant = this.engine.getMutation(found.get(0).getId());
+    final Class<?> clazz = defineInNewLoader(mutant.getBytes());
+
+    assertEquals(0, clazz.getMethod("mutated", int.class).invoke(null, 1));
+    assertEquals(2, clazz.getMethod("unmutated", int.class).invoke(null, 5));
+    assertEquals(
+        methodCode(ClassUtils.classAsBytes(MutatedAndUnmutated.class),
+            "unmutated"), methodCode(mutant.getBytes(), "unmutated"));
+  }
+
+  private static Class<?> defineInNewLoader(final byte[] bytes) {
+    return new ClassLoader(TestGregorMutater.class.getClassLoader()) {
+      Class<?> define() {
+        return defineClass(MutatedAndUnmutated.class.getName(), bytes, 0,
+            bytes.length);
+      }
+    }.define();
+  }
+
+  private static String methodCode(final byte[] bytes, final String method) {
+    final Textifier text = new Textifier();
+    new ClassReader(bytes).accept(new ClassVisitor(Opcodes.ASM5) {
+      @Override
+      public MethodVisitor visitMethod(final int access, final String name,
+          final String desc, final String signature, final String[] exceptions) {
+        if (name.equals(method)) {
+          return new TraceMethodVisitor(text);
+        }
+        return null;
+      }
+    }, 0);
+    final StringWriter sw = new StringWriter();
+    text.print(new PrintWriter(sw));
+    return sw.toString();
+  }
+
+  public static class MutatedAndUnmutated {
+    public static int mutated(final int i) {
+      return i + 1;
+    }
+
+    public static int unmutated(final int n) {
+      int count = 0;
+      for (int i = 0; i < n; i++) {
+        if (i > 2) {
+          count++;
+        }
+      }
+      return count;
+    }
+  }
+
   public static class TwoMethods {
     public void a(int i) {
       i++;
@@ -0,0 +1,212 @@
+package org.pitest.mutationtest.engine.schemata;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+import org.pitest.classinfo.ClassName;
+import org.pitest.classpath.ClassPathByteArraySource;
+import org.pitest.functional.F;
+import org.pitest.functional.FCollection;
+import org.pitest.functional.predicate.False;
+import org.pitest.mutationtest.engine.Location;
+import org.pitest.mutationtest.engine.MethodName;
+import org.pitest.mutationtest.engine.Mutant;
+import org.pitest.mutationtest.engine.Mutater;
+import org.pitest.mutationtest.engine.MutationDetails;
+import org.pitest.mutationtest.engine.MutationIdentifier;
+
+import sun.pitest.ActiveMutant;
+
+public class SchemataMutaterTest {
+
+  @After
+  public void tearDown() {
+    ActiveMutant.deactivate();
+  }
+
+  @Test
+  public void shouldBehaveAsUnmutatedClassWhenNoMutantIsActive()
+      throws Exception {
+    final List<Mutant> mutants = createMutants(HasMutations.class, false);
+    assertEquals(HasMutations.describe(),
+        describe(mutants.get(0).getSchema()));
+  }
+
+  @Test
+  public void shouldBehaveAsActiveMutant() throws Exception {
+    final List<Mutant> mutants = createMutants(HasMutations.class, false);
+    assertTrue(mutants.size() > 1);
+    for (final Mutant each : mutants) {
+      ActiveMutant.activate(each.getSchemaId());
+      assertEquals(each.getDetails().toString(), describe(each.getBytes()),
+          describe(each.getSchema()));
+    }
+  }
+
+  @Test
+  public void shouldPlaceAllMutantsOfClassInOneSchema() {
+    final List<Mutant> mutants = createMutants(HasMutations.class, false);
+    for (final Mutant each : mutants) {
+      assertTrue(each.isInSchema());
+      assertSame(mutants.get(0).getSchema(), each.getSchema());
+    }
+  }
+
+  @Test
+  public void shouldGiveEachMutantADifferentSchemaId() {
+    final List<Mutant> mutants = createMutants(HasMutations.class, false);
+    assertEquals(mutants.size(),
+        new HashSet<Integer>(FCollection.map(mutants, toSchemaId())).size());
+  }
+
+  @Test
+  public void shouldNotAddMembersSoSchemaMayBeRedefined() throws Exception {
+    final Class<?> schema = define(createMutants(HasMutations.class, false)
+        .get(0).getSchema());
+    assertEquals(HasMutations.class.getDeclaredMethods().length,
+        schema.getDeclaredMethods().length);
+    assertEquals(HasMutations.class.getDeclaredFields().length,
+        schema.getDeclaredFields().length);
+  }
+
+  @Test
+  public void shouldNotPlaceMutantsInStaticInitializersInSchema() {
+    final List<Mutant> mutants = createMutants(HasStaticInitializer.class,
+        true);
+    assertFalse(mutants.isEmpty());
+    for (final Mutant each : mutants) {
+      assertFalse(each.isInSchema());
+    }
+  }
+
+  @Test
+  public void shouldNotPlaceMutantInSchemaWhenMutatedMethodNotFound() {
+    final ClassPathByteArraySource source = new ClassPathByteArraySource();
+    final byte[] bytes = source.getBytes(HasMutations.class.getName()).value();
+    final Mutater child = new Mutater() {
+      public Mutant getMutation(final MutationIdentifier id) {
+        return new Mutant(new MutationDetails(id, "file", "desc", 1, 0), bytes);
+      }
+
+      public F<MutationIdentifier, Mutant> getMutations(final ClassName clazz,
+          final Collection<MutationIdentifier> ids) {
+        return new F<MutationIdentifier, Mutant>() {
+          public Mutant apply(final MutationIdentifier id) {
+            return getMutation(id);
+          }
+        };
+      }
+
+      public List<MutationDetails> findMutations(final ClassName clazz) {
+        return Collections.emptyList();
+      }
+    };
+    final ClassName clazz = ClassName.fromClass(HasMutations.class);
+    final MutationIdentifier found = new MutationIdentifier(Location.location(
+        clazz, MethodName.fromString("add"), "(I)I"), 1, "mutator");
+    final MutationIdentifier missing = new MutationIdentifier(
+        Location.location(clazz, MethodName.fromString("missing"), "()V"), 1,
+        "mutator");
+
+    final F<MutationIdentifier, Mutant> mutants = new SchemataMutater(source,
+        child).getMutations(clazz, Arrays.asList(found, missing));
+
+    assertTrue(mutants.apply(found).isInSchema());
+    assertFalse(mutants.apply(missing).isInSchema());
+    assertSame(bytes, mutants.apply(missing).getBytes());
+  }
+
+  private List<Mutant> createMutants(final Class<?> clazz,
+      final boolean mutateStaticInitializers) {
+    final Mutater testee = new SchemataEngineFactory().createEngine(
+        mutateStaticInitializers, False.<String> instance(),
+        Collections.<String> emptyList(), Collections.<String> emptyList(),
+        false).createMutator(new ClassPathByteArraySource());
+    final List<MutationDetails> details = testee.findMutations(ClassName
+        .fromClass(clazz));
+    final F<MutationIdentifier, Mutant> mutants = testee.getMutations(
+        ClassName.fromClass(clazz), FCollection.map(details, toId()));
+    return FCollection.map(FCollection.map(details, toId()), mutants);
+  }
+
+  private static F<MutationDetails, MutationIdentifier> toId() {
+    return new F<MutationDetails, MutationIdentifier>() {
+      public MutationIdentifier apply(final MutationDetails a) {
+        return a.getId();
+      }
+    };
+  }
+
+  private static F<Mutant, Integer> toSchemaId() {
+    return new F<Mutant, Integer>() {
+      public Integer apply(final Mutant a) {
+        return a.getSchemaId();
+      }
+    };
+  }
+
+  private static String describe(final byte[] bytes) throws Exception {
+    try {
+      return String.valueOf(define(bytes).getMethod("describe").invoke(null));
+    } catch (final InvocationTargetException ex) {
+      return ex.getCause().getClass().getName();
+    }
+  }
+
+  private static Class<?> define(final byte[] bytes) {
+    return new ClassLoader(
+        SchemataMutaterTest.class.getClassLoader()) {
+      Class<?> define() {
+        return defineClass(HasMutations.class.getName(), bytes, 0,
+            bytes.length);
+      }
+    }.define();
+  }
+
+  public static class HasMutations {
+    private final int base;
+
+    public HasMutations(final int base) {
+      this.base = base > 0 ? base : 1;
+    }
+
+    public int add(final int i) {
+      return this.base + i;
+    }
+
+    public int clamp(final int i) {
+      try {
+        if (i > 10) {
+          throw new IllegalArgumentException();
+        }
+        return i;
+      } catch (final IllegalArgumentException ex) {
+        return 10;
+      }
+    }
+
+    public static String describe() {
+      final HasMutations h = new HasMutations(2);
+      return h.base + "," + h.add(3) + "," + h.clamp(5) + "," + h.clamp(11);
+    }
+  }
+
+  public static class HasStaticInitializer {
+    static int value;
+    static {
+      value = Integer.parseInt("1") + 1;
+    }
+  }
+
+}
@@ -0,0 +1,107 @@
+package org.pitest.mutationtest.execute;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.pitest.classinfo.ClassName;
+import org.pitest.classpath.ClassloaderByteArraySource;
+import org.pitest.functional.F2;
+
+public class HotSwapTest {
+
+  private final ClassLoader  loader    = HotSwapTest.class.getClassLoader();
+  private final ClassName    foo       = ClassName.fromClass(Foo.class);
+  private final ClassName    bar       = ClassName.fromClass(Bar.class);
+  private final byte[]       schema    = new byte[1];
+  private final byte[]       mutant    = new byte[1];
+
+  private final List<byte[]> redefined = new ArrayList<byte[]>();
+  private boolean            succeed   = true;
+
+  private HotSwap            testee;
+
+  @Before
+  public void setUp() {
+    this.testee = new HotSwap(new ClassloaderByteArraySource(this.loader),
+        new F2<Class<?>, byte[], Boolean>() {
+          public Boolean apply(final Class<?> clazz, final byte[] bytes) {
+            HotSwapTest.this.redefined.add(bytes);
+            return HotSwapTest.this.succeed;
+          }
+        });
+  }
+
+  @Test
+  public void shouldRedefineClassWhenSchemaFirstInstalled() {
+    assertTrue(this.testee.apply(this.foo, this.loader, this.schema));
+    assertRedefinedWith(this.schema);
+  }
+
+  @Test
+  public void shouldNotRedefineClassAgainForSchemaAlreadyInstalled() {
+    this.testee.apply(this.foo, this.loader, this.schema);
+    assertTrue(this.testee.apply(this.foo, this.loader, this.schema));
+    assertRedefinedWith(this.schema);
+  }
+
+  @Test
+  public void shouldReinstallSchemaAfterMutantInSameClass() {
+    this.testee.apply(this.foo, this.loader, this.schema);
+    this.testee.apply(this.foo, this.loader, this.schema);
+    this.testee.apply(this.foo, this.loader, this.mutant);
+    assertTrue(this.testee.apply(this.foo, this.loader, this.schema));
+    assertRedefinedWith(this.schema, this.mutant, this.schema);
+  }
+
+  @Test
+  public void shouldReinstallSchemaAfterMutantInOtherLoader() {
+    final ClassLoader other = new ClassLoader(this.loader) {
+    };
+    this.testee.apply(this.foo, this.loader, this.schema);
+    this.testee.apply(this.foo, other, this.mutant);
+    this.testee.apply(this.foo, this.loader, this.schema);
+    assertRedefinedWith(this.schema, this.mutant, this.schema);
+  }
+
+  @Test
+  public void shouldInstallSchemaAgainWhenRedefinitionFailed() {
+    this.succeed = false;
+    assertFalse(this.testee.apply(this.foo, this.loader, this.schema));
+    this.succeed = true;
+    assertTrue(this.testee.apply(this.foo, this.loader, this.schema));
+    assertRedefinedWith(this.schema, this.schema);
+  }
+
+  @Test
+  public void shouldRestoreUnmutatedClassWhenMovingToNextClass() {
+    final byte[] unmutated = new ClassloaderByteArraySource(this.loader)
+        .getBytes(Foo.class.getName()).value();
+    this.testee.apply(this.foo, this.loader, this.schema);
+    this.testee.apply(this.bar, this.loader, this.mutant);
+    assertEquals(4, this.redefined.size());
+    assertArrayEquals(unmutated, this.redefined.get(1));
+    assertSame(this.mutant, this.redefined.get(3));
+  }
+
+  private void assertRedefinedWith(final byte[]... expected) {
+    assertEquals(expected.length, this.redefined.size());
+    for (int i = 0; i != expected.length; i++) {
+      assertSame(expected[i], this.redefined.get(i));
+    }
+  }
+
+  static class Foo {
+  }
+
+  static class Bar {
+  }
+
+}
@@ -0,0 +1,118 @@
+package org.pitest.mutationtest.execute;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.pitest.mutationtest.LocationMother.aLocation;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.pitest.classinfo.ClassName;
+import org.pitest.functional.F;
+import org.pitest.mutationtest.engine.Mutant;
+import org.pitest.mutationtest.engine.Mutater;
+import org.pitest.mutationtest.engine.MutationDetails;
+import org.pitest.mutationtest.engine.MutationIdentifier;
+import org.pitest.util.PitError;
+
+public class MutantPrefetcherTest {
+
+  private MutantPrefetcher  testee;
+
+  @Mock
+  private Mutater           mutater;
+
+  private final Set<Thread> creatingThreads = new HashSet<Thread>();
+
+  @Before
+  public void setUp() {
+    MockitoAnnotations.initMocks(this);
+    when(
+        this.mutater.getMutations(any(ClassName.class),
+            anyCollectionOf(MutationIdentifier.class))).thenReturn(
+        new F<MutationIdentifier, Mutant>() {
+          public Mutant apply(final MutationIdentifier a) {
+            MutantPrefetcherTest.this.creatingThreads.add(Thread
+                .currentThread());
+            return new Mutant(makeMutation(a), new byte[0]);
+          }
+        });
+  }
+
+  @After
+  public void tearDown() {
+    if (this.testee != null) {
+      this.testee.close();
+    }
+  }
+
+  @Test
+  public void shouldReturnMutantsInOrderOfRange() {
+    final MutationDetails one = makeMutation("foo", 1);
+    final MutationDetails two = makeMutation("foo", 2);
+    final MutationDetails three = makeMutation("bar", 1);
+    this.testee = new MutantPrefetcher(this.mutater, Arrays.asList(one, two,
+        three));
+    assertEquals(one, this.testee.next().getDetails());
+    assertEquals(two, this.testee.next().getDetails());
+    assertEquals(three, this.testee.next().getDetails());
+  }
+
+  @Test
+  public void shouldRequestMutantsForEachClassOnlyOnce() {
+    final MutationDetails one = makeMutation("foo", 1);
+    final MutationDetails two = makeMutation("foo", 2);
+    final MutationDetails three = makeMutation("bar", 1);
+    this.testee = new MutantPrefetcher(this.mutater, Arrays.asList(one, two,
+        three));
+    this.testee.next();
+    this.testee.next();
+    this.testee.next();
+    verify(this.mutater).getMutations(ClassName.fromString("foo"),
+        Arrays.asList(one.getId(), two.getId()));
+    verify(this.mutater).getMutations(ClassName.fromString("bar"),
+        Arrays.asList(three.getId()));
+  }
+
+  @Test
+  public void shouldCreateMutantsOffTheCallingThread() {
+    this.testee = new MutantPrefetcher(this.mutater, Arrays.asList(
+        makeMutation("foo", 1), makeMutation("foo", 2)));
+    this.testee.next();
+    this.testee.next();
+    assertEquals(1, this.creatingThreads.size());
+    assertFalse(this.creatingThreads.contains(Thread.currentThread()));
+  }
+
+  @Test(expected = PitError.class)
+  public void shouldPropagateErrorsRaisedWhenCreatingMutant() {
+    when(
+        this.mutater.getMutations(any(ClassName.class),
+            anyCollectionOf(MutationIdentifier.class))).thenThrow(
+        new PitError("oops"));
+    this.testee = new MutantPrefetcher(this.mutater,
+        Collections.singletonList(makeMutation("foo", 1)));
+    this.testee.next();
+  }
+
+  private MutationDetails makeMutation(final String clazz, final int index) {
+    return makeMutation(new MutationIdentifier(aLocation().withClass(clazz),
+        index, "mutator"));
+  }
+
+  private static MutationDetails makeMutation(final MutationIdentifier id) {
+    return new MutationDetails(id, "sourceFile", "desc", 42, 0);
+  }
+
+}
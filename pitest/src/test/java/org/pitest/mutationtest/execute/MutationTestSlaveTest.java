@@ -59,7 +59,7 @@ public class MutationTestSlaveTest {
     this.tests = new ArrayList<ClassName>();
 
     this.args = new SlaveArguments(this.mutations, this.tests, this.engine,
-        this.timeoutStrategy, false, this.testConfig);
+        this.timeoutStrategy, false, this.testConfig, null);
 
     when(this.is.read(SlaveArguments.class)).thenReturn(this.args);
     when(this.engine.createMutator(any(ClassByteArraySource.class)))
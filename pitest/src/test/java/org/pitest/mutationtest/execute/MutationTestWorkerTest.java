@@ -1,6 +1,8 @@
 package org.pitest.mutationtest.execute;
 
+import static org.junit.Assert.assertEquals;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.pitest.mutationtest.LocationMother.aLocation;
@@ -19,6 +21,7 @@ import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.pitest.classinfo.ClassName;
+import org.pitest.functional.F;
 import org.pitest.functional.F3;
 import org.pitest.mutationtest.DetectionStatus;
 import org.pitest.mutationtest.MutationStatusTestPair;
@@ -30,6 +33,8 @@ import org.pitest.testapi.Description;
 import org.pitest.testapi.ResultCollector;
 import org.pitest.testapi.TestUnit;
 
+import sun.pitest.ActiveMutant;
+
 public class MutationTestWorkerTest {
 
   private MutationTestWorker                       testee;
@@ -52,6 +57,14 @@ public class MutationTestWorkerTest {
   @Before
   public void setUp() {
     MockitoAnnotations.initMocks(this);
+    when(
+        this.mutater.getMutations(any(ClassName.class),
+            anyCollectionOf(MutationIdentifier.class))).thenReturn(
+        new F<MutationIdentifier, Mutant>() {
+          public Mutant apply(final MutationIdentifier a) {
+            return MutationTestWorkerTest.this.mutater.getMutation(a);
+          }
+        });
     this.testee = new MutationTestWorker(this.hotswapper, this.mutater,
         this.loader);
   }
@@ -67,6 +80,20 @@ public class MutationTestWorkerTest {
     verify(this.reporter).describe(mutantTwo.getId());
   }
 
+  @Test
+  public void shouldRequestMutantsForEachClassOnlyOnce() throws IOException {
+    final MutationDetails mutantOne = makeMutant("foo", 1);
+    final MutationDetails mutantTwo = makeMutant("foo", 2);
+    final MutationDetails mutantThree = makeMutant("bar", 1);
+    final Collection<MutationDetails> range = Arrays.asList(mutantOne,
+        mutantTwo, mutantThree);
+    this.testee.run(range, this.reporter, this.testSource);
+    verify(this.mutater).getMutations(ClassName.fromString("foo"),
+        Arrays.asList(mutantOne.getId(), mutantTwo.getId()));
+    verify(this.mutater).getMutations(ClassName.fromString("bar"),
+        Arrays.asList(mutantThree.getId()));
+  }
+
   @Test
   @Ignore("disabled while checking coverage issue")
   public void shouldReportNoCoverageForMutationWithNoTestCoverage()
@@ -129,6 +156,57 @@ public class MutationTestWorkerTest {
             .getDescription().getName()));
   }
 
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shouldActivateMutantsHeldInSchema() throws IOException {
+    final byte[] schema = new byte[1];
+    final MutationDetails mutantOne = makeMutantInSchema("foo", 1, schema, 42);
+    final int[] activeDuringTest = new int[1];
+    final TestUnit tu = makeTestRecordingActiveMutant(activeDuringTest);
+    when(this.testSource.translateTests(any(List.class))).thenReturn(
+        Collections.singletonList(tu));
+    when(this.hotswapper.apply(any(ClassName.class), any(ClassLoader.class),
+        any(byte[].class))).thenReturn(true);
+    this.testee.run(Arrays.asList(mutantOne), this.reporter, this.testSource);
+    verify(this.hotswapper).apply(mutantOne.getClassName(), this.loader,
+        schema);
+    assertEquals(42, activeDuringTest[0]);
+    assertEquals(ActiveMutant.NONE, ActiveMutant.id);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shouldReplaceClassWithMutantWhenSchemaCannotBeInstalled()
+      throws IOException {
+    final byte[] schema = new byte[1];
+    final MutationDetails mutantOne = makeMutantInSchema("foo", 1, schema, 42);
+    when(this.testSource.translateTests(any(List.class))).thenReturn(
+        Collections.singletonList(makePassingTest()));
+    when(this.hotswapper.apply(any(ClassName.class), any(ClassLoader.class),
+        any(byte[].class))).thenReturn(false, true);
+    this.testee.run(Arrays.asList(mutantOne), this.reporter, this.testSource);
+    verify(this.hotswapper).apply(mutantOne.getClassName(), this.loader,
+        this.mutater.getMutation(mutantOne.getId()).getBytes());
+    verify(this.reporter).report(mutantOne.getId(),
+        new MutationStatusTestPair(1, DetectionStatus.SURVIVED));
+  }
+
+  private TestUnit makeTestRecordingActiveMutant(final int[] active) {
+    return new TestUnit() {
+
+      public void execute(final ClassLoader loader, final ResultCollector rc) {
+        rc.notifyStart(getDescription());
+        active[0] = ActiveMutant.id;
+        rc.notifyEnd(getDescription());
+      }
+
+      public Description getDescription() {
+        return new Description("atest");
+      }
+
+    };
+  }
+
   private TestUnit makeFailingTest() {
     return new TestUnit() {
 
@@ -170,4 +248,16 @@ public class MutationTestWorkerTest {
     return md;
   }
 
+  private MutationDetails makeMutantInSchema(final String clazz,
+      final int index, final byte[] schema, final int schemaId) {
+    final MutationDetails md = new MutationDetails(new MutationIdentifier(
+        aLocation().withClass(clazz), index, "mutator"), "sourceFile", "desc",
+        42, 0);
+
+    when(this.mutater.getMutation(md.getId())).thenReturn(
+        new Mutant(md, new byte[0], schema, schemaId));
+
+    return md;
+  }
+
 }
@@ -31,6 +31,8 @@ import org.pitest.mutationtest.ClassHistory;
 import org.pitest.mutationtest.DetectionStatus;
 import org.pitest.mutationtest.MutationResult;
 import org.pitest.mutationtest.MutationStatusTestPair;
+import org.pitest.mutationtest.engine.Location;
+import org.pitest.mutationtest.engine.MethodName;
 import org.pitest.mutationtest.engine.MutationIdentifier;
 import org.pitest.mutationtest.report.MutationTestResultMother;
 
@@ -105,6 +107,25 @@ public class XStreamHistoryStoreTest {
     assertEquals(expected, this.testee.getHistoricResults());
   }
 
+  @Test
+  public void shouldReadResultsInExistingFormat() {
+    final String history = "0\n"
+        + "<result><id><location><clazz><name>foo</name></clazz><method><name>bar</name></method>"
+        + "<methodDesc>()V</methodDesc></location><indexes><int>1</int><int>2</int></indexes>"
+        + "<mutator>MUT</mutator></id><status numberOfTestsRun=\"1\" status=\"KILLED\">"
+        + "<killingTest class=\"org.pitest.functional.Option$Some\"><value class=\"string\">"
+        + "testName</value></killingTest></status></result>\n";
+    this.testee = new XStreamHistoryStore(this.writerFactory,
+        Option.<Reader> some(new StringReader(history)));
+    this.testee.initialize();
+
+    final MutationIdentifier expected = new MutationIdentifier(
+        Location.location(ClassName.fromString("foo"),
+            MethodName.fromString("bar"), "()V"), Arrays.asList(1, 2), "MUT");
+    assertEquals(new MutationStatusTestPair(1, DetectionStatus.KILLED,
+        "testName"), this.testee.getHistoricResults().get(expected));
+  }
+
   @Test
   public void shouldNotAttemptToWriteToFileWhenNoneSupplied() {
     try {
@@ -0,0 +1,123 @@
+package org.pitest.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.pitest.classinfo.ClassByteArraySource;
+import org.pitest.classinfo.ClassName;
+import org.pitest.classpath.ClassloaderByteArraySource;
+import org.pitest.functional.Option;
+
+public class TypeHierarchyTest {
+
+  private final RecordingSource source  = new RecordingSource();
+
+  private final TypeHierarchy   testee  = new TypeHierarchy();
+
+  private File                  location;
+
+  static interface AnInterface {
+
+  }
+
+  static class Parent {
+
+  }
+
+  static class Child extends Parent implements AnInterface, Serializable {
+    private static final long serialVersionUID = 1L;
+  }
+
+  @Before
+  public void setUp() throws IOException {
+    this.location = File.createTempFile("hierarchy", ".bin");
+    this.location.delete();
+  }
+
+  @After
+  public void tearDown() {
+    this.location.delete();
+  }
+
+  @Test
+  public void shouldReadSuperClassInterfacesAndKindOfType() {
+    assertEquals(nameOf(Parent.class),
+        this.testee.getSuperName(nameOf(Child.class), this.source));
+    assertArrayEquals(
+        new String[] { nameOf(AnInterface.class), nameOf(Serializable.class) },
+        this.testee.getInterfaces(nameOf(Child.class), this.source));
+    assertFalse(this.testee.isInterface(nameOf(Child.class), this.source));
+    assertTrue(this.testee.isInterface(nameOf(AnInterface.class), this.source));
+  }
+
+  @Test
+  public void shouldReadEachTypeOnlyOnce() {
+    this.testee.getSuperName(nameOf(Child.class), this.source);
+    this.testee.getInterfaces(nameOf(Child.class), this.source);
+    this.testee.isInterface(nameOf(Child.class), this.source);
+    assertEquals(1, this.source.requested.size());
+  }
+
+  @Test
+  public void shouldNotReadTypesLoadedFromFile() {
+    this.testee.getSuperName(nameOf(Child.class), this.source);
+    this.testee.getSuperName(nameOf(Object.class), this.source);
+    this.testee.store(this.location);
+
+    final TypeHierarchy loaded = new TypeHierarchy();
+    loaded.load(this.location);
+    final RecordingSource unused = new RecordingSource();
+
+    assertEquals(nameOf(Parent.class),
+        loaded.getSuperName(nameOf(Child.class), unused));
+    assertArrayEquals(
+        new String[] { nameOf(AnInterface.class), nameOf(Serializable.class) },
+        loaded.getInterfaces(nameOf(Child.class), unused));
+    assertEquals(null, loaded.getSuperName(nameOf(Object.class), unused));
+    assertTrue(unused.requested.isEmpty());
+  }
+
+  @Test
+  public void shouldLoadNothingWhenFileDoesNotExist() {
+    this.testee.load(this.location);
+    assertEquals(0, this.testee.size());
+  }
+
+  @Test
+  public void shouldIgnoreUnreadableFile() throws IOException {
+    final FileOutputStream out = new FileOutputStream(this.location);
+    out.write(new byte[] { 1, 2, 3 });
+    out.close();
+    this.testee.load(this.location);
+    assertEquals(0, this.testee.size());
+  }
+
+  private static String nameOf(final Class<?> clazz) {
+    return ClassName.fromClass(clazz).asInternalName();
+  }
+
+  private static class RecordingSource implements ClassByteArraySource {
+    private final List<String>         requested = new ArrayList<String>();
+    private final ClassByteArraySource child     = new ClassloaderByteArraySource(
+                                                     IsolationUtils
+                                                         .getContextClassLoader());
+
+    public Option<byte[]> getBytes(final String clazz) {
+      this.requested.add(clazz);
+      return this.child.getBytes(clazz);
+    }
+  }
+
+}
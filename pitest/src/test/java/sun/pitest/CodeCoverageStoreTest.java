@@ -15,6 +15,7 @@
 package sun.pitest;
 
 import static org.hamcrest.core.IsNot.not;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
@@ -22,6 +23,7 @@ import static org.junit.Assert.assertThat;
 import static org.junit.matchers.JUnitMatchers.hasItems;
 import static org.mockito.Mockito.verify;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.ConcurrentModificationException;
@@ -30,6 +32,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.junit.After;
 import org.junit.Before;
@@ -126,6 +129,37 @@ public class CodeCoverageStoreTest {
             CodeCoverageStore.encode(fooId, 20)));
   }
 
+  @Test
+  public void shouldReturnIndexesOfProbesHitByClass() {
+    final int classId = CodeCoverageStore.registerClass("foo");
+    CodeCoverageStore.registerClassProbes(classId, new int[] { 10, 10, 11 });
+
+    CodeCoverageStore.visitProbes(classId, 0, new boolean[] { false, true,
+        true });
+
+    assertArrayEquals(new int[] { classId, 1, 2 }, CodeCoverageStore
+        .getProbeHitsByClass().get(0));
+  }
+
+  @Test
+  public void shouldRecordProbesFlaggedInMaskFromOffset() {
+    final int classId = CodeCoverageStore.registerClass("foo");
+    final int[] lines = new int[40];
+    for (int i = 0; i != lines.length; i++) {
+      lines[i] = i;
+    }
+    CodeCoverageStore.registerClassProbes(classId, lines);
+
+    CodeCoverageStore.visitProbeMask(classId, 0, 0);
+    assertEquals(Collections.emptyList(), CodeCoverageStore.getHits());
+
+    CodeCoverageStore.visitProbeMask(classId, 0, 1 | (1 << 31));
+    CodeCoverageStore.visitProbeMask(classId, 32, 1 << 7);
+
+    assertArrayEquals(new int[] { classId, 0, 31, 39 }, CodeCoverageStore
+        .getProbeHitsByClass().get(0));
+  }
+
   @Test
   public void shouldClearHitCountersWhenReset() {
     final int classId = CodeCoverageStore.registerClass("foo");
@@ -138,6 +172,163 @@ public class CodeCoverageStoreTest {
     assertEquals(Collections.emptyList(), actual);
   }
 
+  @Test
+  public void shouldReportHitsForClassesVisitedAgainAfterReset() {
+    final int fooId = CodeCoverageStore.registerClass("foo");
+    final int barId = CodeCoverageStore.registerClass("bar");
+    CodeCoverageStore.registerClassProbes(fooId, new int[] { 10 });
+    CodeCoverageStore.registerClassProbes(barId, new int[] { 20 });
+
+    CodeCoverageStore.visitSingleProbe(fooId, 0);
+    CodeCoverageStore.visitSingleProbe(barId, 0);
+    CodeCoverageStore.reset();
+    CodeCoverageStore.visitSingleProbe(barId, 0);
+
+    final Collection<Long> actual = CodeCoverageStore.getHits();
+    assertEquals(Collections.singletonList(CodeCoverageStore.encode(barId, 20)),
+        actual);
+  }
+
+  @Test
+  public void shouldReturnHitsForClassesRegisteredBeyondInitialCapacity() {
+    int classId = 0;
+    for (int i = 0; i != 2000; i++) {
+      classId = CodeCoverageStore.registerClass("foo" + i);
+      CodeCoverageStore.registerClassProbes(classId, new int[] { i });
+    }
+
+    CodeCoverageStore.visitSingleProbe(classId, 0);
+
+    final Collection<Long> actual = CodeCoverageStore.getHits();
+    assertEquals(Collections.singletonList(CodeCoverageStore.encode(classId,
+        1999)), actual);
+  }
+
+  @Test
+  public void shouldMergeHitsRecordedByEachThreadWhenStriped()
+      throws InterruptedException {
+    CodeCoverageStore.init(this.receiver, true);
+    final int classId = CodeCoverageStore.registerClass("foo");
+    CodeCoverageStore.registerClassProbes(classId, new int[] { 10, 20, 30 });
+
+    CodeCoverageStore.visitSingleProbe(classId, 0);
+    final Thread other = new Thread() {
+      @Override
+      public void run() {
+        CodeCoverageStore.visitSingleProbe(classId, 2);
+      }
+    };
+    other.start();
+    other.join();
+
+    assertArrayEquals(new int[] { classId, 0, 2 }, CodeCoverageStore
+        .getProbeHitsByClass().get(0));
+  }
+
+  @Test
+  public void shouldClearHitsRecordedByEachThreadWhenStripedAndReset() {
+    CodeCoverageStore.init(this.receiver, true);
+    final int fooId = CodeCoverageStore.registerClass("foo");
+    final int barId = CodeCoverageStore.registerClass("bar");
+    CodeCoverageStore.registerClassProbes(fooId, new int[] { 10 });
+    CodeCoverageStore.registerClassProbes(barId, new int[] { 20 });
+
+    CodeCoverageStore.visitSingleProbe(fooId, 0);
+    CodeCoverageStore.reset();
+    CodeCoverageStore.visitSingleProbe(barId, 0);
+
+    assertEquals(Collections.singletonList(CodeCoverageStore.encode(barId, 20)),
+        CodeCoverageStore.getHits());
+  }
+
+  @Test
+  public void shouldReturnHitsForClassesBeyondInitialCapacityWhenStriped() {
+    CodeCoverageStore.init(this.receiver, true);
+    int classId = 0;
+    for (int i = 0; i != 2000; i++) {
+      classId = CodeCoverageStore.registerClass("foo" + i);
+      CodeCoverageStore.registerClassProbes(classId, new int[] { i });
+    }
+
+    CodeCoverageStore.visitProbes(classId, 0, true);
+
+    assertEquals(Collections.singletonList(CodeCoverageStore.encode(classId,
+        1999)), CodeCoverageStore.getHits());
+  }
+
+  @Test
+  public void shouldNotReportStaleHitsFromLongLivedThreadWhenStripedAndMergedConcurrently()
+      throws InterruptedException, ExecutionException {
+    CodeCoverageStore.init(this.receiver, true);
+    final int classId = CodeCoverageStore.registerClass("foo");
+    final int lastProbe = 2000;
+    CodeCoverageStore.registerClassProbes(classId, new int[lastProbe + 1]);
+    final boolean[] allButLastProbe = new boolean[lastProbe];
+    Arrays.fill(allButLastProbe, true);
+
+    // a single pool thread is shared by every "test", as in a thread pool
+    final ExecutorService pool = Executors.newSingleThreadExecutor();
+    try {
+      final AtomicBoolean running = new AtomicBoolean(true);
+      final Future<?> hammer = pool.submit(new Runnable() {
+        public void run() {
+          while (running.get()) {
+            CodeCoverageStore.visitProbes(classId, 0, allButLastProbe);
+          }
+        }
+      });
+      for (int i = 0; i != 2000; i++) {
+        CodeCoverageStore.getProbeHitsByClass();
+        CodeCoverageStore.reset();
+      }
+      running.set(false);
+      hammer.get();
+
+      CodeCoverageStore.reset();
+      pool.submit(new Runnable() {
+        public void run() {
+          CodeCoverageStore.visitSingleProbe(classId, lastProbe);
+        }
+      }).get();
+
+      assertEquals(1, CodeCoverageStore.getProbeHitsByClass().size());
+      assertArrayEquals(new int[] { classId, lastProbe }, CodeCoverageStore
+          .getProbeHitsByClass().get(0));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void shouldNotLoseHitsRecordedWhileMergingWhenStriped()
+      throws InterruptedException, ExecutionException {
+    CodeCoverageStore.init(this.receiver, true);
+    final int classId = CodeCoverageStore.registerClass("foo");
+    final int numberOfProbes = 200000;
+    CodeCoverageStore.registerClassProbes(classId, new int[numberOfProbes]);
+
+    final ExecutorService pool = Executors.newSingleThreadExecutor();
+    try {
+      final Future<?> writer = pool.submit(new Runnable() {
+        public void run() {
+          for (int i = 0; i != numberOfProbes; i++) {
+            CodeCoverageStore.visitSingleProbe(classId, i);
+          }
+        }
+      });
+      while (!writer.isDone()) {
+        CodeCoverageStore.getProbeHitsByClass();
+      }
+      writer.get();
+
+      // the hits of every merge accumulate in the shared table until reset
+      assertEquals(numberOfProbes + 1, CodeCoverageStore
+          .getProbeHitsByClass().get(0).length);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
   @Test
   public void shouldBeSafeToAccessAcrossMultipleThreads()
       throws InterruptedException, ExecutionException {